@@ -0,0 +1,156 @@
+package sv.medicit.app.Benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import sv.medicit.app.AppApplication;
+import sv.medicit.app.DTOs.UsuarioCreacionDTO;
+import sv.medicit.app.Entidades.Citas;
+import sv.medicit.app.Entidades.Contrasenias;
+import sv.medicit.app.Entidades.Correos;
+import sv.medicit.app.Entidades.Estados;
+import sv.medicit.app.Entidades.Roles;
+import sv.medicit.app.Entidades.Usuarios;
+import sv.medicit.app.Servicios.UsuariosService;
+import sv.medicit.app.Utilidades.EncriptacionUtil;
+
+/**
+ * Aplicación compartida por los benchmarks: un contexto de Spring por fork, con el perfil "test"
+ * (H2 en memoria en modo MySQL) y sin servidor web.
+ *
+ * Roles, estados, especialidades y permisos se cargan de DATA_SEEDS.sql al arrancar (antes de que
+ * se llenen las cachés de catálogos). Los usuarios de ese archivo no coinciden con el esquema
+ * (contraseña y correo viven en sus propias tablas), así esos INSERT fallan y se omiten; los tres
+ * usuarios de ejemplo se crean con UsuariosService y se agregan jmh.usuarios usuarios más con
+ * correo, contraseña y diez citas cada paciente.
+ *
+ * Parámetros (-D): jmh.usuarios (1000), jmh.costo (costo BCrypt, 10), jmh.semillas (../../DATA_SEEDS.sql).
+ */
+@State(Scope.Benchmark)
+public class EstadoAplicacion {
+
+    public static final String USUARIO = "juanperez";
+
+    public static final String CONTRASENIA = "password123";
+
+    // IDs de DATA_SEEDS.sql
+    public static final int ROL_PACIENTE = 1;
+
+    public static final int ROL_MEDICO = 2;
+
+    public static final int ROL_ADMINISTRADOR = 3;
+
+    private static final int ESTADO_ACTIVO = 1;
+
+    private static final int ESTADO_PENDIENTE = 3;
+
+    private static final int CITAS_POR_PACIENTE = 10;
+
+    public ConfigurableApplicationContext contexto;
+
+    // Usuario "admin" de DATA_SEEDS.sql
+    public Integer idUsuarioAdministrador;
+
+    // Primer paciente generado (tiene citas)
+    public Integer idPacienteConCitas;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        String semillas = System.getProperty("jmh.semillas", "../../DATA_SEEDS.sql");
+        contexto = new SpringApplicationBuilder(AppApplication.class)
+            .profiles("test")
+            .web(WebApplicationType.NONE)
+            .run(
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--medicit.encriptacion.costo=" + System.getProperty("jmh.costo", "10"),
+                "--spring.jpa.defer-datasource-initialization=true",
+                "--spring.sql.init.mode=always",
+                "--spring.sql.init.encoding=UTF-8",
+                "--spring.sql.init.data-locations=file:" + semillas,
+                "--spring.sql.init.continue-on-error=true");
+        crearUsuarios(Integer.getInteger("jmh.usuarios", 1000));
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    public <T> T bean(Class<T> tipo) {
+        return contexto.getBean(tipo);
+    }
+
+    private void crearUsuarios(int total) {
+        UsuariosService usuariosService = bean(UsuariosService.class);
+        usuariosService.crearUsuarioCompleto(usuarioDeEjemplo(USUARIO, "Juan", "Pérez García", "juan.perez@email.com", ROL_PACIENTE));
+        usuariosService.crearUsuarioCompleto(usuarioDeEjemplo("drmartinez", "Carlos", "Martínez López", "dr.martinez@email.com", ROL_MEDICO));
+        idUsuarioAdministrador = usuariosService.crearUsuarioCompleto(
+            usuarioDeEjemplo("admin", "Administrador", "Sistema", "admin@medicit.com", ROL_ADMINISTRADOR)).getIdUsuario();
+
+        // Un solo hash para todos: el costo de BCrypt se mide en LoginBenchmark, no al preparar datos
+        String hash = bean(EncriptacionUtil.class).encriptarContrasenia(CONTRASENIA);
+        TransactionTemplate transaccion = bean(TransactionTemplate.class);
+        idPacienteConCitas = transaccion.execute(estado -> {
+            EntityManager em = bean(EntityManager.class);
+            Roles paciente = em.getReference(Roles.class, ROL_PACIENTE);
+            Roles medico = em.getReference(Roles.class, ROL_MEDICO);
+            Estados activo = em.getReference(Estados.class, ESTADO_ACTIVO);
+            Estados pendiente = em.getReference(Estados.class, ESTADO_PENDIENTE);
+
+            List<Usuarios> medicos = new ArrayList<>();
+            List<Usuarios> pacientes = new ArrayList<>();
+            for (int i = 0; i < total; i++) {
+                boolean esMedico = i % 10 == 0;
+                Usuarios usuario = new Usuarios(null, "bench" + i, "Nombre" + i, "Apellido" + i, null, new Date(),
+                    esMedico ? medico : paciente, activo, new ArrayList<>(), null, null);
+                em.persist(usuario);
+                em.persist(new Correos(null, usuario, "bench" + i + "@medicit.test"));
+                em.persist(new Contrasenias(null, usuario, hash));
+                (esMedico ? medicos : pacientes).add(usuario);
+            }
+            LocalDateTime inicio = LocalDateTime.now().plusDays(1).withNano(0);
+            for (int i = 0; i < pacientes.size(); i++) {
+                for (int n = 0; n < CITAS_POR_PACIENTE; n++) {
+                    em.persist(new Citas(null, pacientes.get(i), medicos.get((i + n) % medicos.size()),
+                        inicio.plusMinutes(30L * (i * CITAS_POR_PACIENTE + n)), "Consulta " + n, pendiente));
+                }
+                if (i % 100 == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+            return pacientes.get(0).getIdUsuario();
+        });
+    }
+
+    private static UsuarioCreacionDTO usuarioDeEjemplo(String nombreUsuario, String nombres, String apellidos,
+                                                      String correo, int idRol) {
+        UsuarioCreacionDTO usuario = new UsuarioCreacionDTO();
+        usuario.setNombreUsuario(nombreUsuario);
+        usuario.setNombres(nombres);
+        usuario.setApellidos(apellidos);
+        usuario.setFechaNacimiento(new Date());
+        usuario.setIdRol(idRol);
+        usuario.setIdEstado(ESTADO_ACTIVO);
+        usuario.setContrasenia(CONTRASENIA);
+        usuario.setTelefono("2222-0000");
+        usuario.setCorreo(correo);
+        return usuario;
+    }
+}
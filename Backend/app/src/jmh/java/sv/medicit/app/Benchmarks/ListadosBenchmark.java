@@ -0,0 +1,76 @@
+package sv.medicit.app.Benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import sv.medicit.app.DTOs.CitaSimpleDTO;
+import sv.medicit.app.DTOs.PaginaCursorDTO;
+import sv.medicit.app.DTOs.UsuarioDTO;
+import sv.medicit.app.Servicios.CitasService;
+import sv.medicit.app.Servicios.UsuariosService;
+
+/**
+ * Listados de usuarios y citas tal como los piden los endpoints: todos los usuarios con correo,
+ * una página de usuarios, una página de citas y la línea de tiempo de un paciente por cursor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ListadosBenchmark {
+
+    // Orden por defecto de los endpoints (ver Paginacion.crear)
+    private static final Pageable PAGINA_USUARIOS = PageRequest.of(0, 20, Sort.by("idUsuario"));
+
+    private static final Pageable PAGINA_CITAS = PageRequest.of(0, 20, Sort.by("idCita"));
+
+    private UsuariosService usuariosService;
+
+    private CitasService citasService;
+
+    private Integer idPaciente;
+
+    @Setup
+    public void preparar(EstadoAplicacion aplicacion) {
+        usuariosService = aplicacion.bean(UsuariosService.class);
+        citasService = aplicacion.bean(CitasService.class);
+        idPaciente = aplicacion.idPacienteConCitas;
+    }
+
+    @Benchmark
+    public List<UsuarioDTO> usuariosTodosConCorreo() {
+        return usuariosService.obtenerTodosConCorreo();
+    }
+
+    @Benchmark
+    public Slice<UsuarioDTO> usuariosPagina() {
+        return usuariosService.obtenerPaginaConCorreo(PAGINA_USUARIOS, null, null);
+    }
+
+    @Benchmark
+    public Slice<CitaSimpleDTO> citasPagina() {
+        return citasService.obtenerPagina(PAGINA_CITAS, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public PaginaCursorDTO<CitaSimpleDTO> citasDePaciente() {
+        return citasService.obtenerCitasPorPaciente(idPaciente, null, null, 20);
+    }
+}
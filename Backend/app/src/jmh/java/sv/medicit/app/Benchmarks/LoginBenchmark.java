@@ -0,0 +1,87 @@
+package sv.medicit.app.Benchmarks;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import sv.medicit.app.DTOs.LoginResponseDTO;
+import sv.medicit.app.Entidades.Usuarios;
+import sv.medicit.app.Repositorios.PermisosRepository;
+import sv.medicit.app.Repositorios.UsuariosRepository;
+import sv.medicit.app.Servicios.LoginService;
+import sv.medicit.app.Servicios.PermisosService;
+
+/**
+ * Login completo (consulta de credenciales, BCrypt con el costo jmh.costo, permisos y token)
+ * y login con contraseña incorrecta, que cuesta lo mismo en BCrypt pero no arma respuesta.
+ * Además, solo la lectura de los datos del login sin BCrypt: la carga anterior (entidad Usuarios,
+ * colecciones LAZY y permisos del rol) contra la proyección con los permisos en caché.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LoginBenchmark {
+
+    private LoginService loginService;
+
+    private UsuariosRepository usuariosRepository;
+
+    private PermisosRepository permisosRepository;
+
+    private PermisosService permisosService;
+
+    private TransactionTemplate transaccion;
+
+    @Setup
+    public void preparar(EstadoAplicacion aplicacion) {
+        loginService = aplicacion.bean(LoginService.class);
+        usuariosRepository = aplicacion.bean(UsuariosRepository.class);
+        permisosRepository = aplicacion.bean(PermisosRepository.class);
+        permisosService = aplicacion.bean(PermisosService.class);
+        transaccion = aplicacion.bean(TransactionTemplate.class);
+    }
+
+    @Benchmark
+    public Optional<LoginResponseDTO> loginCorrecto() {
+        return loginService.autenticar(EstadoAplicacion.USUARIO, EstadoAplicacion.CONTRASENIA);
+    }
+
+    @Benchmark
+    public Optional<LoginResponseDTO> loginIncorrecto() {
+        return loginService.autenticar(EstadoAplicacion.USUARIO, "incorrecta");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void lecturaAnterior(Blackhole resultado) {
+        transaccion.executeWithoutResult(estado -> {
+            Usuarios usuario = usuariosRepository.findByNombreUsuario(EstadoAplicacion.USUARIO).orElseThrow();
+            resultado.consume(usuario.getContrasenias().get(0).getContrasenia());
+            resultado.consume(usuario.getCorreos().get(0).getCorreo());
+            resultado.consume(usuario.getRol().getNombreRol());
+            resultado.consume(permisosRepository.findByRolIdRol(usuario.getRol().getIdRol()));
+        });
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void lecturaProyectada(Blackhole resultado) {
+        resultado.consume(usuariosRepository.obtenerCredencialesPorNombreUsuario(EstadoAplicacion.USUARIO).orElseThrow());
+        resultado.consume(permisosService.obtenerPermisosDeRol(EstadoAplicacion.ROL_PACIENTE));
+    }
+}
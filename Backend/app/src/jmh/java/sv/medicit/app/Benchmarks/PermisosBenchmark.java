@@ -0,0 +1,59 @@
+package sv.medicit.app.Benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sv.medicit.app.DTOs.LoginResponseDTO.PermisosDTO;
+import sv.medicit.app.Entidades.Permisos;
+import sv.medicit.app.Servicios.PermisosService;
+import sv.medicit.app.Utilidades.MatrizPermisos;
+
+/**
+ * Construcción del mapa de permisos de la respuesta de login: desde las filas de Permisos
+ * (lo que pasa al fallar la caché) y desde la matriz ya en caché (cada login).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PermisosBenchmark {
+
+    private PermisosService permisosService;
+
+    private List<Permisos> filasAdministrador;
+
+    @Setup
+    public void preparar(EstadoAplicacion aplicacion) {
+        permisosService = aplicacion.bean(PermisosService.class);
+        filasAdministrador = permisosService.obtenerPorRol(EstadoAplicacion.ROL_ADMINISTRADOR);
+    }
+
+    @Benchmark
+    public Map<String, PermisosDTO> mapaDesdeFilas() {
+        return MatrizPermisos.desde(filasAdministrador).aMapaDTO();
+    }
+
+    @Benchmark
+    public Map<String, PermisosDTO> mapaDesdeCache() {
+        return permisosService.obtenerPermisosDeRol(EstadoAplicacion.ROL_ADMINISTRADOR);
+    }
+
+    @Benchmark
+    public boolean verificarPermiso() {
+        return permisosService.obtenerMatriz(EstadoAplicacion.ROL_ADMINISTRADOR).permite("modulo_citas", MatrizPermisos.Accion.EDITAR);
+    }
+}
@@ -0,0 +1,74 @@
+package sv.medicit.app.Benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import sv.medicit.app.DTOs.LoginResponseDTO;
+import sv.medicit.app.DTOs.UsuarioDTO;
+import sv.medicit.app.Servicios.LoginService;
+import sv.medicit.app.Servicios.UsuariosService;
+
+/**
+ * Serialización JSON de las respuestas más frecuentes con el ObjectMapper de la aplicación
+ * (el mismo que usan los controladores). Los DTOs se arman una vez al preparar; solo se mide Jackson.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SerializacionBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private UsuarioDTO usuario;
+
+    private List<UsuarioDTO> paginaUsuarios;
+
+    private LoginResponseDTO respuestaLogin;
+
+    @Setup
+    public void preparar(EstadoAplicacion aplicacion) {
+        objectMapper = aplicacion.bean(ObjectMapper.class);
+        paginaUsuarios = aplicacion.bean(UsuariosService.class)
+            .obtenerPaginaConCorreo(PageRequest.of(0, 20, Sort.by("idUsuario")), null, null)
+            .getContent();
+        usuario = paginaUsuarios.get(0);
+        // Administrador: es el rol con más módulos en DATA_SEEDS.sql
+        respuestaLogin = aplicacion.bean(LoginService.class)
+            .obtenerUsuarioConsolidado(aplicacion.idUsuarioAdministrador)
+            .orElseThrow();
+    }
+
+    @Benchmark
+    public byte[] usuarioDTO() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(usuario);
+    }
+
+    @Benchmark
+    public byte[] paginaUsuarioDTO() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(paginaUsuarios);
+    }
+
+    @Benchmark
+    public byte[] loginResponseDTO() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(respuestaLogin);
+    }
+}
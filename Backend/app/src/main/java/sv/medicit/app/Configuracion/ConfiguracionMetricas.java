@@ -0,0 +1,185 @@
+package sv.medicit.app.Configuracion;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import sv.medicit.app.Utilidades.MetricasInvocaciones;
+import sv.medicit.app.Utilidades.SentenciasPeticion;
+
+/**
+ * Instrumentación de la aplicación, expuesta en /actuator/prometheus junto con las métricas de
+ * Spring Boot (http.server.requests, spring.data.repository.invocations, hikaricp.*, jvm.*).
+ * Los histogramas de percentiles se activan en application.properties
+ * (management.metrics.distribution.percentiles-histogram.*).
+ */
+@Configuration
+public class ConfiguracionMetricas {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfiguracionMetricas.class);
+
+    // Caracteres de la sentencia que se muestran en el log
+    private static final int LARGO_SQL_LOG = 300;
+
+    // Atributo de la petición con su contador, para el hilo asíncrono y el despacho asíncrono
+    private static final String ATRIBUTO_CONTADOR = SentenciasPeticion.Contador.class.getName();
+
+    /**
+     * Tiempos de los servicios y filas devueltas por los repositorios (medicit.servicio y
+     * medicit.repositorio.filas).
+     */
+    @Bean
+    public MetricasInvocaciones metricasInvocaciones(MeterRegistry registry) {
+        return new MetricasInvocaciones(registry);
+    }
+
+    /**
+     * Registrar en Hibernate el contador de sentencias por petición: como inspector cuenta y agrupa
+     * las sentencias, como listener de sesión mide su tiempo de ejecución.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer contarSentenciasPeticion() {
+        return propiedades -> {
+            propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, new SentenciasPeticion());
+            propiedades.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SentenciasPeticion.class.getName());
+        };
+    }
+
+    /**
+     * Seguir contando en el hilo asíncrono que escribe las respuestas en streaming (StreamingResponseBody,
+     * como /api/citas/exportar): sus sentencias se suman al contador de la petición.
+     */
+    @Bean
+    public WebMvcConfigurer contarSentenciasAsincronas() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void preProcess(NativeWebRequest peticion, Callable<T> tarea) {
+                        if (peticion.getAttribute(ATRIBUTO_CONTADOR, RequestAttributes.SCOPE_REQUEST)
+                                instanceof SentenciasPeticion.Contador contador) {
+                            SentenciasPeticion.continuar(contador);
+                        }
+                    }
+
+                    @Override
+                    public <T> void postProcess(NativeWebRequest peticion, Callable<T> tarea, Object resultado) {
+                        SentenciasPeticion.terminar();
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Sentencias SQL de cada petición (medicit.peticion.sentencias) y su tiempo (medicit.peticion.sql)
+     * por método HTTP y ruta del controlador. Si la respuesta sigue en un hilo asíncrono, la petición se
+     * registra en el despacho asíncrono, cuando ese hilo ya terminó. Las peticiones que pasan el
+     * presupuesto se registran en el log con la sentencia más repetida y se cuentan en
+     * medicit.peticion.presupuesto.excedido:
+     * medicit.sql.presupuesto.sentencias: sentencias por petición.
+     * medicit.sql.presupuesto.repeticiones: veces que puede repetirse la misma sentencia (N+1).
+     * medicit.sql.presupuesto.tiempo: tiempo total de SQL por petición.
+     */
+    @Bean
+    public OncePerRequestFilter filtroSentenciasPeticion(MeterRegistry registry,
+                                                         @Value("${medicit.sql.presupuesto.sentencias:30}") int maximoSentencias,
+                                                         @Value("${medicit.sql.presupuesto.repeticiones:10}") int maximoRepeticiones,
+                                                         @Value("${medicit.sql.presupuesto.tiempo:500ms}") Duration tiempoMaximo) {
+        return new OncePerRequestFilter() {
+            @Override
+            protected boolean shouldNotFilterAsyncDispatch() {
+                return false;
+            }
+
+            @Override
+            protected void doFilterInternal(HttpServletRequest peticion, HttpServletResponse respuesta,
+                                            FilterChain cadena) throws ServletException, IOException {
+                SentenciasPeticion.Contador contador;
+                if (isAsyncDispatch(peticion)
+                        && peticion.getAttribute(ATRIBUTO_CONTADOR) instanceof SentenciasPeticion.Contador anterior) {
+                    contador = anterior;
+                    SentenciasPeticion.continuar(contador);
+                } else {
+                    contador = SentenciasPeticion.iniciar();
+                    peticion.setAttribute(ATRIBUTO_CONTADOR, contador);
+                }
+                try {
+                    cadena.doFilter(peticion, respuesta);
+                } finally {
+                    SentenciasPeticion.terminar();
+                    if (!isAsyncStarted(peticion)) {
+                        registrar(peticion, contador);
+                    }
+                }
+            }
+
+            private void registrar(HttpServletRequest peticion, SentenciasPeticion.Contador contador) {
+                // La plantilla de la ruta (/api/citas/{id}), no la URI, para no crear un meter por ID
+                Object patron = peticion.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String ruta = patron != null ? patron.toString() : "DESCONOCIDA";
+                DistributionSummary.builder("medicit.peticion.sentencias")
+                    .description("Sentencias SQL ejecutadas por Hibernate en una petición")
+                    .baseUnit("sentencias")
+                    .tag("metodo", peticion.getMethod())
+                    .tag("ruta", ruta)
+                    .register(registry)
+                    .record(contador.getSentencias());
+                Timer.builder("medicit.peticion.sql")
+                    .description("Tiempo ejecutando SQL de Hibernate en una petición")
+                    .tag("metodo", peticion.getMethod())
+                    .tag("ruta", ruta)
+                    .register(registry)
+                    .record(contador.getTiempoNanos(), TimeUnit.NANOSECONDS);
+                revisarPresupuesto(peticion.getMethod(), ruta, contador);
+            }
+
+            private void revisarPresupuesto(String metodo, String ruta, SentenciasPeticion.Contador contador) {
+                Map.Entry<String, Integer> masRepetida = contador.getMasRepetida();
+                String motivo;
+                if (masRepetida != null && masRepetida.getValue() > maximoRepeticiones) {
+                    motivo = "repeticiones";
+                } else if (contador.getSentencias() > maximoSentencias) {
+                    motivo = "sentencias";
+                } else if (contador.getTiempoNanos() > tiempoMaximo.toNanos()) {
+                    motivo = "tiempo";
+                } else {
+                    return;
+                }
+                registry.counter("medicit.peticion.presupuesto.excedido", "motivo", motivo, "ruta", ruta).increment();
+                log.warn("Presupuesto SQL excedido ({}) en {} {}: {} sentencias en {} ms; la más repetida ({} veces): {}",
+                    motivo, metodo, ruta, contador.getSentencias(), contador.getTiempoNanos() / 1_000_000,
+                    masRepetida.getValue(), recortar(masRepetida.getKey()));
+            }
+        };
+    }
+
+    private static String recortar(String sql) {
+        return sql.length() <= LARGO_SQL_LOG ? sql : sql.substring(0, LARGO_SQL_LOG) + "...";
+    }
+}
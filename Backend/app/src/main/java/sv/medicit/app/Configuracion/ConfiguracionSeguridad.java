@@ -1,8 +1,22 @@
 package sv.medicit.app.Configuracion;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.util.ClassUtils;
 
 /**
  * Configuración de seguridad para la aplicación.
@@ -10,13 +24,84 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
  */
 @Configuration
 public class ConfiguracionSeguridad {
-    
+
+    private static final Logger log = LoggerFactory.getLogger(ConfiguracionSeguridad.class);
+
+    // Costo usado para medir el tiempo de un hash al calibrar
+    private static final int COSTO_MEDICION = 8;
+
+    // Prefijo de un hash BCrypt: $2a$12$...
+    private static final Pattern COSTO_BCRYPT = Pattern.compile("\\$2[abxy]?\\$(\\d{2})\\$");
+
+    // Argon2 necesita BouncyCastle (org.bouncycastle:bcprov-jdk18on) en el classpath
+    private static final boolean ARGON2_DISPONIBLE =
+        ClassUtils.isPresent("org.bouncycastle.crypto.params.Argon2Parameters", null);
+
     /**
-     * Bean para BCryptPasswordEncoder.
-     * Se utiliza para encriptar y verificar contraseñas.
+     * Bean para codificar contraseñas.
+     * Se utiliza para encriptar y verificar contraseñas (EncriptacionUtil y la importación de pacientes).
+     *
+     * Es un DelegatingPasswordEncoder: los hashes nuevos se guardan con el prefijo del algoritmo
+     * ({bcrypt}, {pbkdf2}, {argon2}) y los hashes BCrypt anteriores, sin prefijo, se siguen verificando.
+     * Cambiar medicit.encriptacion.algoritmo migra las contraseñas en el siguiente login de cada usuario.
      */
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${medicit.encriptacion.algoritmo:bcrypt}") String algoritmo,
+                                           @Value("${medicit.encriptacion.costo:0}") int costo,
+                                           @Value("${medicit.encriptacion.tiempo-objetivo:50ms}") Duration tiempoObjetivo,
+                                           @Value("${medicit.encriptacion.costo-minimo:10}") int costoMinimo) {
+        int costoBCrypt = costo > 0 ? costo : calibrarCostoBCrypt(tiempoObjetivo, costoMinimo);
+
+        Map<String, PasswordEncoder> codificadores = new HashMap<>();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(costoBCrypt) {
+            // BCrypt solo marca para actualizar los hashes de menor costo; aquí cualquier costo distinto,
+            // para que bajar el costo también se aplique
+            @Override
+            public boolean upgradeEncoding(String hash) {
+                Matcher costoGuardado = COSTO_BCRYPT.matcher(hash == null ? "" : hash);
+                return costoGuardado.lookingAt() && Integer.parseInt(costoGuardado.group(1)) != costoBCrypt;
+            }
+        };
+        codificadores.put("bcrypt", bcrypt);
+        codificadores.put("pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        if (ARGON2_DISPONIBLE) {
+            codificadores.put("argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        }
+        if (!codificadores.containsKey(algoritmo)) {
+            throw new IllegalStateException("Algoritmo de contraseñas no disponible: " + algoritmo
+                + ("argon2".equals(algoritmo) ? " (agregar la dependencia org.bouncycastle:bcprov-jdk18on)" : ""));
+        }
+
+        DelegatingPasswordEncoder codificador = new DelegatingPasswordEncoder(algoritmo, codificadores);
+        // Hashes guardados antes de usar prefijos
+        codificador.setDefaultPasswordEncoderForMatches(bcrypt);
+        return codificador;
+    }
+
+    /**
+     * Elegir el costo de BCrypt cuyo hash tarde aproximadamente tiempoObjetivo en este equipo.
+     * Mide el promedio de varios hashes a COSTO_MEDICION y extrapola: cada punto de costo duplica el tiempo.
+     * Nunca baja de costoMinimo.
+     */
+    static int calibrarCostoBCrypt(Duration tiempoObjetivo, int costoMinimo) {
+        BCryptPasswordEncoder medicion = new BCryptPasswordEncoder(COSTO_MEDICION);
+        // Calentamiento del JIT
+        for (int i = 0; i < 3; i++) {
+            medicion.encode("calibracion");
+        }
+        int repeticiones = 5;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < repeticiones; i++) {
+            medicion.encode("calibracion");
+        }
+        double nanosPorHash = (double) (System.nanoTime() - inicio) / repeticiones;
+
+        double factor = tiempoObjetivo.toNanos() / nanosPorHash;
+        int costo = COSTO_MEDICION + (int) Math.round(Math.log(factor) / Math.log(2));
+        costo = Math.min(Math.max(costo, costoMinimo), 31);
+
+        log.info("Costo BCrypt calibrado: {} (objetivo {} ms, estimado {} ms por hash)",
+            costo, tiempoObjetivo.toMillis(), Math.round(nanosPorHash * Math.pow(2, costo - COSTO_MEDICION) / 1e6));
+        return costo;
     }
 }
@@ -1,16 +1,30 @@
 package sv.medicit.app.Controladores;
 
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import sv.medicit.app.DTOs.AntecedenteSimpleDTO;
+import sv.medicit.app.DTOs.AntecedenteCoincidenciaDTO;
+import sv.medicit.app.DTOs.AntecedenteResumenDTO;
+import sv.medicit.app.DTOs.PaginaDTO;
 import sv.medicit.app.Entidades.Antecedentes;
 import sv.medicit.app.Servicios.AntecedentesService;
+import sv.medicit.app.Servicios.BusquedaAntecedentesService;
+import sv.medicit.app.Utilidades.Paginacion;
+import sv.medicit.app.Utilidades.RangoCaracteres;
 
 /**
  * RestController para la gestión de Antecedentes.
@@ -22,17 +36,57 @@ import sv.medicit.app.Servicios.AntecedentesService;
 @CrossOrigin(origins = "*")
 public class AntecedentesRestController {
 
+    private static final Map<String, String> CAMPOS_ORDEN = Map.of(
+        "idAntecedente", "idAntecedente"
+    );
+
     @Autowired
     private AntecedentesService antecedentesService;
 
+    @Autowired
+    private BusquedaAntecedentesService busquedaAntecedentesService;
+
     /**
-     * GET /api/antecedentes
-     * Obtener todos los antecedentes.
+     * GET /api/antecedentes?pagina=0&tamanio=20&orden=idAntecedente:desc&idUsuario=1
+     * Obtener los resúmenes de los antecedentes paginados, opcionalmente filtrados por usuario.
+     * El texto completo se obtiene con GET /api/antecedentes/{id} o /{id}/descripcion.
      */
     @GetMapping
-    public ResponseEntity<List<Antecedentes>> obtenerTodos() {
-        List<Antecedentes> antecedentes = antecedentesService.obtenerTodos();
-        return new ResponseEntity<>(antecedentes, HttpStatus.OK);
+    public ResponseEntity<?> obtenerTodos(@RequestParam(required = false) Integer pagina,
+                                          @RequestParam(required = false) Integer tamanio,
+                                          @RequestParam(required = false) List<String> orden,
+                                          @RequestParam(required = false) Integer idUsuario) {
+        try {
+            Pageable pageable = Paginacion.crear(pagina, tamanio, orden, CAMPOS_ORDEN, "idAntecedente");
+            Slice<AntecedenteResumenDTO> antecedentes = antecedentesService.obtenerPagina(pageable, idUsuario);
+            return new ResponseEntity<>(PaginaDTO.desde(antecedentes), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse("Validación fallida", e.getMessage()),
+                HttpStatus.BAD_REQUEST
+            );
+        }
+    }
+
+    /**
+     * GET /api/antecedentes/buscar?q=alergia penicilina&idUsuario=5&pagina=0&tamanio=20
+     * Buscar antecedentes por texto, ordenados por relevancia.
+     */
+    @GetMapping("/buscar")
+    public ResponseEntity<?> buscar(@RequestParam(required = false) String q,
+                                    @RequestParam(required = false) Integer idUsuario,
+                                    @RequestParam(required = false) Integer pagina,
+                                    @RequestParam(required = false) Integer tamanio) {
+        try {
+            PaginaDTO<AntecedenteCoincidenciaDTO> resultados = busquedaAntecedentesService.buscar(
+                q, idUsuario, pagina != null ? pagina : 0, Paginacion.acotarTamanio(tamanio));
+            return new ResponseEntity<>(resultados, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse("Validación fallida", e.getMessage()),
+                HttpStatus.BAD_REQUEST
+            );
+        }
     }
 
     /**
@@ -49,6 +103,46 @@ public class AntecedentesRestController {
         }
     }
 
+    /**
+     * GET /api/antecedentes/{id}/descripcion
+     * Obtener la descripción completa como texto plano, leída y enviada por tramos.
+     * Admite la cabecera "Range: chars=desde-hasta" (posiciones en caracteres, base 0) y responde
+     * 206 con Content-Range; si el rango empieza después del final responde 416.
+     */
+    @GetMapping("/{id}/descripcion")
+    public ResponseEntity<?> obtenerDescripcion(@PathVariable Integer id,
+                                                @RequestHeader(value = HttpHeaders.RANGE, required = false) String rango) {
+        Optional<Integer> largo = antecedentesService.obtenerLargoDescripcion(id);
+        if (largo.isEmpty()) {
+            return new ResponseEntity<>(
+                new ErrorResponse("No encontrado", "Antecedente no encontrado con ID: " + id),
+                HttpStatus.NOT_FOUND
+            );
+        }
+        int total = largo.get();
+        Optional<RangoCaracteres> pedido;
+        try {
+            pedido = RangoCaracteres.interpretar(rango, total);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HttpHeaders.CONTENT_RANGE, RangoCaracteres.UNIDAD + " */" + total)
+                .build();
+        }
+
+        int desde = pedido.map(RangoCaracteres::desde).orElse(0);
+        int hasta = pedido.map(RangoCaracteres::hasta).orElse(total);
+        StreamingResponseBody cuerpo = salida -> {
+            Writer escritor = new OutputStreamWriter(salida, StandardCharsets.UTF_8);
+            antecedentesService.escribirDescripcion(id, desde, hasta, escritor);
+            escritor.flush();
+        };
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.status(pedido.isPresent() ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+            .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+            .header(HttpHeaders.ACCEPT_RANGES, RangoCaracteres.UNIDAD);
+        pedido.ifPresent(r -> respuesta.header(HttpHeaders.CONTENT_RANGE, r.contentRange(total)));
+        return respuesta.body(cuerpo);
+    }
+
     /**
      * POST /api/antecedentes
      * Crear un nuevo antecedente.
@@ -120,13 +214,13 @@ public class AntecedentesRestController {
 
     /**
      * GET /api/antecedentes/usuario/{idUsuario}
-     * Obtener los antecedentes de un usuario específico en formato simplificado.
-     * Retorna solo el ID del antecedente y la descripción, sin incluir información del usuario.
+     * Obtener los antecedentes de un usuario específico en formato resumido.
+     * Retorna título, largo y vista previa de la descripción, sin el texto completo.
      */
     @GetMapping("/usuario/{idUsuario}")
     public ResponseEntity<?> obtenerAntecedentesDelUsuario(@PathVariable Integer idUsuario) {
         try {
-            List<AntecedenteSimpleDTO> antecedentes = antecedentesService.obtenerAntecedentesSimplePorUsuarioId(idUsuario);
+            List<AntecedenteResumenDTO> antecedentes = antecedentesService.obtenerResumenesPorUsuarioId(idUsuario);
             if (antecedentes.isEmpty()) {
                 return new ResponseEntity<>(
                     new ErrorResponse("No encontrado", "El usuario no tiene antecedentes registrados"),
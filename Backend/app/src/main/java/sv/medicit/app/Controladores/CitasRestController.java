@@ -1,16 +1,33 @@
 package sv.medicit.app.Controladores;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import sv.medicit.app.DTOs.CitaSimpleDTO;
+import sv.medicit.app.DTOs.DisponibilidadMedicoDTO;
+import sv.medicit.app.DTOs.PaginaCursorDTO;
+import sv.medicit.app.DTOs.PaginaDTO;
 import sv.medicit.app.Entidades.Citas;
+import sv.medicit.app.Servicios.AgendaService;
 import sv.medicit.app.Servicios.CitasService;
+import sv.medicit.app.Utilidades.ConflictoHorarioException;
+import sv.medicit.app.Utilidades.Paginacion;
 
 /**
  * RestController para la gestión de Citas.
@@ -22,17 +39,88 @@ import sv.medicit.app.Servicios.CitasService;
 @CrossOrigin(origins = "*")
 public class CitasRestController {
 
+    private static final Map<String, String> CAMPOS_ORDEN = Map.of(
+        "idCita", "idCita",
+        "fechaHora", "fechaHora",
+        "motivo", "motivo"
+    );
+
     @Autowired
     private CitasService citasService;
 
+    @Autowired
+    private AgendaService agendaService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
-     * GET /api/citas
-     * Obtener todas las citas.
+     * GET /api/citas?pagina=0&tamanio=20&orden=fechaHora:desc&idMedico=2&idEstado=3
+     * Obtener las citas paginadas en formato simplificado.
+     * Filtros permitidos: idPaciente, idMedico, idEstado, desde y hasta (fecha/hora ISO, rango [desde, hasta)).
      */
     @GetMapping
-    public ResponseEntity<List<Citas>> obtenerTodos() {
-        List<Citas> citas = citasService.obtenerTodos();
-        return new ResponseEntity<>(citas, HttpStatus.OK);
+    public ResponseEntity<?> obtenerTodos(@RequestParam(required = false) Integer pagina,
+                                          @RequestParam(required = false) Integer tamanio,
+                                          @RequestParam(required = false) List<String> orden,
+                                          @RequestParam(required = false) Integer idPaciente,
+                                          @RequestParam(required = false) Integer idMedico,
+                                          @RequestParam(required = false) Integer idEstado,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta) {
+        try {
+            Pageable pageable = Paginacion.crear(pagina, tamanio, orden, CAMPOS_ORDEN, "idCita");
+            Slice<CitaSimpleDTO> citas = citasService.obtenerPagina(pageable, idPaciente, idMedico, idEstado, desde, hasta);
+            return new ResponseEntity<>(PaginaDTO.desde(citas), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse("Validación fallida", e.getMessage()),
+                HttpStatus.BAD_REQUEST
+            );
+        }
+    }
+
+    /**
+     * GET /api/citas/exportar?idMedico=2&desde=2025-01-01T00:00:00
+     * Obtener todas las citas que cumplen los filtros, en formato simplificado y ordenadas por fecha/hora.
+     * La respuesta es un arreglo JSON que se escribe mientras se leen las filas (sin paginar),
+     * pensado para listados grandes y exportaciones.
+     * Filtros permitidos: idPaciente, idMedico, idEstado, desde y hasta (rango [desde, hasta)).
+     */
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportar(@RequestParam(required = false) Integer idPaciente,
+                                                          @RequestParam(required = false) Integer idMedico,
+                                                          @RequestParam(required = false) Integer idEstado,
+                                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+                                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta) {
+        StreamingResponseBody cuerpo = salida -> {
+            try (JsonGenerator generador = objectMapper.getFactory().createGenerator(salida)) {
+                citasService.escribirCitas(idPaciente, idMedico, idEstado, desde, hasta, generador);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(cuerpo);
+    }
+
+    /**
+     * GET /api/citas/disponibilidad?idEspecialidad=1&desde=2025-12-01&hasta=2025-12-05&idMedico=2
+     * Obtener los horarios libres de los médicos de una especialidad entre dos fechas (inclusive).
+     * Cada horario es el inicio de un bloque de la duración de una cita; idMedico es opcional.
+     */
+    @GetMapping("/disponibilidad")
+    public ResponseEntity<?> obtenerDisponibilidad(@RequestParam Integer idEspecialidad,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+                                                   @RequestParam(required = false) Integer idMedico) {
+        try {
+            List<DisponibilidadMedicoDTO> disponibilidad =
+                agendaService.obtenerHorariosLibres(idEspecialidad, desde, hasta, idMedico);
+            return new ResponseEntity<>(disponibilidad, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse("Validación fallida", e.getMessage()),
+                HttpStatus.BAD_REQUEST
+            );
+        }
     }
 
     /**
@@ -58,6 +146,11 @@ public class CitasRestController {
         try {
             Citas citaCreada = citasService.crear(cita);
             return new ResponseEntity<>(citaCreada, HttpStatus.CREATED);
+        } catch (ConflictoHorarioException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse("Horario ocupado", e.getMessage()),
+                HttpStatus.CONFLICT
+            );
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(
                 new ErrorResponse("Validación fallida", e.getMessage()),
@@ -80,6 +173,11 @@ public class CitasRestController {
         try {
             Citas citaUpdated = citasService.actualizar(id, citaActualizada);
             return new ResponseEntity<>(citaUpdated, HttpStatus.OK);
+        } catch (ConflictoHorarioException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse("Horario ocupado", e.getMessage()),
+                HttpStatus.CONFLICT
+            );
         } catch (RuntimeException e) {
             return new ResponseEntity<>(
                 new ErrorResponse("Error", e.getMessage()),
@@ -161,15 +259,24 @@ public class CitasRestController {
     }
 
     /**
-     * GET /api/citas/paciente/{idPaciente}
-     * Obtener todas las citas de un paciente específico en formato simplificado.
+     * GET /api/citas/paciente/{idPaciente}?tamanio=20&cursor=...&desde=2025-01-01T00:00:00
+     * Obtener la línea de tiempo de citas de un paciente en formato simplificado.
+     * Paginación por cursor: enviar siguienteCursor de la respuesta para la página siguiente.
      */
     @GetMapping("/paciente/{idPaciente}")
-    public ResponseEntity<?> obtenerCitasPorPaciente(@PathVariable Integer idPaciente) {
+    public ResponseEntity<?> obtenerCitasPorPaciente(@PathVariable Integer idPaciente,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer tamanio,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde) {
         try {
-            List<CitaSimpleDTO> citas = citasService.obtenerCitasPorPaciente(idPaciente);
-            // Retornar array vacío con OK en lugar de NOT_FOUND
+            PaginaCursorDTO<CitaSimpleDTO> citas = citasService.obtenerCitasPorPaciente(idPaciente, cursor, desde, tamanio);
+            // Retornar página vacía con OK en lugar de NOT_FOUND
             return new ResponseEntity<>(citas, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse("Validación fallida", e.getMessage()),
+                HttpStatus.BAD_REQUEST
+            );
         } catch (Exception e) {
             return new ResponseEntity<>(
                 new ErrorResponse("Error", e.getMessage()),
@@ -179,15 +286,24 @@ public class CitasRestController {
     }
 
     /**
-     * GET /api/citas/medico/{idMedico}
-     * Obtener todas las citas de un médico específico en formato simplificado.
+     * GET /api/citas/medico/{idMedico}?tamanio=20&cursor=...&desde=2025-01-01T00:00:00
+     * Obtener la línea de tiempo de citas de un médico en formato simplificado.
+     * Paginación por cursor: enviar siguienteCursor de la respuesta para la página siguiente.
      */
     @GetMapping("/medico/{idMedico}")
-    public ResponseEntity<?> obtenerCitasPorMedico(@PathVariable Integer idMedico) {
+    public ResponseEntity<?> obtenerCitasPorMedico(@PathVariable Integer idMedico,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer tamanio,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde) {
         try {
-            List<CitaSimpleDTO> citas = citasService.obtenerCitasPorMedico(idMedico);
-            // Retornar array vacío con OK en lugar de NOT_FOUND
+            PaginaCursorDTO<CitaSimpleDTO> citas = citasService.obtenerCitasPorMedico(idMedico, cursor, desde, tamanio);
+            // Retornar página vacía con OK en lugar de NOT_FOUND
             return new ResponseEntity<>(citas, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse("Validación fallida", e.getMessage()),
+                HttpStatus.BAD_REQUEST
+            );
         } catch (Exception e) {
             return new ResponseEntity<>(
                 new ErrorResponse("Error", e.getMessage()),
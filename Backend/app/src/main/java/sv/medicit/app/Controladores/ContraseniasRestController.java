@@ -1,15 +1,22 @@
 package sv.medicit.app.Controladores;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import sv.medicit.app.DTOs.PaginaDTO;
 import sv.medicit.app.Entidades.Contrasenias;
 import sv.medicit.app.Servicios.ContraseniasService;
+import sv.medicit.app.Utilidades.EncriptacionSaturadaException;
+import sv.medicit.app.Utilidades.Paginacion;
 
 /**
  * RestController para la gestión de Contrasenias.
@@ -21,17 +28,32 @@ import sv.medicit.app.Servicios.ContraseniasService;
 @CrossOrigin(origins = "*")
 public class ContraseniasRestController {
 
+    private static final Map<String, String> CAMPOS_ORDEN = Map.of(
+        "idContrasenia", "idContrasenia"
+    );
+
     @Autowired
     private ContraseniasService contraseniasService;
 
     /**
-     * GET /api/contrasenias
-     * Obtener todas las contraseñas.
+     * GET /api/contrasenias?pagina=0&tamanio=20&orden=idContrasenia:desc&idUsuario=1
+     * Obtener las contraseñas paginadas, opcionalmente filtradas por usuario.
      */
     @GetMapping
-    public ResponseEntity<List<Contrasenias>> obtenerTodos() {
-        List<Contrasenias> contrasenias = contraseniasService.obtenerTodos();
-        return new ResponseEntity<>(contrasenias, HttpStatus.OK);
+    public ResponseEntity<?> obtenerTodos(@RequestParam(required = false) Integer pagina,
+                                          @RequestParam(required = false) Integer tamanio,
+                                          @RequestParam(required = false) List<String> orden,
+                                          @RequestParam(required = false) Integer idUsuario) {
+        try {
+            Pageable pageable = Paginacion.crear(pagina, tamanio, orden, CAMPOS_ORDEN, "idContrasenia");
+            Slice<Contrasenias> contrasenias = contraseniasService.obtenerPagina(pageable, idUsuario);
+            return new ResponseEntity<>(PaginaDTO.desde(contrasenias), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse("Validación fallida", e.getMessage()),
+                HttpStatus.BAD_REQUEST
+            );
+        }
     }
 
     /**
@@ -51,12 +73,18 @@ public class ContraseniasRestController {
     /**
      * POST /api/contrasenias
      * Crear una nueva contraseña.
+     * Responde 503 con Retry-After si hay demasiadas contraseñas esperando encriptación.
      */
     @PostMapping
     public ResponseEntity<?> crear(@RequestBody Contrasenias contrasenia) {
         try {
             Contrasenias contraseniaCreada = contraseniasService.crear(contrasenia);
             return new ResponseEntity<>(contraseniaCreada, HttpStatus.CREATED);
+        } catch (EncriptacionSaturadaException e) {
+            // Pool de BCrypt saturado: pedir al cliente que reintente, igual que el login
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getSegundosReintento()))
+                .body(new ErrorResponse("Servicio saturado", e.getMessage()));
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(
                 new ErrorResponse("Validación fallida", e.getMessage()),
@@ -73,12 +101,18 @@ public class ContraseniasRestController {
     /**
      * PUT /api/contrasenias/{id}
      * Actualizar una contraseña existente.
+     * Responde 503 con Retry-After si hay demasiadas contraseñas esperando encriptación.
      */
     @PutMapping("/{id}")
     public ResponseEntity<?> actualizar(@PathVariable Integer id, @RequestBody Contrasenias contraseniaActualizada) {
         try {
             Contrasenias contraseniaUpdated = contraseniasService.actualizar(id, contraseniaActualizada);
             return new ResponseEntity<>(contraseniaUpdated, HttpStatus.OK);
+        } catch (EncriptacionSaturadaException e) {
+            // Pool de BCrypt saturado: pedir al cliente que reintente, igual que el login
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getSegundosReintento()))
+                .body(new ErrorResponse("Servicio saturado", e.getMessage()));
         } catch (RuntimeException e) {
             return new ResponseEntity<>(
                 new ErrorResponse("Error", e.getMessage()),
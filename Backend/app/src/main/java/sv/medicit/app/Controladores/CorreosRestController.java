@@ -1,15 +1,20 @@
 package sv.medicit.app.Controladores;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import sv.medicit.app.DTOs.PaginaDTO;
 import sv.medicit.app.Entidades.Correos;
 import sv.medicit.app.Servicios.CorreosService;
+import sv.medicit.app.Utilidades.Paginacion;
 
 /**
  * RestController para la gestión de Correos.
@@ -21,17 +26,33 @@ import sv.medicit.app.Servicios.CorreosService;
 @CrossOrigin(origins = "*")
 public class CorreosRestController {
 
+    private static final Map<String, String> CAMPOS_ORDEN = Map.of(
+        "idCorreo", "idCorreo",
+        "correo", "correo"
+    );
+
     @Autowired
     private CorreosService correosService;
 
     /**
-     * GET /api/correos
-     * Obtener todos los correos.
+     * GET /api/correos?pagina=0&tamanio=20&orden=idCorreo:desc&idUsuario=1
+     * Obtener los correos paginados, opcionalmente filtrados por usuario.
      */
     @GetMapping
-    public ResponseEntity<List<Correos>> obtenerTodos() {
-        List<Correos> correos = correosService.obtenerTodos();
-        return new ResponseEntity<>(correos, HttpStatus.OK);
+    public ResponseEntity<?> obtenerTodos(@RequestParam(required = false) Integer pagina,
+                                          @RequestParam(required = false) Integer tamanio,
+                                          @RequestParam(required = false) List<String> orden,
+                                          @RequestParam(required = false) Integer idUsuario) {
+        try {
+            Pageable pageable = Paginacion.crear(pagina, tamanio, orden, CAMPOS_ORDEN, "idCorreo");
+            Slice<Correos> correos = correosService.obtenerPagina(pageable, idUsuario);
+            return new ResponseEntity<>(PaginaDTO.desde(correos), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse("Validación fallida", e.getMessage()),
+                HttpStatus.BAD_REQUEST
+            );
+        }
     }
 
     /**
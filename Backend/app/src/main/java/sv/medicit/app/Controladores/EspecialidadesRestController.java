@@ -1,37 +1,88 @@
 package sv.medicit.app.Controladores;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import sv.medicit.app.DTOs.MedicoDTO;
+import sv.medicit.app.DTOs.PaginaDTO;
 import sv.medicit.app.Entidades.Especialidades;
+import sv.medicit.app.Servicios.DirectorioMedicosService;
 import sv.medicit.app.Servicios.EspecialidadesService;
+import sv.medicit.app.Utilidades.Paginacion;
 
 @RestController
 @RequestMapping("/api/especialidades")
 @CrossOrigin(origins = "*")
 public class EspecialidadesRestController {
 
+    private static final Map<String, String> CAMPOS_ORDEN = Map.of(
+        "idEspecialidad", "idEspecialidad",
+        "nombreEspecialidad", "nombreEspecialidad"
+    );
+
     @Autowired
     private EspecialidadesService especialidadesService;
 
+    @Autowired
+    private DirectorioMedicosService directorioMedicosService;
+
     @GetMapping
-    public ResponseEntity<List<Especialidades>> obtenerTodos() {
-        List<Especialidades> especialidades = especialidadesService.obtenerTodos();
-        return new ResponseEntity<>(especialidades, HttpStatus.OK);
+    public ResponseEntity<?> obtenerTodos(@RequestParam(required = false) Integer pagina,
+                                          @RequestParam(required = false) Integer tamanio,
+                                          @RequestParam(required = false) List<String> orden,
+                                          @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        try {
+            Pageable pageable = Paginacion.crear(pagina, tamanio, orden, CAMPOS_ORDEN, "idEspecialidad");
+            String etag = especialidadesService.obtenerEtag();
+            if (etag.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            Slice<Especialidades> especialidades = especialidadesService.obtenerPagina(pageable);
+            return ResponseEntity.ok().eTag(etag).body(PaginaDTO.desde(especialidades));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse("Validación fallida", e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Especialidades> obtenerPorId(@PathVariable Integer id) {
+    public ResponseEntity<Especialidades> obtenerPorId(@PathVariable Integer id,
+                                                       @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        // El ETag es el del catálogo completo: solo vale para IDs que existen
         Optional<Especialidades> especialidad = especialidadesService.obtenerPorId(id);
-        if (especialidad.isPresent()) {
-            return new ResponseEntity<>(especialidad.get(), HttpStatus.OK);
+        if (especialidad.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        String etag = especialidadesService.obtenerEtag();
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(especialidad.get());
+    }
+
+    /**
+     * GET /api/especialidades/{id}/medicos?prefijo=mar&activos=true&tamanio=20
+     * Buscar médicos de una especialidad en orden alfabético, desde el índice en memoria.
+     * prefijo: inicio del nombre o del apellido (sin distinguir mayúsculas ni tildes).
+     * activos: solo médicos en estado Activo (por defecto true).
+     */
+    @GetMapping("/{id}/medicos")
+    public ResponseEntity<?> buscarMedicos(@PathVariable Integer id,
+                                           @RequestParam(required = false) String prefijo,
+                                           @RequestParam(defaultValue = "true") boolean activos,
+                                           @RequestParam(required = false) Integer tamanio) {
+        if (especialidadesService.obtenerPorId(id).isEmpty()) {
+            return new ResponseEntity<>(new ErrorResponse("Error", "Especialidad no encontrada con ID: " + id), HttpStatus.NOT_FOUND);
         }
-        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        List<MedicoDTO> medicos = directorioMedicosService.buscar(id, activos, prefijo, Paginacion.acotarTamanio(tamanio));
+        return new ResponseEntity<>(medicos, HttpStatus.OK);
     }
 
     @PostMapping
@@ -1,37 +1,65 @@
 package sv.medicit.app.Controladores;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import sv.medicit.app.DTOs.PaginaDTO;
 import sv.medicit.app.Entidades.Estados;
 import sv.medicit.app.Servicios.EstadosService;
+import sv.medicit.app.Utilidades.Paginacion;
 
 @RestController
 @RequestMapping("/api/estados")
 @CrossOrigin(origins = "*")
 public class EstadosRestController {
 
+    private static final Map<String, String> CAMPOS_ORDEN = Map.of(
+        "idEstado", "idEstado",
+        "estado", "estado"
+    );
+
     @Autowired
     private EstadosService estadosService;
 
     @GetMapping
-    public ResponseEntity<List<Estados>> obtenerTodos() {
-        List<Estados> estados = estadosService.obtenerTodos();
-        return new ResponseEntity<>(estados, HttpStatus.OK);
+    public ResponseEntity<?> obtenerTodos(@RequestParam(required = false) Integer pagina,
+                                          @RequestParam(required = false) Integer tamanio,
+                                          @RequestParam(required = false) List<String> orden,
+                                          @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        try {
+            Pageable pageable = Paginacion.crear(pagina, tamanio, orden, CAMPOS_ORDEN, "idEstado");
+            String etag = estadosService.obtenerEtag();
+            if (etag.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            Slice<Estados> estados = estadosService.obtenerPagina(pageable);
+            return ResponseEntity.ok().eTag(etag).body(PaginaDTO.desde(estados));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse("Validación fallida", e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Estados> obtenerPorId(@PathVariable Integer id) {
+    public ResponseEntity<Estados> obtenerPorId(@PathVariable Integer id,
+                                                @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        // El ETag es el del catálogo completo: solo vale para IDs que existen
         Optional<Estados> estado = estadosService.obtenerPorId(id);
-        if (estado.isPresent()) {
-            return new ResponseEntity<>(estado.get(), HttpStatus.OK);
+        if (estado.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        String etag = estadosService.obtenerEtag();
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
         }
-        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return ResponseEntity.ok().eTag(etag).body(estado.get());
     }
 
     @PostMapping
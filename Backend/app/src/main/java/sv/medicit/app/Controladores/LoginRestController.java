@@ -3,6 +3,7 @@ package sv.medicit.app.Controladores;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -10,11 +11,13 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import sv.medicit.app.DTOs.LoginResponseDTO;
 import sv.medicit.app.Servicios.LoginService;
+import sv.medicit.app.Utilidades.EncriptacionSaturadaException;
 
 /**
  * RestController para manejar la autenticación y obtención de datos consolidados.
@@ -37,6 +40,8 @@ public class LoginRestController {
      *   "nombreUsuario": "usuario123",
      *   "contrasenia": "password123"
      * }
+     *
+     * Responde 503 con Retry-After si hay demasiados logins esperando verificación de contraseña.
      */
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequestDTO request) {
@@ -51,6 +56,11 @@ public class LoginRestController {
                     HttpStatus.UNAUTHORIZED
                 );
             }
+        } catch (EncriptacionSaturadaException e) {
+            // Demasiados logins en curso: responder rápido y pedir al cliente que reintente
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getSegundosReintento()))
+                .body(new ErrorResponse(false, e.getMessage()));
         } catch (Exception e) {
             return new ResponseEntity<>(
                 new ErrorResponse(false, "Error en la autenticación: " + e.getMessage()),
@@ -59,6 +69,36 @@ public class LoginRestController {
         }
     }
 
+    /**
+     * GET /api/auth/sesion
+     * Header: Authorization: Bearer <token>
+     * Refrescar la sesión con el token recibido en el login.
+     * Si ni el rol o estado del usuario ni los permisos de su rol cambiaron desde que se emitió el token,
+     * responde solo con un token renovado (sin userData, leyendo solo la versión de sesión del usuario);
+     * si cambiaron, incluye los datos actualizados.
+     * Responde 401 si el token no es válido, expiró o la sesión superó su duración máxima.
+     */
+    @GetMapping("/sesion")
+    public ResponseEntity<?> refrescarSesion(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String autorizacion) {
+        try {
+            Optional<LoginResponseDTO> response = loginService.refrescarSesion(autorizacion);
+
+            if (response.isPresent()) {
+                return new ResponseEntity<>(response.get(), HttpStatus.OK);
+            } else {
+                return new ResponseEntity<>(
+                    new ErrorResponse(false, "Sesión inválida o expirada"),
+                    HttpStatus.UNAUTHORIZED
+                );
+            }
+        } catch (Exception e) {
+            return new ResponseEntity<>(
+                new ErrorResponse(false, "Error: " + e.getMessage()),
+                HttpStatus.INTERNAL_SERVER_ERROR
+            );
+        }
+    }
+
     /**
      * GET /api/auth/usuario/{idUsuario}
      * Obtener información consolidada de un usuario sin validación de contraseña.
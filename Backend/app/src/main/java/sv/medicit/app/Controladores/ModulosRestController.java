@@ -1,37 +1,65 @@
 package sv.medicit.app.Controladores;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import sv.medicit.app.DTOs.PaginaDTO;
 import sv.medicit.app.Entidades.Modulos;
 import sv.medicit.app.Servicios.ModulosService;
+import sv.medicit.app.Utilidades.Paginacion;
 
 @RestController
 @RequestMapping("/api/modulos")
 @CrossOrigin(origins = "*")
 public class ModulosRestController {
 
+    private static final Map<String, String> CAMPOS_ORDEN = Map.of(
+        "idModulo", "idModulo",
+        "nombreModulo", "nombreModulo"
+    );
+
     @Autowired
     private ModulosService modulosService;
 
     @GetMapping
-    public ResponseEntity<List<Modulos>> obtenerTodos() {
-        List<Modulos> modulos = modulosService.obtenerTodos();
-        return new ResponseEntity<>(modulos, HttpStatus.OK);
+    public ResponseEntity<?> obtenerTodos(@RequestParam(required = false) Integer pagina,
+                                          @RequestParam(required = false) Integer tamanio,
+                                          @RequestParam(required = false) List<String> orden,
+                                          @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        try {
+            Pageable pageable = Paginacion.crear(pagina, tamanio, orden, CAMPOS_ORDEN, "idModulo");
+            String etag = modulosService.obtenerEtag();
+            if (etag.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            Slice<Modulos> modulos = modulosService.obtenerPagina(pageable);
+            return ResponseEntity.ok().eTag(etag).body(PaginaDTO.desde(modulos));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse("Validación fallida", e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Modulos> obtenerPorId(@PathVariable Integer id) {
+    public ResponseEntity<Modulos> obtenerPorId(@PathVariable Integer id,
+                                                @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        // El ETag es el del catálogo completo: solo vale para IDs que existen
         Optional<Modulos> modulo = modulosService.obtenerPorId(id);
-        if (modulo.isPresent()) {
-            return new ResponseEntity<>(modulo.get(), HttpStatus.OK);
+        if (modulo.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        String etag = modulosService.obtenerEtag();
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
         }
-        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return ResponseEntity.ok().eTag(etag).body(modulo.get());
     }
 
     @PostMapping
@@ -1,7 +1,11 @@
 package sv.medicit.app.Controladores;
 
 import java.util.List;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -12,9 +16,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import sv.medicit.app.DTOs.PaginaDTO;
 import sv.medicit.app.Entidades.Permisos;
-import sv.medicit.app.Repositorios.PermisosRepository;
+import sv.medicit.app.Servicios.PermisosService;
+import sv.medicit.app.Utilidades.Paginacion;
 
 /**
  * REST Controller para gestionar Permisos
@@ -24,16 +31,34 @@ import sv.medicit.app.Repositorios.PermisosRepository;
 @RequestMapping("/api/permisos")
 public class PermisosRestController {
 
+    private static final Map<String, String> CAMPOS_ORDEN = Map.of(
+        "idPermiso", "idPermiso",
+        "modulo", "modulo"
+    );
+
     @Autowired
-    private PermisosRepository permisosRepository;
+    private PermisosService permisosService;
 
     /**
-     * Obtener todos los permisos
+     * GET /api/permisos?pagina=0&tamanio=20&orden=modulo:asc&idRol=1&modulo=modulo_citas
+     * Obtener los permisos paginados, opcionalmente filtrados por rol y módulo
      */
     @GetMapping
-    public ResponseEntity<List<Permisos>> obtenerTodos() {
-        List<Permisos> permisos = permisosRepository.findAll();
-        return new ResponseEntity<>(permisos, HttpStatus.OK);
+    public ResponseEntity<?> obtenerTodos(@RequestParam(required = false) Integer pagina,
+                                          @RequestParam(required = false) Integer tamanio,
+                                          @RequestParam(required = false) List<String> orden,
+                                          @RequestParam(required = false) Integer idRol,
+                                          @RequestParam(required = false) String modulo) {
+        try {
+            Pageable pageable = Paginacion.crear(pagina, tamanio, orden, CAMPOS_ORDEN, "idPermiso");
+            Slice<Permisos> permisos = permisosService.obtenerPagina(pageable, idRol, modulo);
+            return new ResponseEntity<>(PaginaDTO.desde(permisos), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse("Validación fallida", e.getMessage()),
+                HttpStatus.BAD_REQUEST
+            );
+        }
     }
 
     /**
@@ -41,7 +66,7 @@ public class PermisosRestController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<Permisos> obtenerPorId(@PathVariable Integer id) {
-        return permisosRepository.findById(id)
+        return permisosService.obtenerPorId(id)
                 .map(permiso -> new ResponseEntity<>(permiso, HttpStatus.OK))
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
@@ -66,7 +91,7 @@ public class PermisosRestController {
                     HttpStatus.BAD_REQUEST
                 );
             }
-            Permisos permisoGuardado = permisosRepository.save(permiso);
+            Permisos permisoGuardado = permisosService.guardar(permiso);
             return new ResponseEntity<>(permisoGuardado, HttpStatus.CREATED);
         } catch (Exception e) {
             return new ResponseEntity<>(
@@ -83,7 +108,7 @@ public class PermisosRestController {
     public ResponseEntity<Permisos> actualizar(
             @PathVariable Integer id,
             @RequestBody Permisos permisoActualizado) {
-        return permisosRepository.findById(id)
+        return permisosService.obtenerPorId(id)
                 .map(permiso -> {
                     // Actualizar rol solo si viene en el payload
                     if (permisoActualizado.getRol() != null && permisoActualizado.getRol().getIdRol() != null) {
@@ -109,7 +134,7 @@ public class PermisosRestController {
                     if (permisoActualizado.getDescargar() != null) {
                         permiso.setDescargar(permisoActualizado.getDescargar());
                     }
-                    Permisos permisoGuardado = permisosRepository.save(permiso);
+                    Permisos permisoGuardado = permisosService.guardar(permiso);
                     return new ResponseEntity<>(permisoGuardado, HttpStatus.OK);
                 })
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
@@ -120,8 +145,7 @@ public class PermisosRestController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> eliminar(@PathVariable Integer id) {
-        if (permisosRepository.existsById(id)) {
-            permisosRepository.deleteById(id);
+        if (permisosService.eliminar(id)) {
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         }
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -132,7 +156,7 @@ public class PermisosRestController {
      */
     @GetMapping("/rol/{idRol}")
     public ResponseEntity<List<Permisos>> obtenerPorRol(@PathVariable Integer idRol) {
-        List<Permisos> permisos = permisosRepository.findByRolIdRol(idRol);
+        List<Permisos> permisos = permisosService.obtenerPorRol(idRol);
         return new ResponseEntity<>(permisos, HttpStatus.OK);
     }
 
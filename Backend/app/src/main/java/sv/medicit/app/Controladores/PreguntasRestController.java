@@ -1,15 +1,20 @@
 package sv.medicit.app.Controladores;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import sv.medicit.app.DTOs.PaginaDTO;
 import sv.medicit.app.Entidades.Preguntas;
 import sv.medicit.app.Servicios.PreguntasService;
+import sv.medicit.app.Utilidades.Paginacion;
 
 /**
  * RestController para la gestión de Preguntas.
@@ -21,17 +26,33 @@ import sv.medicit.app.Servicios.PreguntasService;
 @CrossOrigin(origins = "*")
 public class PreguntasRestController {
 
+    private static final Map<String, String> CAMPOS_ORDEN = Map.of(
+        "idPregunta", "idPregunta",
+        "pregunta", "pregunta",
+        "creado", "creado"
+    );
+
     @Autowired
     private PreguntasService preguntasService;
 
     /**
-     * GET /api/preguntas
-     * Obtener todas las preguntas.
+     * GET /api/preguntas?pagina=0&tamanio=20&orden=creado:desc
+     * Obtener las preguntas paginadas.
      */
     @GetMapping
-    public ResponseEntity<List<Preguntas>> obtenerTodos() {
-        List<Preguntas> preguntas = preguntasService.obtenerTodos();
-        return new ResponseEntity<>(preguntas, HttpStatus.OK);
+    public ResponseEntity<?> obtenerTodos(@RequestParam(required = false) Integer pagina,
+                                          @RequestParam(required = false) Integer tamanio,
+                                          @RequestParam(required = false) List<String> orden) {
+        try {
+            Pageable pageable = Paginacion.crear(pagina, tamanio, orden, CAMPOS_ORDEN, "idPregunta");
+            Slice<Preguntas> preguntas = preguntasService.obtenerPagina(pageable);
+            return new ResponseEntity<>(PaginaDTO.desde(preguntas), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse("Validación fallida", e.getMessage()),
+                HttpStatus.BAD_REQUEST
+            );
+        }
     }
 
     /**
@@ -1,15 +1,20 @@
 package sv.medicit.app.Controladores;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import sv.medicit.app.DTOs.PaginaDTO;
 import sv.medicit.app.Entidades.Respuestas;
 import sv.medicit.app.Servicios.RespuestasService;
+import sv.medicit.app.Utilidades.Paginacion;
 
 /**
  * RestController para la gestión de Respuestas.
@@ -21,17 +26,32 @@ import sv.medicit.app.Servicios.RespuestasService;
 @CrossOrigin(origins = "*")
 public class RespuestasRestController {
 
+    private static final Map<String, String> CAMPOS_ORDEN = Map.of(
+        "idRespuesta", "idRespuesta"
+    );
+
     @Autowired
     private RespuestasService respuestasService;
 
     /**
-     * GET /api/respuestas
-     * Obtener todas las respuestas.
+     * GET /api/respuestas?pagina=0&tamanio=20&orden=idRespuesta:desc&idUsuario=1
+     * Obtener las respuestas paginadas, opcionalmente filtradas por usuario.
      */
     @GetMapping
-    public ResponseEntity<List<Respuestas>> obtenerTodos() {
-        List<Respuestas> respuestas = respuestasService.obtenerTodos();
-        return new ResponseEntity<>(respuestas, HttpStatus.OK);
+    public ResponseEntity<?> obtenerTodos(@RequestParam(required = false) Integer pagina,
+                                          @RequestParam(required = false) Integer tamanio,
+                                          @RequestParam(required = false) List<String> orden,
+                                          @RequestParam(required = false) Integer idUsuario) {
+        try {
+            Pageable pageable = Paginacion.crear(pagina, tamanio, orden, CAMPOS_ORDEN, "idRespuesta");
+            Slice<Respuestas> respuestas = respuestasService.obtenerPagina(pageable, idUsuario);
+            return new ResponseEntity<>(PaginaDTO.desde(respuestas), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse("Validación fallida", e.getMessage()),
+                HttpStatus.BAD_REQUEST
+            );
+        }
     }
 
     /**
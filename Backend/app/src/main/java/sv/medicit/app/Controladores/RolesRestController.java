@@ -1,37 +1,65 @@
 package sv.medicit.app.Controladores;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import sv.medicit.app.DTOs.PaginaDTO;
 import sv.medicit.app.Entidades.Roles;
 import sv.medicit.app.Servicios.RolesService;
+import sv.medicit.app.Utilidades.Paginacion;
 
 @RestController
 @RequestMapping("/api/roles")
 @CrossOrigin(origins = "*")
 public class RolesRestController {
 
+    private static final Map<String, String> CAMPOS_ORDEN = Map.of(
+        "idRol", "idRol",
+        "nombreRol", "nombreRol"
+    );
+
     @Autowired
     private RolesService rolesService;
 
     @GetMapping
-    public ResponseEntity<List<Roles>> obtenerTodos() {
-        List<Roles> roles = rolesService.obtenerTodos();
-        return new ResponseEntity<>(roles, HttpStatus.OK);
+    public ResponseEntity<?> obtenerTodos(@RequestParam(required = false) Integer pagina,
+                                          @RequestParam(required = false) Integer tamanio,
+                                          @RequestParam(required = false) List<String> orden,
+                                          @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        try {
+            Pageable pageable = Paginacion.crear(pagina, tamanio, orden, CAMPOS_ORDEN, "idRol");
+            String etag = rolesService.obtenerEtag();
+            if (etag.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            Slice<Roles> roles = rolesService.obtenerPagina(pageable);
+            return ResponseEntity.ok().eTag(etag).body(PaginaDTO.desde(roles));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponse("Validación fallida", e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Roles> obtenerPorId(@PathVariable Integer id) {
+    public ResponseEntity<Roles> obtenerPorId(@PathVariable Integer id,
+                                              @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        // El ETag es el del catálogo completo: solo vale para IDs que existen
         Optional<Roles> rol = rolesService.obtenerPorId(id);
-        if (rol.isPresent()) {
-            return new ResponseEntity<>(rol.get(), HttpStatus.OK);
+        if (rol.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        String etag = rolesService.obtenerEtag();
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
         }
-        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return ResponseEntity.ok().eTag(etag).body(rol.get());
     }
 
     @PostMapping
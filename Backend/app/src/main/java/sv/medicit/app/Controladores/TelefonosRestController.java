@@ -1,15 +1,20 @@
 package sv.medicit.app.Controladores;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import sv.medicit.app.DTOs.PaginaDTO;
 import sv.medicit.app.Entidades.Telefonos;
 import sv.medicit.app.Servicios.TelefonosService;
+import sv.medicit.app.Utilidades.Paginacion;
 
 /**
  * RestController para la gestión de Telefonos.
@@ -21,17 +26,33 @@ import sv.medicit.app.Servicios.TelefonosService;
 @CrossOrigin(origins = "*")
 public class TelefonosRestController {
 
+    private static final Map<String, String> CAMPOS_ORDEN = Map.of(
+        "idTelefono", "idTelefono",
+        "numero", "telefono"
+    );
+
     @Autowired
     private TelefonosService telefonosService;
 
     /**
-     * GET /api/telefonos
-     * Obtener todos los teléfonos.
+     * GET /api/telefonos?pagina=0&tamanio=20&orden=idTelefono:desc&idUsuario=1
+     * Obtener los teléfonos paginados, opcionalmente filtrados por usuario.
      */
     @GetMapping
-    public ResponseEntity<List<Telefonos>> obtenerTodos() {
-        List<Telefonos> telefonos = telefonosService.obtenerTodos();
-        return new ResponseEntity<>(telefonos, HttpStatus.OK);
+    public ResponseEntity<?> obtenerTodos(@RequestParam(required = false) Integer pagina,
+                                          @RequestParam(required = false) Integer tamanio,
+                                          @RequestParam(required = false) List<String> orden,
+                                          @RequestParam(required = false) Integer idUsuario) {
+        try {
+            Pageable pageable = Paginacion.crear(pagina, tamanio, orden, CAMPOS_ORDEN, "idTelefono");
+            Slice<Telefonos> telefonos = telefonosService.obtenerPagina(pageable, idUsuario);
+            return new ResponseEntity<>(PaginaDTO.desde(telefonos), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse("Validación fallida", e.getMessage()),
+                HttpStatus.BAD_REQUEST
+            );
+        }
     }
 
     /**
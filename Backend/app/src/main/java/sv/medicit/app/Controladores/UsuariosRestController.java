@@ -1,10 +1,19 @@
 package sv.medicit.app.Controladores;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,13 +23,23 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import sv.medicit.app.DTOs.EventoImportacionDTO;
+import sv.medicit.app.DTOs.PaginaDTO;
 import sv.medicit.app.DTOs.UsuarioCreacionDTO;
 import sv.medicit.app.DTOs.UsuarioDTO;
 import sv.medicit.app.DTOs.UsuarioLoginDTO;
 import sv.medicit.app.Entidades.Usuarios;
+import sv.medicit.app.Servicios.ImportacionPacientesService;
 import sv.medicit.app.Servicios.UsuariosService;
+import sv.medicit.app.Utilidades.EncriptacionSaturadaException;
+import sv.medicit.app.Utilidades.Paginacion;
 
 /**
  * RestController para la gestión de Usuarios.
@@ -32,17 +51,45 @@ import sv.medicit.app.Servicios.UsuariosService;
 @CrossOrigin(origins = "*")
 public class UsuariosRestController {
 
+    private static final Map<String, String> CAMPOS_ORDEN = Map.of(
+        "idUsuario", "idUsuario",
+        "nombreUsuario", "nombreUsuario",
+        "nombres", "nombres",
+        "apellidos", "apellidos",
+        "fechaNacimiento", "fechaNacimiento"
+    );
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     @Autowired
     private UsuariosService usuariosService;
 
+    @Autowired
+    private ImportacionPacientesService importacionPacientesService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
-     * GET /api/usuarios
-     * Obtener todos los usuarios con correo incluido.
+     * GET /api/usuarios?pagina=0&tamanio=20&orden=apellidos:asc&idRol=2&idEstado=1
+     * Obtener los usuarios paginados con correo incluido, opcionalmente filtrados por rol y estado.
      */
     @GetMapping
-    public ResponseEntity<List<UsuarioDTO>> obtenerTodos() {
-        List<UsuarioDTO> usuarios = usuariosService.obtenerTodosConCorreo();
-        return new ResponseEntity<>(usuarios, HttpStatus.OK);
+    public ResponseEntity<?> obtenerTodos(@RequestParam(required = false) Integer pagina,
+                                          @RequestParam(required = false) Integer tamanio,
+                                          @RequestParam(required = false) List<String> orden,
+                                          @RequestParam(required = false) Integer idRol,
+                                          @RequestParam(required = false) Integer idEstado) {
+        try {
+            Pageable pageable = Paginacion.crear(pagina, tamanio, orden, CAMPOS_ORDEN, "idUsuario");
+            Slice<UsuarioDTO> usuarios = usuariosService.obtenerPaginaConCorreo(pageable, idRol, idEstado);
+            return new ResponseEntity<>(PaginaDTO.desde(usuarios), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse("Validación fallida", e.getMessage()),
+                HttpStatus.BAD_REQUEST
+            );
+        }
     }
 
     /**
@@ -84,12 +131,18 @@ public class UsuariosRestController {
     /**
      * POST /api/usuarios/completo
      * Crear un nuevo usuario con contraseña, teléfono, correo y preguntas/respuestas.
+     * Responde 503 con Retry-After si hay demasiadas contraseñas esperando encriptación.
      */
     @PostMapping("/completo")
     public ResponseEntity<?> crearCompleto(@RequestBody UsuarioCreacionDTO usuarioDTO) {
         try {
             Usuarios usuarioCreado = usuariosService.crearUsuarioCompleto(usuarioDTO);
             return new ResponseEntity<>(usuarioCreado, HttpStatus.CREATED);
+        } catch (EncriptacionSaturadaException e) {
+            // Pool de BCrypt saturado: pedir al cliente que reintente, igual que el login
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getSegundosReintento()))
+                .body(new ErrorResponse("Servicio saturado", e.getMessage()));
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(
                 new ErrorResponse("Validación fallida", e.getMessage()),
@@ -103,6 +156,78 @@ public class UsuariosRestController {
         }
     }
 
+    /**
+     * POST /api/usuarios/importar
+     * Importación masiva de pacientes. El cuerpo se lee en streaming y puede ser CSV (text/csv, primera
+     * fila con los nombres de campo de UsuarioCreacionDTO y columnas preguntaN/respuestaN) o NDJSON
+     * (application/x-ndjson, un UsuarioCreacionDTO por línea; también si el Content-Type falta o no se
+     * puede interpretar).
+     * La respuesta es NDJSON: un evento "error" por fila rechazada, un "progreso" por lote guardado
+     * y un "resumen" al final. Si la importación falla antes de enviar algo se responde un ErrorResponse;
+     * si falla después, el último evento es "fallo".
+     */
+    @PostMapping(value = "/importar", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> importarPacientes(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // Se verifican antes del primer byte, cuando todavía se puede responder con otro estado
+        ImportacionPacientesService.Requisitos requisitos;
+        try {
+            requisitos = importacionPacientesService.requisitos();
+        } catch (Exception e) {
+            return new ResponseEntity<>(
+                new ErrorResponse("Error", e.getMessage()),
+                HttpStatus.INTERNAL_SERVER_ERROR
+            );
+        }
+
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        OutputStream salida = response.getOutputStream();
+        try {
+            importacionPacientesService.importar(request.getInputStream(), formatoImportacion(request.getContentType()),
+                requisitos, evento -> escribirEvento(salida, evento));
+        } catch (UncheckedIOException e) {
+            // El cliente cerró la conexión: ya no hay a quién responder
+            throw e.getCause();
+        } catch (Exception e) {
+            if (!response.isCommitted()) {
+                response.reset();
+                return new ResponseEntity<>(
+                    new ErrorResponse("Error", e.getMessage()),
+                    HttpStatus.INTERNAL_SERVER_ERROR
+                );
+            }
+            escribirEvento(salida, EventoImportacionDTO.fallo(e.getMessage()));
+            salida.flush();
+        }
+        // La respuesta ya se escribió
+        return null;
+    }
+
+    // Sin Content-Type o con uno que no se puede interpretar se asume NDJSON
+    private static ImportacionPacientesService.Formato formatoImportacion(String contentType) {
+        try {
+            if (contentType != null && MediaType.parseMediaType(contentType).isCompatibleWith(TEXT_CSV)) {
+                return ImportacionPacientesService.Formato.CSV;
+            }
+        } catch (InvalidMediaTypeException e) {
+            // Se trata como NDJSON
+        }
+        return ImportacionPacientesService.Formato.NDJSON;
+    }
+
+    private void escribirEvento(OutputStream salida, EventoImportacionDTO evento) {
+        try {
+            salida.write(objectMapper.writeValueAsBytes(evento));
+            salida.write('\n');
+            // Los errores se envían junto con el siguiente evento de progreso
+            if (!"error".equals(evento.getTipo())) {
+                salida.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
      * PUT /api/usuarios/{id}
      * Actualizar un usuario existente.
@@ -0,0 +1,26 @@
+package sv.medicit.app.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para los resultados de la búsqueda de texto en antecedentes.
+ * Incluye un fragmento del antecedente alrededor de la primera coincidencia y el puntaje de relevancia.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AntecedenteCoincidenciaDTO {
+
+    private Integer idAntecedente;
+
+    private Integer idUsuario;
+
+    private String nombrePaciente;
+
+    private String fragmento;
+
+    private Double puntaje;
+
+}
@@ -0,0 +1,32 @@
+package sv.medicit.app.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO resumido para los listados de Antecedentes.
+ * Contiene el título y el inicio de la descripción; el texto completo se obtiene por ID
+ * o con GET /api/antecedentes/{id}/descripcion.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AntecedenteResumenDTO {
+
+    private Integer idAntecedente;
+
+    private Integer idUsuario;
+
+    private String nombrePaciente;
+
+    // Inicio del antecedente (hasta 120 caracteres)
+    private String titulo;
+
+    // Largo total de la descripción en caracteres
+    private Integer largo;
+
+    // Inicio de la descripción (hasta 200 caracteres)
+    private String vistaPrevia;
+
+}
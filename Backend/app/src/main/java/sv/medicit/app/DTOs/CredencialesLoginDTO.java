@@ -0,0 +1,41 @@
+package sv.medicit.app.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO interno del login: usuario, rol, estado, contraseña y correo principales en una sola fila.
+ * Lo construye UsuariosRepository.obtenerCredencialesPorNombreUsuario / PorId.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CredencialesLoginDTO {
+
+    private Integer idUsuario;
+
+    private String nombreUsuario;
+
+    private String nombres;
+
+    private String apellidos;
+
+    private Integer idRol;
+
+    private String nombreRol;
+
+    // Nombre del estado del usuario; null si no tiene
+    private String estado;
+
+    // Contraseña principal (menor ID); null si el usuario no tiene
+    private Integer idContrasenia;
+
+    private String contrasenia;
+
+    // Correo principal (menor ID); null si el usuario no tiene
+    private String correo;
+
+    // Versión de sesión del usuario (Usuarios.versionSesion); va en el token de sesión
+    private long versionSesion;
+}
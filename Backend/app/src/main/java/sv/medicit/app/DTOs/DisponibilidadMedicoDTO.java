@@ -0,0 +1,25 @@
+package sv.medicit.app.DTOs;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para la disponibilidad de un médico.
+ * Contiene los horarios libres (inicio de cada bloque) dentro del rango consultado.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DisponibilidadMedicoDTO {
+
+    private Integer idMedico;
+
+    private String nombreMedico;
+
+    private List<LocalDateTime> horarios;
+
+}
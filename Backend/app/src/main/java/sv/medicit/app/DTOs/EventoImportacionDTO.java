@@ -0,0 +1,50 @@
+package sv.medicit.app.DTOs;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para los eventos que emite la importación masiva de pacientes (una línea NDJSON por evento).
+ * tipo = "error" (una fila rechazada), "progreso" (después de cada lote), "resumen" (al terminar) o
+ * "fallo" (la importación se interrumpió después de enviar otros eventos; los lotes ya guardados se conservan).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EventoImportacionDTO {
+
+    private String tipo;
+
+    // Número de fila en el archivo (1 = primera fila de datos)
+    private Integer fila;
+
+    private String nombreUsuario;
+
+    private String mensaje;
+
+    private Integer procesadas;
+
+    private Integer importadas;
+
+    private Integer fallidas;
+
+    public static EventoImportacionDTO error(int fila, String nombreUsuario, String mensaje) {
+        return new EventoImportacionDTO("error", fila, nombreUsuario, mensaje, null, null, null);
+    }
+
+    public static EventoImportacionDTO progreso(int procesadas, int importadas, int fallidas) {
+        return new EventoImportacionDTO("progreso", null, null, null, procesadas, importadas, fallidas);
+    }
+
+    public static EventoImportacionDTO resumen(int procesadas, int importadas, int fallidas) {
+        return new EventoImportacionDTO("resumen", null, null, null, procesadas, importadas, fallidas);
+    }
+
+    public static EventoImportacionDTO fallo(String mensaje) {
+        return new EventoImportacionDTO("fallo", null, null, mensaje, null, null, null);
+    }
+}
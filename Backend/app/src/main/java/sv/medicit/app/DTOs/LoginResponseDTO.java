@@ -2,6 +2,7 @@ package sv.medicit.app.DTOs;
 
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import lombok.AllArgsConstructor;
@@ -20,9 +21,16 @@ public class LoginResponseDTO {
     @JsonProperty("success")
     private Boolean success = true;
 
+    // Vacío cuando un refresco de sesión no encontró cambios
     @JsonProperty("userData")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private UserDataDTO userData;
 
+    // Token de sesión firmado (ver TokenSesionUtil); se envía como "Authorization: Bearer <token>"
+    @JsonProperty("token")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String token;
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -34,9 +42,6 @@ public class LoginResponseDTO {
         @JsonProperty("correo")
         private String correo;
 
-        @JsonProperty("contrasena")
-        private String contrasena;
-
         @JsonProperty("nombre_usuario")
         private String nombreUsuario;
 
@@ -0,0 +1,24 @@
+package sv.medicit.app.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para la búsqueda de médicos por especialidad.
+ * Contiene solo los datos necesarios para elegir médico al agendar una cita.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MedicoDTO {
+
+    private Integer idUsuario;
+
+    private String nombres;
+
+    private String apellidos;
+
+    private String estado;
+
+}
@@ -0,0 +1,23 @@
+package sv.medicit.app.DTOs;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO envolvente para los listados con paginación por cursor (keyset).
+ * El cliente envía siguienteCursor para obtener la página que sigue.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCursorDTO<T> {
+
+    private List<T> contenido;
+
+    private String siguienteCursor;
+
+    private Boolean haySiguiente;
+}
@@ -0,0 +1,34 @@
+package sv.medicit.app.DTOs;
+
+import java.util.List;
+
+import org.springframework.data.domain.Slice;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO envolvente para los listados paginados.
+ * Contiene los elementos de la página y la información necesaria para pedir la siguiente.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaDTO<T> {
+
+    private List<T> contenido;
+
+    private Integer pagina;
+
+    private Integer tamanio;
+
+    private Boolean haySiguiente;
+
+    /**
+     * Construir la página a partir de un Slice de Spring Data.
+     */
+    public static <T> PaginaDTO<T> desde(Slice<T> slice) {
+        return new PaginaDTO<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
+    }
+}
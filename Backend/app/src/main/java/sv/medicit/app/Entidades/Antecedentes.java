@@ -2,6 +2,7 @@ package sv.medicit.app.Entidades;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -9,30 +10,43 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import sv.medicit.app.Utilidades.CompresionTexto;
 
 /**
  * Entidad JPA que representa la tabla `antecedentes`.
  * Almacena los antecedentes médicos asociados a los usuarios.
  * El campo antecedente es de tipo TEXT en MySQL.
+ * Titulo, vistaPrevia y largoDescripcion se calculan al guardar para que los listados
+ * no tengan que leer las columnas LONGTEXT.
+ * La descripción no se guarda en la fila: se guarda una sola vez por texto distinto, comprimida,
+ * en Contenidos_antecedentes (ver DescripcionAntecedenteListener) y se lee al pedirla.
  */
 @Entity
 @Table(name = "Antecedentes")
+@EntityListeners(DescripcionAntecedenteListener.class)
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class Antecedentes {
 
+    public static final int LARGO_TITULO = 120;
+
+    public static final int LARGO_VISTA_PREVIA = 200;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id_antecedente")
     private Integer idAntecedente;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id", referencedColumnName = "id_usuario", nullable = false)
     private Usuarios usuario;
 
@@ -40,7 +54,83 @@ public class Antecedentes {
     @Column(name = "antecedente", nullable = false, columnDefinition = "LONGTEXT")
     private String antecedente;
 
-    @Lob
-    @Column(name = "descripcion", columnDefinition = "LONGTEXT")
+    // Texto recibido o ya leído; se persiste a través de descripcionHash
+    @Transient
     private String descripcion;
+
+    // Indica que la descripción se asignó en esta instancia y hay que guardar su contenido
+    @JsonIgnore
+    @Transient
+    private boolean descripcionModificada;
+
+    // Huella SHA-256 de la descripción; referencia a Contenidos_antecedentes
+    @JsonIgnore
+    @Column(name = "descripcion_hash", length = 64)
+    private String descripcionHash;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "descripcion_hash", referencedColumnName = "hash", insertable = false, updatable = false)
+    private ContenidosAntecedentes contenidoDescripcion;
+
+    // Resumen para los listados; no se recibe ni se envía en JSON
+    @JsonIgnore
+    @Column(name = "titulo", length = LARGO_TITULO)
+    private String titulo;
+
+    @JsonIgnore
+    @Column(name = "vista_previa", length = LARGO_VISTA_PREVIA)
+    private String vistaPrevia;
+
+    // En caracteres (unidades UTF-16 de Java), las mismas posiciones que usa la cabecera Range
+    @JsonIgnore
+    @Column(name = "largo_descripcion")
+    private Integer largoDescripcion;
+
+    public Antecedentes(Integer idAntecedente, Usuarios usuario, String antecedente, String descripcion) {
+        this.idAntecedente = idAntecedente;
+        this.usuario = usuario;
+        this.antecedente = antecedente;
+        setDescripcion(descripcion);
+    }
+
+    /**
+     * Obtener la descripción; si no se asignó en esta instancia se lee de Contenidos_antecedentes.
+     */
+    public String getDescripcion() {
+        if (descripcion == null && contenidoDescripcion != null) {
+            descripcion = contenidoDescripcion.getTexto();
+        }
+        return descripcion;
+    }
+
+    /**
+     * Asignar la descripción y su huella; cambiar la huella marca el antecedente para actualizar.
+     */
+    public void setDescripcion(String descripcion) {
+        this.descripcion = descripcion;
+        this.descripcionHash = descripcion != null ? CompresionTexto.huella(descripcion) : null;
+        this.descripcionModificada = true;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void calcularResumen() {
+        titulo = recortar(antecedente, LARGO_TITULO);
+        // Sin cambios en la descripción no hace falta leerla para recalcular su resumen
+        if (descripcionModificada || largoDescripcion == null) {
+            String texto = getDescripcion();
+            vistaPrevia = recortar(texto, LARGO_VISTA_PREVIA);
+            largoDescripcion = texto != null ? texto.length() : 0;
+        }
+    }
+
+    private static String recortar(String texto, int largo) {
+        if (texto == null || texto.length() <= largo) {
+            return texto;
+        }
+        // No partir un carácter de dos unidades (p. ej. emoji)
+        int fin = Character.isHighSurrogate(texto.charAt(largo - 1)) ? largo - 1 : largo;
+        return texto.substring(0, fin);
+    }
 }
@@ -8,9 +8,13 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -19,9 +23,16 @@ import lombok.NoArgsConstructor;
 /**
  * Entidad JPA que representa la tabla `citas`.
  * Almacena las citas médicas entre pacientes y médicos.
+ * horario_reservado repite fecha_hora mientras la cita ocupa el horario y queda NULL si se cancela;
+ * el índice único (medico_id, horario_reservado) impide dos citas activas del médico a la misma hora.
  */
 @Entity
-@Table(name = "Citas")
+@Table(name = "Citas", indexes = {
+    @Index(name = "idx_citas_medico_fecha", columnList = "medico_id, fecha_hora"),
+    @Index(name = "idx_citas_paciente_fecha", columnList = "paciente_id, fecha_hora")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_citas_medico_horario", columnNames = {"medico_id", "horario_reservado"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -32,11 +43,11 @@ public class Citas {
     @Column(name = "id_cita")
     private Integer idCita;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "paciente_id", referencedColumnName = "id_usuario", nullable = false)
     private Usuarios paciente;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "medico_id", referencedColumnName = "id_usuario", nullable = false)
     private Usuarios medico;
 
@@ -46,7 +57,17 @@ public class Citas {
     @Column(name = "motivo", length = 200, nullable = false)
     private String motivo;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_estado", referencedColumnName = "id_estado", nullable = false)
     private Estados estado;
+
+    // Lo asigna AgendaService al guardar; no se recibe ni se envía en JSON
+    @JsonIgnore
+    @Column(name = "horario_reservado")
+    private LocalDateTime horarioReservado;
+
+    public Citas(Integer idCita, Usuarios paciente, Usuarios medico, LocalDateTime fechaHora,
+                 String motivo, Estados estado) {
+        this(idCita, paciente, medico, fechaHora, motivo, estado, null);
+    }
 }
@@ -0,0 +1,34 @@
+package sv.medicit.app.Entidades;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import sv.medicit.app.Utilidades.TextoComprimidoConverter;
+
+/**
+ * Entidad JPA que representa la tabla `Contenidos_antecedentes`.
+ * Guarda una sola vez cada descripción de antecedente distinta, identificada por su huella SHA-256
+ * y comprimida si supera el umbral de CompresionTexto. Varios antecedentes con el mismo texto
+ * (notas de plantilla) apuntan a la misma fila.
+ */
+@Entity
+@Table(name = "Contenidos_antecedentes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContenidosAntecedentes {
+
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash;
+
+    @Convert(converter = TextoComprimidoConverter.class)
+    @Column(name = "datos", nullable = false, columnDefinition = "LONGBLOB")
+    private String texto;
+}
@@ -9,6 +9,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -26,11 +27,13 @@ import lombok.NoArgsConstructor;
 public class Contrasenias {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "ids_contrasenias")
+    @TableGenerator(name = "ids_contrasenias", table = "Secuencias", pkColumnName = "nombre_secuencia",
+        valueColumnName = "siguiente_valor", pkColumnValue = "Contrasenias", allocationSize = 50)
     @Column(name = "id_contrasenia")
     private Integer idContrasenia;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id", referencedColumnName = "id_usuario", nullable = false)
     private Usuarios usuario;
 
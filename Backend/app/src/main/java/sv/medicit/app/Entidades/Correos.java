@@ -9,6 +9,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -28,11 +29,13 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 public class Correos {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "ids_correos")
+    @TableGenerator(name = "ids_correos", table = "Secuencias", pkColumnName = "nombre_secuencia",
+        valueColumnName = "siguiente_valor", pkColumnValue = "Correos", allocationSize = 50)
     @Column(name = "id_correo")
     private Integer idCorreo;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id", referencedColumnName = "id_usuario", nullable = false)
     @JsonIgnore(false)
     @JsonProperty("usuario")
@@ -0,0 +1,29 @@
+package sv.medicit.app.Entidades;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import sv.medicit.app.Servicios.ContenidosAntecedentesService;
+
+/**
+ * Guarda el contenido de la descripción de un antecedente antes de insertar o actualizar la fila,
+ * para que descripcion_hash siempre apunte a un contenido existente. Hibernate crea el listener
+ * como bean de Spring; el servicio se inyecta con @Lazy porque depende del EntityManagerFactory
+ * que se está construyendo.
+ */
+public class DescripcionAntecedenteListener {
+
+    @Autowired
+    @Lazy
+    private ContenidosAntecedentesService contenidosAntecedentesService;
+
+    @PrePersist
+    @PreUpdate
+    void guardarContenido(Antecedentes antecedente) {
+        if (antecedente.isDescripcionModificada() && antecedente.getDescripcionHash() != null) {
+            contenidosAntecedentesService.guardar(antecedente.getDescripcionHash(), antecedente.getDescripcion());
+        }
+    }
+}
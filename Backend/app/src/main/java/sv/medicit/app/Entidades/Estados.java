@@ -11,6 +11,7 @@ import jakarta.persistence.OneToMany;
 import jakarta.persistence.FetchType;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import lombok.AllArgsConstructor;
 import lombok.Data; 
@@ -22,6 +23,7 @@ import lombok.NoArgsConstructor;
  * cree/actualice la tabla desde las entidades (ddl-auto=update).
  */
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "Estados")
 @Data
 @NoArgsConstructor
@@ -12,6 +12,9 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.OneToMany;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -24,6 +27,7 @@ import lombok.ToString;
  * cree/actualice la tabla desde las entidades (ddl-auto=update).
  */
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "Modulos")
 @Data
 @NoArgsConstructor
@@ -44,5 +48,6 @@ public class Modulos {
     @OneToMany(mappedBy = "modulo", fetch = FetchType.LAZY)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
+    @JsonIgnore
     private List<RolPermisoModulo> rolesPermisosModulos;
 }
@@ -8,6 +8,9 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -18,6 +21,7 @@ import lombok.NoArgsConstructor;
  * Almacena las preguntas frecuentes o de la comunidad.
  */
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "Preguntas")
 @Data
 @NoArgsConstructor
@@ -25,7 +29,9 @@ import lombok.NoArgsConstructor;
 public class Preguntas {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "ids_preguntas")
+    @TableGenerator(name = "ids_preguntas", table = "Secuencias", pkColumnName = "nombre_secuencia",
+        valueColumnName = "siguiente_valor", pkColumnValue = "Preguntas", allocationSize = 50)
     @Column(name = "id_pregunta")
     private Integer idPregunta;
 
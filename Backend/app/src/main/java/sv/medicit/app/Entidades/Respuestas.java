@@ -9,6 +9,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -26,15 +27,17 @@ import lombok.NoArgsConstructor;
 public class Respuestas {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "ids_respuestas")
+    @TableGenerator(name = "ids_respuestas", table = "Secuencias", pkColumnName = "nombre_secuencia",
+        valueColumnName = "siguiente_valor", pkColumnValue = "Respuestas", allocationSize = 50)
     @Column(name = "id_respuesta")
     private Integer idRespuesta;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id", referencedColumnName = "id_usuario", nullable = false)
     private Usuarios usuario;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "pregunta_id", referencedColumnName = "id_pregunta", nullable = false)
     private Preguntas pregunta;
 
@@ -11,6 +11,7 @@ import jakarta.persistence.OneToMany;
 import jakarta.persistence.FetchType;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -24,6 +25,7 @@ import lombok.ToString;
  * cree/actualice la tabla desde las entidades (ddl-auto=update).
  */
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "Roles")
 @Data
 @NoArgsConstructor
@@ -52,6 +54,7 @@ public class Roles {
     @OneToMany(mappedBy = "rol", fetch = FetchType.LAZY)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
+    @JsonIgnore
     private List<RolPermisoModulo> rolesPermisosModulos;
 
 }
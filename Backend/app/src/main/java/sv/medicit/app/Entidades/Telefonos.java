@@ -9,6 +9,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -29,11 +30,13 @@ import com.fasterxml.jackson.annotation.JsonSetter;
 public class Telefonos {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "ids_telefonos")
+    @TableGenerator(name = "ids_telefonos", table = "Secuencias", pkColumnName = "nombre_secuencia",
+        valueColumnName = "siguiente_valor", pkColumnValue = "Telefonos", allocationSize = 50)
     @Column(name = "id_telefono")
     private Integer idTelefono;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id", referencedColumnName = "id_usuario", nullable = false)
     @JsonIgnore(false)
     @JsonProperty("usuario")
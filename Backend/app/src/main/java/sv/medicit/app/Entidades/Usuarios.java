@@ -9,6 +9,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
 import jakarta.persistence.FetchType;
@@ -18,7 +19,10 @@ import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.JoinTable;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -30,6 +34,7 @@ import lombok.NoArgsConstructor;
  * cree/actualice la tabla desde las entidades (ddl-auto=update).
  */
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "Usuarios")
 @Data
 @NoArgsConstructor
@@ -37,7 +42,9 @@ import lombok.NoArgsConstructor;
 public class Usuarios {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "ids_usuarios")
+    @TableGenerator(name = "ids_usuarios", table = "Secuencias", pkColumnName = "nombre_secuencia",
+        valueColumnName = "siguiente_valor", pkColumnValue = "Usuarios", allocationSize = 50)
     @Column(name = "id_usuario")
     private Integer idUsuario;
 
@@ -57,16 +64,16 @@ public class Usuarios {
     @Column(name = "fecha_nacimiento", nullable = false)
     private Date fechaNacimiento;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_rol", referencedColumnName = "id_rol", nullable = false)
     private Roles rol;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_estado", referencedColumnName = "id_estado", nullable = false)
     private Estados estado;
 
     // Relación ManyToMany con Especialidades (lado propietario)
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "Usuario_especialidad",
         joinColumns = @JoinColumn(name = "id_usuario", referencedColumnName = "id_usuario"),
@@ -83,4 +90,21 @@ public class Usuarios {
     @OneToMany(mappedBy = "usuario", fetch = FetchType.LAZY)
     @JsonIgnore
     private List<Correos> correos;
+
+    // Versión de las sesiones del usuario: aumenta cuando cambian su rol o su estado y deja sin
+    // efecto los tokens emitidos antes (ver LoginService.refrescarSesion)
+    @Column(name = "version_sesion", nullable = false)
+    @ColumnDefault("0")
+    @JsonIgnore
+    private long versionSesion;
+
+    /**
+     * Crear un usuario con la versión de sesión inicial (0).
+     */
+    public Usuarios(Integer idUsuario, String nombreUsuario, String nombres, String apellidos, String dui,
+            Date fechaNacimiento, Roles rol, Estados estado, List<Especialidades> especialidades,
+            List<Contrasenias> contrasenias, List<Correos> correos) {
+        this(idUsuario, nombreUsuario, nombres, apellidos, dui, fechaNacimiento, rol, estado, especialidades,
+            contrasenias, correos, 0);
+    }
 }
@@ -1,13 +1,23 @@
 package sv.medicit.app.Repositorios;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import sv.medicit.app.DTOs.AntecedenteSimpleDTO;
+import jakarta.persistence.QueryHint;
+import sv.medicit.app.DTOs.AntecedenteResumenDTO;
 import sv.medicit.app.Entidades.Antecedentes;
 
 /**
@@ -18,10 +28,63 @@ import sv.medicit.app.Entidades.Antecedentes;
 public interface AntecedentesRepository extends JpaRepository<Antecedentes, Integer> {
     
     // Obtener todos los antecedentes de un usuario
+    @EntityGraph(attributePaths = {"usuario", "usuario.rol", "usuario.estado"})
     List<Antecedentes> findByUsuarioIdUsuario(Integer idUsuario);
     
-    // Obtener antecedentes simplificados (solo ID y antecedente) sin datos del usuario
-    @Query("SELECT new sv.medicit.app.DTOs.AntecedenteSimpleDTO(a.idAntecedente, a.antecedente) " +
-           "FROM Antecedentes a WHERE a.usuario.idUsuario = :idUsuario")
-    List<AntecedenteSimpleDTO> obtenerAntecedentesSimplePorUsuarioId(@Param("idUsuario") Integer idUsuario);
+    // Resumen de un antecedente: columnas cortas calculadas al guardar, sin leer los LONGTEXT
+    String SELECT_RESUMEN = "SELECT new sv.medicit.app.DTOs.AntecedenteResumenDTO(a.idAntecedente, u.idUsuario, " +
+        "CONCAT(u.nombres, ' ', u.apellidos), a.titulo, a.largoDescripcion, a.vistaPrevia) " +
+        "FROM Antecedentes a JOIN a.usuario u ";
+
+    /**
+     * Obtener los resúmenes de los antecedentes de un usuario.
+     */
+    @Query(SELECT_RESUMEN + "WHERE u.idUsuario = :idUsuario ORDER BY a.idAntecedente")
+    List<AntecedenteResumenDTO> obtenerResumenesPorUsuarioId(@Param("idUsuario") Integer idUsuario);
+
+    /**
+     * Obtener una página de resúmenes de antecedentes, opcionalmente filtrada por usuario.
+     */
+    @Query(SELECT_RESUMEN + "WHERE (:idUsuario IS NULL OR u.idUsuario = :idUsuario)")
+    Slice<AntecedenteResumenDTO> buscarPagina(@Param("idUsuario") Integer idUsuario, Pageable pageable);
+
+    /**
+     * Obtener por ID junto con las relaciones que se serializan en la respuesta.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"usuario", "usuario.rol", "usuario.estado"})
+    Optional<Antecedentes> findById(Integer id);
+
+    /**
+     * Recorrer [idAntecedente, idUsuario, antecedente, descripcion] de todos los antecedentes.
+     * Carga inicial del índice de búsqueda; se lee del cursor en bloques, debe consumirse dentro
+     * de una transacción y cerrarse al terminar.
+     */
+    @Query("SELECT a.idAntecedente, a.usuario.idUsuario, a.antecedente, c.texto " +
+           "FROM Antecedentes a LEFT JOIN a.contenidoDescripcion c")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> transmitirTextos();
+
+    /**
+     * Obtener [idAntecedente, antecedente, nombres, apellidos] de los antecedentes indicados
+     * (resultados de una búsqueda), en una sola consulta.
+     */
+    @Query("SELECT a.idAntecedente, a.antecedente, u.nombres, u.apellidos " +
+           "FROM Antecedentes a JOIN a.usuario u WHERE a.idAntecedente IN :ids")
+    List<Object[]> obtenerTextosConPaciente(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Obtener el largo de la descripción (en caracteres) de un antecedente; vacío si no existe.
+     */
+    @Query("SELECT COALESCE(a.largoDescripcion, 0) FROM Antecedentes a WHERE a.idAntecedente = :id")
+    Optional<Integer> obtenerLargoDescripcion(@Param("id") Integer id);
+
+    /**
+     * Obtener la huella de la descripción de un antecedente ("" si no tiene); vacío si no existe.
+     */
+    @Query("SELECT COALESCE(a.descripcionHash, '') FROM Antecedentes a WHERE a.idAntecedente = :id")
+    Optional<String> obtenerHashDescripcion(@Param("id") Integer id);
 }
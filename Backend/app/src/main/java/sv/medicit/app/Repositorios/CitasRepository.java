@@ -1,12 +1,24 @@
 package sv.medicit.app.Repositorios;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 import sv.medicit.app.DTOs.CitaSimpleDTO;
 import sv.medicit.app.Entidades.Citas;
 
@@ -16,30 +28,95 @@ import sv.medicit.app.Entidades.Citas;
  */
 @Repository
 public interface CitasRepository extends JpaRepository<Citas, Integer> {
+
+    // Proyección compartida por las consultas que devuelven CitaSimpleDTO
+    String SELECT_CITA_SIMPLE = "SELECT new sv.medicit.app.DTOs.CitaSimpleDTO(" +
+        "c.idCita, c.paciente.idUsuario, CONCAT(c.paciente.nombres, ' ', c.paciente.apellidos), " +
+        "c.medico.idUsuario, CONCAT(c.medico.nombres, ' ', c.medico.apellidos), c.fechaHora, c.motivo, c.estado.estado) " +
+        "FROM Citas c ";
+
+    // Filtros opcionales de los listados; los nulos se ignoran y el rango de fechas es [desde, hasta)
+    String FILTROS_CITAS = "WHERE (:idPaciente IS NULL OR c.paciente.idUsuario = :idPaciente) " +
+        "AND (:idMedico IS NULL OR c.medico.idUsuario = :idMedico) " +
+        "AND (:idEstado IS NULL OR c.estado.idEstado = :idEstado) " +
+        "AND (:desde IS NULL OR c.fechaHora >= :desde) " +
+        "AND (:hasta IS NULL OR c.fechaHora < :hasta) ";
     
     // Obtener todas las citas de un paciente específico
+    @EntityGraph(attributePaths = {"paciente", "paciente.rol", "paciente.estado", "medico", "medico.rol", "medico.estado", "estado"})
     List<Citas> findByPacienteIdUsuario(Integer idPaciente);
     
     // Obtener todas las citas de un médico específico
+    @EntityGraph(attributePaths = {"paciente", "paciente.rol", "paciente.estado", "medico", "medico.rol", "medico.estado", "estado"})
     List<Citas> findByMedicoIdUsuario(Integer idMedico);
     
     /**
-     * Obtener citas en formato simplificado para un paciente.
-     * Retorna solo los datos necesarios sin incluir objetos completos de Usuario.
+     * Obtener la siguiente página de citas simplificadas de un paciente (paginación por cursor).
+     * Recorre en orden (fechaHora, idCita) a partir de la posición indicada, usando el índice
+     * idx_citas_paciente_fecha. El límite se toma del Pageable.
      */
-    @Query("SELECT new sv.medicit.app.DTOs.CitaSimpleDTO(" +
-           "c.idCita, c.paciente.idUsuario, CONCAT(c.paciente.nombres, ' ', c.paciente.apellidos), " +
-           "c.medico.idUsuario, CONCAT(c.medico.nombres, ' ', c.medico.apellidos), c.fechaHora, c.motivo, c.estado.estado) " +
-           "FROM Citas c WHERE c.paciente.idUsuario = :idPaciente")
-    List<CitaSimpleDTO> obtenerCitasPacienteSimplificadas(@Param("idPaciente") Integer idPaciente);
+    @Query(SELECT_CITA_SIMPLE + "WHERE c.paciente.idUsuario = :idPaciente " +
+           "AND (c.fechaHora > :fechaHora OR (c.fechaHora = :fechaHora AND c.idCita > :idCita)) " +
+           "ORDER BY c.fechaHora, c.idCita")
+    List<CitaSimpleDTO> obtenerCitasPacienteDespuesDe(@Param("idPaciente") Integer idPaciente,
+                                                      @Param("fechaHora") LocalDateTime fechaHora,
+                                                      @Param("idCita") Integer idCita,
+                                                      Pageable limite);
     
     /**
-     * Obtener citas en formato simplificado para un médico.
-     * Retorna solo los datos necesarios sin incluir objetos completos de Usuario.
+     * Obtener la siguiente página de citas simplificadas de un médico (paginación por cursor).
+     * Recorre en orden (fechaHora, idCita) a partir de la posición indicada, usando el índice
+     * idx_citas_medico_fecha. El límite se toma del Pageable.
+     */
+    @Query(SELECT_CITA_SIMPLE + "WHERE c.medico.idUsuario = :idMedico " +
+           "AND (c.fechaHora > :fechaHora OR (c.fechaHora = :fechaHora AND c.idCita > :idCita)) " +
+           "ORDER BY c.fechaHora, c.idCita")
+    List<CitaSimpleDTO> obtenerCitasMedicoDespuesDe(@Param("idMedico") Integer idMedico,
+                                                    @Param("fechaHora") LocalDateTime fechaHora,
+                                                    @Param("idCita") Integer idCita,
+                                                    Pageable limite);
+
+    /**
+     * Obtener una página de citas simplificadas con filtros opcionales.
+     */
+    @Query(SELECT_CITA_SIMPLE + FILTROS_CITAS)
+    Slice<CitaSimpleDTO> buscarPagina(@Param("idPaciente") Integer idPaciente,
+                                      @Param("idMedico") Integer idMedico,
+                                      @Param("idEstado") Integer idEstado,
+                                      @Param("desde") LocalDateTime desde,
+                                      @Param("hasta") LocalDateTime hasta,
+                                      Pageable pageable);
+
+    /**
+     * Recorrer todas las citas simplificadas que cumplen los filtros, en orden (fechaHora, idCita).
+     * Las filas se leen del cursor de la base de datos en bloques (useCursorFetch en la URL de MySQL),
+     * así la memoria no depende de la cantidad de citas. Debe consumirse dentro de una transacción
+     * y cerrarse al terminar.
+     */
+    @Query(SELECT_CITA_SIMPLE + FILTROS_CITAS + "ORDER BY c.fechaHora, c.idCita")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<CitaSimpleDTO> transmitirCitas(@Param("idPaciente") Integer idPaciente,
+                                          @Param("idMedico") Integer idMedico,
+                                          @Param("idEstado") Integer idEstado,
+                                          @Param("desde") LocalDateTime desde,
+                                          @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Obtener [idCita, idMedico, fechaHora] de las citas desde una fecha/hora, sin las que estén
+     * en un estado que libera el horario (p. ej. Cancelada). Carga inicial del índice de agenda.
+     */
+    @Query("SELECT c.idCita, c.medico.idUsuario, c.fechaHora FROM Citas c " +
+           "WHERE c.fechaHora >= :desde AND c.estado.estado NOT IN :estadosLibres")
+    List<Object[]> obtenerHorariosOcupados(@Param("desde") LocalDateTime desde,
+                                           @Param("estadosLibres") Collection<String> estadosLibres);
+
+    /**
+     * Obtener por ID junto con las relaciones que se serializan en la respuesta.
      */
-    @Query("SELECT new sv.medicit.app.DTOs.CitaSimpleDTO(" +
-           "c.idCita, c.paciente.idUsuario, CONCAT(c.paciente.nombres, ' ', c.paciente.apellidos), " +
-           "c.medico.idUsuario, CONCAT(c.medico.nombres, ' ', c.medico.apellidos), c.fechaHora, c.motivo, c.estado.estado) " +
-           "FROM Citas c WHERE c.medico.idUsuario = :idMedico")
-    List<CitaSimpleDTO> obtenerCitasMedicoSimplificadas(@Param("idMedico") Integer idMedico);
+    @Override
+    @EntityGraph(attributePaths = {"paciente", "paciente.rol", "paciente.estado", "medico", "medico.rol", "medico.estado", "estado"})
+    Optional<Citas> findById(Integer id);
 }
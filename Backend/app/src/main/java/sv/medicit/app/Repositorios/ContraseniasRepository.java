@@ -2,8 +2,15 @@ package sv.medicit.app.Repositorios;
 
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import sv.medicit.app.Entidades.Contrasenias;
 
@@ -15,5 +22,33 @@ import sv.medicit.app.Entidades.Contrasenias;
 public interface ContraseniasRepository extends JpaRepository<Contrasenias, Integer> {
     
     // Obtener la contraseña de un usuario específico
+    @EntityGraph(attributePaths = {"usuario", "usuario.rol", "usuario.estado"})
     Optional<Contrasenias> findByUsuarioIdUsuario(Integer idUsuario);
+
+    /**
+     * Obtener una página de contraseñas, opcionalmente filtrada por usuario.
+     */
+    @Query("SELECT c FROM Contrasenias c WHERE (:idUsuario IS NULL OR c.usuario.idUsuario = :idUsuario)")
+    @EntityGraph(attributePaths = {"usuario", "usuario.rol", "usuario.estado"})
+    Slice<Contrasenias> buscarPagina(@Param("idUsuario") Integer idUsuario, Pageable pageable);
+
+    /**
+     * Obtener por ID junto con las relaciones que se serializan en la respuesta.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"usuario", "usuario.rol", "usuario.estado"})
+    Optional<Contrasenias> findById(Integer id);
+
+    /**
+     * Reemplazar el hash de una contraseña solo si no cambió desde que se leyó.
+     *
+     * @return Filas actualizadas (0 si la contraseña se modificó mientras tanto)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Contrasenias c SET c.contrasenia = :hashNuevo " +
+           "WHERE c.idContrasenia = :idContrasenia AND c.contrasenia = :hashAnterior")
+    int reemplazarHash(@Param("idContrasenia") Integer idContrasenia,
+                       @Param("hashAnterior") String hashAnterior,
+                       @Param("hashNuevo") String hashNuevo);
 }
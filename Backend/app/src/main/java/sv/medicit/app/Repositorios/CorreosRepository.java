@@ -1,7 +1,14 @@
 package sv.medicit.app.Repositorios;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import sv.medicit.app.Entidades.Correos;
@@ -15,4 +22,24 @@ public interface CorreosRepository extends JpaRepository<Correos, Integer> {
     
     // Métodos personalizados
     Optional<Correos> findByCorreo(String correo);
+
+    /**
+     * Obtener una página de correos, opcionalmente filtrada por usuario.
+     */
+    @Query("SELECT c FROM Correos c WHERE (:idUsuario IS NULL OR c.usuario.idUsuario = :idUsuario)")
+    @EntityGraph(attributePaths = {"usuario", "usuario.rol", "usuario.estado"})
+    Slice<Correos> buscarPagina(@Param("idUsuario") Integer idUsuario, Pageable pageable);
+
+    /**
+     * Obtener cuáles de los correos indicados ya existen (importación masiva).
+     */
+    @Query("SELECT c.correo FROM Correos c WHERE c.correo IN :correos")
+    List<String> buscarCorreosExistentes(@Param("correos") Collection<String> correos);
+
+    /**
+     * Obtener por ID junto con las relaciones que se serializan en la respuesta.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"usuario", "usuario.rol", "usuario.estado"})
+    Optional<Correos> findById(Integer id);
 }
@@ -1,8 +1,14 @@
 package sv.medicit.app.Repositorios;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import sv.medicit.app.Entidades.Permisos;
@@ -17,5 +23,21 @@ public interface PermisosRepository extends JpaRepository<Permisos, Integer> {
     /**
      * Obtener todos los permisos de un rol específico.
      */
+    @EntityGraph(attributePaths = {"rol"})
     List<Permisos> findByRolIdRol(Integer idRol);
+
+    /**
+     * Obtener una página de permisos, opcionalmente filtrada por rol y módulo.
+     */
+    @Query("SELECT p FROM Permisos p WHERE (:idRol IS NULL OR p.rol.idRol = :idRol) " +
+           "AND (:modulo IS NULL OR p.modulo = :modulo)")
+    @EntityGraph(attributePaths = {"rol"})
+    Slice<Permisos> buscarPagina(@Param("idRol") Integer idRol, @Param("modulo") String modulo, Pageable pageable);
+
+    /**
+     * Obtener por ID junto con las relaciones que se serializan en la respuesta.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"rol"})
+    Optional<Permisos> findById(Integer id);
 }
@@ -1,5 +1,7 @@
 package sv.medicit.app.Repositorios;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -12,5 +14,6 @@ import sv.medicit.app.Entidades.Preguntas;
 @Repository
 public interface PreguntasRepository extends JpaRepository<Preguntas, Integer> {
     
-    // Métodos personalizados (opcional, se pueden agregar según necesidad)
+    // Listado paginado sin consulta de conteo
+    Slice<Preguntas> findAllBy(Pageable pageable);
 }
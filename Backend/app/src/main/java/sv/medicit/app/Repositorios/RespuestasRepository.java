@@ -1,8 +1,14 @@
 package sv.medicit.app.Repositorios;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import sv.medicit.app.Entidades.Respuestas;
@@ -15,5 +21,20 @@ import sv.medicit.app.Entidades.Respuestas;
 public interface RespuestasRepository extends JpaRepository<Respuestas, Integer> {
     
     // Obtener todas las respuestas de un usuario específico
+    @EntityGraph(attributePaths = {"usuario", "usuario.rol", "usuario.estado", "pregunta"})
     List<Respuestas> findByUsuarioIdUsuario(Integer idUsuario);
+
+    /**
+     * Obtener una página de respuestas, opcionalmente filtrada por usuario.
+     */
+    @Query("SELECT r FROM Respuestas r WHERE (:idUsuario IS NULL OR r.usuario.idUsuario = :idUsuario)")
+    @EntityGraph(attributePaths = {"usuario", "usuario.rol", "usuario.estado", "pregunta"})
+    Slice<Respuestas> buscarPagina(@Param("idUsuario") Integer idUsuario, Pageable pageable);
+
+    /**
+     * Obtener por ID junto con las relaciones que se serializan en la respuesta.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"usuario", "usuario.rol", "usuario.estado", "pregunta"})
+    Optional<Respuestas> findById(Integer id);
 }
@@ -1,6 +1,13 @@
 package sv.medicit.app.Repositorios;
 
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import sv.medicit.app.Entidades.Telefonos;
@@ -12,5 +19,17 @@ import sv.medicit.app.Entidades.Telefonos;
 @Repository
 public interface TelefonosRepository extends JpaRepository<Telefonos, Integer> {
     
-    // Métodos personalizados (opcional, se pueden agregar según necesidad)
+    /**
+     * Obtener una página de teléfonos, opcionalmente filtrada por usuario.
+     */
+    @Query("SELECT t FROM Telefonos t WHERE (:idUsuario IS NULL OR t.usuario.idUsuario = :idUsuario)")
+    @EntityGraph(attributePaths = {"usuario", "usuario.rol", "usuario.estado"})
+    Slice<Telefonos> buscarPagina(@Param("idUsuario") Integer idUsuario, Pageable pageable);
+
+    /**
+     * Obtener por ID junto con las relaciones que se serializan en la respuesta.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"usuario", "usuario.rol", "usuario.estado"})
+    Optional<Telefonos> findById(Integer id);
 }
@@ -1,12 +1,16 @@
 package sv.medicit.app.Repositorios;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import sv.medicit.app.DTOs.CredencialesLoginDTO;
 import sv.medicit.app.DTOs.UsuarioLoginDTO;
 import sv.medicit.app.Entidades.Usuarios;
 
@@ -34,4 +38,122 @@ public interface UsuariosRepository extends JpaRepository<Usuarios, Integer> {
            "LEFT JOIN Roles r ON u.rol.idRol = r.idRol " +
            "WHERE u.nombreUsuario = :nombreUsuario")
     Optional<UsuarioLoginDTO> obtenerUsuarioPorLogin(@Param("nombreUsuario") String nombreUsuario);
+
+    // Proyección del login: contraseña y correo principales (menor ID), buscados por el índice de usuario_id
+    String SELECT_CREDENCIALES = "SELECT new sv.medicit.app.DTOs.CredencialesLoginDTO(" +
+        "u.idUsuario, u.nombreUsuario, u.nombres, u.apellidos, r.idRol, r.nombreRol, e.estado, " +
+        "c.idContrasenia, c.contrasenia, co.correo, u.versionSesion) " +
+        "FROM Usuarios u " +
+        "JOIN u.rol r " +
+        "LEFT JOIN u.estado e " +
+        "LEFT JOIN Contrasenias c ON c.usuario = u AND c.idContrasenia = " +
+        "(SELECT MIN(c2.idContrasenia) FROM Contrasenias c2 WHERE c2.usuario = u) " +
+        "LEFT JOIN Correos co ON co.usuario = u AND co.idCorreo = " +
+        "(SELECT MIN(co2.idCorreo) FROM Correos co2 WHERE co2.usuario = u) ";
+
+    /**
+     * Obtener los datos de login de un usuario por nombre de usuario en una sola consulta
+     * (índice único de nombre_usuario).
+     */
+    @Query(SELECT_CREDENCIALES + "WHERE u.nombreUsuario = :nombreUsuario")
+    Optional<CredencialesLoginDTO> obtenerCredencialesPorNombreUsuario(@Param("nombreUsuario") String nombreUsuario);
+
+    /**
+     * Obtener los datos de login de un usuario por ID en una sola consulta.
+     */
+    @Query(SELECT_CREDENCIALES + "WHERE u.idUsuario = :idUsuario")
+    Optional<CredencialesLoginDTO> obtenerCredencialesPorId(@Param("idUsuario") Integer idUsuario);
+
+    /**
+     * Obtener solo la versión de sesión de un usuario (por llave primaria), para refrescar
+     * un token sin leer el resto de sus datos.
+     */
+    @Query("SELECT u.versionSesion FROM Usuarios u WHERE u.idUsuario = :idUsuario")
+    Optional<Long> obtenerVersionSesion(@Param("idUsuario") Integer idUsuario);
+
+    /**
+     * Obtener todos los usuarios con su correo principal en una sola consulta.
+     * Cada fila es [Usuarios, correo]; rol, estado y especialidades se cargan con JOIN FETCH
+     * y el correo principal es el de menor ID del usuario. Un usuario con varias
+     * especialidades aparece en varias filas con la misma instancia.
+     */
+    @Query("SELECT u, co.correo " +
+           "FROM Usuarios u " +
+           "LEFT JOIN FETCH u.rol " +
+           "LEFT JOIN FETCH u.estado " +
+           "LEFT JOIN FETCH u.especialidades " +
+           "LEFT JOIN Correos co ON co.usuario = u AND co.idCorreo = " +
+           "(SELECT MIN(c2.idCorreo) FROM Correos c2 WHERE c2.usuario = u) " +
+           "ORDER BY u.idUsuario")
+    List<Object[]> obtenerUsuariosConCorreo();
+
+    /**
+     * Obtener un usuario con su correo principal en una sola consulta.
+     * Mismo formato de filas que obtenerUsuariosConCorreo().
+     */
+    @Query("SELECT u, co.correo " +
+           "FROM Usuarios u " +
+           "LEFT JOIN FETCH u.rol " +
+           "LEFT JOIN FETCH u.estado " +
+           "LEFT JOIN FETCH u.especialidades " +
+           "LEFT JOIN Correos co ON co.usuario = u AND co.idCorreo = " +
+           "(SELECT MIN(c2.idCorreo) FROM Correos c2 WHERE c2.usuario = u) " +
+           "WHERE u.idUsuario = :idUsuario")
+    List<Object[]> obtenerUsuarioConCorreoPorId(@Param("idUsuario") Integer idUsuario);
+
+    /**
+     * Obtener los IDs de una página de usuarios, con filtros opcionales por rol y estado.
+     * Se pagina sobre IDs para no aplicar el límite sobre filas multiplicadas por el JOIN FETCH.
+     */
+    @Query("SELECT u.idUsuario FROM Usuarios u WHERE (:idRol IS NULL OR u.rol.idRol = :idRol) " +
+           "AND (:idEstado IS NULL OR u.estado.idEstado = :idEstado)")
+    Slice<Integer> buscarIdsPagina(@Param("idRol") Integer idRol, @Param("idEstado") Integer idEstado, Pageable pageable);
+
+    /**
+     * Obtener los usuarios indicados con su correo principal en una sola consulta.
+     * Mismo formato de filas que obtenerUsuariosConCorreo().
+     */
+    @Query("SELECT u, co.correo " +
+           "FROM Usuarios u " +
+           "LEFT JOIN FETCH u.rol " +
+           "LEFT JOIN FETCH u.estado " +
+           "LEFT JOIN FETCH u.especialidades " +
+           "LEFT JOIN Correos co ON co.usuario = u AND co.idCorreo = " +
+           "(SELECT MIN(c2.idCorreo) FROM Correos c2 WHERE c2.usuario = u) " +
+           "WHERE u.idUsuario IN :ids")
+    List<Object[]> obtenerUsuariosConCorreoPorIds(@Param("ids") List<Integer> ids);
+
+    /**
+     * Verificar en una sola consulta la unicidad de los datos de un alta completa.
+     * Devuelve una fila por cada valor que ya existe: "nombreUsuario", "dui" o "correo".
+     * Cada rama usa el índice único de su columna.
+     */
+    @Query(value = "SELECT 'nombreUsuario' FROM Usuarios WHERE nombre_usuario = :nombreUsuario " +
+                   "UNION ALL SELECT 'dui' FROM Usuarios WHERE dui = :dui " +
+                   "UNION ALL SELECT 'correo' FROM Correos WHERE correo = :correo",
+           nativeQuery = true)
+    List<String> buscarConflictosUnicidad(@Param("nombreUsuario") String nombreUsuario,
+                                          @Param("dui") String dui,
+                                          @Param("correo") String correo);
+
+    /**
+     * Obtener cuáles de los nombres de usuario indicados ya existen (importación masiva).
+     */
+    @Query("SELECT u.nombreUsuario FROM Usuarios u WHERE u.nombreUsuario IN :nombresUsuario")
+    List<String> buscarNombresUsuarioExistentes(@Param("nombresUsuario") Collection<String> nombresUsuario);
+
+    /**
+     * Obtener cuáles de los DUI indicados ya existen (importación masiva).
+     */
+    @Query("SELECT u.dui FROM Usuarios u WHERE u.dui IN :duis")
+    List<String> buscarDuisExistentes(@Param("duis") Collection<String> duis);
+
+    /**
+     * Obtener [idUsuario, nombres, apellidos, estado, idEspecialidad] de todos los médicos,
+     * una fila por especialidad. Carga inicial del índice de médicos por especialidad.
+     */
+    @Query("SELECT u.idUsuario, u.nombres, u.apellidos, es.estado, e.idEspecialidad " +
+           "FROM Usuarios u JOIN u.especialidades e LEFT JOIN u.estado es " +
+           "WHERE u.rol.nombreRol = 'Medico'")
+    List<Object[]> obtenerMedicosConEspecialidades();
 }
@@ -0,0 +1,319 @@
+package sv.medicit.app.Servicios;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import sv.medicit.app.DTOs.DisponibilidadMedicoDTO;
+import sv.medicit.app.DTOs.MedicoDTO;
+import sv.medicit.app.Entidades.Citas;
+import sv.medicit.app.Entidades.Estados;
+import sv.medicit.app.Repositorios.CitasRepository;
+import sv.medicit.app.Utilidades.ConflictoHorarioException;
+import sv.medicit.app.Utilidades.IndiceAgenda;
+
+/**
+ * Servicio de agenda de los médicos.
+ * Mantiene en memoria los horarios ocupados (IndiceAgenda), cargados al arrancar y actualizados
+ * por CitasService en cada alta, cambio o baja de una cita; los médicos de cada especialidad salen
+ * de DirectorioMedicosService. Verificar un horario o listar los horarios libres no consulta la base de datos.
+ *
+ * Todas las citas duran medicit.agenda.duracion-cita. Las citas en un estado de
+ * medicit.agenda.estados-libres (Cancelada, Rechazada) no ocupan horario. Las citas de días
+ * pasados se quitan del índice cada día (medicit.agenda.poda).
+ *
+ * El índice y los candados son de esta instancia: con varias instancias, el índice único
+ * uk_citas_medico_horario sigue impidiendo dos citas activas del médico a la misma hora,
+ * pero los cruces parciales (09:00 y 09:15) solo se detectan dentro de cada instancia.
+ */
+@Service
+public class AgendaService {
+
+    private static final Logger log = LoggerFactory.getLogger(AgendaService.class);
+
+    // Candados por franja de médicos: idMedico % FRANJAS; fijo para no crear un candado por médico
+    private static final int FRANJAS = 64;
+
+    private final ReentrantLock[] candados = new ReentrantLock[FRANJAS];
+
+    {
+        for (int i = 0; i < FRANJAS; i++) {
+            candados[i] = new ReentrantLock();
+        }
+    }
+
+    @Autowired
+    private CitasRepository citasRepository;
+
+    @Autowired
+    private DirectorioMedicosService directorioMedicosService;
+
+    @Autowired
+    private EstadosService estadosService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${medicit.agenda.duracion-cita:30m}")
+    private Duration duracionCita;
+
+    @Value("${medicit.agenda.hora-inicio:08:00}")
+    private String horaInicioConfigurada;
+
+    @Value("${medicit.agenda.hora-fin:17:00}")
+    private String horaFinConfigurada;
+
+    @Value("${medicit.agenda.dias-laborales:MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY}")
+    private Set<DayOfWeek> diasLaborales;
+
+    @Value("${medicit.agenda.estados-libres:Cancelada,Rechazada}")
+    private Set<String> estadosLibres;
+
+    // Días que puede abarcar una consulta de disponibilidad
+    @Value("${medicit.agenda.dias-maximos-consulta:31}")
+    private int diasMaximosConsulta;
+
+    private LocalTime horaInicio;
+
+    private LocalTime horaFin;
+
+    // Se reemplaza completo al recargar; se lee o modifica con el candado de la franja del médico
+    private volatile IndiceAgenda indice;
+
+    private Counter rechazos;
+
+    @PostConstruct
+    void iniciar() {
+        horaInicio = LocalTime.parse(horaInicioConfigurada);
+        horaFin = LocalTime.parse(horaFinConfigurada);
+        indice = new IndiceAgenda(duracionCita);
+        Gauge.builder("medicit.agenda.citas", this, agenda -> agenda.indice.tamanio())
+            .description("Citas registradas en el índice de agenda")
+            .register(meterRegistry);
+        rechazos = Counter.builder("medicit.agenda.conflictos")
+            .description("Citas rechazadas por cruzarse con otra del mismo médico")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Cargar el índice con las citas desde el inicio del día actual.
+     * Las citas anteriores no se registran: ya no se pueden agendar horarios en el pasado.
+     * Se arma un índice nuevo y se reemplaza el anterior con todos los candados tomados: las reservas
+     * y bajas que llegan mientras tanto esperan y se aplican sobre el índice nuevo, así una cita
+     * cancelada o eliminada durante la lectura no queda ocupando su horario.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recargar() {
+        bloquearTodas();
+        try {
+            IndiceAgenda nuevo = new IndiceAgenda(duracionCita);
+            List<Object[]> filas = citasRepository.obtenerHorariosOcupados(LocalDate.now().atStartOfDay(), estadosLibres);
+            for (Object[] fila : filas) {
+                nuevo.registrar((Integer) fila[0], (Integer) fila[1], (LocalDateTime) fila[2]);
+            }
+            indice = nuevo;
+        } finally {
+            desbloquearTodas();
+        }
+    }
+
+    /**
+     * Quitar del índice las citas de días anteriores al actual (ya no pueden chocar con una reserva).
+     * Corre cada día según medicit.agenda.poda, con todos los candados tomados.
+     */
+    @Scheduled(cron = "${medicit.agenda.poda:0 5 0 * * *}")
+    public void podar() {
+        int quitadas;
+        bloquearTodas();
+        try {
+            quitadas = indice.quitarAnteriores(LocalDate.now().atStartOfDay());
+        } finally {
+            desbloquearTodas();
+        }
+        log.debug("Agenda: {} citas de días pasados quitadas del índice", quitadas);
+    }
+
+    /**
+     * Verificar el horario, guardar la cita y registrarla en el índice como una sola operación por médico.
+     * Las reservas del mismo médico se turnan con el candado de su franja, así dos pacientes no pueden
+     * tomar el mismo horario a la vez; las de médicos en otras franjas no esperan.
+     * Además se asigna horarioReservado: si otra instancia ya guardó una cita activa del médico
+     * a la misma hora, el índice único uk_citas_medico_horario rechaza el guardado.
+     *
+     * @param guardar Guarda la cita y devuelve la entidad guardada (con su ID)
+     * @throws ConflictoHorarioException si el horario se cruza con otra cita del médico
+     */
+    public Citas reservar(Citas cita, UnaryOperator<Citas> guardar) {
+        boolean ocupa = ocupaHorario(cita);
+        cita.setHorarioReservado(ocupa ? cita.getFechaHora() : null);
+
+        ReentrantLock candado = candado(cita.getMedico().getIdUsuario());
+        candado.lock();
+        try {
+            if (ocupa) {
+                Optional<Integer> conflicto = indice.buscarConflicto(
+                    cita.getMedico().getIdUsuario(), cita.getFechaHora(), cita.getIdCita());
+                if (conflicto.isPresent()) {
+                    rechazos.increment();
+                    throw new ConflictoHorarioException(conflicto.get());
+                }
+            }
+
+            Citas guardada;
+            try {
+                guardada = guardar.apply(cita);
+            } catch (DataIntegrityViolationException e) {
+                if (esHorarioDuplicado(e)) {
+                    rechazos.increment();
+                    throw new ConflictoHorarioException();
+                }
+                throw e;
+            }
+
+            if (ocupa) {
+                indice.registrar(guardada.getIdCita(), guardada.getMedico().getIdUsuario(), guardada.getFechaHora());
+            } else {
+                indice.quitar(guardada.getIdCita());
+            }
+            return guardada;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Quitar una cita eliminada del índice, con el candado de la franja de su médico.
+     * Si la cita no está en el índice se toman todos los candados: puede haber una recarga en curso
+     * que la leyó de la base de datos antes de que se eliminara.
+     */
+    public void quitar(Integer idCita) {
+        Integer idMedico = indice.obtenerMedico(idCita);
+        if (idMedico == null) {
+            bloquearTodas();
+            try {
+                indice.quitar(idCita);
+            } finally {
+                desbloquearTodas();
+            }
+            return;
+        }
+        ReentrantLock candado = candado(idMedico);
+        candado.lock();
+        try {
+            indice.quitar(idCita);
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Obtener los horarios libres de los médicos activos de una especialidad entre dos fechas (inclusive).
+     * Los horarios se arman con bloques de duracion-cita entre hora-inicio y hora-fin de los días laborales;
+     * se omiten los que ya pasaron y los que se cruzan con una cita.
+     *
+     * @param idMedico Limitar a un médico de la especialidad (opcional)
+     */
+    public List<DisponibilidadMedicoDTO> obtenerHorariosLibres(Integer idEspecialidad, LocalDate desde,
+                                                               LocalDate hasta, Integer idMedico) {
+        if (idEspecialidad == null || desde == null || hasta == null) {
+            throw new IllegalArgumentException("La especialidad y el rango de fechas son requeridos");
+        }
+        if (hasta.isBefore(desde)) {
+            throw new IllegalArgumentException("La fecha final no puede ser anterior a la inicial");
+        }
+        if (ChronoUnit.DAYS.between(desde, hasta) >= diasMaximosConsulta) {
+            throw new IllegalArgumentException("El rango no puede superar " + diasMaximosConsulta + " días");
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        List<DisponibilidadMedicoDTO> resultado = new ArrayList<>();
+        for (MedicoDTO medico : directorioMedicosService.buscar(idEspecialidad, true, null, Integer.MAX_VALUE)) {
+            Integer id = medico.getIdUsuario();
+            if (idMedico != null && !idMedico.equals(id)) {
+                continue;
+            }
+            List<LocalDateTime> horarios = new ArrayList<>();
+            for (LocalDate dia = desde; !dia.isAfter(hasta); dia = dia.plusDays(1)) {
+                if (!diasLaborales.contains(dia.getDayOfWeek())) {
+                    continue;
+                }
+                LocalDateTime fin = dia.atTime(horaFin);
+                for (LocalDateTime inicio = dia.atTime(horaInicio);
+                     !inicio.plus(duracionCita).isAfter(fin);
+                     inicio = inicio.plus(duracionCita)) {
+                    if (inicio.isAfter(ahora) && indice.buscarConflicto(id, inicio, null).isEmpty()) {
+                        horarios.add(inicio);
+                    }
+                }
+            }
+            resultado.add(new DisponibilidadMedicoDTO(id, medico.getNombres() + " " + medico.getApellidos(), horarios));
+        }
+        return resultado;
+    }
+
+    private ReentrantLock candado(Integer idMedico) {
+        return candados[Math.floorMod(idMedico.hashCode(), FRANJAS)];
+    }
+
+    /**
+     * Tomar todos los candados, siempre en el mismo orden (una reserva solo toma uno).
+     */
+    private void bloquearTodas() {
+        for (ReentrantLock candado : candados) {
+            candado.lock();
+        }
+    }
+
+    private void desbloquearTodas() {
+        for (int i = FRANJAS - 1; i >= 0; i--) {
+            candados[i].unlock();
+        }
+    }
+
+    /**
+     * Indica si la violación de integridad es la del índice único (medico_id, horario_reservado).
+     */
+    private static boolean esHorarioDuplicado(DataIntegrityViolationException e) {
+        String mensaje = e.getMostSpecificCause().getMessage();
+        return mensaje != null && mensaje.toLowerCase().contains("uk_citas_medico_horario");
+    }
+
+    /**
+     * Indica si la cita ocupa horario según su estado; el nombre del estado se toma del catálogo
+     * porque al crear o actualizar la cita suele llegar solo con su ID.
+     */
+    private boolean ocupaHorario(Citas cita) {
+        Estados estado = cita.getEstado();
+        if (estado == null) {
+            return true;
+        }
+        String nombre = estado.getEstado();
+        if (nombre == null && estado.getIdEstado() != null) {
+            nombre = estadosService.obtenerPorId(estado.getIdEstado()).map(Estados::getEstado).orElse(null);
+        }
+        return nombre == null || estadosLibres.stream().noneMatch(nombre::equalsIgnoreCase);
+    }
+}
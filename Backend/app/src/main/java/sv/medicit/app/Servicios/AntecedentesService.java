@@ -1,12 +1,17 @@
 package sv.medicit.app.Servicios;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import sv.medicit.app.DTOs.AntecedenteSimpleDTO;
+import sv.medicit.app.DTOs.AntecedenteResumenDTO;
 import sv.medicit.app.Entidades.Antecedentes;
 import sv.medicit.app.Repositorios.AntecedentesRepository;
 
@@ -20,6 +25,12 @@ public class AntecedentesService {
     @Autowired
     private AntecedentesRepository antecedentesRepository;
 
+    @Autowired
+    private BusquedaAntecedentesService busquedaAntecedentesService;
+
+    @Autowired
+    private ContenidosAntecedentesService contenidosAntecedentesService;
+
     /**
      * Obtener todos los antecedentes.
      */
@@ -27,6 +38,13 @@ public class AntecedentesService {
         return antecedentesRepository.findAll();
     }
 
+    /**
+     * Obtener una página de resúmenes de antecedentes, opcionalmente filtrada por usuario.
+     */
+    public Slice<AntecedenteResumenDTO> obtenerPagina(Pageable pageable, Integer idUsuario) {
+        return antecedentesRepository.buscarPagina(idUsuario, pageable);
+    }
+
     /**
      * Obtener un antecedente por ID.
      */
@@ -44,17 +62,23 @@ public class AntecedentesService {
         if (antecedente.getAntecedente() == null || antecedente.getAntecedente().isEmpty()) {
             throw new IllegalArgumentException("El antecedente es requerido");
         }
-        return antecedentesRepository.save(antecedente);
+        Antecedentes guardado = antecedentesRepository.save(antecedente);
+        busquedaAntecedentesService.indexar(guardado);
+        return guardado;
     }
 
     /**
      * Actualizar un antecedente existente.
+     * En una transacción para que el antecedente leído sea el mismo que se guarda (la descripción
+     * nueva no es una columna y se perdería al copiar el estado de una entidad desconectada).
      */
+    @Transactional
     public Antecedentes actualizar(Integer id, Antecedentes antecedenteActualizado) {
         Optional<Antecedentes> antecedenteExistente = antecedentesRepository.findById(id);
         
         if (antecedenteExistente.isPresent()) {
             Antecedentes antecedente = antecedenteExistente.get();
+            String hashAnterior = antecedente.getDescripcionHash();
             
             if (antecedenteActualizado.getUsuario() != null) {
                 antecedente.setUsuario(antecedenteActualizado.getUsuario());
@@ -66,7 +90,12 @@ public class AntecedentesService {
                 antecedente.setDescripcion(antecedenteActualizado.getDescripcion());
             }
             
-            return antecedentesRepository.save(antecedente);
+            Antecedentes guardado = antecedentesRepository.saveAndFlush(antecedente);
+            if (hashAnterior != null && !hashAnterior.equals(guardado.getDescripcionHash())) {
+                contenidosAntecedentesService.eliminarSiHuerfano(hashAnterior);
+            }
+            busquedaAntecedentesService.indexar(guardado);
+            return guardado;
         } else {
             throw new RuntimeException("Antecedente no encontrado con ID: " + id);
         }
@@ -75,18 +104,38 @@ public class AntecedentesService {
     /**
      * Eliminar un antecedente por ID.
      */
+    @Transactional
     public void eliminar(Integer id) {
-        if (!antecedentesRepository.existsById(id)) {
-            throw new RuntimeException("Antecedente no encontrado con ID: " + id);
-        }
+        String hashDescripcion = antecedentesRepository.obtenerHashDescripcion(id)
+            .orElseThrow(() -> new RuntimeException("Antecedente no encontrado con ID: " + id));
         antecedentesRepository.deleteById(id);
+        antecedentesRepository.flush();
+        if (!hashDescripcion.isEmpty()) {
+            contenidosAntecedentesService.eliminarSiHuerfano(hashDescripcion);
+        }
+        busquedaAntecedentesService.quitar(id);
+    }
+
+    /**
+     * Obtener los resúmenes de los antecedentes de un usuario (sin el texto completo).
+     */
+    public List<AntecedenteResumenDTO> obtenerResumenesPorUsuarioId(Integer idUsuario) {
+        return antecedentesRepository.obtenerResumenesPorUsuarioId(idUsuario);
+    }
+
+    /**
+     * Obtener el largo de la descripción de un antecedente, en caracteres; vacío si no existe.
+     */
+    public Optional<Integer> obtenerLargoDescripcion(Integer id) {
+        return antecedentesRepository.obtenerLargoDescripcion(id);
     }
 
     /**
-     * Obtener antecedentes simplificados de un usuario (solo ID y descripción, sin datos del usuario).
+     * Escribir los caracteres [desde, hasta) de la descripción de un antecedente,
+     * descomprimiéndola a medida que se envía.
      */
-    public List<AntecedenteSimpleDTO> obtenerAntecedentesSimplePorUsuarioId(Integer idUsuario) {
-        return antecedentesRepository.obtenerAntecedentesSimplePorUsuarioId(idUsuario);
+    public void escribirDescripcion(Integer id, int desde, int hasta, Writer salida) throws IOException {
+        contenidosAntecedentesService.escribirDescripcion(id, desde, hasta, salida);
     }
 
     /**
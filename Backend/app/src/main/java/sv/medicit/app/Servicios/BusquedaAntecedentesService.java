@@ -0,0 +1,184 @@
+package sv.medicit.app.Servicios;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import sv.medicit.app.DTOs.AntecedenteCoincidenciaDTO;
+import sv.medicit.app.DTOs.PaginaDTO;
+import sv.medicit.app.Entidades.Antecedentes;
+import sv.medicit.app.Repositorios.AntecedentesRepository;
+import sv.medicit.app.Utilidades.AnalizadorEspanol;
+import sv.medicit.app.Utilidades.IndiceTextoAntecedentes;
+import sv.medicit.app.Utilidades.IndiceTextoAntecedentes.Coincidencia;
+
+/**
+ * Servicio de búsqueda de texto en antecedentes.
+ * Los antecedentes se cargan al arrancar en IndiceTextoAntecedentes y AntecedentesService avisa cada
+ * alta, cambio y baja. El orden por relevancia se resuelve en memoria; la base de datos solo se
+ * consulta para armar los fragmentos de la página pedida.
+ */
+@Service
+public class BusquedaAntecedentesService {
+
+    private static final int LARGO_FRAGMENTO = 200;
+
+    // Caracteres que se muestran antes de la primera coincidencia
+    private static final int CONTEXTO_FRAGMENTO = 60;
+
+    private static final Pattern PALABRA = Pattern.compile("[\\p{L}\\p{M}\\p{N}]+");
+
+    @Autowired
+    private AntecedentesRepository antecedentesRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final IndiceTextoAntecedentes indice = new IndiceTextoAntecedentes();
+
+    @PostConstruct
+    void registrarMetricas() {
+        Gauge.builder("medicit.antecedentes.indice", indice, IndiceTextoAntecedentes::tamanio)
+            .description("Antecedentes en el índice de búsqueda de texto")
+            .register(meterRegistry);
+        Gauge.builder("medicit.antecedentes.indice.terminos", indice, IndiceTextoAntecedentes::terminos)
+            .description("Términos distintos en el índice de búsqueda de texto")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Cargar el índice con todos los antecedentes, leyéndolos del cursor sin retenerlos en memoria.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void recargar() {
+        indice.limpiar();
+        try (Stream<Object[]> filas = antecedentesRepository.transmitirTextos()) {
+            filas.forEach(fila -> indice.indexar(
+                (Integer) fila[0], (Integer) fila[1], (String) fila[2], (String) fila[3]));
+        }
+    }
+
+    /**
+     * Reflejar en el índice un antecedente guardado (alta o cambio).
+     */
+    public void indexar(Antecedentes antecedente) {
+        Integer idUsuario = antecedente.getUsuario() != null ? antecedente.getUsuario().getIdUsuario() : null;
+        indice.indexar(antecedente.getIdAntecedente(), idUsuario,
+            antecedente.getAntecedente(), antecedente.getDescripcion());
+    }
+
+    /**
+     * Quitar del índice un antecedente eliminado.
+     */
+    public void quitar(Integer idAntecedente) {
+        indice.quitar(idAntecedente);
+    }
+
+    /**
+     * Buscar antecedentes por texto, de mayor a menor relevancia.
+     * Coincide cualquier término de la consulta, sin distinguir mayúsculas, tildes, singular/plural ni género.
+     *
+     * @param consulta Texto a buscar
+     * @param idUsuario Limitar a los antecedentes de un paciente (opcional)
+     * @param pagina Número de página (base 0)
+     * @param tamanio Tamaño de página ya acotado
+     */
+    public PaginaDTO<AntecedenteCoincidenciaDTO> buscar(String consulta, Integer idUsuario, int pagina, int tamanio) {
+        if (consulta == null || consulta.isBlank()) {
+            throw new IllegalArgumentException("El texto a buscar es requerido");
+        }
+        if (pagina < 0) {
+            throw new IllegalArgumentException("La página no puede ser negativa");
+        }
+        Set<String> terminos = new HashSet<>(AnalizadorEspanol.analizar(consulta));
+        if (terminos.isEmpty()) {
+            throw new IllegalArgumentException("La búsqueda solo contiene palabras vacías");
+        }
+
+        // Un resultado extra para saber si hay página siguiente
+        long hasta = (long) (pagina + 1) * tamanio + 1;
+        List<Coincidencia> coincidencias = indice.buscar(consulta, idUsuario, (int) Math.min(hasta, Integer.MAX_VALUE));
+        boolean haySiguiente = coincidencias.size() > (long) (pagina + 1) * tamanio;
+        List<Coincidencia> enPagina = coincidencias.stream()
+            .skip((long) pagina * tamanio)
+            .limit(tamanio)
+            .toList();
+        if (enPagina.isEmpty()) {
+            return new PaginaDTO<>(List.of(), pagina, tamanio, false);
+        }
+
+        Map<Integer, Object[]> textos = new HashMap<>();
+        for (Object[] fila : antecedentesRepository.obtenerTextosConPaciente(
+                enPagina.stream().map(Coincidencia::idAntecedente).collect(Collectors.toSet()))) {
+            textos.put((Integer) fila[0], fila);
+        }
+        List<AntecedenteCoincidenciaDTO> contenido = enPagina.stream()
+            // Un antecedente borrado por otra instancia puede seguir en el índice hasta la próxima recarga
+            .filter(c -> textos.containsKey(c.idAntecedente()))
+            .map(c -> {
+                Object[] fila = textos.get(c.idAntecedente());
+                return new AntecedenteCoincidenciaDTO(c.idAntecedente(), c.idUsuario(),
+                    (fila[2] + " " + fila[3]).trim(), fragmento((String) fila[1], terminos), c.puntaje());
+            })
+            .toList();
+        return new PaginaDTO<>(contenido, pagina, tamanio, haySiguiente);
+    }
+
+    /**
+     * Recortar el texto alrededor de la primera palabra que coincide con la consulta.
+     * Si la coincidencia está solo en la descripción, se muestra el inicio del antecedente.
+     */
+    private static String fragmento(String texto, Set<String> terminos) {
+        if (texto == null || texto.length() <= LARGO_FRAGMENTO) {
+            return texto;
+        }
+        int inicio = 0;
+        // Igual que AnalizadorEspanol.analizar: la negación se une a la siguiente palabra no vacía
+        // de la misma oración o campo
+        int inicioNegacion = -1;
+        int finAnterior = 0;
+        Matcher palabras = PALABRA.matcher(texto);
+        while (palabras.find()) {
+            if (inicioNegacion >= 0 && AnalizadorEspanol.cortaNegacion(texto, finAnterior, palabras.start())) {
+                inicioNegacion = -1;
+            }
+            finAnterior = palabras.end();
+            if (AnalizadorEspanol.esNegacion(palabras.group())) {
+                inicioNegacion = palabras.start();
+                continue;
+            }
+            String termino = AnalizadorEspanol.termino(palabras.group());
+            if (termino == null) {
+                continue;
+            }
+            int posicion = palabras.start();
+            if (inicioNegacion >= 0) {
+                termino = AnalizadorEspanol.negar(termino);
+                posicion = inicioNegacion;
+                inicioNegacion = -1;
+            }
+            if (terminos.contains(termino)) {
+                inicio = Math.max(0, Math.min(posicion - CONTEXTO_FRAGMENTO, texto.length() - LARGO_FRAGMENTO));
+                break;
+            }
+        }
+        String recorte = texto.substring(inicio, inicio + LARGO_FRAGMENTO).strip();
+        return (inicio > 0 ? "…" : "") + recorte + (inicio + LARGO_FRAGMENTO < texto.length() ? "…" : "");
+    }
+}
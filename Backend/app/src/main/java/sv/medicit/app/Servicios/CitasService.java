@@ -1,25 +1,47 @@
 package sv.medicit.app.Servicios;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
 
 import sv.medicit.app.DTOs.CitaSimpleDTO;
+import sv.medicit.app.DTOs.PaginaCursorDTO;
 import sv.medicit.app.Entidades.Citas;
 import sv.medicit.app.Repositorios.CitasRepository;
+import sv.medicit.app.Utilidades.ConflictoHorarioException;
+import sv.medicit.app.Utilidades.CursorCita;
+import sv.medicit.app.Utilidades.Paginacion;
 
 /**
  * Servicio para la lógica de negocio de Citas.
  * Proporciona métodos CRUD y validaciones.
+ * Altas y cambios pasan por AgendaService.reservar, que rechaza las citas que se cruzan
+ * con otra del mismo médico (también bajo reservas simultáneas) y actualiza su índice.
  */
 @Service
 public class CitasService {
 
+    // Filas escritas entre cada envío al cliente en escribirCitas
+    private static final int FILAS_POR_ENVIO = 100;
+
     @Autowired
     private CitasRepository citasRepository;
 
+    @Autowired
+    private AgendaService agendaService;
+
     /**
      * Obtener todas las citas.
      */
@@ -27,6 +49,37 @@ public class CitasService {
         return citasRepository.findAll();
     }
 
+    /**
+     * Obtener una página de citas simplificadas con filtros opcionales por paciente, médico, estado y rango de fechas.
+     */
+    public Slice<CitaSimpleDTO> obtenerPagina(Pageable pageable, Integer idPaciente, Integer idMedico,
+                                      Integer idEstado, LocalDateTime desde, LocalDateTime hasta) {
+        return citasRepository.buscarPagina(idPaciente, idMedico, idEstado, desde, hasta, pageable);
+    }
+
+    /**
+     * Escribir como arreglo JSON todas las citas simplificadas que cumplen los filtros.
+     * Las filas se leen del cursor y se escriben una a una, vaciando el generador cada
+     * FILAS_POR_ENVIO filas: la memoria usada no depende de la cantidad de citas y el
+     * cliente recibe los primeros bytes sin esperar al final de la consulta.
+     */
+    @Transactional(readOnly = true)
+    public void escribirCitas(Integer idPaciente, Integer idMedico, Integer idEstado,
+                              LocalDateTime desde, LocalDateTime hasta, JsonGenerator generador) throws IOException {
+        try (Stream<CitaSimpleDTO> citas = citasRepository.transmitirCitas(idPaciente, idMedico, idEstado, desde, hasta)) {
+            generador.writeStartArray();
+            int escritas = 0;
+            for (Iterator<CitaSimpleDTO> it = citas.iterator(); it.hasNext(); ) {
+                generador.writePOJO(it.next());
+                if (++escritas % FILAS_POR_ENVIO == 0) {
+                    generador.flush();
+                }
+            }
+            generador.writeEndArray();
+            generador.flush();
+        }
+    }
+
     /**
      * Obtener una cita por ID.
      */
@@ -36,12 +89,14 @@ public class CitasService {
 
     /**
      * Crear una nueva cita.
+     *
+     * @throws ConflictoHorarioException si el médico ya tiene una cita en ese horario
      */
     public Citas crear(Citas cita) {
         if (cita.getPaciente() == null) {
             throw new IllegalArgumentException("El paciente es requerido");
         }
-        if (cita.getMedico() == null) {
+        if (cita.getMedico() == null || cita.getMedico().getIdUsuario() == null) {
             throw new IllegalArgumentException("El médico es requerido");
         }
         if (cita.getFechaHora() == null) {
@@ -50,11 +105,13 @@ public class CitasService {
         if (cita.getMotivo() == null || cita.getMotivo().isEmpty()) {
             throw new IllegalArgumentException("El motivo es requerido");
         }
-        return citasRepository.save(cita);
+        return agendaService.reservar(cita, citasRepository::save);
     }
 
     /**
      * Actualizar una cita existente.
+     *
+     * @throws ConflictoHorarioException si el nuevo horario se cruza con otra cita del médico
      */
     public Citas actualizar(Integer id, Citas citaActualizada) {
         Optional<Citas> citaExistente = citasRepository.findById(id);
@@ -78,7 +135,7 @@ public class CitasService {
                 cita.setEstado(citaActualizada.getEstado());
             }
             
-            return citasRepository.save(cita);
+            return agendaService.reservar(cita, citasRepository::save);
         } else {
             throw new RuntimeException("Cita no encontrada con ID: " + id);
         }
@@ -92,21 +149,50 @@ public class CitasService {
             throw new RuntimeException("Cita no encontrada con ID: " + id);
         }
         citasRepository.deleteById(id);
+        agendaService.quitar(id);
     }
 
     /**
-     * Obtener citas simplificadas de un paciente.
-     * Retorna solo los datos necesarios sin objetos completos de Usuario.
+     * Obtener la línea de tiempo de citas de un paciente, paginada por cursor.
+     * 
+     * @param cursor Token devuelto por la página anterior; null para empezar desde "desde"
+     * @param desde Fecha/hora inicial cuando no se envía cursor (opcional)
      */
-    public List<CitaSimpleDTO> obtenerCitasPorPaciente(Integer idPaciente) {
-        return citasRepository.obtenerCitasPacienteSimplificadas(idPaciente);
+    public PaginaCursorDTO<CitaSimpleDTO> obtenerCitasPorPaciente(Integer idPaciente, String cursor,
+                                                                  LocalDateTime desde, Integer tamanio) {
+        CursorCita posicion = cursor != null ? CursorCita.decodificar(cursor) : CursorCita.inicial(desde);
+        int limite = Paginacion.acotarTamanio(tamanio);
+        List<CitaSimpleDTO> citas = citasRepository.obtenerCitasPacienteDespuesDe(
+            idPaciente, posicion.fechaHora(), posicion.idCita(), PageRequest.of(0, limite + 1));
+        return aPaginaCursor(citas, limite);
     }
 
     /**
-     * Obtener citas simplificadas de un médico.
-     * Retorna solo los datos necesarios sin objetos completos de Usuario.
+     * Obtener la línea de tiempo de citas de un médico, paginada por cursor.
+     * 
+     * @param cursor Token devuelto por la página anterior; null para empezar desde "desde"
+     * @param desde Fecha/hora inicial cuando no se envía cursor (opcional)
      */
-    public List<CitaSimpleDTO> obtenerCitasPorMedico(Integer idMedico) {
-        return citasRepository.obtenerCitasMedicoSimplificadas(idMedico);
+    public PaginaCursorDTO<CitaSimpleDTO> obtenerCitasPorMedico(Integer idMedico, String cursor,
+                                                                LocalDateTime desde, Integer tamanio) {
+        CursorCita posicion = cursor != null ? CursorCita.decodificar(cursor) : CursorCita.inicial(desde);
+        int limite = Paginacion.acotarTamanio(tamanio);
+        List<CitaSimpleDTO> citas = citasRepository.obtenerCitasMedicoDespuesDe(
+            idMedico, posicion.fechaHora(), posicion.idCita(), PageRequest.of(0, limite + 1));
+        return aPaginaCursor(citas, limite);
+    }
+
+    /**
+     * Construir la página a partir de los resultados; se pide un elemento extra para saber si hay más.
+     */
+    private PaginaCursorDTO<CitaSimpleDTO> aPaginaCursor(List<CitaSimpleDTO> citas, int limite) {
+        boolean haySiguiente = citas.size() > limite;
+        List<CitaSimpleDTO> contenido = haySiguiente ? citas.subList(0, limite) : citas;
+        String siguienteCursor = null;
+        if (haySiguiente) {
+            CitaSimpleDTO ultima = contenido.get(contenido.size() - 1);
+            siguienteCursor = new CursorCita(ultima.getFechaHora(), ultima.getIdCita()).codificar();
+        }
+        return new PaginaCursorDTO<>(contenido, siguienteCursor, haySiguiente);
     }
 }
@@ -0,0 +1,247 @@
+package sv.medicit.app.Servicios;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.Blob;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import sv.medicit.app.Utilidades.CompresionTexto;
+
+/**
+ * Servicio de almacenamiento de las descripciones de antecedentes.
+ * Cada texto distinto se guarda una sola vez en Contenidos_antecedentes, identificado por su huella
+ * SHA-256 y comprimido si supera el umbral de CompresionTexto. Las escrituras usan JdbcTemplate para
+ * ejecutarse en la misma conexión y transacción que el guardado del antecedente que las dispara.
+ */
+@Service
+public class ContenidosAntecedentesService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContenidosAntecedentesService.class);
+
+    // Inserta el contenido solo si la huella no existe (consulta válida en MySQL y H2)
+    private static final String INSERTAR_SI_NO_EXISTE =
+        "INSERT INTO Contenidos_antecedentes (hash, datos) SELECT ?, ? FROM DUAL " +
+        "WHERE NOT EXISTS (SELECT 1 FROM Contenidos_antecedentes WHERE hash = ?)";
+
+    // Bytes del inicio del contenido que trae la primera lectura: incluyen la tabla de bloques de
+    // textos de hasta unos 8 millones de caracteres y, completos, los textos sin comprimir
+    private static final int PREFIJO_LECTURA = 4096;
+
+    private static final String LEER_INICIO_DESCRIPCION =
+        "SELECT c.hash, OCTET_LENGTH(c.datos), SUBSTRING(c.datos, 1, :largo) FROM Antecedentes a " +
+        "JOIN Contenidos_antecedentes c ON c.hash = a.descripcion_hash WHERE a.id_antecedente = :id";
+
+    // Posiciones de SUBSTRING en base 1
+    private static final String LEER_PARTE =
+        "SELECT SUBSTRING(datos, :inicio, :largo) FROM Contenidos_antecedentes WHERE hash = :hash";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Filas por transacción al migrar las descripciones guardadas en la columna anterior
+    @Value("${medicit.antecedentes.lote-migracion:500}")
+    private int loteMigracion;
+
+    private Counter contenidosNuevos;
+
+    private Counter contenidosReutilizados;
+
+    @PostConstruct
+    void registrarMetricas() {
+        contenidosNuevos = Counter.builder("medicit.antecedentes.contenidos")
+            .tag("resultado", "nuevo")
+            .description("Descripciones de antecedentes guardadas por primera vez")
+            .register(meterRegistry);
+        contenidosReutilizados = Counter.builder("medicit.antecedentes.contenidos")
+            .tag("resultado", "reutilizado")
+            .description("Descripciones de antecedentes que ya existían (mismo texto)")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Guardar el contenido de una descripción si su huella todavía no existe.
+     * Si ya existe, la fila queda bloqueada (FOR UPDATE) hasta el final de la transacción: un
+     * eliminarSiHuerfano concurrente espera a que se guarde el antecedente que la referencia y la
+     * conserva. Si otra transacción inserta la misma huella al mismo tiempo, el índice primario
+     * rechaza la segunda inserción y el contenido ya guardado se bloquea y se reutiliza.
+     */
+    public void guardar(String hash, String texto) {
+        if (bloquear(hash)) {
+            contenidosReutilizados.increment();
+            return;
+        }
+        try {
+            jdbcTemplate.update(INSERTAR_SI_NO_EXISTE, hash, CompresionTexto.comprimir(texto), hash);
+            contenidosNuevos.increment();
+        } catch (DuplicateKeyException e) {
+            bloquear(hash);
+            contenidosReutilizados.increment();
+        }
+    }
+
+    private boolean bloquear(String hash) {
+        return !jdbcTemplate.queryForList("SELECT hash FROM Contenidos_antecedentes WHERE hash = ? FOR UPDATE",
+            String.class, hash).isEmpty();
+    }
+
+    /**
+     * Eliminar un contenido que dejó de usarse (antecedente eliminado o descripción cambiada).
+     * Si otro antecedente lo referencia, incluso uno que se está guardando (guardar bloqueó la fila),
+     * se conserva.
+     * Los cambios pendientes del EntityManager deben estar enviados (flush) antes de llamarlo.
+     */
+    public void eliminarSiHuerfano(String hash) {
+        if (hash == null) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("DELETE FROM Contenidos_antecedentes WHERE hash = ? " +
+                "AND NOT EXISTS (SELECT 1 FROM Antecedentes WHERE descripcion_hash = ?)", hash, hash);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Contenido {} todavía en uso, se conserva", hash);
+        }
+    }
+
+    /**
+     * Escribir los caracteres [desde, hasta) de la descripción de un antecedente.
+     * La primera consulta trae el inicio del contenido con la tabla de bloques; después solo se leen,
+     * con SUBSTRING, los bloques comprimidos que cubren el tramo, y cada bloque se descomprime y se
+     * envía antes de pasar al siguiente. Ni el contenido completo ni los bloques anteriores a "desde"
+     * viajan desde la base de datos.
+     */
+    @Transactional(readOnly = true)
+    public void escribirDescripcion(Integer idAntecedente, int desde, int hasta, Writer salida) throws IOException {
+        @SuppressWarnings("unchecked")
+        List<Object[]> filas = entityManager.createNativeQuery(LEER_INICIO_DESCRIPCION)
+            .setParameter("largo", PREFIJO_LECTURA)
+            .setParameter("id", idAntecedente)
+            .getResultList();
+        if (filas.isEmpty()) {
+            return;
+        }
+        String hash = (String) filas.get(0)[0];
+        long largo = ((Number) filas.get(0)[1]).longValue();
+        byte[] prefijo = bytes(filas.get(0)[2]);
+        if (prefijo[0] == CompresionTexto.BLOQUES) {
+            CompresionTexto.escribirTramo(prefijo, (posicion, cantidad) -> leerParte(hash, posicion, cantidad),
+                desde, hasta, salida);
+            return;
+        }
+        // Formatos sin bloques: textos cortos, completos en el prefijo, o guardados antes de BLOQUES
+        String texto = CompresionTexto.descomprimir(prefijo.length < largo ? leerParte(hash, 0, (int) largo) : prefijo);
+        int inicio = Math.min(desde, texto.length());
+        int fin = Math.min(hasta, texto.length());
+        if (fin > inicio) {
+            salida.write(texto, inicio, fin - inicio);
+        }
+        salida.flush();
+    }
+
+    private byte[] leerParte(String hash, long posicion, int cantidad) {
+        return bytes(entityManager.createNativeQuery(LEER_PARTE)
+            .setParameter("inicio", posicion + 1)
+            .setParameter("largo", cantidad)
+            .setParameter("hash", hash)
+            .getSingleResult());
+    }
+
+    private static byte[] bytes(Object valor) {
+        if (valor instanceof Blob blob) {
+            try {
+                return blob.getBytes(1, (int) blob.length());
+            } catch (SQLException e) {
+                throw new IllegalStateException("No se pudo leer el contenido del antecedente", e);
+            }
+        }
+        return (byte[]) valor;
+    }
+
+    /**
+     * Migrar por lotes las descripciones que siguen en la columna anterior (Antecedentes.descripcion)
+     * a Contenidos_antecedentes. Cada lote es una transacción; si la aplicación se detiene a mitad,
+     * continúa donde quedó en el siguiente arranque. No hace nada si la columna ya no existe.
+     * Se ejecuta antes que las demás cargas al arrancar (p. ej. el índice de búsqueda de antecedentes).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void migrarDescripcionesAnteriores() {
+        if (!existeColumnaAnterior()) {
+            return;
+        }
+        int migradas = 0;
+        int enLote;
+        do {
+            Integer resultado = transactionTemplate.execute(estado -> migrarLote());
+            enLote = resultado != null ? resultado : 0;
+            migradas += enLote;
+        } while (enLote == loteMigracion);
+        if (migradas > 0) {
+            log.info("Descripciones de antecedentes migradas a Contenidos_antecedentes: {}", migradas);
+        }
+    }
+
+    private int migrarLote() {
+        List<Object[]> filas = jdbcTemplate.query(
+            "SELECT id_antecedente, descripcion FROM Antecedentes " +
+            "WHERE descripcion IS NOT NULL AND descripcion_hash IS NULL LIMIT ?",
+            (fila, numero) -> new Object[] {fila.getInt(1), fila.getString(2)}, loteMigracion);
+        List<Object[]> cambios = filas.stream().map(fila -> {
+            String texto = (String) fila[1];
+            String hash = CompresionTexto.huella(texto);
+            guardar(hash, texto);
+            return new Object[] {hash, texto.length(), fila[0]};
+        }).toList();
+        jdbcTemplate.batchUpdate(
+            "UPDATE Antecedentes SET descripcion_hash = ?, largo_descripcion = ?, descripcion = NULL " +
+            "WHERE id_antecedente = ?", cambios);
+        return filas.size();
+    }
+
+    private boolean existeColumnaAnterior() {
+        Boolean existe = jdbcTemplate.execute((ConnectionCallback<Boolean>) conexion -> {
+            DatabaseMetaData metadatos = conexion.getMetaData();
+            for (String tabla : List.of("Antecedentes", "antecedentes", "ANTECEDENTES")) {
+                try (ResultSet columnas = metadatos.getColumns(conexion.getCatalog(), null, tabla, "descripcion")) {
+                    if (columnas.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(existe);
+    }
+}
@@ -2,10 +2,16 @@ package sv.medicit.app.Servicios;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 import sv.medicit.app.Entidades.Contrasenias;
 import sv.medicit.app.Repositorios.ContraseniasRepository;
 import sv.medicit.app.Utilidades.EncriptacionUtil;
@@ -23,6 +29,14 @@ public class ContraseniasService {
     @Autowired
     private EncriptacionUtil encriptacionUtil;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Pool de tareas de Spring: el UPDATE del hash nuevo no debe ocupar un hilo de BCrypt
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor ejecutorTareas;
+
     /**
      * Obtener todas las contraseñas.
      */
@@ -30,6 +44,13 @@ public class ContraseniasService {
         return contraseniasRepository.findAll();
     }
 
+    /**
+     * Obtener una página de contraseñas, opcionalmente filtrada por usuario.
+     */
+    public Slice<Contrasenias> obtenerPagina(Pageable pageable, Integer idUsuario) {
+        return contraseniasRepository.buscarPagina(idUsuario, pageable);
+    }
+
     /**
      * Obtener una contraseña por ID.
      */
@@ -95,4 +116,27 @@ public class ContraseniasService {
     public Optional<Contrasenias> obtenerPorUsuarioId(Integer idUsuario) {
         return contraseniasRepository.findByUsuarioIdUsuario(idUsuario);
     }
+
+    /**
+     * Volver a encriptar una contraseña si su hash usa otro algoritmo o costo que el configurado.
+     * Se llama después de un login exitoso, único momento en que se conoce la contraseña en texto plano.
+     * El hash se calcula en segundo plano (el login no espera) y solo se guarda si la contraseña no
+     * cambió mientras tanto. Si el pool de BCrypt está ocupado se omite y se intenta en otro login.
+     * El UPDATE se ejecuta en el pool de tareas, no en el hilo de BCrypt que calculó el hash.
+     */
+    public void actualizarHashSiCorresponde(Integer idContrasenia, String contraseniaPlana, String hashActual) {
+        if (!encriptacionUtil.necesitaActualizacion(hashActual)) {
+            return;
+        }
+        encriptacionUtil.encriptarEnSegundoPlano(contraseniaPlana).ifPresentOrElse(
+            hashNuevo -> hashNuevo
+                .thenApplyAsync(hash -> contraseniasRepository.reemplazarHash(idContrasenia, hashActual, hash), ejecutorTareas)
+                .whenComplete((filas, error) -> contarActualizacion(
+                    error != null ? "error" : filas > 0 ? "actualizada" : "modificada")),
+            () -> contarActualizacion("omitida"));
+    }
+
+    private void contarActualizacion(String resultado) {
+        meterRegistry.counter("medicit.encriptacion.actualizaciones", "resultado", resultado).increment();
+    }
 }
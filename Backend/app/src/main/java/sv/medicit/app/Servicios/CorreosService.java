@@ -4,6 +4,8 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import sv.medicit.app.Entidades.Correos;
@@ -26,6 +28,13 @@ public class CorreosService {
         return correosRepository.findAll();
     }
 
+    /**
+     * Obtener una página de correos, opcionalmente filtrada por usuario.
+     */
+    public Slice<Correos> obtenerPagina(Pageable pageable, Integer idUsuario) {
+        return correosRepository.buscarPagina(idUsuario, pageable);
+    }
+
     /**
      * Obtener un correo por ID.
      */
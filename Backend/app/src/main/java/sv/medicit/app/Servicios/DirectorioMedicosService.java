@@ -0,0 +1,136 @@
+package sv.medicit.app.Servicios;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.hibernate.Hibernate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import sv.medicit.app.DTOs.MedicoDTO;
+import sv.medicit.app.Entidades.Especialidades;
+import sv.medicit.app.Entidades.Estados;
+import sv.medicit.app.Entidades.Roles;
+import sv.medicit.app.Entidades.Usuarios;
+import sv.medicit.app.Repositorios.UsuariosRepository;
+import sv.medicit.app.Utilidades.IndiceMedicos;
+import sv.medicit.app.Utilidades.IndiceMedicos.Medico;
+
+/**
+ * Servicio de búsqueda de médicos por especialidad.
+ * Los médicos se cargan al arrancar en IndiceMedicos y UsuariosService avisa cada alta, cambio,
+ * asignación o retiro de especialidades y baja: las búsquedas no consultan la base de datos.
+ */
+@Service
+public class DirectorioMedicosService {
+
+    private static final String ROL_MEDICO = "Medico";
+
+    private static final String ESTADO_ACTIVO = "Activo";
+
+    @Autowired
+    private UsuariosRepository usuariosRepository;
+
+    @Autowired
+    private RolesService rolesService;
+
+    @Autowired
+    private EstadosService estadosService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final IndiceMedicos indice = new IndiceMedicos();
+
+    @PostConstruct
+    void registrarMetricas() {
+        Gauge.builder("medicit.medicos.indice", indice, IndiceMedicos::tamanio)
+            .description("Médicos registrados en el índice por especialidad")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Cargar el índice con todos los médicos y sus especialidades (una sola consulta).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void recargar() {
+        Map<Integer, Object[]> datos = new HashMap<>();
+        Map<Integer, Set<Integer>> especialidades = new HashMap<>();
+        for (Object[] fila : usuariosRepository.obtenerMedicosConEspecialidades()) {
+            Integer idUsuario = (Integer) fila[0];
+            datos.putIfAbsent(idUsuario, fila);
+            especialidades.computeIfAbsent(idUsuario, id -> new HashSet<>()).add((Integer) fila[4]);
+        }
+
+        indice.limpiar();
+        datos.forEach((idUsuario, fila) -> indice.registrar(new Medico(
+            idUsuario, (String) fila[1], (String) fila[2], (String) fila[3], Set.copyOf(especialidades.get(idUsuario)))));
+    }
+
+    /**
+     * Reflejar en el índice un usuario guardado: si es médico se registra con sus especialidades actuales,
+     * si no (o dejó de serlo) se quita. Rol y estado se resuelven desde los catálogos en memoria
+     * porque al actualizar suelen llegar solo con su ID.
+     */
+    public void actualizar(Usuarios usuario) {
+        if (!ROL_MEDICO.equalsIgnoreCase(nombreRol(usuario.getRol()))) {
+            indice.quitar(usuario.getIdUsuario());
+            return;
+        }
+        Optional<Medico> anterior = indice.obtener(usuario.getIdUsuario());
+        Set<Integer> idsEspecialidades;
+        if (usuario.getEspecialidades() == null) {
+            idsEspecialidades = Set.of();
+        } else if (!Hibernate.isInitialized(usuario.getEspecialidades()) && anterior.isPresent()) {
+            // Las especialidades no cambiaron (p. ej. baja o cambio de estado): no cargarlas
+            idsEspecialidades = anterior.get().especialidades();
+        } else {
+            Set<Integer> ids = new HashSet<>();
+            for (Especialidades especialidad : usuario.getEspecialidades()) {
+                ids.add(especialidad.getIdEspecialidad());
+            }
+            idsEspecialidades = Set.copyOf(ids);
+        }
+        indice.registrar(new Medico(usuario.getIdUsuario(), usuario.getNombres(), usuario.getApellidos(),
+            nombreEstado(usuario.getEstado()), idsEspecialidades));
+    }
+
+    /**
+     * Buscar médicos de una especialidad, en orden alfabético.
+     *
+     * @param soloActivos Solo médicos en estado Activo
+     * @param prefijo Inicio del nombre o del apellido (opcional, sin distinguir mayúsculas ni tildes)
+     * @param limite Cantidad máxima de resultados
+     */
+    public List<MedicoDTO> buscar(Integer idEspecialidad, boolean soloActivos, String prefijo, int limite) {
+        return indice.buscar(idEspecialidad, prefijo,
+                medico -> !soloActivos || ESTADO_ACTIVO.equalsIgnoreCase(medico.estado()), limite)
+            .stream()
+            .map(medico -> new MedicoDTO(medico.idUsuario(), medico.nombres(), medico.apellidos(), medico.estado()))
+            .toList();
+    }
+
+    private String nombreRol(Roles rol) {
+        if (rol == null) {
+            return null;
+        }
+        return rolesService.obtenerPorId(rol.getIdRol()).map(Roles::getNombreRol).orElseGet(rol::getNombreRol);
+    }
+
+    private String nombreEstado(Estados estado) {
+        if (estado == null) {
+            return null;
+        }
+        return estadosService.obtenerPorId(estado.getIdEstado()).map(Estados::getEstado).orElseGet(estado::getEstado);
+    }
+}
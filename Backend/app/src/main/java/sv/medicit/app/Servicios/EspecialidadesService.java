@@ -4,10 +4,15 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import sv.medicit.app.Entidades.Especialidades;
 import sv.medicit.app.Repositorios.EspecialidadesRepository;
+import sv.medicit.app.Utilidades.CatalogoCache;
 
 @Service
 public class EspecialidadesService {
@@ -15,19 +20,42 @@ public class EspecialidadesService {
     @Autowired
     private EspecialidadesRepository especialidadesRepository;
 
+    // Catálogo en memoria; se recarga después de cada escritura
+    private final CatalogoCache<Especialidades> cache = new CatalogoCache<>(
+        () -> especialidadesRepository.findAll(), Especialidades::getIdEspecialidad, Especialidades::getNombreEspecialidad, Especialidades::getDescripcion, "idEspecialidad", "nombreEspecialidad");
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargarCache() {
+        cache.recargar();
+    }
+
     public List<Especialidades> obtenerTodos() {
-        return especialidadesRepository.findAll();
+        return cache.todos();
+    }
+
+    public Slice<Especialidades> obtenerPagina(Pageable pageable) {
+        return cache.pagina(pageable);
     }
 
     public Optional<Especialidades> obtenerPorId(Integer id) {
-        return especialidadesRepository.findById(id);
+        return cache.porId(id);
+    }
+
+    public Optional<Especialidades> obtenerPorNombre(String nombre) {
+        return cache.porNombre(nombre);
+    }
+
+    public String obtenerEtag() {
+        return cache.etag();
     }
 
     public Especialidades crear(Especialidades especialidad) {
         if (especialidad.getNombreEspecialidad() == null || especialidad.getNombreEspecialidad().isEmpty()) {
             throw new IllegalArgumentException("El nombre de la especialidad es requerido");
         }
-        return especialidadesRepository.save(especialidad);
+        Especialidades guardado = especialidadesRepository.save(especialidad);
+        cache.recargar();
+        return guardado;
     }
 
     public Especialidades actualizar(Integer id, Especialidades especialidadActualizada) {
@@ -41,7 +69,9 @@ public class EspecialidadesService {
             if (especialidadActualizada.getDescripcion() != null) {
                 especialidad.setDescripcion(especialidadActualizada.getDescripcion());
             }
-            return especialidadesRepository.save(especialidad);
+            Especialidades guardado = especialidadesRepository.save(especialidad);
+            cache.recargar();
+            return guardado;
         } else {
             throw new RuntimeException("Especialidad no encontrada con ID: " + id);
         }
@@ -52,5 +82,6 @@ public class EspecialidadesService {
             throw new RuntimeException("Especialidad no encontrada con ID: " + id);
         }
         especialidadesRepository.deleteById(id);
+        cache.recargar();
     }
 }
@@ -4,10 +4,15 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import sv.medicit.app.Entidades.Estados;
 import sv.medicit.app.Repositorios.EstadosRepository;
+import sv.medicit.app.Utilidades.CatalogoCache;
 
 @Service
 public class EstadosService {
@@ -15,19 +20,42 @@ public class EstadosService {
     @Autowired
     private EstadosRepository estadosRepository;
 
+    // Catálogo en memoria; se recarga después de cada escritura
+    private final CatalogoCache<Estados> cache = new CatalogoCache<>(
+        () -> estadosRepository.findAll(), Estados::getIdEstado, Estados::getEstado, Estados::getDescripcion, "idEstado", "estado");
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargarCache() {
+        cache.recargar();
+    }
+
     public List<Estados> obtenerTodos() {
-        return estadosRepository.findAll();
+        return cache.todos();
+    }
+
+    public Slice<Estados> obtenerPagina(Pageable pageable) {
+        return cache.pagina(pageable);
     }
 
     public Optional<Estados> obtenerPorId(Integer id) {
-        return estadosRepository.findById(id);
+        return cache.porId(id);
+    }
+
+    public Optional<Estados> obtenerPorNombre(String nombre) {
+        return cache.porNombre(nombre);
+    }
+
+    public String obtenerEtag() {
+        return cache.etag();
     }
 
     public Estados crear(Estados estado) {
         if (estado.getEstado() == null || estado.getEstado().isEmpty()) {
             throw new IllegalArgumentException("El estado es requerido");
         }
-        return estadosRepository.save(estado);
+        Estados guardado = estadosRepository.save(estado);
+        cache.recargar();
+        return guardado;
     }
 
     public Estados actualizar(Integer id, Estados estadoActualizado) {
@@ -41,7 +69,9 @@ public class EstadosService {
             if (estadoActualizado.getDescripcion() != null) {
                 estado.setDescripcion(estadoActualizado.getDescripcion());
             }
-            return estadosRepository.save(estado);
+            Estados guardado = estadosRepository.save(estado);
+            cache.recargar();
+            return guardado;
         } else {
             throw new RuntimeException("Estado no encontrado con ID: " + id);
         }
@@ -52,5 +82,6 @@ public class EstadosService {
             throw new RuntimeException("Estado no encontrado con ID: " + id);
         }
         estadosRepository.deleteById(id);
+        cache.recargar();
     }
 }
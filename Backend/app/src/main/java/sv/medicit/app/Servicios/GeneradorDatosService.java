@@ -0,0 +1,384 @@
+package sv.medicit.app.Servicios;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import sv.medicit.app.Entidades.Antecedentes;
+import sv.medicit.app.Utilidades.CompresionTexto;
+import sv.medicit.app.Utilidades.DatosSinteticos;
+import sv.medicit.app.Utilidades.DatosSinteticos.Antecedente;
+import sv.medicit.app.Utilidades.DatosSinteticos.Cita;
+import sv.medicit.app.Utilidades.DatosSinteticos.EstadoCita;
+import sv.medicit.app.Utilidades.DatosSinteticos.Tipo;
+import sv.medicit.app.Utilidades.DatosSinteticos.Usuario;
+import sv.medicit.app.Utilidades.EncriptacionUtil;
+
+/**
+ * Carga masiva de datos sintéticos para pruebas de escala (perfil "generador", ver
+ * application-generador.properties). Genera con DatosSinteticos usuarios con correo, teléfono,
+ * contraseña y respuestas de seguridad, especialidades de los médicos, antecedentes y citas.
+ *
+ * Las filas se insertan con JdbcTemplate en lotes (con rewriteBatchedStatements, MySQL los recibe como
+ * INSERT de varias filas), en bloques de usuarios o de médicos repartidos entre varios hilos; cada bloque
+ * es una transacción. Los IDs de usuario se asignan en orden desde el mayor existente y al final se
+ * ajustan las Secuencias para que los @TableGenerator continúen después de ellos.
+ *
+ * Corre al arrancar, antes de cargar cachés e índices en memoria. Si una generación anterior quedó a
+ * medias continúa donde quedó: los usuarios generados se reconocen porque su nombre es "u" + id, el
+ * primer bloque se confirma antes que los demás (así el menor ID generado es la base de todos) y solo
+ * se insertan los usuarios y las citas de los médicos que todavía no existen.
+ */
+@Service
+@Profile("generador")
+public class GeneradorDatosService {
+
+    private static final Logger log = LoggerFactory.getLogger(GeneradorDatosService.class);
+
+    private static final String CONTRASENIA = "password123";
+
+    // Inserta el contenido solo si la huella no existe (igual que ContenidosAntecedentesService)
+    private static final String INSERTAR_CONTENIDO =
+        "INSERT INTO Contenidos_antecedentes (hash, datos) SELECT ?, ? FROM DUAL " +
+        "WHERE NOT EXISTS (SELECT 1 FROM Contenidos_antecedentes WHERE hash = ?)";
+
+    // Usuarios creados por el generador: su nombre de usuario es "u" + id
+    private static final String ES_GENERADO = "nombre_usuario = CONCAT('u', id_usuario)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EncriptacionUtil encriptacionUtil;
+
+    @Autowired
+    private SecuenciasService secuenciasService;
+
+    @Value("${medicit.generador.semilla:42}")
+    private long semilla;
+
+    @Value("${medicit.generador.usuarios:1000000}")
+    private int totalUsuarios;
+
+    @Value("${medicit.generador.citas:10000000}")
+    private long totalCitas;
+
+    // Fecha que se toma como "hoy"; vacía = la fecha actual. Fijarla para obtener siempre los mismos datos
+    @Value("${medicit.generador.fecha-referencia:}")
+    private String fechaReferencia;
+
+    @Value("${medicit.generador.meses-historial:24}")
+    private int mesesHistorial;
+
+    @Value("${medicit.generador.meses-futuro:6}")
+    private int mesesFuturo;
+
+    // 0 = un hilo por procesador, sin pasar del pool de conexiones
+    @Value("${medicit.generador.hilos:0}")
+    private int hilos;
+
+    // Usuarios (o médicos) por transacción
+    @Value("${medicit.generador.bloque:5000}")
+    private int bloque;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int conexiones;
+
+    @Value("${medicit.agenda.duracion-cita:30m}")
+    private Duration duracionCita;
+
+    @Value("${medicit.agenda.hora-inicio:08:00}")
+    private String horaInicio;
+
+    @Value("${medicit.agenda.hora-fin:17:00}")
+    private String horaFin;
+
+    @Value("${medicit.agenda.dias-laborales:MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY}")
+    private Set<DayOfWeek> diasLaborales;
+
+    /**
+     * IDs y catálogos que necesitan todos los bloques.
+     */
+    private record Contexto(DatosSinteticos datos, long baseUsuario, long baseCorreo, long baseTelefono,
+                            long baseContrasenia, long baseRespuesta, Map<Tipo, Integer> roles, int estadoActivo,
+                            Map<EstadoCita, Integer> estadosCita, List<Integer> preguntas, List<Integer> especialidades,
+                            String hashContrasenia, List<String> notasDePlantilla, BitSet usuariosGenerados) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public void generar() {
+        long inicio = System.nanoTime();
+        Contexto contexto = prepararContexto();
+        BitSet generados = contexto.usuariosGenerados();
+        BitSet medicosConCitas = medicosConCitas(contexto);
+        int medicos = contexto.datos().totalMedicos();
+        if (generados.cardinality() == totalUsuarios && medicosConCitas.cardinality() == medicos) {
+            log.info("Generador: ya existen los {} usuarios generados, no se generan datos", totalUsuarios);
+            return;
+        }
+        if (!generados.isEmpty()) {
+            log.info("Generador: continuando una generación anterior ({} de {} usuarios)", generados.cardinality(),
+                totalUsuarios);
+        }
+        int totalHilos = Math.max(1, Math.min(hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors(), conexiones));
+
+        AtomicLong filas = new AtomicLong();
+        // El primer bloque se confirma antes que los demás: fija la base de IDs para una posible continuación
+        filas.addAndGet(transactionTemplate.execute(estado -> insertarUsuarios(contexto, 0, Math.min(totalUsuarios, bloque))));
+        try (ExecutorService ejecutor = Executors.newFixedThreadPool(totalHilos)) {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int desde = bloque; desde < totalUsuarios; desde += bloque) {
+                int primero = desde;
+                int ultimo = Math.min(totalUsuarios, desde + bloque);
+                if (generados.nextClearBit(primero) >= ultimo) {
+                    continue;
+                }
+                tareas.add(ejecutor.submit(() -> filas.addAndGet(
+                    transactionTemplate.execute(estado -> insertarUsuarios(contexto, primero, ultimo)))));
+            }
+            esperar(tareas);
+            log.info("Generador: {} usuarios y datos relacionados ({} filas) en {} s", totalUsuarios, filas.get(),
+                (System.nanoTime() - inicio) / 1_000_000_000);
+
+            tareas.clear();
+            for (int desde = 0; desde < medicos; desde += Math.max(1, bloque / 100)) {
+                int primero = desde;
+                int ultimo = Math.min(medicos, desde + Math.max(1, bloque / 100));
+                if (medicosConCitas.nextClearBit(primero) >= ultimo) {
+                    continue;
+                }
+                tareas.add(ejecutor.submit(() -> filas.addAndGet(
+                    transactionTemplate.execute(estado -> insertarCitas(contexto, medicosConCitas, primero, ultimo)))));
+            }
+            esperar(tareas);
+        }
+        secuenciasService.ajustar();
+
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        log.info("Generador: {} filas en {} s ({} filas/s, {} hilos, {} citas)", filas.get(), Math.round(segundos),
+            Math.round(filas.get() / segundos), totalHilos, contexto.datos().totalCitas());
+    }
+
+    private Contexto prepararContexto() {
+        LocalDate referencia = fechaReferencia.isBlank() ? LocalDate.now() : LocalDate.parse(fechaReferencia);
+        DatosSinteticos datos = new DatosSinteticos(semilla, totalUsuarios, totalCitas, referencia,
+            referencia.minusMonths(mesesHistorial), referencia.plusMonths(mesesFuturo),
+            LocalTime.parse(horaInicio), LocalTime.parse(horaFin), duracionCita, diasLaborales);
+
+        Map<Tipo, Integer> roles = new EnumMap<>(Tipo.class);
+        roles.put(Tipo.PACIENTE, idCatalogo("Roles", "id_rol", "nombre_rol", "Paciente"));
+        roles.put(Tipo.MEDICO, idCatalogo("Roles", "id_rol", "nombre_rol", "Medico"));
+        roles.put(Tipo.ADMINISTRADOR, idCatalogo("Roles", "id_rol", "nombre_rol", "Administrador"));
+        Map<EstadoCita, Integer> estadosCita = new EnumMap<>(EstadoCita.class);
+        for (EstadoCita estado : EstadoCita.values()) {
+            estadosCita.put(estado, idCatalogo("Estados", "id_estado", "estado", estado.nombre()));
+        }
+        int activo = idCatalogo("Estados", "id_estado", "estado", "Activo");
+
+        // Preguntas de seguridad y notas de plantilla: se guardan una vez, antes de los bloques
+        List<Integer> preguntas = new ArrayList<>();
+        long basePregunta = siguienteId("Preguntas", "id_pregunta");
+        for (String pregunta : DatosSinteticos.preguntas()) {
+            List<Integer> existente = jdbcTemplate.queryForList(
+                "SELECT id_pregunta FROM Preguntas WHERE pregunta = ?", Integer.class, pregunta);
+            if (existente.isEmpty()) {
+                jdbcTemplate.update("INSERT INTO Preguntas (id_pregunta, pregunta, creado, creado_por) VALUES (?, ?, ?, ?)",
+                    basePregunta, pregunta, Timestamp.valueOf(LocalDateTime.now()), "generador");
+                preguntas.add((int) basePregunta++);
+            } else {
+                preguntas.add(existente.get(0));
+            }
+        }
+        List<String> notas = DatosSinteticos.notasDePlantilla();
+        for (String nota : notas) {
+            jdbcTemplate.update(INSERTAR_CONTENIDO,
+                CompresionTexto.huella(nota), CompresionTexto.comprimir(nota), CompresionTexto.huella(nota));
+        }
+
+        // Con una generación anterior la base es el menor ID generado (el del primer usuario)
+        Long generadoMenor = jdbcTemplate.queryForObject(
+            "SELECT MIN(id_usuario) FROM Usuarios WHERE " + ES_GENERADO, Long.class);
+        long baseUsuario = generadoMenor != null ? generadoMenor : siguienteId("Usuarios", "id_usuario");
+        BitSet generados = new BitSet(totalUsuarios);
+        jdbcTemplate.query("SELECT id_usuario FROM Usuarios WHERE id_usuario BETWEEN ? AND ? AND " + ES_GENERADO,
+            fila -> generados.set((int) (fila.getLong(1) - baseUsuario)), baseUsuario, baseUsuario + totalUsuarios - 1);
+
+        List<Integer> especialidades = jdbcTemplate.queryForList(
+            "SELECT id_especialidad FROM Especialidades ORDER BY id_especialidad", Integer.class);
+        return new Contexto(datos, baseUsuario, siguienteId("Correos", "id_correo"),
+            siguienteId("Telefonos", "id_telefono"), siguienteId("Contrasenias", "id_contrasenia"),
+            siguienteId("Respuestas", "id_respuesta"), roles, activo, estadosCita, preguntas, especialidades,
+            encriptacionUtil.encriptarContrasenia(CONTRASENIA), notas, generados);
+    }
+
+    /**
+     * Médicos (por su número entre los médicos) que ya tienen citas; las de cada médico se insertan
+     * en una sola transacción, así que las tiene todas.
+     */
+    private BitSet medicosConCitas(Contexto c) {
+        BitSet medicos = new BitSet(c.datos().totalMedicos());
+        Set<Long> ids = new HashSet<>(jdbcTemplate.queryForList("SELECT DISTINCT medico_id FROM Citas WHERE medico_id BETWEEN ? AND ?",
+            Long.class, c.baseUsuario(), c.baseUsuario() + totalUsuarios - 1));
+        for (int medico = 0; medico < c.datos().totalMedicos(); medico++) {
+            if (ids.contains(c.baseUsuario() + DatosSinteticos.indiceMedico(medico))) {
+                medicos.set(medico);
+            }
+        }
+        return medicos;
+    }
+
+    /**
+     * Insertar los usuarios [primero, ultimo) que todavía no existen con su correo, teléfono,
+     * contraseña, respuestas, especialidades (médicos) y antecedentes (pacientes).
+     */
+    private long insertarUsuarios(Contexto c, int primero, int ultimo) {
+        DatosSinteticos datos = c.datos();
+        List<Object[]> usuarios = new ArrayList<>();
+        List<Object[]> correos = new ArrayList<>();
+        List<Object[]> telefonos = new ArrayList<>();
+        List<Object[]> contrasenias = new ArrayList<>();
+        List<Object[]> respuestas = new ArrayList<>();
+        List<Object[]> especialidades = new ArrayList<>();
+        List<Object[]> contenidos = new ArrayList<>();
+        List<Object[]> antecedentes = new ArrayList<>();
+        int preguntasPorUsuario = 2;
+
+        for (int i = c.usuariosGenerados().nextClearBit(primero); i < ultimo; i = c.usuariosGenerados().nextClearBit(i + 1)) {
+            long id = c.baseUsuario() + i;
+            Usuario u = datos.usuario(i, id);
+            usuarios.add(new Object[] {id, u.nombreUsuario(), u.nombres(), u.apellidos(), u.dui(),
+                Date.valueOf(u.fechaNacimiento()), c.roles().get(u.tipo()), c.estadoActivo()});
+            correos.add(new Object[] {c.baseCorreo() + i, id, u.correo()});
+            telefonos.add(new Object[] {c.baseTelefono() + i, id, u.telefono()});
+            contrasenias.add(new Object[] {c.baseContrasenia() + i, id, c.hashContrasenia()});
+
+            String[] textos = datos.respuestas(i);
+            long idRespuesta = c.baseRespuesta() + (long) i * preguntasPorUsuario;
+            for (int p = 0; p < textos.length; p++) {
+                if (textos[p] != null) {
+                    respuestas.add(new Object[] {idRespuesta++, id, c.preguntas().get(p), textos[p]});
+                }
+            }
+            if (u.tipo() == Tipo.MEDICO) {
+                for (int posicion : datos.especialidades(i, c.especialidades().size())) {
+                    especialidades.add(new Object[] {id, c.especialidades().get(posicion)});
+                }
+            }
+            for (Antecedente a : datos.antecedentes(i)) {
+                String hash = CompresionTexto.huella(a.descripcion());
+                // Las notas de plantilla ya están guardadas; las demás son únicas de este paciente
+                if (!c.notasDePlantilla().contains(a.descripcion())) {
+                    contenidos.add(new Object[] {hash, CompresionTexto.comprimir(a.descripcion()), hash});
+                }
+                antecedentes.add(new Object[] {id, a.antecedente(), hash, recortar(a.antecedente(), Antecedentes.LARGO_TITULO),
+                    recortar(a.descripcion(), Antecedentes.LARGO_VISTA_PREVIA), a.descripcion().length()});
+            }
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO Usuarios (id_usuario, nombre_usuario, nombres, apellidos, dui, " +
+            "fecha_nacimiento, id_rol, id_estado) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", usuarios);
+        jdbcTemplate.batchUpdate("INSERT INTO Correos (id_correo, usuario_id, correo) VALUES (?, ?, ?)", correos);
+        jdbcTemplate.batchUpdate("INSERT INTO Telefonos (id_telefono, usuario_id, telefono) VALUES (?, ?, ?)", telefonos);
+        jdbcTemplate.batchUpdate("INSERT INTO Contrasenias (id_contrasenia, usuario_id, contrasenia) VALUES (?, ?, ?)",
+            contrasenias);
+        jdbcTemplate.batchUpdate("INSERT INTO Respuestas (id_respuesta, usuario_id, pregunta_id, respuesta) " +
+            "VALUES (?, ?, ?, ?)", respuestas);
+        jdbcTemplate.batchUpdate("INSERT INTO Usuario_especialidad (id_usuario, id_especialidad) VALUES (?, ?)",
+            especialidades);
+        jdbcTemplate.batchUpdate(INSERTAR_CONTENIDO, contenidos);
+        jdbcTemplate.batchUpdate("INSERT INTO Antecedentes (usuario_id, antecedente, descripcion_hash, titulo, " +
+            "vista_previa, largo_descripcion) VALUES (?, ?, ?, ?, ?, ?)", antecedentes);
+        return (long) usuarios.size() * 4 + respuestas.size() + especialidades.size() + contenidos.size()
+            + antecedentes.size();
+    }
+
+    /**
+     * Insertar las citas de los médicos [primero, ultimo) que todavía no tienen.
+     */
+    private long insertarCitas(Contexto c, BitSet conCitas, int primero, int ultimo) {
+        List<Object[]> filas = new ArrayList<>();
+        for (int medico = conCitas.nextClearBit(primero); medico < ultimo; medico = conCitas.nextClearBit(medico + 1)) {
+            long idMedico = c.baseUsuario() + DatosSinteticos.indiceMedico(medico);
+            for (Cita cita : c.datos().citas(medico)) {
+                Timestamp fechaHora = Timestamp.valueOf(cita.fechaHora());
+                filas.add(new Object[] {c.baseUsuario() + cita.indicePaciente(), idMedico, fechaHora, cita.motivo(),
+                    c.estadosCita().get(cita.estado()), cita.estado().libre() ? null : fechaHora});
+            }
+        }
+        // En lotes del tamaño del bloque para no armar un solo INSERT enorme con los médicos más cargados
+        for (int desde = 0; desde < filas.size(); desde += bloque) {
+            jdbcTemplate.batchUpdate("INSERT INTO Citas (paciente_id, medico_id, fecha_hora, motivo, id_estado, " +
+                "horario_reservado) VALUES (?, ?, ?, ?, ?, ?)", filas.subList(desde, Math.min(filas.size(), desde + bloque)));
+        }
+        return filas.size();
+    }
+
+    /**
+     * ID de un registro de catálogo por nombre; si no existe se crea.
+     */
+    private int idCatalogo(String tabla, String columnaId, String columnaNombre, String nombre) {
+        String consulta = "SELECT " + columnaId + " FROM " + tabla + " WHERE " + columnaNombre + " = ?";
+        List<Integer> ids = jdbcTemplate.queryForList(consulta, Integer.class, nombre);
+        if (ids.isEmpty()) {
+            jdbcTemplate.update("INSERT INTO " + tabla + " (" + columnaNombre + ", descripcion) VALUES (?, ?)",
+                nombre, nombre + " (generador)");
+            ids = jdbcTemplate.queryForList(consulta, Integer.class, nombre);
+        }
+        return ids.get(0);
+    }
+
+    private long siguienteId(String tabla, String columna) {
+        Long maximo = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + columna + "), 0) FROM " + tabla, Long.class);
+        return (maximo != null ? maximo : 0) + 1;
+    }
+
+    private static String recortar(String texto, int largo) {
+        return texto.length() <= largo ? texto : texto.substring(0, largo);
+    }
+
+    private static void esperar(List<Future<?>> tareas) {
+        try {
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Generación interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error al generar datos", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,600 @@
+package sv.medicit.app.Servicios;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import sv.medicit.app.DTOs.EventoImportacionDTO;
+import sv.medicit.app.DTOs.UsuarioCreacionDTO;
+import sv.medicit.app.Entidades.Contrasenias;
+import sv.medicit.app.Entidades.Correos;
+import sv.medicit.app.Entidades.Estados;
+import sv.medicit.app.Entidades.Preguntas;
+import sv.medicit.app.Entidades.Respuestas;
+import sv.medicit.app.Entidades.Roles;
+import sv.medicit.app.Entidades.Telefonos;
+import sv.medicit.app.Entidades.Usuarios;
+import sv.medicit.app.Repositorios.ContraseniasRepository;
+import sv.medicit.app.Repositorios.CorreosRepository;
+import sv.medicit.app.Repositorios.PreguntasRepository;
+import sv.medicit.app.Repositorios.RespuestasRepository;
+import sv.medicit.app.Repositorios.TelefonosRepository;
+import sv.medicit.app.Repositorios.UsuariosRepository;
+import sv.medicit.app.Utilidades.EncriptacionUtil;
+import sv.medicit.app.Utilidades.EncriptacionUtil.CupoEncriptacion;
+import sv.medicit.app.Utilidades.LectorCsv;
+
+/**
+ * Servicio para la importación masiva de pacientes (alta de una clínica nueva).
+ * El cuerpo se lee en streaming por lotes: cada lote se valida, sus contraseñas se encriptan en
+ * paralelo en el pool de BCrypt (con un cupo que deja lugar a los logins) y se guarda en una sola
+ * transacción con inserts agrupados en lotes JDBC. Mientras un lote se guarda, el siguiente ya se
+ * está encriptando.
+ */
+@Service
+public class ImportacionPacientesService {
+
+    // Filas que se validan, encriptan y guardan juntas
+    private static final int TAMANIO_LOTE = 500;
+
+    // Columnas CSV de preguntas de seguridad: pregunta1, respuesta1, pregunta2, respuesta2, ...
+    private static final String PREFIJO_PREGUNTA = "pregunta";
+    private static final String PREFIJO_RESPUESTA = "respuesta";
+
+    /**
+     * Formatos de entrada admitidos.
+     * CSV: primera fila con encabezados iguales a los campos de UsuarioCreacionDTO.
+     * NDJSON: un objeto UsuarioCreacionDTO por línea (mismo formato que usuarios_ejemplo en DATA_SEEDS.json).
+     */
+    public enum Formato {
+        CSV,
+        NDJSON
+    }
+
+    /**
+     * Rol y estado con los que se crean las filas importadas.
+     */
+    public record Requisitos(Roles rolPaciente, Estados estadoActivo) {
+    }
+
+    @Autowired
+    private UsuariosRepository usuariosRepository;
+
+    @Autowired
+    private ContraseniasRepository contraseniasRepository;
+
+    @Autowired
+    private TelefonosRepository telefonosRepository;
+
+    @Autowired
+    private CorreosRepository correosRepository;
+
+    @Autowired
+    private PreguntasRepository preguntasRepository;
+
+    @Autowired
+    private RespuestasRepository respuestasRepository;
+
+    @Autowired
+    private RolesService rolesService;
+
+    @Autowired
+    private EstadosService estadosService;
+
+    @Autowired
+    private EncriptacionUtil encriptacionUtil;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Fila leída del archivo; error != null si no se pudo interpretar
+    private record Fila(int numero, UsuarioCreacionDTO datos, String error) {
+    }
+
+    // Fila validada, con su contraseña encriptándose en el pool
+    private record FilaValida(int numero, UsuarioCreacionDTO datos, Roles rol, Estados estado,
+                              CompletableFuture<String> contrasenia) {
+    }
+
+    @FunctionalInterface
+    private interface FuenteFilas {
+        Fila siguiente() throws IOException;
+    }
+
+    /**
+     * Importar pacientes desde un flujo CSV o NDJSON.
+     * Las filas con errores se reportan y se omiten; el resto se guarda. Todas las filas se
+     * crean con rol Paciente y, si no indican idEstado, con estado Activo.
+     *
+     * @param entrada Cuerpo de la petición en UTF-8
+     * @param formato Formato del cuerpo
+     * @param oyente Recibe un evento por fila rechazada, uno de progreso por lote y el resumen final
+     * @return El resumen de la importación
+     */
+    public EventoImportacionDTO importar(InputStream entrada, Formato formato,
+                                         Consumer<EventoImportacionDTO> oyente) throws IOException {
+        return importar(entrada, formato, requisitos(), oyente);
+    }
+
+    /**
+     * Buscar el rol Paciente y el estado Activo que necesita la importación.
+     * El controlador los busca antes de empezar a escribir la respuesta, para que su falta se
+     * reporte como un error normal y no a mitad del flujo NDJSON.
+     *
+     * @return Los requisitos de la importación
+     * @throws RuntimeException si el rol o el estado no existen
+     */
+    public Requisitos requisitos() {
+        Roles rolPaciente = rolesService.obtenerPorNombre("Paciente")
+            .orElseThrow(() -> new RuntimeException("Rol 'Paciente' no encontrado en la base de datos"));
+        Estados estadoActivo = estadosService.obtenerPorNombre("Activo")
+            .orElseThrow(() -> new RuntimeException("Estado 'Activo' no encontrado en la base de datos"));
+        return new Requisitos(rolPaciente, estadoActivo);
+    }
+
+    /**
+     * Importar pacientes con requisitos ya buscados (ver {@link #requisitos()}).
+     */
+    public EventoImportacionDTO importar(InputStream entrada, Formato formato, Requisitos requisitos,
+                                         Consumer<EventoImportacionDTO> oyente) throws IOException {
+        Roles rolPaciente = requisitos.rolPaciente();
+        Estados estadoActivo = requisitos.estadoActivo();
+
+        Progreso progreso = new Progreso(oyente, encriptacionUtil.crearCupo());
+        BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        FuenteFilas fuente = formato == Formato.CSV ? fuenteCsv(lector) : fuenteNdjson(lector);
+
+        // El lote anterior se guarda mientras el actual se encripta
+        List<FilaValida> pendiente = List.of();
+        try {
+            List<Fila> lote = new ArrayList<>(TAMANIO_LOTE);
+            Fila fila;
+            while ((fila = fuente.siguiente()) != null) {
+                lote.add(fila);
+                if (lote.size() == TAMANIO_LOTE) {
+                    List<FilaValida> preparado = preparar(lote, pendiente, rolPaciente, estadoActivo, progreso);
+                    guardar(pendiente, progreso);
+                    pendiente = preparado;
+                    lote = new ArrayList<>(TAMANIO_LOTE);
+                }
+            }
+            List<FilaValida> ultimo = preparar(lote, pendiente, rolPaciente, estadoActivo, progreso);
+            guardar(pendiente, progreso);
+            pendiente = ultimo;
+            guardar(pendiente, progreso);
+            pendiente = List.of();
+        } finally {
+            // Si la importación se interrumpe, no seguir encriptando filas que no se guardarán
+            progreso.cupo.cancelar();
+            pendiente.forEach(f -> f.contrasenia().cancel(false));
+        }
+
+        EventoImportacionDTO resumen = EventoImportacionDTO.resumen(progreso.procesadas, progreso.importadas, progreso.fallidas);
+        oyente.accept(resumen);
+        return resumen;
+    }
+
+    /**
+     * Validar un lote, verificar la unicidad contra la base de datos (una consulta por columna)
+     * y contra las filas que aún no están en ella, y lanzar la encriptación de las filas válidas.
+     * Los lotes anteriores a pendiente ya se guardaron y los encuentra la consulta, así que solo
+     * se recuerdan los valores de pendiente y del lote actual: la memoria no crece con el archivo.
+     */
+    private List<FilaValida> preparar(List<Fila> lote, List<FilaValida> pendiente, Roles rolPaciente,
+                                      Estados estadoActivo, Progreso progreso) {
+        progreso.procesadas += lote.size();
+        Vistos vistos = new Vistos();
+        pendiente.forEach(f -> vistos.agregar(f.datos()));
+
+        List<Fila> candidatas = new ArrayList<>();
+        for (Fila fila : lote) {
+            if (fila.error() != null) {
+                progreso.fallar(fila.numero(), null, fila.error());
+                continue;
+            }
+            String error = validar(fila.datos(), rolPaciente);
+            if (error != null) {
+                progreso.fallar(fila.numero(), fila.datos().getNombreUsuario(), error);
+                continue;
+            }
+            candidatas.add(fila);
+        }
+
+        Set<String> nombresExistentes = existentes(candidatas, UsuarioCreacionDTO::getNombreUsuario,
+            usuariosRepository::buscarNombresUsuarioExistentes);
+        Set<String> duisExistentes = existentes(candidatas, UsuarioCreacionDTO::getDui,
+            usuariosRepository::buscarDuisExistentes);
+        Set<String> correosExistentes = existentes(candidatas, UsuarioCreacionDTO::getCorreo,
+            correosRepository::buscarCorreosExistentes);
+
+        List<FilaValida> validas = new ArrayList<>();
+        for (Fila fila : candidatas) {
+            UsuarioCreacionDTO datos = fila.datos();
+            String nombreUsuario = clave(datos.getNombreUsuario());
+            String dui = clave(datos.getDui());
+            String correo = clave(datos.getCorreo());
+
+            String error = null;
+            Estados estado = estadoActivo;
+            if (nombresExistentes.contains(nombreUsuario) || vistos.nombres.contains(nombreUsuario)) {
+                error = "El nombre de usuario '" + datos.getNombreUsuario() + "' ya existe";
+            } else if (dui != null && (duisExistentes.contains(dui) || vistos.duis.contains(dui))) {
+                error = "El DUI '" + datos.getDui() + "' ya existe";
+            } else if (correosExistentes.contains(correo) || vistos.correos.contains(correo)) {
+                error = "El correo '" + datos.getCorreo() + "' ya existe";
+            } else if (datos.getIdEstado() != null) {
+                estado = estadosService.obtenerPorId(datos.getIdEstado()).orElse(null);
+                if (estado == null) {
+                    error = "Estado no encontrado con ID: " + datos.getIdEstado();
+                }
+            }
+            if (error != null) {
+                progreso.fallar(fila.numero(), datos.getNombreUsuario(), error);
+                continue;
+            }
+
+            vistos.agregar(datos);
+
+            CompletableFuture<String> contrasenia = progreso.cupo.encriptar(datos.getContrasenia());
+            validas.add(new FilaValida(fila.numero(), datos, rolPaciente, estado, contrasenia));
+        }
+        return validas;
+    }
+
+    /**
+     * Guardar un lote en una transacción. Si falla (p. ej. una restricción única violada por otra
+     * petición concurrente), se reintenta fila por fila para reportar solo las filas con error.
+     */
+    private void guardar(List<FilaValida> filas, Progreso progreso) {
+        if (filas.isEmpty()) {
+            return;
+        }
+
+        // Esperar las encriptaciones fuera de la transacción para no retener la conexión
+        filas.forEach(f -> f.contrasenia().exceptionally(e -> null).join());
+
+        try {
+            transactionTemplate.executeWithoutResult(estadoTransaccion -> persistir(filas));
+            progreso.importadas += filas.size();
+        } catch (RuntimeException e) {
+            for (FilaValida fila : filas) {
+                try {
+                    transactionTemplate.executeWithoutResult(estadoTransaccion -> persistir(List.of(fila)));
+                    progreso.importadas++;
+                } catch (RuntimeException errorFila) {
+                    progreso.fallar(fila.numero(), fila.datos().getNombreUsuario(),
+                        NestedExceptionUtils.getMostSpecificCause(errorFila).getMessage());
+                }
+            }
+        }
+        progreso.emitirProgreso();
+    }
+
+    /**
+     * Insertar las filas del lote. Los INSERT se agrupan por tabla en lotes JDBC al hacer flush;
+     * luego se limpia el contexto de persistencia para no acumular entidades entre lotes.
+     */
+    private void persistir(List<FilaValida> filas) {
+        List<Usuarios> usuarios = new ArrayList<>(filas.size());
+        List<Contrasenias> contrasenias = new ArrayList<>(filas.size());
+        List<Telefonos> telefonos = new ArrayList<>(filas.size());
+        List<Correos> correos = new ArrayList<>(filas.size());
+        List<Preguntas> preguntas = new ArrayList<>();
+        List<Respuestas> respuestas = new ArrayList<>();
+        LocalDateTime ahora = LocalDateTime.now();
+
+        for (FilaValida fila : filas) {
+            UsuarioCreacionDTO datos = fila.datos();
+
+            Usuarios usuario = new Usuarios();
+            usuario.setNombreUsuario(datos.getNombreUsuario());
+            usuario.setNombres(datos.getNombres());
+            usuario.setApellidos(datos.getApellidos());
+            usuario.setDui(datos.getDui() != null && !datos.getDui().isEmpty() ? datos.getDui() : null);
+            usuario.setFechaNacimiento(datos.getFechaNacimiento());
+            usuario.setRol(fila.rol());
+            usuario.setEstado(fila.estado());
+            usuarios.add(usuario);
+
+            Contrasenias contrasenia = new Contrasenias();
+            contrasenia.setUsuario(usuario);
+            contrasenia.setContrasenia(fila.contrasenia().join());
+            contrasenias.add(contrasenia);
+
+            Telefonos telefono = new Telefonos();
+            telefono.setUsuario(usuario);
+            telefono.setTelefono(datos.getTelefono());
+            telefonos.add(telefono);
+
+            Correos correo = new Correos();
+            correo.setUsuario(usuario);
+            correo.setCorreo(datos.getCorreo());
+            correos.add(correo);
+
+            if (datos.getPreguntasRespuestas() != null) {
+                for (UsuarioCreacionDTO.PreguntaRespuestaDTO pR : datos.getPreguntasRespuestas()) {
+                    Preguntas pregunta = new Preguntas();
+                    pregunta.setPregunta(pR.getPregunta());
+                    pregunta.setCreado(ahora);
+                    pregunta.setCreadoPor(datos.getNombreUsuario());
+                    preguntas.add(pregunta);
+
+                    Respuestas respuesta = new Respuestas();
+                    respuesta.setUsuario(usuario);
+                    respuesta.setPregunta(pregunta);
+                    respuesta.setRespuesta(pR.getRespuesta());
+                    respuestas.add(respuesta);
+                }
+            }
+        }
+
+        usuariosRepository.saveAll(usuarios);
+        contraseniasRepository.saveAll(contrasenias);
+        telefonosRepository.saveAll(telefonos);
+        correosRepository.saveAll(correos);
+        preguntasRepository.saveAll(preguntas);
+        respuestasRepository.saveAll(respuestas);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Validar los campos requeridos de una fila. Devuelve el mensaje de error o null si es válida.
+     */
+    private String validar(UsuarioCreacionDTO datos, Roles rolPaciente) {
+        if (datos.getNombreUsuario() == null || datos.getNombreUsuario().isEmpty()) {
+            return "El nombre de usuario es requerido";
+        }
+        if (datos.getNombres() == null || datos.getNombres().isEmpty()) {
+            return "Los nombres son requeridos";
+        }
+        if (datos.getApellidos() == null || datos.getApellidos().isEmpty()) {
+            return "Los apellidos son requeridos";
+        }
+        if (datos.getFechaNacimiento() == null) {
+            return "La fecha de nacimiento es requerida";
+        }
+        if (datos.getContrasenia() == null || datos.getContrasenia().isEmpty()) {
+            return "La contraseña es requerida";
+        }
+        if (datos.getTelefono() == null || datos.getTelefono().isEmpty()) {
+            return "El teléfono es requerido";
+        }
+        if (datos.getCorreo() == null || datos.getCorreo().isEmpty()) {
+            return "El correo es requerido";
+        }
+        if (datos.getIdRol() != null && !datos.getIdRol().equals(rolPaciente.getIdRol())) {
+            return "La importación masiva solo admite pacientes";
+        }
+        if (datos.getPreguntasRespuestas() != null) {
+            for (UsuarioCreacionDTO.PreguntaRespuestaDTO pR : datos.getPreguntasRespuestas()) {
+                if (pR.getPregunta() == null || pR.getPregunta().isEmpty()) {
+                    return "La pregunta es requerida";
+                }
+                if (pR.getRespuesta() == null || pR.getRespuesta().isEmpty()) {
+                    return "La respuesta es requerida";
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Consultar cuáles valores de una columna única ya existen en la base de datos.
+     * MySQL compara sin distinguir mayúsculas, por lo que se devuelven normalizados con clave().
+     */
+    private Set<String> existentes(List<Fila> filas, Function<UsuarioCreacionDTO, String> campo,
+                                   Function<Collection<String>, List<String>> consulta) {
+        Set<String> valores = new HashSet<>();
+        for (Fila fila : filas) {
+            String valor = campo.apply(fila.datos());
+            if (valor != null && !valor.isEmpty()) {
+                valores.add(valor);
+            }
+        }
+        if (valores.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> encontrados = new HashSet<>();
+        for (String valor : consulta.apply(valores)) {
+            encontrados.add(clave(valor));
+        }
+        return encontrados;
+    }
+
+    private static String clave(String valor) {
+        return valor == null || valor.isEmpty() ? null : valor.toLowerCase(Locale.ROOT);
+    }
+
+    private FuenteFilas fuenteNdjson(BufferedReader lector) {
+        return new FuenteFilas() {
+            private int numero;
+
+            @Override
+            public Fila siguiente() throws IOException {
+                String linea;
+                while ((linea = lector.readLine()) != null) {
+                    numero++;
+                    if (linea.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        return new Fila(numero, objectMapper.readValue(linea, UsuarioCreacionDTO.class), null);
+                    } catch (JsonProcessingException e) {
+                        return new Fila(numero, null, "JSON inválido: " + e.getOriginalMessage());
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    private FuenteFilas fuenteCsv(BufferedReader lector) throws IOException {
+        LectorCsv csv = new LectorCsv(lector);
+        List<String> encabezados = csv.siguiente();
+        if (encabezados == null) {
+            return () -> null;
+        }
+        List<String> columnas = encabezados.stream().map(String::trim).toList();
+
+        return new FuenteFilas() {
+            private int numero;
+
+            @Override
+            public Fila siguiente() throws IOException {
+                while (true) {
+                    List<String> registro;
+                    try {
+                        registro = csv.siguiente();
+                    } catch (IllegalArgumentException e) {
+                        return new Fila(++numero, null, e.getMessage());
+                    }
+                    if (registro == null) {
+                        return null;
+                    }
+                    numero++;
+                    if (LectorCsv.esVacio(registro)) {
+                        continue;
+                    }
+                    try {
+                        return new Fila(numero, registroADTO(columnas, registro), null);
+                    } catch (IllegalArgumentException e) {
+                        return new Fila(numero, null, e.getMessage());
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Convertir un registro CSV al DTO de creación. Las columnas preguntaN/respuestaN se agrupan
+     * en preguntasRespuestas; el resto se asigna por nombre de propiedad.
+     */
+    private UsuarioCreacionDTO registroADTO(List<String> columnas, List<String> registro) {
+        if (registro.size() != columnas.size()) {
+            throw new IllegalArgumentException("Se esperaban " + columnas.size() + " columnas y se encontraron " + registro.size());
+        }
+
+        Map<String, String> valores = new HashMap<>();
+        Map<Integer, String> preguntas = new TreeMap<>();
+        Map<Integer, String> respuestas = new TreeMap<>();
+        for (int i = 0; i < columnas.size(); i++) {
+            String columna = columnas.get(i);
+            String valor = registro.get(i).trim();
+            if (valor.isEmpty()) {
+                continue;
+            }
+            Integer indicePregunta = indice(columna, PREFIJO_PREGUNTA);
+            Integer indiceRespuesta = indice(columna, PREFIJO_RESPUESTA);
+            if (indicePregunta != null) {
+                preguntas.put(indicePregunta, valor);
+            } else if (indiceRespuesta != null) {
+                respuestas.put(indiceRespuesta, valor);
+            } else {
+                valores.put(columna, valor);
+            }
+        }
+
+        UsuarioCreacionDTO datos = objectMapper.convertValue(valores, UsuarioCreacionDTO.class);
+        Set<Integer> indices = new TreeSet<>(preguntas.keySet());
+        indices.addAll(respuestas.keySet());
+        if (!indices.isEmpty()) {
+            List<UsuarioCreacionDTO.PreguntaRespuestaDTO> preguntasRespuestas = new ArrayList<>();
+            for (Integer i : indices) {
+                preguntasRespuestas.add(new UsuarioCreacionDTO.PreguntaRespuestaDTO(preguntas.get(i), respuestas.get(i)));
+            }
+            datos.setPreguntasRespuestas(preguntasRespuestas);
+        }
+        return datos;
+    }
+
+    // Devuelve N si la columna es prefijoN, o null en otro caso
+    private static Integer indice(String columna, String prefijo) {
+        if (!columna.startsWith(prefijo) || columna.length() == prefijo.length()) {
+            return null;
+        }
+        String sufijo = columna.substring(prefijo.length());
+        return sufijo.chars().allMatch(Character::isDigit) ? Integer.valueOf(sufijo) : null;
+    }
+
+    /**
+     * Valores únicos aceptados que todavía no están en la base de datos (normalizados con clave()).
+     */
+    private static final class Vistos {
+
+        private final Set<String> nombres = new HashSet<>();
+        private final Set<String> duis = new HashSet<>();
+        private final Set<String> correos = new HashSet<>();
+
+        private void agregar(UsuarioCreacionDTO datos) {
+            nombres.add(clave(datos.getNombreUsuario()));
+            String dui = clave(datos.getDui());
+            if (dui != null) {
+                duis.add(dui);
+            }
+            correos.add(clave(datos.getCorreo()));
+        }
+    }
+
+    /**
+     * Contadores y eventos de una importación en curso.
+     */
+    private static final class Progreso {
+
+        private final Consumer<EventoImportacionDTO> oyente;
+
+        // Hilos de BCrypt que puede ocupar esta importación
+        private final CupoEncriptacion cupo;
+
+        private int procesadas;
+        private int importadas;
+        private int fallidas;
+
+        private Progreso(Consumer<EventoImportacionDTO> oyente, CupoEncriptacion cupo) {
+            this.oyente = oyente;
+            this.cupo = cupo;
+        }
+
+        private void fallar(int fila, String nombreUsuario, String mensaje) {
+            fallidas++;
+            oyente.accept(EventoImportacionDTO.error(fila, nombreUsuario, mensaje));
+        }
+
+        private void emitirProgreso() {
+            oyente.accept(EventoImportacionDTO.progreso(procesadas, importadas, fallidas));
+        }
+    }
+}
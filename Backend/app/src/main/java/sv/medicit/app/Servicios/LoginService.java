@@ -1,139 +1,152 @@
 package sv.medicit.app.Servicios;
 
-import java.util.HashMap;
-import java.util.List;
+import java.time.Instant;
 import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import sv.medicit.app.DTOs.CredencialesLoginDTO;
 import sv.medicit.app.DTOs.LoginResponseDTO;
 import sv.medicit.app.DTOs.LoginResponseDTO.PermisosDTO;
 import sv.medicit.app.DTOs.LoginResponseDTO.UserDataDTO;
-import sv.medicit.app.Entidades.Permisos;
-import sv.medicit.app.Entidades.Usuarios;
-import sv.medicit.app.Repositorios.PermisosRepository;
 import sv.medicit.app.Repositorios.UsuariosRepository;
+import sv.medicit.app.Utilidades.EncriptacionSaturadaException;
 import sv.medicit.app.Utilidades.EncriptacionUtil;
+import sv.medicit.app.Utilidades.MatrizPermisos;
+import sv.medicit.app.Utilidades.TokenSesionUtil;
+import sv.medicit.app.Utilidades.TokenSesionUtil.Sesion;
 
 /**
  * Servicio para manejar la autenticación y obtención de datos consolidados de login.
+ * Usuario, rol, contraseña y correo se leen en una sola consulta (CredencialesLoginDTO)
+ * y los permisos del rol salen de la caché de PermisosService. Cada respuesta incluye un token
+ * de sesión firmado que permite refrescar leyendo solo la versión de sesión del usuario.
  */
 @Service
 public class LoginService {
 
+    // Solo los usuarios en este estado pueden iniciar o renovar una sesión
+    private static final String ESTADO_ACTIVO = "Activo";
+
     @Autowired
     private UsuariosRepository usuariosRepository;
 
     @Autowired
-    private PermisosRepository permisosRepository;
+    private PermisosService permisosService;
+
+    @Autowired
+    private ContraseniasService contraseniasService;
 
     @Autowired
     private EncriptacionUtil encriptacionUtil;
 
+    @Autowired
+    private TokenSesionUtil tokenSesionUtil;
+
     /**
      * Autenticar usuario y obtener toda su información consolidada (usuario + permisos).
-     * Retorna un LoginResponseDTO con toda la información necesaria en una sola respuesta.
+     * Retorna un LoginResponseDTO con toda la información necesaria en una sola respuesta;
+     * vacío si las credenciales no coinciden o el usuario no está activo.
+     *
+     * @throws EncriptacionSaturadaException si la cola de BCrypt está llena
      */
     public Optional<LoginResponseDTO> autenticar(String nombreUsuario, String contrasenaIngresada) {
-        // 1. Buscar el usuario
-        Optional<Usuarios> usuarioOpt = usuariosRepository.findByNombreUsuario(nombreUsuario);
-        if (!usuarioOpt.isPresent()) {
-            return Optional.empty();
-        }
+        // 0. Si la cola de BCrypt está llena, rechazar antes de consultar la base de datos
+        encriptacionUtil.verificarCapacidad();
 
-        Usuarios usuario = usuarioOpt.get();
-
-        // 2. Obtener la contraseña del usuario
-        if (usuario.getContrasenias() == null || usuario.getContrasenias().isEmpty()) {
+        // 1. Buscar el usuario con su contraseña, correo y rol
+        Optional<CredencialesLoginDTO> credencialesOpt = usuariosRepository.obtenerCredencialesPorNombreUsuario(nombreUsuario);
+        if (!credencialesOpt.isPresent() || credencialesOpt.get().getContrasenia() == null
+                || !estaActivo(credencialesOpt.get())) {
             return Optional.empty();
         }
 
-        String contraseniaGuardada = usuario.getContrasenias().get(0).getContrasenia();
+        CredencialesLoginDTO credenciales = credencialesOpt.get();
+        String contraseniaGuardada = credenciales.getContrasenia();
 
-        // 3. Verificar contraseña
+        // 2. Verificar contraseña
         if (!encriptacionUtil.verificarContrasenia(contrasenaIngresada, contraseniaGuardada)) {
             return Optional.empty();
         }
 
-        // 4. Obtener permisos del rol
-        List<Permisos> permisosList = permisosRepository.findByRolIdRol(usuario.getRol().getIdRol());
-
-        // 5. Convertir permisos a estructura de Map
-        Map<String, PermisosDTO> permisosMap = new HashMap<>();
-        for (Permisos permiso : permisosList) {
-            PermisosDTO permisoDTO = new PermisosDTO(
-                permiso.getVer(),
-                permiso.getCrear(),
-                permiso.getEditar(),
-                permiso.getEliminar(),
-                permiso.getDescargar()
-            );
-            permisosMap.put(permiso.getModulo(), permisoDTO);
-        }
-
-        // 6. Construir la respuesta
-        UserDataDTO userData = new UserDataDTO(
-            usuario.getIdUsuario(),
-            usuario.getCorreos() != null && !usuario.getCorreos().isEmpty() ? usuario.getCorreos().get(0).getCorreo() : "",
-            contraseniaGuardada,
-            usuario.getNombreUsuario(),
-            usuario.getNombres(),
-            usuario.getApellidos(),
-            usuario.getRol().getIdRol(),
-            usuario.getRol().getNombreRol(),
-            permisosMap
-        );
+        // 3. Si el hash usa otro algoritmo o costo, actualizarlo en segundo plano
+        contraseniasService.actualizarHashSiCorresponde(credenciales.getIdContrasenia(), contrasenaIngresada, contraseniaGuardada);
 
-        LoginResponseDTO response = new LoginResponseDTO(true, userData);
-        return Optional.of(response);
+        // 4. Construir la respuesta con los permisos del rol y el token de sesión
+        return Optional.of(construirRespuesta(credenciales, Instant.now().getEpochSecond()));
     }
 
     /**
      * Obtener información consolidada de un usuario sin validación de contraseña.
-     * Útil para obtener datos después del login.
+     * Útil para obtener datos después del login. No emite token: para eso usar refrescarSesion.
      */
     public Optional<LoginResponseDTO> obtenerUsuarioConsolidado(Integer idUsuario) {
-        Optional<Usuarios> usuarioOpt = usuariosRepository.findById(idUsuario);
-        if (!usuarioOpt.isPresent()) {
+        return usuariosRepository.obtenerCredencialesPorId(idUsuario)
+            .map(credenciales -> construirRespuesta(credenciales, null));
+    }
+
+    /**
+     * Refrescar una sesión a partir de su token.
+     * Se lee solo la versión de sesión del usuario (por llave primaria). Si coincide con la del token
+     * y los permisos del rol no cambiaron (misma huella), solo se renueva el token, sin userData en la
+     * respuesta; si no, se vuelven a leer el usuario y sus permisos. El token renovado conserva el
+     * inicio de la sesión, así que no se puede renovar más allá de la duración máxima.
+     *
+     * @return Vacío si el token no es válido, expiró, superó la duración máxima o el usuario ya no existe
+     *         o no está activo
+     */
+    public Optional<LoginResponseDTO> refrescarSesion(String token) {
+        Optional<Sesion> sesionOpt = tokenSesionUtil.validar(token);
+        if (!sesionOpt.isPresent()) {
             return Optional.empty();
         }
 
-        Usuarios usuario = usuarioOpt.get();
-
-        // Obtener contraseña
-        String contrasenia = usuario.getContrasenias() != null && !usuario.getContrasenias().isEmpty()
-            ? usuario.getContrasenias().get(0).getContrasenia()
-            : "";
-
-        // Obtener permisos
-        List<Permisos> permisosList = permisosRepository.findByRolIdRol(usuario.getRol().getIdRol());
-        Map<String, PermisosDTO> permisosMap = new HashMap<>();
-        for (Permisos permiso : permisosList) {
-            PermisosDTO permisoDTO = new PermisosDTO(
-                permiso.getVer(),
-                permiso.getCrear(),
-                permiso.getEditar(),
-                permiso.getEliminar(),
-                permiso.getDescargar()
-            );
-            permisosMap.put(permiso.getModulo(), permisoDTO);
+        Sesion sesion = sesionOpt.get();
+        Optional<Long> versionSesion = usuariosRepository.obtenerVersionSesion(sesion.idUsuario());
+        if (!versionSesion.isPresent()) {
+            return Optional.empty();
+        }
+        if (versionSesion.get() == sesion.versionSesion()
+                && permisosService.obtenerMatriz(sesion.idRol()).huella() == sesion.huellaPermisos()) {
+            String tokenRenovado = tokenSesionUtil.emitir(sesion.idUsuario(), sesion.idRol(), sesion.versionSesion(),
+                sesion.huellaPermisos(), sesion.inicio());
+            return Optional.of(new LoginResponseDTO(true, null, tokenRenovado));
         }
+        // Cambió el rol o el estado del usuario, o los permisos del rol: volver a leer al usuario
+        return usuariosRepository.obtenerCredencialesPorId(sesion.idUsuario())
+            .filter(LoginService::estaActivo)
+            .map(credenciales -> construirRespuesta(credenciales, sesion.inicio()));
+    }
+
+    private static boolean estaActivo(CredencialesLoginDTO credenciales) {
+        return ESTADO_ACTIVO.equalsIgnoreCase(credenciales.getEstado());
+    }
+
+    /**
+     * Armar la respuesta de login; los permisos se toman de la caché de permisos.
+     * El token lleva la huella de la misma matriz con la que se arman los permisos de la respuesta.
+     *
+     * @param inicio Inicio de la sesión del token en segundos desde epoch, o null para no emitir token
+     */
+    private LoginResponseDTO construirRespuesta(CredencialesLoginDTO credenciales, Long inicio) {
+        MatrizPermisos matriz = permisosService.obtenerMatriz(credenciales.getIdRol());
+        Map<String, PermisosDTO> permisosMap = matriz.aMapaDTO();
 
         UserDataDTO userData = new UserDataDTO(
-            usuario.getIdUsuario(),
-            usuario.getCorreos() != null && !usuario.getCorreos().isEmpty() ? usuario.getCorreos().get(0).getCorreo() : "",
-            contrasenia,
-            usuario.getNombreUsuario(),
-            usuario.getNombres(),
-            usuario.getApellidos(),
-            usuario.getRol().getIdRol(),
-            usuario.getRol().getNombreRol(),
+            credenciales.getIdUsuario(),
+            credenciales.getCorreo() != null ? credenciales.getCorreo() : "",
+            credenciales.getNombreUsuario(),
+            credenciales.getNombres(),
+            credenciales.getApellidos(),
+            credenciales.getIdRol(),
+            credenciales.getNombreRol(),
             permisosMap
         );
 
-        LoginResponseDTO response = new LoginResponseDTO(true, userData);
-        return Optional.of(response);
+        String token = inicio == null ? null : tokenSesionUtil.emitir(credenciales.getIdUsuario(),
+            credenciales.getIdRol(), credenciales.getVersionSesion(), matriz.huella(), inicio);
+        return new LoginResponseDTO(true, userData, token);
     }
 }
@@ -4,10 +4,15 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import sv.medicit.app.Entidades.Modulos;
 import sv.medicit.app.Repositorios.ModulosRepository;
+import sv.medicit.app.Utilidades.CatalogoCache;
 
 @Service
 public class ModulosService {
@@ -15,19 +20,42 @@ public class ModulosService {
     @Autowired
     private ModulosRepository modulosRepository;
 
+    // Catálogo en memoria; se recarga después de cada escritura
+    private final CatalogoCache<Modulos> cache = new CatalogoCache<>(
+        () -> modulosRepository.findAll(), Modulos::getIdModulo, Modulos::getNombreModulo, Modulos::getDescripcion, "idModulo", "nombreModulo");
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargarCache() {
+        cache.recargar();
+    }
+
     public List<Modulos> obtenerTodos() {
-        return modulosRepository.findAll();
+        return cache.todos();
+    }
+
+    public Slice<Modulos> obtenerPagina(Pageable pageable) {
+        return cache.pagina(pageable);
     }
 
     public Optional<Modulos> obtenerPorId(Integer id) {
-        return modulosRepository.findById(id);
+        return cache.porId(id);
+    }
+
+    public Optional<Modulos> obtenerPorNombre(String nombre) {
+        return cache.porNombre(nombre);
+    }
+
+    public String obtenerEtag() {
+        return cache.etag();
     }
 
     public Modulos crear(Modulos modulo) {
         if (modulo.getNombreModulo() == null || modulo.getNombreModulo().isEmpty()) {
             throw new IllegalArgumentException("El nombre del módulo es requerido");
         }
-        return modulosRepository.save(modulo);
+        Modulos guardado = modulosRepository.save(modulo);
+        cache.recargar();
+        return guardado;
     }
 
     public Modulos actualizar(Integer id, Modulos moduloActualizado) {
@@ -41,7 +69,9 @@ public class ModulosService {
             if (moduloActualizado.getDescripcion() != null) {
                 modulo.setDescripcion(moduloActualizado.getDescripcion());
             }
-            return modulosRepository.save(modulo);
+            Modulos guardado = modulosRepository.save(modulo);
+            cache.recargar();
+            return guardado;
         } else {
             throw new RuntimeException("Módulo no encontrado con ID: " + id);
         }
@@ -52,5 +82,6 @@ public class ModulosService {
             throw new RuntimeException("Módulo no encontrado con ID: " + id);
         }
         modulosRepository.deleteById(id);
+        cache.recargar();
     }
 }
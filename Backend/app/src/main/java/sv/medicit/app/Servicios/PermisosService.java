@@ -0,0 +1,154 @@
+package sv.medicit.app.Servicios;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import sv.medicit.app.DTOs.LoginResponseDTO.PermisosDTO;
+import sv.medicit.app.Entidades.Permisos;
+import sv.medicit.app.Repositorios.PermisosRepository;
+import sv.medicit.app.Utilidades.MatrizPermisos;
+
+/**
+ * Servicio para la lógica de negocio de Permisos.
+ * Mantiene en memoria la matriz rol → módulo → acciones para no consultar la base de datos
+ * en cada login; cualquier escritura sobre Permisos invalida la caché.
+ */
+@Service
+public class PermisosService {
+
+    @Autowired
+    private PermisosRepository permisosRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Integer, MatrizPermisos> matricesPorRol = new ConcurrentHashMap<>();
+
+    // Se incrementa en cada invalidación para descartar cargas iniciadas antes de ella
+    private long generacion;
+
+    private Counter aciertos;
+
+    private Counter fallos;
+
+    /**
+     * Registrar las métricas de la caché (expuestas en /actuator/metrics/medicit.permisos.cache).
+     */
+    @PostConstruct
+    void registrarMetricas() {
+        aciertos = Counter.builder("medicit.permisos.cache")
+            .description("Consultas a la caché de permisos por rol")
+            .tag("resultado", "acierto")
+            .register(meterRegistry);
+        fallos = Counter.builder("medicit.permisos.cache")
+            .description("Consultas a la caché de permisos por rol")
+            .tag("resultado", "fallo")
+            .register(meterRegistry);
+        Gauge.builder("medicit.permisos.cache.roles", matricesPorRol, Map::size)
+            .description("Roles con matriz de permisos en caché")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Obtener todos los permisos.
+     */
+    public List<Permisos> obtenerTodos() {
+        return permisosRepository.findAll();
+    }
+
+    /**
+     * Obtener una página de permisos, opcionalmente filtrada por rol y módulo.
+     */
+    public Slice<Permisos> obtenerPagina(Pageable pageable, Integer idRol, String modulo) {
+        return permisosRepository.buscarPagina(idRol, modulo, pageable);
+    }
+
+    /**
+     * Obtener un permiso por ID.
+     */
+    public Optional<Permisos> obtenerPorId(Integer id) {
+        return permisosRepository.findById(id);
+    }
+
+    /**
+     * Obtener las filas de permisos de un rol.
+     */
+    public List<Permisos> obtenerPorRol(Integer idRol) {
+        return permisosRepository.findByRolIdRol(idRol);
+    }
+
+    /**
+     * Guardar (crear o actualizar) un permiso e invalidar la caché.
+     */
+    public Permisos guardar(Permisos permiso) {
+        Permisos permisoGuardado = permisosRepository.save(permiso);
+        invalidarCache();
+        return permisoGuardado;
+    }
+
+    /**
+     * Eliminar un permiso por ID e invalidar la caché.
+     * 
+     * @return true si el permiso existía
+     */
+    public boolean eliminar(Integer id) {
+        if (!permisosRepository.existsById(id)) {
+            return false;
+        }
+        permisosRepository.deleteById(id);
+        invalidarCache();
+        return true;
+    }
+
+    /**
+     * Obtener la matriz de permisos de un rol desde la caché, cargándola si no está.
+     */
+    public MatrizPermisos obtenerMatriz(Integer idRol) {
+        MatrizPermisos matriz = matricesPorRol.get(idRol);
+        if (matriz != null) {
+            aciertos.increment();
+            return matriz;
+        }
+        fallos.increment();
+
+        long generacionInicial;
+        synchronized (this) {
+            generacionInicial = generacion;
+        }
+        MatrizPermisos cargada = MatrizPermisos.desde(permisosRepository.findByRolIdRol(idRol));
+        synchronized (this) {
+            // Si hubo una escritura mientras se cargaba, no guardar datos posiblemente obsoletos
+            if (generacion == generacionInicial) {
+                matricesPorRol.putIfAbsent(idRol, cargada);
+            }
+        }
+        return cargada;
+    }
+
+    /**
+     * Obtener los permisos de un rol en el formato de la respuesta de login.
+     */
+    public Map<String, PermisosDTO> obtenerPermisosDeRol(Integer idRol) {
+        return obtenerMatriz(idRol).aMapaDTO();
+    }
+
+    /**
+     * Vaciar la caché de permisos. Una actualización puede cambiar el rol de un permiso,
+     * por lo que se invalidan todos los roles (son pocos).
+     */
+    public synchronized void invalidarCache() {
+        generacion++;
+        matricesPorRol.clear();
+    }
+}
@@ -4,6 +4,8 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import sv.medicit.app.Entidades.Preguntas;
@@ -26,6 +28,13 @@ public class PreguntasService {
         return preguntasRepository.findAll();
     }
 
+    /**
+     * Obtener una página de preguntas.
+     */
+    public Slice<Preguntas> obtenerPagina(Pageable pageable) {
+        return preguntasRepository.findAllBy(pageable);
+    }
+
     /**
      * Obtener una pregunta por ID.
      */
@@ -4,6 +4,8 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import sv.medicit.app.Entidades.Respuestas;
@@ -26,6 +28,13 @@ public class RespuestasService {
         return respuestasRepository.findAll();
     }
 
+    /**
+     * Obtener una página de respuestas, opcionalmente filtrada por usuario.
+     */
+    public Slice<Respuestas> obtenerPagina(Pageable pageable, Integer idUsuario) {
+        return respuestasRepository.buscarPagina(idUsuario, pageable);
+    }
+
     /**
      * Obtener una respuesta por ID.
      */
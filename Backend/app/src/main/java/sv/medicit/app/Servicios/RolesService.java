@@ -4,10 +4,15 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import sv.medicit.app.Entidades.Roles;
 import sv.medicit.app.Repositorios.RolesRepository;
+import sv.medicit.app.Utilidades.CatalogoCache;
 
 @Service
 public class RolesService {
@@ -15,19 +20,42 @@ public class RolesService {
     @Autowired
     private RolesRepository rolesRepository;
 
+    // Catálogo en memoria; se recarga después de cada escritura
+    private final CatalogoCache<Roles> cache = new CatalogoCache<>(
+        () -> rolesRepository.findAll(), Roles::getIdRol, Roles::getNombreRol, Roles::getDescripcion, "idRol", "nombreRol");
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargarCache() {
+        cache.recargar();
+    }
+
     public List<Roles> obtenerTodos() {
-        return rolesRepository.findAll();
+        return cache.todos();
+    }
+
+    public Slice<Roles> obtenerPagina(Pageable pageable) {
+        return cache.pagina(pageable);
     }
 
     public Optional<Roles> obtenerPorId(Integer id) {
-        return rolesRepository.findById(id);
+        return cache.porId(id);
+    }
+
+    public Optional<Roles> obtenerPorNombre(String nombre) {
+        return cache.porNombre(nombre);
+    }
+
+    public String obtenerEtag() {
+        return cache.etag();
     }
 
     public Roles crear(Roles rol) {
         if (rol.getNombreRol() == null || rol.getNombreRol().isEmpty()) {
             throw new IllegalArgumentException("El nombre del rol es requerido");
         }
-        return rolesRepository.save(rol);
+        Roles guardado = rolesRepository.save(rol);
+        cache.recargar();
+        return guardado;
     }
 
     public Roles actualizar(Integer id, Roles rolActualizado) {
@@ -41,7 +69,9 @@ public class RolesService {
             if (rolActualizado.getDescripcion() != null) {
                 rol.setDescripcion(rolActualizado.getDescripcion());
             }
-            return rolesRepository.save(rol);
+            Roles guardado = rolesRepository.save(rol);
+            cache.recargar();
+            return guardado;
         } else {
             throw new RuntimeException("Rol no encontrado con ID: " + id);
         }
@@ -52,5 +82,6 @@ public class RolesService {
             throw new RuntimeException("Rol no encontrado con ID: " + id);
         }
         rolesRepository.deleteById(id);
+        cache.recargar();
     }
 }
@@ -0,0 +1,78 @@
+package sv.medicit.app.Servicios;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Mantiene la tabla Secuencias de los @TableGenerator (bloques de 50 IDs, optimizador pooled-lo)
+ * por delante de los IDs ya usados en cada tabla.
+ * Sin Flyway, ddl-auto crea Secuencias vacía y Hibernate empezaría en 1 aunque la tabla ya tenga
+ * filas (p. ej. una base creada antes de V4 o cargada con DATA_SEEDS.sql). Al arrancar se aplica
+ * lo mismo que db/migration/V4: siguiente_valor = MAX(id) + 1 si es mayor que el actual.
+ */
+@Service
+public class SecuenciasService {
+
+    private static final Logger log = LoggerFactory.getLogger(SecuenciasService.class);
+
+    // Nombre de la secuencia (pkColumnValue, igual al de la tabla) → columna ID
+    private static final Map<String, String> COLUMNAS_ID = new LinkedHashMap<>();
+
+    static {
+        COLUMNAS_ID.put("Usuarios", "id_usuario");
+        COLUMNAS_ID.put("Contrasenias", "id_contrasenia");
+        COLUMNAS_ID.put("Telefonos", "id_telefono");
+        COLUMNAS_ID.put("Correos", "id_correo");
+        COLUMNAS_ID.put("Preguntas", "id_pregunta");
+        COLUMNAS_ID.put("Respuestas", "id_respuesta");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Solo para asegurar que Hibernate ya creó/actualizó las tablas antes de ajustar
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Ajustar todas las secuencias antes de que la aplicación reciba peticiones (y antes de que
+     * Hibernate reserve el primer bloque de IDs). Es idempotente y seguro con varias instancias:
+     * siguiente_valor solo aumenta.
+     */
+    @PostConstruct
+    public void ajustar() {
+        COLUMNAS_ID.forEach((secuencia, columna) -> {
+            long siguiente = siguienteId(secuencia, columna);
+            if (!actualizar(secuencia, siguiente)) {
+                try {
+                    jdbcTemplate.update("INSERT INTO Secuencias (nombre_secuencia, siguiente_valor) VALUES (?, ?)",
+                        secuencia, siguiente);
+                } catch (DuplicateKeyException e) {
+                    // Otra instancia (o Hibernate) la creó al mismo tiempo
+                    actualizar(secuencia, siguiente);
+                }
+            }
+            log.debug("Secuencia {} ajustada a {} como mínimo", secuencia, siguiente);
+        });
+    }
+
+    private boolean actualizar(String secuencia, long siguiente) {
+        return jdbcTemplate.update("UPDATE Secuencias SET siguiente_valor = GREATEST(COALESCE(siguiente_valor, 0), ?) " +
+            "WHERE nombre_secuencia = ?", siguiente, secuencia) > 0;
+    }
+
+    private long siguienteId(String tabla, String columna) {
+        Long maximo = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + columna + "), 0) FROM " + tabla, Long.class);
+        return (maximo != null ? maximo : 0) + 1;
+    }
+}
@@ -4,6 +4,8 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import sv.medicit.app.Entidades.Telefonos;
@@ -26,6 +28,13 @@ public class TelefonosService {
         return telefonosRepository.findAll();
     }
 
+    /**
+     * Obtener una página de teléfonos, opcionalmente filtrada por usuario.
+     */
+    public Slice<Telefonos> obtenerPagina(Pageable pageable, Integer idUsuario) {
+        return telefonosRepository.buscarPagina(idUsuario, pageable);
+    }
+
     /**
      * Obtener un teléfono por ID.
      */
@@ -1,11 +1,19 @@
 package sv.medicit.app.Servicios;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import sv.medicit.app.DTOs.UsuarioCreacionDTO;
 import sv.medicit.app.DTOs.UsuarioDTO;
@@ -16,13 +24,17 @@ import sv.medicit.app.Entidades.Estados;
 import sv.medicit.app.Entidades.Especialidades;
 import sv.medicit.app.Entidades.Preguntas;
 import sv.medicit.app.Entidades.Respuestas;
+import sv.medicit.app.Entidades.Roles;
 import sv.medicit.app.Entidades.Telefonos;
 import sv.medicit.app.Entidades.Usuarios;
 import sv.medicit.app.Repositorios.EspecialidadesRepository;
-import sv.medicit.app.Repositorios.EstadosRepository;
-import sv.medicit.app.Repositorios.RolesRepository;
 import sv.medicit.app.Repositorios.UsuariosRepository;
 import sv.medicit.app.Repositorios.CorreosRepository;
+import sv.medicit.app.Repositorios.ContraseniasRepository;
+import sv.medicit.app.Repositorios.TelefonosRepository;
+import sv.medicit.app.Repositorios.PreguntasRepository;
+import sv.medicit.app.Repositorios.RespuestasRepository;
+import sv.medicit.app.Utilidades.EncriptacionUtil;
 
 /**
  * Servicio para la lógica de negocio de Usuarios.
@@ -35,10 +47,10 @@ public class UsuariosService {
     private UsuariosRepository usuariosRepository;
 
     @Autowired
-    private RolesRepository rolesRepository;
+    private RolesService rolesService;
 
     @Autowired
-    private EstadosRepository estadosRepository;
+    private EstadosService estadosService;
 
     @Autowired
     private EspecialidadesRepository especialidadesRepository;
@@ -47,19 +59,28 @@ public class UsuariosService {
     private CorreosRepository correosRepository;
 
     @Autowired
-    private ContraseniasService contraseniasService;
+    private ContraseniasRepository contraseniasRepository;
 
     @Autowired
-    private TelefonosService telefonosService;
+    private TelefonosRepository telefonosRepository;
 
     @Autowired
-    private CorreosService correosService;
+    private PreguntasRepository preguntasRepository;
 
     @Autowired
-    private PreguntasService preguntasService;
+    private RespuestasRepository respuestasRepository;
 
     @Autowired
-    private RespuestasService respuestasService;
+    private EspecialidadesService especialidadesService;
+
+    @Autowired
+    private EncriptacionUtil encriptacionUtil;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DirectorioMedicosService directorioMedicosService;
 
     /**
      * Obtener todos los usuarios.
@@ -99,12 +120,18 @@ public class UsuariosService {
             }
         }
         
-        return usuariosRepository.save(usuario);
+        Usuarios usuarioGuardado = usuariosRepository.save(usuario);
+        directorioMedicosService.actualizar(usuarioGuardado);
+        return usuarioGuardado;
     }
 
     /**
      * Crear un nuevo usuario con contraseña, teléfono, correo y preguntas/respuestas.
-     * Este método maneja la creación completa de un usuario con todos sus datos relacionados.
+     * Las validaciones, el hash de la contraseña y la resolución de rol, estado y especialidades
+     * (desde los catálogos en memoria) se hacen antes de abrir la transacción. Después, la unicidad
+     * se verifica con una sola consulta y todas las filas se guardan en una única transacción;
+     * al confirmar, Hibernate envía los INSERT agrupados en lotes JDBC. Si algo falla no quedan
+     * filas huérfanas.
      */
     public Usuarios crearUsuarioCompleto(UsuarioCreacionDTO usuarioDTO) {
         // Validaciones básicas
@@ -123,24 +150,17 @@ public class UsuariosService {
         if (usuarioDTO.getCorreo() == null || usuarioDTO.getCorreo().isEmpty()) {
             throw new IllegalArgumentException("El correo es requerido");
         }
-        
-        // Validar unicidad de nombreUsuario
-        if (usuariosRepository.findByNombreUsuario(usuarioDTO.getNombreUsuario()).isPresent()) {
-            throw new IllegalArgumentException("El nombre de usuario '" + usuarioDTO.getNombreUsuario() + "' ya existe");
-        }
-        
-        // Validar unicidad de DUI si está presente
-        if (usuarioDTO.getDui() != null && !usuarioDTO.getDui().isEmpty()) {
-            if (usuariosRepository.findByDui(usuarioDTO.getDui()).isPresent()) {
-                throw new IllegalArgumentException("El DUI '" + usuarioDTO.getDui() + "' ya existe");
+        if (usuarioDTO.getPreguntasRespuestas() != null) {
+            for (UsuarioCreacionDTO.PreguntaRespuestaDTO pR : usuarioDTO.getPreguntasRespuestas()) {
+                if (pR.getPregunta() == null || pR.getPregunta().isEmpty()) {
+                    throw new IllegalArgumentException("La pregunta es requerida");
+                }
+                if (pR.getRespuesta() == null || pR.getRespuesta().isEmpty()) {
+                    throw new IllegalArgumentException("La respuesta es requerida");
+                }
             }
         }
         
-        // Validar unicidad de correo
-        if (correosRepository.findByCorreo(usuarioDTO.getCorreo()).isPresent()) {
-            throw new IllegalArgumentException("El correo '" + usuarioDTO.getCorreo() + "' ya existe");
-        }
-        
         // Crear usuario base
         Usuarios usuario = new Usuarios();
         usuario.setNombreUsuario(usuarioDTO.getNombreUsuario());
@@ -151,77 +171,98 @@ public class UsuariosService {
         
         // Asignar Rol y Estado si están disponibles
         if (usuarioDTO.getIdRol() != null) {
-            usuario.setRol(rolesRepository.findById(usuarioDTO.getIdRol())
+            usuario.setRol(rolesService.obtenerPorId(usuarioDTO.getIdRol())
                 .orElseThrow(() -> new RuntimeException("Rol no encontrado con ID: " + usuarioDTO.getIdRol())));
         }
         
         if (usuarioDTO.getIdEstado() != null) {
-            usuario.setEstado(estadosRepository.findById(usuarioDTO.getIdEstado())
+            usuario.setEstado(estadosService.obtenerPorId(usuarioDTO.getIdEstado())
                 .orElseThrow(() -> new RuntimeException("Estado no encontrado con ID: " + usuarioDTO.getIdEstado())));
         }
-        
-        // Guardar usuario
-        Usuarios usuarioGuardado = usuariosRepository.save(usuario);
-        
-        // Crear contraseña
-        try {
+
+        // Asignar especialidades si fueron incluidas en el DTO
+        if (usuarioDTO.getIdEspecialidades() != null && !usuarioDTO.getIdEspecialidades().isEmpty()) {
+            if (usuario.getRol() == null || usuario.getRol().getNombreRol() == null ||
+                !usuario.getRol().getNombreRol().equalsIgnoreCase("Medico")) {
+                throw new RuntimeException("El usuario no es médico y no puede tener especialidades");
+            }
+            List<Especialidades> especialidades = new ArrayList<>();
+            for (Integer idEspecialidad : usuarioDTO.getIdEspecialidades()) {
+                especialidades.add(especialidadesService.obtenerPorId(idEspecialidad)
+                    .orElseThrow(() -> new RuntimeException("Alguna(s) especialidad(es) no fue encontrada")));
+            }
+            usuario.setEspecialidades(especialidades);
+        }
+
+        // Encriptar la contraseña fuera de la transacción para no retener la conexión durante el hash
+        String contraseniaEncriptada = encriptacionUtil.encriptarContrasenia(usuarioDTO.getContrasenia());
+
+        Usuarios usuarioCreado = transactionTemplate.execute(estadoTransaccion -> {
+            validarUnicidad(usuarioDTO);
+
+            Usuarios usuarioGuardado = usuariosRepository.save(usuario);
+
             Contrasenias contrasenia = new Contrasenias();
             contrasenia.setUsuario(usuarioGuardado);
-            contrasenia.setContrasenia(usuarioDTO.getContrasenia());
-            contraseniasService.crear(contrasenia);
-        } catch (Exception e) {
-            throw new RuntimeException("Error al crear contraseña: " + e.getMessage());
-        }
-        
-        // Crear teléfono
-        try {
+            contrasenia.setContrasenia(contraseniaEncriptada);
+            contraseniasRepository.save(contrasenia);
+
             Telefonos telefono = new Telefonos();
             telefono.setUsuario(usuarioGuardado);
             telefono.setTelefono(usuarioDTO.getTelefono());
-            telefonosService.crear(telefono);
-        } catch (Exception e) {
-            throw new RuntimeException("Error al crear teléfono: " + e.getMessage());
-        }
-        
-        // Crear correo
-        try {
+            telefonosRepository.save(telefono);
+
             Correos correo = new Correos();
             correo.setUsuario(usuarioGuardado);
             correo.setCorreo(usuarioDTO.getCorreo());
-            correosService.crear(correo);
-        } catch (Exception e) {
-            throw new RuntimeException("Error al crear correo: " + e.getMessage());
-        }
-        
-        // Crear preguntas y respuestas
-        if (usuarioDTO.getPreguntasRespuestas() != null && !usuarioDTO.getPreguntasRespuestas().isEmpty()) {
-            try {
+            correosRepository.save(correo);
+
+            // Crear preguntas y respuestas
+            if (usuarioDTO.getPreguntasRespuestas() != null && !usuarioDTO.getPreguntasRespuestas().isEmpty()) {
+                List<Preguntas> preguntas = new ArrayList<>();
+                List<Respuestas> respuestas = new ArrayList<>();
+                LocalDateTime ahora = LocalDateTime.now();
                 for (UsuarioCreacionDTO.PreguntaRespuestaDTO pR : usuarioDTO.getPreguntasRespuestas()) {
-                    // Crear pregunta
                     Preguntas pregunta = new Preguntas();
                     pregunta.setPregunta(pR.getPregunta());
-                    pregunta.setCreado(LocalDateTime.now());
+                    pregunta.setCreado(ahora);
                     pregunta.setCreadoPor(usuarioDTO.getNombreUsuario());
-                    Preguntas preguntaGuardada = preguntasService.crear(pregunta);
-                    
-                    // Crear respuesta asociada
+                    preguntas.add(pregunta);
+
                     Respuestas respuesta = new Respuestas();
                     respuesta.setUsuario(usuarioGuardado);
-                    respuesta.setPregunta(preguntaGuardada);
+                    respuesta.setPregunta(pregunta);
                     respuesta.setRespuesta(pR.getRespuesta());
-                    respuestasService.crear(respuesta);
+                    respuestas.add(respuesta);
                 }
-            } catch (Exception e) {
-                throw new RuntimeException("Error al crear preguntas y respuestas: " + e.getMessage());
+                preguntasRepository.saveAll(preguntas);
+                respuestasRepository.saveAll(respuestas);
             }
-        }
 
-        // Asignar especialidades si fueron incluidas en el DTO
-        if (usuarioDTO.getIdEspecialidades() != null && !usuarioDTO.getIdEspecialidades().isEmpty()) {
-            asignarEspecialidadesAUsuario(usuarioGuardado.getIdUsuario(), usuarioDTO.getIdEspecialidades());
+            return usuarioGuardado;
+        });
+        directorioMedicosService.actualizar(usuarioCreado);
+        return usuarioCreado;
+    }
+
+    /**
+     * Validar nombre de usuario, DUI y correo de un alta completa con una sola consulta.
+     * Los mensajes conservan el orden de prioridad: nombre de usuario, DUI y correo.
+     */
+    private void validarUnicidad(UsuarioCreacionDTO usuarioDTO) {
+        String dui = usuarioDTO.getDui() != null && !usuarioDTO.getDui().isEmpty() ? usuarioDTO.getDui() : null;
+        List<String> conflictos = usuariosRepository.buscarConflictosUnicidad(
+            usuarioDTO.getNombreUsuario(), dui, usuarioDTO.getCorreo());
+
+        if (conflictos.contains("nombreUsuario")) {
+            throw new IllegalArgumentException("El nombre de usuario '" + usuarioDTO.getNombreUsuario() + "' ya existe");
+        }
+        if (conflictos.contains("dui")) {
+            throw new IllegalArgumentException("El DUI '" + usuarioDTO.getDui() + "' ya existe");
+        }
+        if (conflictos.contains("correo")) {
+            throw new IllegalArgumentException("El correo '" + usuarioDTO.getCorreo() + "' ya existe");
         }
-        
-        return usuarioGuardado;
     }
 
     /**
@@ -246,7 +287,9 @@ public class UsuariosService {
         // Reemplazar completamente la lista de especialidades
         usuario.setEspecialidades(especialidadesEncontradas);
 
-        return usuariosRepository.save(usuario);
+        Usuarios usuarioGuardado = usuariosRepository.save(usuario);
+        directorioMedicosService.actualizar(usuarioGuardado);
+        return usuarioGuardado;
     }
 
     /**
@@ -269,7 +312,9 @@ public class UsuariosService {
 
         usuario.getEspecialidades().removeIf(e -> e.getIdEspecialidad().equals(idEspecialidad));
 
-        return usuariosRepository.save(usuario);
+        Usuarios usuarioGuardado = usuariosRepository.save(usuario);
+        directorioMedicosService.actualizar(usuarioGuardado);
+        return usuarioGuardado;
     }
 
     /**
@@ -308,22 +353,40 @@ public class UsuariosService {
             if (usuarioActualizado.getFechaNacimiento() != null) {
                 usuario.setFechaNacimiento(usuarioActualizado.getFechaNacimiento());
             }
+            // Un cambio de rol o estado deja sin efecto los tokens de sesión de este usuario
             if (usuarioActualizado.getRol() != null) {
+                if (!Objects.equals(idDe(usuarioActualizado.getRol()), idDe(usuario.getRol()))) {
+                    usuario.setVersionSesion(usuario.getVersionSesion() + 1);
+                }
                 usuario.setRol(usuarioActualizado.getRol());
             }
             if (usuarioActualizado.getEstado() != null) {
+                if (!Objects.equals(idDe(usuarioActualizado.getEstado()), idDe(usuario.getEstado()))) {
+                    usuario.setVersionSesion(usuario.getVersionSesion() + 1);
+                }
                 usuario.setEstado(usuarioActualizado.getEstado());
             }
             if (usuarioActualizado.getEspecialidades() != null) {
                 usuario.setEspecialidades(usuarioActualizado.getEspecialidades());
             }
             
-            return usuariosRepository.save(usuario);
+            Usuarios usuarioGuardado = usuariosRepository.save(usuario);
+            directorioMedicosService.actualizar(usuarioGuardado);
+            return usuarioGuardado;
         } else {
             throw new RuntimeException("Usuario no encontrado con ID: " + id);
         }
     }
 
+    // El rol o estado guardado puede ser null (crear no los exige)
+    private static Integer idDe(Roles rol) {
+        return rol != null ? rol.getIdRol() : null;
+    }
+
+    private static Integer idDe(Estados estado) {
+        return estado != null ? estado.getIdEstado() : null;
+    }
+
     /**
      * Eliminar un usuario por ID (cambiar estado a inactivo).
      * En lugar de eliminar el registro, cambia el estado del usuario a inactivo.
@@ -334,31 +397,20 @@ public class UsuariosService {
         if (usuarioExistente.isPresent()) {
             Usuarios usuario = usuarioExistente.get();
             
-            // Buscar el estado "Inactivo" (asumiendo que tiene idEstado = 2 o similar)
-            // Si no existe, buscar por nombre
-            Estados estadoInactivo = null;
-            try {
-                // Intenta encontrar un estado con nombre "Inactivo" o similar
-                List<Estados> estados = estadosRepository.findAll();
-                for (Estados e : estados) {
-                    if (e.getEstado() != null && 
-                        (e.getEstado().equalsIgnoreCase("Inactivo") || 
-                         e.getEstado().equalsIgnoreCase("Inactiva"))) {
-                        estadoInactivo = e;
-                        break;
-                    }
-                }
-            } catch (Exception e) {
-                throw new RuntimeException("Error al buscar estado inactivo: " + e.getMessage());
-            }
+            // Buscar el estado "Inactivo" en el catálogo en memoria (búsqueda por nombre sin consultar la BD)
+            Estados estadoInactivo = estadosService.obtenerPorNombre("Inactivo")
+                .or(() -> estadosService.obtenerPorNombre("Inactiva"))
+                .orElse(null);
             
             if (estadoInactivo == null) {
                 throw new RuntimeException("Estado 'Inactivo' no encontrado en la base de datos");
             }
             
-            // Cambiar estado a inactivo
+            // Cambiar estado a inactivo; los tokens de sesión del usuario dejan de renovarse sin volver a leerlo
             usuario.setEstado(estadoInactivo);
+            usuario.setVersionSesion(usuario.getVersionSesion() + 1);
             usuariosRepository.save(usuario);
+            directorioMedicosService.actualizar(usuario);
             
             return usuario;
         } else {
@@ -375,24 +427,9 @@ public class UsuariosService {
     }
 
     /**
-     * Obtener el correo principal de un usuario.
-     * El correo principal es el primero en la lista de correos asociados.
+     * Convertir una entidad Usuarios a UsuarioDTO con el correo ya resuelto.
      */
-    private String obtenerCorreoDelUsuario(Integer idUsuario) {
-        List<Correos> correos = correosRepository.findAll();
-        for (Correos c : correos) {
-            if (c.getUsuario() != null && c.getUsuario().getIdUsuario().equals(idUsuario)) {
-                return c.getCorreo();
-            }
-        }
-        return null; // Si no hay correo, retorna null
-    }
-
-    /**
-     * Convertir una entidad Usuarios a UsuarioDTO con correo incluido.
-     */
-    private UsuarioDTO usuarioADTO(Usuarios usuario) {
-        String correo = obtenerCorreoDelUsuario(usuario.getIdUsuario());
+    private UsuarioDTO usuarioADTO(Usuarios usuario, String correo) {
         return new UsuarioDTO(
             usuario.getIdUsuario(),
             usuario.getNombreUsuario(),
@@ -407,21 +444,48 @@ public class UsuariosService {
         );
     }
 
+    /**
+     * Convertir las filas [Usuarios, correo] de la consulta consolidada a DTOs.
+     * Las filas repetidas por el JOIN FETCH de especialidades se agrupan por ID de usuario.
+     */
+    private List<UsuarioDTO> filasADTO(List<Object[]> filas) {
+        Map<Integer, UsuarioDTO> usuarios = new LinkedHashMap<>();
+        for (Object[] fila : filas) {
+            Usuarios usuario = (Usuarios) fila[0];
+            usuarios.computeIfAbsent(usuario.getIdUsuario(), id -> usuarioADTO(usuario, (String) fila[1]));
+        }
+        return new ArrayList<>(usuarios.values());
+    }
+
     /**
      * Obtener todos los usuarios con correo (como DTOs).
+     * Se resuelve con una sola consulta SQL sin importar la cantidad de usuarios.
      */
     public List<UsuarioDTO> obtenerTodosConCorreo() {
-        List<Usuarios> usuarios = usuariosRepository.findAll();
-        return usuarios.stream()
-            .map(this::usuarioADTO)
-            .toList();
+        return filasADTO(usuariosRepository.obtenerUsuariosConCorreo());
     }
 
     /**
      * Obtener un usuario por ID con correo (como DTO).
      */
     public Optional<UsuarioDTO> obtenerPorIdConCorreo(Integer id) {
-        Optional<Usuarios> usuario = usuariosRepository.findById(id);
-        return usuario.map(this::usuarioADTO);
+        return filasADTO(usuariosRepository.obtenerUsuarioConCorreoPorId(id)).stream().findFirst();
+    }
+
+    /**
+     * Obtener una página de usuarios con correo (como DTOs), con filtros opcionales por rol y estado.
+     * Usa dos consultas: una para los IDs de la página y otra para sus datos consolidados.
+     */
+    public Slice<UsuarioDTO> obtenerPaginaConCorreo(Pageable pageable, Integer idRol, Integer idEstado) {
+        Slice<Integer> ids = usuariosRepository.buscarIdsPagina(idRol, idEstado, pageable);
+        if (ids.isEmpty()) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+        Map<Integer, UsuarioDTO> usuarios = new LinkedHashMap<>();
+        for (UsuarioDTO usuario : filasADTO(usuariosRepository.obtenerUsuariosConCorreoPorIds(ids.getContent()))) {
+            usuarios.put(usuario.getIdUsuario(), usuario);
+        }
+        // Conservar el orden solicitado en la página de IDs
+        return ids.map(usuarios::get);
     }
 }
@@ -0,0 +1,151 @@
+package sv.medicit.app.Utilidades;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Analizador de texto en español para el índice de búsqueda de antecedentes.
+ * Separa en palabras, pasa a minúsculas, quita tildes y diéresis, descarta palabras vacías
+ * ("de", "la", "con"...) y reduce cada palabra a su raíz con un stemmer ligero (singular/plural
+ * y género): "Alergias" → "alergi", "alergia" → "alergi", "Diabéticos" → "diabetic".
+ * El stemmer sigue el algoritmo ligero de J. Savoy para español (el mismo de SpanishLightStemmer de Lucene).
+ *
+ * Las negaciones ("no", "sin", "ni", "niega"...) no se descartan: se unen a la siguiente palabra
+ * que no sea vacía, así "sin alergias" da "no_alergi" y no coincide con una búsqueda de "alergias",
+ * pero sí con "no tiene alergias". La negación no cruza signos de puntuación ni saltos de línea:
+ * en "Alergias: no. Diabetes tipo 2" o "Fuma: no\nHipertensión" la palabra siguiente queda afirmada.
+ */
+public final class AnalizadorEspanol {
+
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+        "a", "al", "algo", "ante", "antes", "como", "con", "contra", "cual", "cuando", "de", "del", "desde",
+        "donde", "durante", "e", "el", "ella", "ellas", "ellos", "en", "entre", "era", "es", "esa", "ese",
+        "eso", "esta", "este", "esto", "fue", "ha", "hace", "hasta", "hay", "la", "las", "le", "les", "lo",
+        "los", "mas", "me", "mi", "muy", "o", "otra", "otro", "para", "pero", "poco", "por",
+        "porque", "que", "se", "sea", "segun", "ser", "si", "sobre", "su", "sus", "tambien", "te",
+        "tiene", "todo", "tras", "u", "un", "una", "uno", "unos", "unas", "y", "ya");
+
+    // Palabras que niegan a la siguiente; ya normalizadas (minúsculas, sin tildes)
+    private static final Set<String> NEGACIONES = Set.of("no", "sin", "ni", "nunca", "tampoco", "niega", "niegan");
+
+    // El separador no es letra ni número, así que no choca con ningún término del texto
+    private static final String PREFIJO_NEGACION = "no_";
+
+    // Fin de oración o de campo ("Fuma: no."): una negación no alcanza la palabra que sigue
+    private static final String LIMITES_NEGACION = ".,:;!?¡¿\n\r";
+
+    private static final Pattern PALABRA = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    private AnalizadorEspanol() {
+    }
+
+    /**
+     * Obtener los términos de un texto, en orden y con repeticiones.
+     */
+    public static List<String> analizar(String texto) {
+        List<String> terminos = new ArrayList<>();
+        if (texto == null || texto.isEmpty()) {
+            return terminos;
+        }
+        String normalizado = plano(texto);
+        Matcher palabras = PALABRA.matcher(normalizado);
+        boolean negada = false;
+        int finAnterior = 0;
+        while (palabras.find()) {
+            if (negada && cortaNegacion(normalizado, finAnterior, palabras.start())) {
+                negada = false;
+            }
+            finAnterior = palabras.end();
+            String palabra = palabras.group();
+            if (NEGACIONES.contains(palabra)) {
+                negada = true;
+                continue;
+            }
+            if (PALABRAS_VACIAS.contains(palabra)) {
+                continue;
+            }
+            terminos.add(negada ? negar(raiz(palabra)) : raiz(palabra));
+            negada = false;
+        }
+        return terminos;
+    }
+
+    /**
+     * Obtener el término de una sola palabra del texto original, sin negación, o null si es una
+     * palabra vacía o una negación (ver esNegacion).
+     */
+    public static String termino(String palabra) {
+        String normalizada = plano(palabra);
+        if (normalizada.isEmpty() || PALABRAS_VACIAS.contains(normalizada) || NEGACIONES.contains(normalizada)) {
+            return null;
+        }
+        return raiz(normalizada);
+    }
+
+    /**
+     * Indica si una palabra del texto original niega a la siguiente.
+     */
+    public static boolean esNegacion(String palabra) {
+        return NEGACIONES.contains(plano(palabra));
+    }
+
+    /**
+     * Indica si el separador texto[desde, hasta) entre dos palabras termina el alcance de una negación.
+     */
+    public static boolean cortaNegacion(CharSequence texto, int desde, int hasta) {
+        for (int i = desde; i < hasta; i++) {
+            if (LIMITES_NEGACION.indexOf(texto.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Término negado, como lo genera analizar para la palabra que sigue a una negación.
+     */
+    public static String negar(String termino) {
+        return PREFIJO_NEGACION + termino;
+    }
+
+    private static String plano(String texto) {
+        return Normalizer.normalize(texto, Normalizer.Form.NFD)
+            .replaceAll("\\p{M}", "")
+            .toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Raíz de una palabra ya normalizada (minúsculas, sin tildes).
+     * Las palabras de menos de cinco letras y los números se dejan igual.
+     */
+    static String raiz(String palabra) {
+        int largo = palabra.length();
+        if (largo < 5 || Character.isDigit(palabra.charAt(largo - 1))) {
+            return palabra;
+        }
+        switch (palabra.charAt(largo - 1)) {
+            case 'o', 'a', 'e':
+                return palabra.substring(0, largo - 1);
+            case 's':
+                // "-eses" → "-es" (meses → mes), "-ces" → "-z" (luces → luz), "-os/-as/-es" → sin terminación
+                if (palabra.endsWith("eses")) {
+                    return palabra.substring(0, largo - 2);
+                }
+                if (palabra.endsWith("ces")) {
+                    return palabra.substring(0, largo - 3) + "z";
+                }
+                char anterior = palabra.charAt(largo - 2);
+                if (anterior == 'o' || anterior == 'a' || anterior == 'e') {
+                    return palabra.substring(0, largo - 2);
+                }
+                return palabra;
+            default:
+                return palabra;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package sv.medicit.app.Utilidades;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Caché en memoria para tablas de catálogo (Roles, Estados, Especialidades, Modulos).
+ * Guarda una instantánea inmutable con índices por ID y por nombre y una huella del contenido
+ * que se usa como ETag. Se carga bajo demanda y se recarga completa después de cada escritura.
+ */
+public final class CatalogoCache<T> {
+
+    /**
+     * Contenido del catálogo en un momento dado.
+     */
+    public record Instantanea<T>(List<T> todos, Map<Integer, T> porId, Map<String, T> porNombre, String etag) {
+    }
+
+    private final Supplier<List<T>> cargador;
+
+    private final Function<T, Integer> id;
+
+    private final Function<T, String> nombre;
+
+    private final Function<T, String> descripcion;
+
+    private final String propiedadId;
+
+    private final String propiedadNombre;
+
+    private volatile Instantanea<T> instantanea;
+
+    /**
+     * @param cargador Consulta que obtiene todas las filas del catálogo
+     * @param id Extrae el ID de una fila
+     * @param nombre Extrae el nombre de una fila
+     * @param descripcion Extrae la descripción de una fila
+     * @param propiedadId Nombre de la propiedad ID en la entidad (para ordenar)
+     * @param propiedadNombre Nombre de la propiedad nombre en la entidad (para ordenar)
+     */
+    public CatalogoCache(Supplier<List<T>> cargador, Function<T, Integer> id, Function<T, String> nombre,
+                         Function<T, String> descripcion, String propiedadId, String propiedadNombre) {
+        this.cargador = cargador;
+        this.id = id;
+        this.nombre = nombre;
+        this.descripcion = descripcion;
+        this.propiedadId = propiedadId;
+        this.propiedadNombre = propiedadNombre;
+    }
+
+    /**
+     * Obtener la instantánea actual, cargándola desde la base de datos si aún no existe.
+     */
+    public Instantanea<T> obtener() {
+        Instantanea<T> actual = instantanea;
+        if (actual == null) {
+            synchronized (this) {
+                if (instantanea == null) {
+                    instantanea = cargar();
+                }
+                actual = instantanea;
+            }
+        }
+        return actual;
+    }
+
+    /**
+     * Volver a leer el catálogo completo. Se llama después de cada escritura ya confirmada.
+     */
+    public synchronized void recargar() {
+        instantanea = cargar();
+    }
+
+    public List<T> todos() {
+        return obtener().todos();
+    }
+
+    public Optional<T> porId(Integer idBuscado) {
+        return Optional.ofNullable(obtener().porId().get(idBuscado));
+    }
+
+    /**
+     * Buscar por nombre sin distinguir mayúsculas/minúsculas.
+     */
+    public Optional<T> porNombre(String nombreBuscado) {
+        if (nombreBuscado == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(obtener().porNombre().get(nombreBuscado.toLowerCase(Locale.ROOT)));
+    }
+
+    public String etag() {
+        return obtener().etag();
+    }
+
+    /**
+     * Obtener una página del catálogo en memoria.
+     * Solo se puede ordenar por la propiedad ID o la propiedad nombre.
+     */
+    public Slice<T> pagina(Pageable pageable) {
+        List<T> filas = obtener().todos();
+        Comparator<T> comparador = null;
+        for (Sort.Order orden : pageable.getSort()) {
+            Comparator<T> criterio;
+            if (orden.getProperty().equals(propiedadId)) {
+                criterio = Comparator.comparing(id, Comparator.nullsFirst(Comparator.naturalOrder()));
+            } else if (orden.getProperty().equals(propiedadNombre)) {
+                criterio = Comparator.comparing(nombre, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+            } else {
+                throw new IllegalArgumentException("No se permite ordenar por '" + orden.getProperty() + "'");
+            }
+            if (orden.isDescending()) {
+                criterio = criterio.reversed();
+            }
+            comparador = comparador == null ? criterio : comparador.thenComparing(criterio);
+        }
+        if (comparador != null) {
+            filas = filas.stream().sorted(comparador).toList();
+        }
+
+        int desde = (int) Math.min(pageable.getOffset(), filas.size());
+        int hasta = Math.min(desde + pageable.getPageSize(), filas.size());
+        return new SliceImpl<>(filas.subList(desde, hasta), pageable, hasta < filas.size());
+    }
+
+    private Instantanea<T> cargar() {
+        List<T> filas = cargador.get().stream()
+            .sorted(Comparator.comparing(id))
+            .toList();
+        Map<Integer, T> indicePorId = new LinkedHashMap<>();
+        Map<String, T> indicePorNombre = new LinkedHashMap<>();
+        MessageDigest huella = sha256();
+        for (T fila : filas) {
+            indicePorId.put(id.apply(fila), fila);
+            String nombreFila = nombre.apply(fila);
+            if (nombreFila != null) {
+                indicePorNombre.putIfAbsent(nombreFila.toLowerCase(Locale.ROOT), fila);
+            }
+            huella.update((id.apply(fila) + "|" + nombreFila + "|" + descripcion.apply(fila) + "\n")
+                .getBytes(StandardCharsets.UTF_8));
+        }
+        String etag = "\"" + HexFormat.of().formatHex(huella.digest(), 0, 16) + "\"";
+        return new Instantanea<>(filas, Map.copyOf(indicePorId), Map.copyOf(indicePorNombre), etag);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package sv.medicit.app.Utilidades;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HexFormat;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Formato de almacenamiento de los textos largos (descripciones de antecedentes).
+ * El primer byte indica el formato: SIN_COMPRIMIR (UTF-8 tal cual), DEFLATE (UTF-8 comprimido en un
+ * solo flujo, formato anterior que solo se lee) o BLOQUES.
+ * Los textos de más de UMBRAL_COMPRESION bytes se guardan en BLOQUES; los cortos no compensan el
+ * costo de comprimir.
+ * <p>
+ * BLOQUES: [formato][int n][n × (int fin en caracteres, int fin en bytes)][datos]. Cada bloque es un
+ * flujo deflate independiente de CARACTERES_POR_BLOQUE caracteres como máximo y los fines se cuentan
+ * desde el inicio del texto y desde el inicio de los datos. Con esa tabla un tramo del texto se
+ * obtiene leyendo y descomprimiendo solo los bloques que lo cubren (ver escribirTramo).
+ */
+public final class CompresionTexto {
+
+    public static final byte SIN_COMPRIMIR = 0;
+
+    public static final byte DEFLATE = 1;
+
+    public static final byte BLOQUES = 2;
+
+    public static final int UMBRAL_COMPRESION = 256;
+
+    // Caracteres del texto por bloque comprimido
+    public static final int CARACTERES_POR_BLOQUE = 16 * 1024;
+
+    // Bytes máximos por lectura al recuperar un tramo: varios bloques seguidos viajan juntos
+    private static final int MAXIMO_LECTURA = 512 * 1024;
+
+    // Formato, número de bloques y dos enteros por bloque
+    private static final int BYTES_ENCABEZADO = 1 + Integer.BYTES;
+
+    private static final int BYTES_POR_ENTRADA = 2 * Integer.BYTES;
+
+    /**
+     * Lectura de una parte del contenido guardado, p. ej. con SUBSTRING en la base de datos.
+     */
+    @FunctionalInterface
+    public interface LectorBytes {
+
+        /**
+         * Leer "largo" bytes desde la posición "posicion" (base 0) del contenido.
+         */
+        byte[] leer(long posicion, int largo);
+    }
+
+    private CompresionTexto() {
+    }
+
+    /**
+     * Convertir un texto al formato de almacenamiento.
+     */
+    public static byte[] comprimir(String texto) {
+        byte[] utf8 = texto.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length > UMBRAL_COMPRESION) {
+            return comprimirPorBloques(texto);
+        }
+        byte[] datos = new byte[utf8.length + 1];
+        datos[0] = SIN_COMPRIMIR;
+        System.arraycopy(utf8, 0, datos, 1, utf8.length);
+        return datos;
+    }
+
+    private static byte[] comprimirPorBloques(String texto) {
+        // Cada bloque tiene al menos CARACTERES_POR_BLOQUE - 1 caracteres
+        int bloques = texto.length() / (CARACTERES_POR_BLOQUE - 1) + 1;
+        int[] finCaracteres = new int[bloques];
+        int[] finBytes = new int[bloques];
+        ByteArrayOutputStream datos = new ByteArrayOutputStream(texto.length() / 3 + 16);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        byte[] bloque = new byte[8192];
+        int n = 0;
+        try {
+            for (int inicio = 0; inicio < texto.length(); n++) {
+                int fin = Math.min(inicio + CARACTERES_POR_BLOQUE, texto.length());
+                // Un carácter fuera del plano básico (dos char) no se parte entre bloques
+                if (fin < texto.length() && Character.isHighSurrogate(texto.charAt(fin - 1))) {
+                    fin--;
+                }
+                deflater.reset();
+                deflater.setInput(texto.substring(inicio, fin).getBytes(StandardCharsets.UTF_8));
+                deflater.finish();
+                while (!deflater.finished()) {
+                    datos.write(bloque, 0, deflater.deflate(bloque));
+                }
+                finCaracteres[n] = fin;
+                finBytes[n] = datos.size();
+                inicio = fin;
+            }
+        } finally {
+            deflater.end();
+        }
+        ByteBuffer salida = ByteBuffer.allocate(BYTES_ENCABEZADO + n * BYTES_POR_ENTRADA + datos.size());
+        salida.put(BLOQUES).putInt(n);
+        for (int i = 0; i < n; i++) {
+            salida.putInt(finCaracteres[i]).putInt(finBytes[i]);
+        }
+        return salida.put(datos.toByteArray()).array();
+    }
+
+    /**
+     * Recuperar el texto completo desde el formato de almacenamiento.
+     */
+    public static String descomprimir(byte[] datos) {
+        if (datos[0] == SIN_COMPRIMIR) {
+            return new String(datos, 1, datos.length - 1, StandardCharsets.UTF_8);
+        }
+        if (datos[0] == BLOQUES) {
+            ByteBuffer tabla = ByteBuffer.wrap(datos);
+            int n = tabla.getInt(1);
+            int inicioDatos = BYTES_ENCABEZADO + n * BYTES_POR_ENTRADA;
+            StringBuilder texto = new StringBuilder(n > 0 ? tabla.getInt(inicioDatos - BYTES_POR_ENTRADA) : 0);
+            int inicio = 0;
+            for (int i = 0; i < n; i++) {
+                int fin = tabla.getInt(BYTES_ENCABEZADO + i * BYTES_POR_ENTRADA + Integer.BYTES);
+                texto.append(new String(inflar(datos, inicioDatos + inicio, fin - inicio), StandardCharsets.UTF_8));
+                inicio = fin;
+            }
+            return texto.toString();
+        }
+        return new String(inflar(datos, 1, datos.length - 1), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Descomprimir un flujo deflate (sin encabezado) completo.
+     */
+    private static byte[] inflar(byte[] datos, int desde, int largo) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(datos, desde, largo);
+            ByteArrayOutputStream salida = new ByteArrayOutputStream(largo * 4);
+            byte[] bloque = new byte[8192];
+            while (!inflater.finished()) {
+                int leidos = inflater.inflate(bloque);
+                if (leidos == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Texto comprimido incompleto");
+                }
+                salida.write(bloque, 0, leidos);
+            }
+            return salida.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Texto comprimido dañado", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Leer el texto a medida que se descomprime, sin tenerlo completo en memoria.
+     */
+    public static Reader abrir(InputStream datos) {
+        try {
+            int formato = datos.read();
+            if (formato == BLOQUES) {
+                return new InputStreamReader(new SequenceInputStream(bloques(new DataInputStream(datos))), StandardCharsets.UTF_8);
+            }
+            if (formato == DEFLATE) {
+                return new InputStreamReader(new InflaterInputStream(datos, new Inflater(true), 8192), StandardCharsets.UTF_8);
+            }
+            if (formato != SIN_COMPRIMIR) {
+                throw new IllegalStateException("Formato de texto desconocido: " + formato);
+            }
+            return new InputStreamReader(datos, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Bloques descomprimidos de uno en uno, a medida que el lector los pide.
+     */
+    private static Enumeration<InputStream> bloques(DataInputStream datos) throws IOException {
+        int n = datos.readInt();
+        int[] finBytes = new int[n];
+        for (int i = 0; i < n; i++) {
+            datos.readInt();
+            finBytes[i] = datos.readInt();
+        }
+        return new Enumeration<>() {
+
+            private int siguiente;
+
+            @Override
+            public boolean hasMoreElements() {
+                return siguiente < n;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                int largo = finBytes[siguiente] - (siguiente > 0 ? finBytes[siguiente - 1] : 0);
+                siguiente++;
+                try {
+                    return new ByteArrayInputStream(inflar(datos.readNBytes(largo), 0, largo));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Escribir los caracteres [desde, hasta) de un texto en formato BLOQUES leyendo solo los bloques
+     * que los cubren, en lecturas de MAXIMO_LECTURA bytes como máximo.
+     * "prefijo" son los primeros bytes del contenido (al menos el byte de formato); si no alcanzan a
+     * cubrir la tabla de bloques, el resto de la tabla se lee con una lectura más.
+     */
+    public static void escribirTramo(byte[] prefijo, LectorBytes lector, int desde, int hasta, Writer salida)
+            throws IOException {
+        if (prefijo[0] != BLOQUES) {
+            throw new IllegalArgumentException("El contenido no está en formato BLOQUES");
+        }
+        if (desde >= hasta) {
+            return;
+        }
+        int n = ByteBuffer.wrap(prefijo, 1, Integer.BYTES).getInt();
+        int inicioDatos = BYTES_ENCABEZADO + n * BYTES_POR_ENTRADA;
+        byte[] encabezado = prefijo;
+        if (prefijo.length < inicioDatos) {
+            encabezado = Arrays.copyOf(prefijo, inicioDatos);
+            byte[] resto = lector.leer(prefijo.length, inicioDatos - prefijo.length);
+            System.arraycopy(resto, 0, encabezado, prefijo.length, resto.length);
+        }
+        ByteBuffer tabla = ByteBuffer.wrap(encabezado);
+        int[] finCaracteres = new int[n];
+        int[] finBytes = new int[n];
+        for (int i = 0; i < n; i++) {
+            finCaracteres[i] = tabla.getInt(BYTES_ENCABEZADO + i * BYTES_POR_ENTRADA);
+            finBytes[i] = tabla.getInt(BYTES_ENCABEZADO + i * BYTES_POR_ENTRADA + Integer.BYTES);
+        }
+
+        // Primer bloque que termina después de "desde"
+        int primero = Arrays.binarySearch(finCaracteres, desde);
+        primero = primero >= 0 ? primero + 1 : -primero - 1;
+        int i = primero;
+        while (i < n && (i == primero || finCaracteres[i - 1] < hasta)) {
+            // Bloques seguidos que caben en una lectura (al menos uno)
+            int inicioLectura = i > 0 ? finBytes[i - 1] : 0;
+            int ultimo = i;
+            while (ultimo + 1 < n && finCaracteres[ultimo] < hasta
+                    && finBytes[ultimo + 1] - inicioLectura <= MAXIMO_LECTURA) {
+                ultimo++;
+            }
+            byte[] datos = leer(encabezado, lector, inicioDatos + inicioLectura, finBytes[ultimo] - inicioLectura);
+            for (; i <= ultimo; i++) {
+                int inicioBloque = i > 0 ? finCaracteres[i - 1] : 0;
+                int inicioBytes = (i > 0 ? finBytes[i - 1] : 0) - inicioLectura;
+                String texto = new String(inflar(datos, inicioBytes, finBytes[i] - inicioLectura - inicioBytes),
+                    StandardCharsets.UTF_8);
+                salida.write(texto, Math.max(desde, inicioBloque) - inicioBloque,
+                    Math.min(hasta, finCaracteres[i]) - Math.max(desde, inicioBloque));
+            }
+            salida.flush();
+        }
+    }
+
+    /**
+     * Leer una parte del contenido, sin volver a la base de datos si ya está en los bytes leídos.
+     */
+    private static byte[] leer(byte[] leidos, LectorBytes lector, int posicion, int largo) {
+        if (posicion + largo <= leidos.length) {
+            return Arrays.copyOfRange(leidos, posicion, posicion + largo);
+        }
+        byte[] datos = lector.leer(posicion, largo);
+        if (datos.length < largo) {
+            throw new IllegalStateException("Texto comprimido incompleto");
+        }
+        return datos;
+    }
+
+    /**
+     * Huella SHA-256 (64 caracteres hexadecimales) del texto; textos iguales tienen la misma huella.
+     */
+    public static String huella(String texto) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha.digest(texto.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
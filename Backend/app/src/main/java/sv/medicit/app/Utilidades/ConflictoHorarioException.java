@@ -0,0 +1,25 @@
+package sv.medicit.app.Utilidades;
+
+/**
+ * Se lanza cuando una cita se cruza con otra cita del mismo médico.
+ * getIdCitaExistente() indica la cita que ya ocupa el horario (null si el conflicto
+ * lo detectó el índice único de la base de datos).
+ */
+public class ConflictoHorarioException extends RuntimeException {
+
+    private final Integer idCitaExistente;
+
+    public ConflictoHorarioException() {
+        super("El médico ya tiene una cita en ese horario");
+        this.idCitaExistente = null;
+    }
+
+    public ConflictoHorarioException(Integer idCitaExistente) {
+        super("El médico ya tiene una cita en ese horario (cita " + idCitaExistente + ")");
+        this.idCitaExistente = idCitaExistente;
+    }
+
+    public Integer getIdCitaExistente() {
+        return idCitaExistente;
+    }
+}
@@ -0,0 +1,49 @@
+package sv.medicit.app.Utilidades;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición de continuación para recorrer citas ordenadas por (fechaHora, idCita).
+ * Se entrega al cliente como un token opaco en Base64 URL-safe.
+ */
+public record CursorCita(LocalDateTime fechaHora, Integer idCita) {
+
+    // Fecha mínima aceptada por DATETIME en MySQL, usada para iniciar el recorrido
+    private static final LocalDateTime FECHA_INICIAL = LocalDateTime.of(1000, 1, 1, 0, 0);
+
+    /**
+     * Cursor que apunta justo antes de la fecha indicada (o antes de cualquier cita si es null).
+     */
+    public static CursorCita inicial(LocalDateTime desde) {
+        return new CursorCita(desde != null ? desde : FECHA_INICIAL, 0);
+    }
+
+    /**
+     * Codificar el cursor como token opaco.
+     */
+    public String codificar() {
+        String valor = fechaHora + "|" + idCita;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodificar un token recibido del cliente.
+     * 
+     * @throws IllegalArgumentException si el token no es válido
+     */
+    public static CursorCita decodificar(String token) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] partes = valor.split("\\|");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new CursorCita(LocalDateTime.parse(partes[0]), Integer.valueOf(partes[1]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
@@ -0,0 +1,418 @@
+package sv.medicit.app.Utilidades;
+
+import java.text.Normalizer;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Generador determinista de datos de prueba a escala (usuarios, citas, antecedentes...).
+ * Cada usuario y cada médico tiene su propio generador aleatorio derivado de la semilla y de su índice,
+ * así el resultado no depende del orden ni de la cantidad de hilos: con la misma semilla y la misma
+ * fecha de referencia se obtienen siempre los mismos datos.
+ *
+ * Distribuciones:
+ * - Uno de cada MEDICO_CADA usuarios es médico y uno de cada ADMINISTRADOR_CADA es administrador.
+ * - Carga por médico con sesgo tipo Zipf (pocos médicos con muchas citas, muchos con pocas), limitada
+ *   a la mitad de los horarios disponibles de cada médico.
+ * - Fechas de citas en días laborales, más frecuentes en la época lluviosa y en enero, menos en diciembre;
+ *   un médico nunca tiene dos citas a la misma hora.
+ * - Antecedentes: la mayoría son notas de plantilla repetidas entre pacientes, el resto son únicas.
+ */
+public final class DatosSinteticos {
+
+    public static final int MEDICO_CADA = 20;
+
+    public static final int ADMINISTRADOR_CADA = 10_000;
+
+    // Exponente de la distribución de citas por médico (0 = uniforme)
+    private static final double SESGO_MEDICOS = 0.8;
+
+    // Peso relativo de cada mes (enero..diciembre) en la fecha de las citas
+    private static final double[] PESO_MES = {1.2, 1.0, 0.9, 0.9, 1.1, 1.3, 1.3, 1.2, 1.2, 1.1, 0.9, 0.6};
+
+    // Identifican el tipo de dato al derivar el generador de cada elemento
+    private static final long FLUJO_USUARIO = 1;
+
+    private static final long FLUJO_CITAS = 2;
+
+    private static final long FLUJO_ANTECEDENTES = 3;
+
+    private static final String[] NOMBRES = {
+        "José", "María", "Juan", "Ana", "Carlos", "Rosa", "Luis", "Carmen", "Jorge", "Marta", "Miguel", "Sofía",
+        "Francisco", "Gloria", "Manuel", "Elena", "Ricardo", "Patricia", "Roberto", "Lucía", "Fernando", "Claudia",
+        "Mario", "Daniela", "Óscar", "Verónica", "Ernesto", "Andrea", "Salvador", "Beatriz", "Mauricio", "Karla"};
+
+    private static final String[] APELLIDOS = {
+        "Hernández", "García", "Martínez", "López", "González", "Rodríguez", "Pérez", "Ramírez", "Flores", "Rivera",
+        "Cruz", "Reyes", "Morales", "Romero", "Ramos", "Ortiz", "Díaz", "Mejía", "Vásquez", "Castillo", "Alvarado",
+        "Guzmán", "Menjívar", "Portillo", "Aguilar", "Chávez", "Orellana", "Rosales", "Henríquez", "Escobar"};
+
+    private static final String[] DOMINIOS = {"gmail.com", "hotmail.com", "yahoo.com", "outlook.com", "medicit.test"};
+
+    private static final String[] MOTIVOS = {
+        "Consulta general", "Control de presión arterial", "Control de diabetes", "Dolor de cabeza persistente",
+        "Chequeo anual", "Control prenatal", "Dolor abdominal", "Tos y fiebre", "Revisión de exámenes",
+        "Dolor de espalda", "Control pediátrico", "Alergia estacional", "Seguimiento postoperatorio",
+        "Vacunación", "Dolor de garganta", "Evaluación de lunares"};
+
+    private static final String[][] CONDICIONES = {
+        {"Hipertensión arterial", "en tratamiento con enalapril 10 mg cada 12 horas"},
+        {"Diabetes mellitus tipo 2", "en tratamiento con metformina 850 mg con el almuerzo y la cena"},
+        {"Asma bronquial", "usa salbutamol inhalado según necesidad"},
+        {"Alergia a la penicilina", "presentó urticaria generalizada tras amoxicilina"},
+        {"Hipotiroidismo", "en tratamiento con levotiroxina 50 mcg en ayunas"},
+        {"Gastritis crónica", "en tratamiento con omeprazol 20 mg en ayunas"},
+        {"Migraña", "episodios mensuales que ceden con analgésicos comunes"},
+        {"Apendicectomía", "cirugía sin complicaciones"},
+        {"Dislipidemia", "en tratamiento con atorvastatina 20 mg por la noche"},
+        {"Rinitis alérgica", "síntomas estacionales controlados con loratadina"},
+        {"Insuficiencia venosa", "usa medias de compresión"},
+        {"Dengue", "cuadro sin signos de alarma, recuperación completa"}};
+
+    private static final String[] EVOLUCIONES = {
+        "Evolución estable, sin hospitalizaciones recientes.",
+        "Buena adherencia al tratamiento; controles cada tres meses.",
+        "Refiere síntomas ocasionales que no limitan sus actividades.",
+        "Se recomienda dieta baja en sodio y actividad física moderada.",
+        "Familiar de primer grado con el mismo diagnóstico."};
+
+    private static final String[] PREGUNTAS = {
+        "¿Cuál es el nombre de su primera mascota?", "¿En qué ciudad nació su madre?",
+        "¿Cuál fue su primer colegio?", "¿Cuál es su comida favorita?", "¿Cómo se llamaba su mejor amigo de la infancia?"};
+
+    private static final String[] RESPUESTAS = {
+        "Firulais", "Santa Ana", "San Miguel", "Pupusas", "Centro Escolar", "Max", "Sonsonate", "Chimichurri", "Toby"};
+
+    public enum Tipo { PACIENTE, MEDICO, ADMINISTRADOR }
+
+    /**
+     * Estado de una cita; las libres (Cancelada, Rechazada) no ocupan horario.
+     */
+    public enum EstadoCita {
+        PENDIENTE("Pendiente", false), ACEPTADA("Aceptada", false),
+        CANCELADA("Cancelada", true), RECHAZADA("Rechazada", true);
+
+        private final String nombre;
+
+        private final boolean libre;
+
+        EstadoCita(String nombre, boolean libre) {
+            this.nombre = nombre;
+            this.libre = libre;
+        }
+
+        public String nombre() {
+            return nombre;
+        }
+
+        public boolean libre() {
+            return libre;
+        }
+    }
+
+    public record Usuario(String nombreUsuario, String nombres, String apellidos, String dui, LocalDate fechaNacimiento,
+                          Tipo tipo, String correo, String telefono) {
+    }
+
+    public record Antecedente(String antecedente, String descripcion) {
+    }
+
+    public record Cita(int indicePaciente, LocalDateTime fechaHora, String motivo, EstadoCita estado) {
+    }
+
+    private final long semilla;
+
+    private final int totalUsuarios;
+
+    private final LocalDate referencia;
+
+    private final LocalTime horaInicio;
+
+    private final Duration duracionCita;
+
+    private final List<LocalDate> dias = new ArrayList<>();
+
+    private final double[] pesoDia;
+
+    private final int horariosPorDia;
+
+    private final int[] citasPorMedico;
+
+    /**
+     * @param referencia "Hoy" para los datos: separa citas pasadas de futuras y fija las edades
+     * @param desde Primer día con citas
+     * @param hasta Último día con citas
+     */
+    public DatosSinteticos(long semilla, int totalUsuarios, long totalCitas, LocalDate referencia,
+                           LocalDate desde, LocalDate hasta, LocalTime horaInicio, LocalTime horaFin,
+                           Duration duracionCita, Set<DayOfWeek> diasLaborales) {
+        this.semilla = semilla;
+        this.totalUsuarios = totalUsuarios;
+        this.referencia = referencia;
+        this.horaInicio = horaInicio;
+        this.duracionCita = duracionCita;
+        this.horariosPorDia = (int) (Duration.between(horaInicio, horaFin).toMinutes() / duracionCita.toMinutes());
+        for (LocalDate dia = desde; !dia.isAfter(hasta); dia = dia.plusDays(1)) {
+            if (diasLaborales.contains(dia.getDayOfWeek())) {
+                dias.add(dia);
+            }
+        }
+        this.pesoDia = new double[dias.size()];
+        for (int i = 0; i < pesoDia.length; i++) {
+            pesoDia[i] = PESO_MES[dias.get(i).getMonthValue() - 1];
+        }
+        this.citasPorMedico = repartirCitas(totalCitas, totalMedicos(), dias.size() * horariosPorDia / 2);
+    }
+
+    /**
+     * Repartir las citas entre los médicos con pesos 1/rango^SESGO_MEDICOS sin pasar de "capacidad" por médico:
+     * se busca el factor con el que la suma de min(capacidad, factor * peso) llega al total.
+     */
+    private static int[] repartirCitas(long totalCitas, int medicos, int capacidad) {
+        int[] citas = new int[medicos];
+        if (medicos == 0 || capacidad == 0) {
+            return citas;
+        }
+        double[] pesos = new double[medicos];
+        for (int i = 0; i < medicos; i++) {
+            pesos[i] = Math.pow(i + 1, -SESGO_MEDICOS);
+        }
+        long objetivo = Math.min(totalCitas, (long) capacidad * medicos);
+        double bajo = 0;
+        double alto = (double) capacidad / pesos[medicos - 1];
+        for (int iteracion = 0; iteracion < 100; iteracion++) {
+            double factor = (bajo + alto) / 2;
+            double suma = 0;
+            for (double peso : pesos) {
+                suma += Math.min(capacidad, factor * peso);
+            }
+            if (suma < objetivo) {
+                bajo = factor;
+            } else {
+                alto = factor;
+            }
+        }
+        for (int i = 0; i < medicos; i++) {
+            citas[i] = (int) Math.min(capacidad, Math.round(alto * pesos[i]));
+        }
+        return citas;
+    }
+
+    public static Tipo tipo(int indice) {
+        if (indice % ADMINISTRADOR_CADA == 1) {
+            return Tipo.ADMINISTRADOR;
+        }
+        return indice % MEDICO_CADA == 0 ? Tipo.MEDICO : Tipo.PACIENTE;
+    }
+
+    public int totalMedicos() {
+        return (totalUsuarios + MEDICO_CADA - 1) / MEDICO_CADA;
+    }
+
+    /**
+     * Índice de usuario del n-ésimo médico.
+     */
+    public static int indiceMedico(int medico) {
+        return medico * MEDICO_CADA;
+    }
+
+    /**
+     * Citas que recibe el n-ésimo médico.
+     */
+    public int citasDeMedico(int medico) {
+        return citasPorMedico[medico];
+    }
+
+    public long totalCitas() {
+        long total = 0;
+        for (int citas : citasPorMedico) {
+            total += citas;
+        }
+        return total;
+    }
+
+    /**
+     * Datos del usuario con el índice dado; "id" se usa en los campos que deben ser únicos.
+     */
+    public Usuario usuario(int indice, long id) {
+        SplittableRandom aleatorio = aleatorio(FLUJO_USUARIO, indice);
+        Tipo tipo = tipo(indice);
+        String nombre = elegir(aleatorio, NOMBRES);
+        String nombres = aleatorio.nextInt(3) == 0 ? nombre : nombre + " " + elegir(aleatorio, NOMBRES);
+        String apellido = elegir(aleatorio, APELLIDOS);
+        String apellidos = apellido + " " + elegir(aleatorio, APELLIDOS);
+        // Pacientes de 0 a 90 años con más adultos jóvenes y mayores; médicos de 28 a 70
+        int edad = tipo == Tipo.PACIENTE
+            ? (int) Math.min(90, Math.abs(aleatorio.nextGaussian() * 25 + 35))
+            : 28 + aleatorio.nextInt(43);
+        LocalDate nacimiento = referencia.minusYears(edad).minusDays(aleatorio.nextInt(365));
+        String correo = (sinTildes(nombre) + "." + sinTildes(apellido) + "." + id + "@"
+            + elegir(aleatorio, DOMINIOS)).toLowerCase();
+        String telefono = (aleatorio.nextInt(4) == 0 ? "2" : "7") + String.format("%03d-%04d",
+            aleatorio.nextInt(1000), aleatorio.nextInt(10_000));
+        return new Usuario("u" + id, nombres, apellidos, dui(id), nacimiento, tipo, correo, telefono);
+    }
+
+    /**
+     * Preguntas de seguridad que responden los usuarios.
+     */
+    public static List<String> preguntas() {
+        return List.of(PREGUNTAS);
+    }
+
+    /**
+     * Respuesta del usuario a una pregunta (índice en preguntas()); cada usuario responde dos preguntas.
+     */
+    public String[] respuestas(int indice) {
+        SplittableRandom aleatorio = aleatorio(FLUJO_USUARIO, -1L - indice);
+        int primera = aleatorio.nextInt(PREGUNTAS.length);
+        int segunda = (primera + 1 + aleatorio.nextInt(PREGUNTAS.length - 1)) % PREGUNTAS.length;
+        String[] respuestas = new String[PREGUNTAS.length];
+        respuestas[primera] = elegir(aleatorio, RESPUESTAS);
+        respuestas[segunda] = elegir(aleatorio, RESPUESTAS);
+        return respuestas;
+    }
+
+    /**
+     * Especialidades de un médico: una o dos de las "total" existentes (posiciones 0..total-1).
+     */
+    public int[] especialidades(int indice, int total) {
+        if (total == 0) {
+            return new int[0];
+        }
+        SplittableRandom aleatorio = aleatorio(FLUJO_USUARIO, Long.MAX_VALUE - indice);
+        int primera = aleatorio.nextInt(total);
+        if (total == 1 || aleatorio.nextInt(3) > 0) {
+            return new int[] {primera};
+        }
+        return new int[] {primera, (primera + 1 + aleatorio.nextInt(total - 1)) % total};
+    }
+
+    /**
+     * Notas de plantilla: el mismo texto para todos los pacientes con esa condición y evolución.
+     */
+    public static List<String> notasDePlantilla() {
+        List<String> notas = new ArrayList<>();
+        for (String[] condicion : CONDICIONES) {
+            for (String evolucion : EVOLUCIONES) {
+                notas.add(nota(condicion, evolucion, null));
+            }
+        }
+        return notas;
+    }
+
+    /**
+     * Antecedentes de un paciente: ninguno (40 %) o de uno a cuatro; tres de cada diez notas son únicas.
+     */
+    public List<Antecedente> antecedentes(int indice) {
+        if (tipo(indice) != Tipo.PACIENTE) {
+            return List.of();
+        }
+        SplittableRandom aleatorio = aleatorio(FLUJO_ANTECEDENTES, indice);
+        int cantidad = aleatorio.nextInt(10) < 4 ? 0 : 1 + aleatorio.nextInt(4);
+        List<Antecedente> antecedentes = new ArrayList<>(cantidad);
+        for (int k = 0; k < cantidad; k++) {
+            String[] condicion = elegir(aleatorio, CONDICIONES);
+            String evolucion = elegir(aleatorio, EVOLUCIONES);
+            String detalle = aleatorio.nextInt(10) < 3
+                ? "Nota del paciente " + indice + "-" + k + ": diagnosticado hace " + (1 + aleatorio.nextInt(30))
+                    + " años; última presión arterial " + (100 + aleatorio.nextInt(60)) + "/" + (60 + aleatorio.nextInt(40))
+                    + " mmHg."
+                : null;
+            antecedentes.add(new Antecedente(condicion[0], nota(condicion, evolucion, detalle)));
+        }
+        return antecedentes;
+    }
+
+    private static String nota(String[] condicion, String evolucion, String detalle) {
+        StringBuilder nota = new StringBuilder()
+            .append("DIAGNÓSTICO: ").append(condicion[0]).append(".\n")
+            .append("TRATAMIENTO: ").append(condicion[1]).append(".\n")
+            .append("EVOLUCIÓN: ").append(evolucion).append('\n');
+        if (detalle != null) {
+            nota.append("NOTAS: ").append(detalle).append('\n');
+        }
+        return nota.toString();
+    }
+
+    /**
+     * Citas del n-ésimo médico ordenadas por fecha; nunca dos en el mismo horario.
+     */
+    public List<Cita> citas(int medico) {
+        int cantidad = citasPorMedico[medico];
+        SplittableRandom aleatorio = aleatorio(FLUJO_CITAS, medico);
+        BitSet ocupados = new BitSet(dias.size() * horariosPorDia);
+        List<Cita> citas = new ArrayList<>(cantidad);
+        while (citas.size() < cantidad) {
+            int dia = aleatorio.nextInt(dias.size());
+            // Aceptar el día con probabilidad proporcional al peso de su mes
+            if (aleatorio.nextDouble() * 1.3 > pesoDia[dia]) {
+                continue;
+            }
+            int horario = aleatorio.nextInt(horariosPorDia);
+            if (ocupados.get(dia * horariosPorDia + horario)) {
+                continue;
+            }
+            ocupados.set(dia * horariosPorDia + horario);
+            LocalDateTime fechaHora = dias.get(dia).atTime(horaInicio).plus(duracionCita.multipliedBy(horario));
+            citas.add(new Cita(paciente(aleatorio), fechaHora, elegir(aleatorio, MOTIVOS), estado(aleatorio, fechaHora)));
+        }
+        citas.sort(Comparator.comparing(Cita::fechaHora));
+        return citas;
+    }
+
+    private int paciente(SplittableRandom aleatorio) {
+        int indice = aleatorio.nextInt(totalUsuarios);
+        while (tipo(indice) != Tipo.PACIENTE) {
+            indice = (indice + 1) % totalUsuarios;
+        }
+        return indice;
+    }
+
+    private EstadoCita estado(SplittableRandom aleatorio, LocalDateTime fechaHora) {
+        int valor = aleatorio.nextInt(100);
+        if (fechaHora.toLocalDate().isBefore(referencia)) {
+            return valor < 75 ? EstadoCita.ACEPTADA : valor < 90 ? EstadoCita.CANCELADA : EstadoCita.RECHAZADA;
+        }
+        return valor < 60 ? EstadoCita.PENDIENTE : valor < 95 ? EstadoCita.ACEPTADA : EstadoCita.CANCELADA;
+    }
+
+    /**
+     * DUI (8 dígitos, guion y dígito verificador) único para cada ID.
+     */
+    private static String dui(long id) {
+        String digitos = String.format("%08d", id % 100_000_000L);
+        int suma = 0;
+        for (int i = 0; i < 8; i++) {
+            suma += (digitos.charAt(i) - '0') * (9 - i);
+        }
+        return digitos + "-" + (10 - suma % 10) % 10;
+    }
+
+    private static String sinTildes(String texto) {
+        return Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+    }
+
+    private static <T> T elegir(SplittableRandom aleatorio, T[] opciones) {
+        return opciones[aleatorio.nextInt(opciones.length)];
+    }
+
+    /**
+     * Generador propio de un elemento: mezcla semilla, tipo de dato e índice (función final de SplitMix64).
+     */
+    private SplittableRandom aleatorio(long flujo, long indice) {
+        long z = semilla + flujo * 0x9E3779B97F4A7C15L + indice * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return new SplittableRandom(z ^ (z >>> 31));
+    }
+}
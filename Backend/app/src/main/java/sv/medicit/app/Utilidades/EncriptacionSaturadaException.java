@@ -0,0 +1,19 @@
+package sv.medicit.app.Utilidades;
+
+/**
+ * Se lanza cuando la cola de BCrypt de EncriptacionUtil está llena.
+ * El cliente debe reintentar después de getSegundosReintento() segundos.
+ */
+public class EncriptacionSaturadaException extends RuntimeException {
+
+    private final int segundosReintento;
+
+    public EncriptacionSaturadaException(int segundosReintento) {
+        super("Servicio de autenticación saturado, intente de nuevo en " + segundosReintento + " segundos");
+        this.segundosReintento = segundosReintento;
+    }
+
+    public int getSegundosReintento() {
+        return segundosReintento;
+    }
+}
@@ -1,35 +1,286 @@
 package sv.medicit.app.Utilidades;
 
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
 /**
  * Utilidad para encriptación de contraseñas usando BCrypt.
  * Proporciona métodos para encriptar y verificar contraseñas.
+ *
+ * BCrypt se ejecuta en un pool de hilos propio y acotado, con una cola de tamaño fijo: así una
+ * ola de logins no se lleva todo el CPU de los demás endpoints. Si la cola está llena la operación
+ * se rechaza de inmediato con EncriptacionSaturadaException (el login responde 503 + Retry-After).
+ * Los trabajos de fondo (p. ej. la importación masiva) usan el mismo pool a través de un
+ * CupoEncriptacion, que nunca ocupa más de medicit.encriptacion.hilos-fondo hilos a la vez.
  */
 @Component
 public class EncriptacionUtil {
-    
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-    
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Hilos para BCrypt; 0 = la mitad de los procesadores (mínimo 1)
+    @Value("${medicit.encriptacion.hilos:0}")
+    private int hilos;
+
+    // Operaciones que pueden esperar turno antes de rechazar nuevas
+    @Value("${medicit.encriptacion.capacidad-cola:100}")
+    private int capacidadCola;
+
+    // Segundos sugeridos al cliente (Retry-After) cuando la cola está llena
+    @Value("${medicit.encriptacion.reintentar-en:2}")
+    private int segundosReintento;
+
+    // Hilos que puede ocupar cada trabajo de fondo; 0 = la mitad de los hilos de BCrypt (mínimo 1)
+    @Value("${medicit.encriptacion.hilos-fondo:0}")
+    private int hilosFondo;
+
+    // Pausa antes de reintentar una operación de fondo rechazada por cola llena
+    private static final long PAUSA_FONDO_MS = 50;
+
+    private ThreadPoolExecutor ejecutor;
+
+    private Timer espera;
+
+    private Timer encriptaciones;
+
+    private Timer verificaciones;
+
+    private Counter rechazos;
+
+    /**
+     * Crear el pool de BCrypt y registrar sus métricas (medicit.encriptacion.*).
+     */
+    @PostConstruct
+    void iniciar() {
+        int totalHilos = hilos > 0 ? hilos : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        hilosFondo = hilosFondo > 0 ? Math.min(hilosFondo, totalHilos) : Math.max(1, totalHilos / 2);
+        ejecutor = new ThreadPoolExecutor(totalHilos, totalHilos, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(capacidadCola),
+            Thread.ofPlatform().name("bcrypt-", 0).daemon(true).factory());
+
+        espera = Timer.builder("medicit.encriptacion.espera")
+            .description("Tiempo en cola antes de que un hilo de BCrypt tome la operación")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        encriptaciones = Timer.builder("medicit.encriptacion.operaciones")
+            .description("Operaciones BCrypt ejecutadas")
+            .tag("operacion", "encriptar")
+            .register(meterRegistry);
+        verificaciones = Timer.builder("medicit.encriptacion.operaciones")
+            .description("Operaciones BCrypt ejecutadas")
+            .tag("operacion", "verificar")
+            .register(meterRegistry);
+        rechazos = Counter.builder("medicit.encriptacion.rechazos")
+            .description("Operaciones rechazadas por cola llena")
+            .register(meterRegistry);
+        Gauge.builder("medicit.encriptacion.cola", ejecutor, e -> e.getQueue().size())
+            .description("Operaciones BCrypt esperando turno")
+            .register(meterRegistry);
+        Gauge.builder("medicit.encriptacion.activos", ejecutor, ThreadPoolExecutor::getActiveCount)
+            .description("Hilos de BCrypt ocupados")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void detener() {
+        ejecutor.shutdownNow();
+    }
+
     /**
      * Encriptar una contraseña en texto plano.
-     * 
+     *
      * @param contraseniaPlana La contraseña en texto plano
      * @return La contraseña encriptada
+     * @throws EncriptacionSaturadaException si la cola de BCrypt está llena
      */
     public String encriptarContrasenia(String contraseniaPlana) {
-        return passwordEncoder.encode(contraseniaPlana);
+        return ejecutar(() -> passwordEncoder.encode(contraseniaPlana), encriptaciones);
     }
-    
+
     /**
      * Verificar si una contraseña en texto plano coincide con una contraseña encriptada.
-     * 
+     *
      * @param contraseniaPlana La contraseña en texto plano
      * @param contraseniaEncriptada La contraseña encriptada almacenada
      * @return true si coinciden, false en caso contrario
+     * @throws EncriptacionSaturadaException si la cola de BCrypt está llena
      */
     public boolean verificarContrasenia(String contraseniaPlana, String contraseniaEncriptada) {
-        return passwordEncoder.matches(contraseniaPlana, contraseniaEncriptada);
+        return ejecutar(() -> passwordEncoder.matches(contraseniaPlana, contraseniaEncriptada), verificaciones);
+    }
+
+    /**
+     * Indica si el hash guardado usa otro algoritmo o costo que el configurado y conviene recalcularlo.
+     *
+     * @param contraseniaEncriptada La contraseña encriptada almacenada
+     * @return true si debe volver a encriptarse
+     */
+    public boolean necesitaActualizacion(String contraseniaEncriptada) {
+        try {
+            return passwordEncoder.upgradeEncoding(contraseniaEncriptada);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Encriptar una contraseña en segundo plano, sin esperar el resultado.
+     * Solo se acepta mientras la cola esté a menos de la mitad, para no quitar lugar a los logins.
+     *
+     * @param contraseniaPlana La contraseña en texto plano
+     * @return El hash en curso, o vacío si la cola está ocupada
+     */
+    public Optional<CompletableFuture<String>> encriptarEnSegundoPlano(String contraseniaPlana) {
+        if (ejecutor.getQueue().size() > capacidadCola / 2) {
+            return Optional.empty();
+        }
+        long encolada = System.nanoTime();
+        try {
+            return Optional.of(CompletableFuture.supplyAsync(() -> {
+                espera.record(System.nanoTime() - encolada, TimeUnit.NANOSECONDS);
+                return encriptaciones.record(() -> passwordEncoder.encode(contraseniaPlana));
+            }, ejecutor));
+        } catch (RejectedExecutionException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Crear un cupo para encriptar muchas contraseñas en segundo plano sin desplazar a los logins.
+     *
+     * @return Un cupo nuevo; se debe cancelar si el trabajo se interrumpe
+     */
+    public CupoEncriptacion crearCupo() {
+        return new CupoEncriptacion(hilosFondo);
+    }
+
+    /**
+     * Cupo de hilos de BCrypt para un trabajo de fondo.
+     * Las operaciones se reparten en tantas filas como hilos tenga el cupo; cada fila envía su
+     * siguiente operación al pool cuando termina la anterior, así el trabajo nunca ocupa más de
+     * ese número de hilos ni de lugares en la cola. Si la cola está llena (logins en curso) la
+     * operación espera y se reintenta en lugar de fallar. Quien llama nunca se bloquea.
+     */
+    public final class CupoEncriptacion {
+
+        private final CompletableFuture<?>[] filas;
+
+        private final AtomicBoolean cancelado = new AtomicBoolean(false);
+
+        private int siguiente;
+
+        private CupoEncriptacion(int totalFilas) {
+            filas = new CompletableFuture<?>[totalFilas];
+            for (int i = 0; i < totalFilas; i++) {
+                filas[i] = CompletableFuture.completedFuture(null);
+            }
+        }
+
+        /**
+         * Encriptar una contraseña cuando le toque turno dentro del cupo.
+         *
+         * @param contraseniaPlana La contraseña en texto plano
+         * @return El hash en curso
+         */
+        public synchronized CompletableFuture<String> encriptar(String contraseniaPlana) {
+            int fila = siguiente;
+            siguiente = (siguiente + 1) % filas.length;
+            CompletableFuture<String> hash = filas[fila]
+                .handle((resultado, error) -> null)
+                .thenCompose(ignorado -> enviar(contraseniaPlana));
+            filas[fila] = hash;
+            return hash;
+        }
+
+        /**
+         * Descartar las operaciones que aún no empezaron.
+         */
+        public void cancelar() {
+            cancelado.set(true);
+        }
+
+        private CompletableFuture<String> enviar(String contraseniaPlana) {
+            if (cancelado.get() || ejecutor.isShutdown()) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Encriptación cancelada"));
+            }
+            long encolada = System.nanoTime();
+            try {
+                return CompletableFuture.supplyAsync(() -> {
+                    espera.record(System.nanoTime() - encolada, TimeUnit.NANOSECONDS);
+                    return encriptaciones.record(() -> passwordEncoder.encode(contraseniaPlana));
+                }, ejecutor);
+            } catch (RejectedExecutionException e) {
+                return CompletableFuture.runAsync(() -> { },
+                        CompletableFuture.delayedExecutor(PAUSA_FONDO_MS, TimeUnit.MILLISECONDS))
+                    .thenCompose(ignorado -> enviar(contraseniaPlana));
+            }
+        }
+    }
+
+    /**
+     * Rechazar de inmediato si la cola de BCrypt ya está llena.
+     * Permite cortar una petición antes de hacer trabajo previo (p. ej. consultar el usuario).
+     *
+     * @throws EncriptacionSaturadaException si la cola de BCrypt está llena
+     */
+    public void verificarCapacidad() {
+        if (ejecutor.getQueue().remainingCapacity() == 0) {
+            rechazos.increment();
+            throw new EncriptacionSaturadaException(segundosReintento);
+        }
+    }
+
+    /**
+     * Ejecutar la operación en el pool de BCrypt y esperar su resultado.
+     */
+    private <T> T ejecutar(Supplier<T> operacion, Timer duracion) {
+        long encolada = System.nanoTime();
+        Future<T> resultado;
+        try {
+            resultado = ejecutor.submit(() -> {
+                espera.record(System.nanoTime() - encolada, TimeUnit.NANOSECONDS);
+                return duracion.record(operacion);
+            });
+        } catch (RejectedExecutionException e) {
+            rechazos.increment();
+            throw new EncriptacionSaturadaException(segundosReintento);
+        }
+
+        try {
+            return resultado.get();
+        } catch (InterruptedException e) {
+            resultado.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrumpido mientras se procesaba la contraseña", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new RuntimeException("Error al procesar la contraseña", e.getCause());
+        }
     }
 }
@@ -0,0 +1,122 @@
+package sv.medicit.app.Utilidades;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice en memoria de los horarios ocupados de cada médico.
+ * Por médico guarda un mapa ordenado fecha/hora de inicio → ID de la cita; todas las citas duran
+ * lo mismo, así que basta mirar la cita anterior y la siguiente para saber si un horario choca
+ * (O(log n) sobre las citas del médico). Seguro entre hilos, salvo quitarAnteriores, que no debe
+ * correr a la vez que registrar (AgendaService lo ejecuta con todos los candados tomados).
+ */
+public final class IndiceAgenda {
+
+    /**
+     * Posición de una cita dentro del índice.
+     */
+    private record Ocupacion(Integer idMedico, LocalDateTime fechaHora) {
+    }
+
+    private final Duration duracion;
+
+    private final Map<Integer, ConcurrentSkipListMap<LocalDateTime, Integer>> porMedico = new ConcurrentHashMap<>();
+
+    // ID de cita → posición, para mover o quitar una cita sin recorrer el índice
+    private final Map<Integer, Ocupacion> porCita = new ConcurrentHashMap<>();
+
+    public IndiceAgenda(Duration duracion) {
+        this.duracion = duracion;
+    }
+
+    public Duration getDuracion() {
+        return duracion;
+    }
+
+    /**
+     * Registrar (o mover) una cita en el horario del médico.
+     */
+    public void registrar(Integer idCita, Integer idMedico, LocalDateTime fechaHora) {
+        quitar(idCita);
+        porMedico.computeIfAbsent(idMedico, id -> new ConcurrentSkipListMap<>()).put(fechaHora, idCita);
+        porCita.put(idCita, new Ocupacion(idMedico, fechaHora));
+    }
+
+    /**
+     * Quitar una cita del índice; no hace nada si no estaba registrada.
+     */
+    public void quitar(Integer idCita) {
+        Ocupacion ocupacion = porCita.remove(idCita);
+        if (ocupacion != null) {
+            ConcurrentSkipListMap<LocalDateTime, Integer> horario = porMedico.get(ocupacion.idMedico());
+            if (horario != null) {
+                // Solo si la entrada sigue siendo de esta cita
+                horario.remove(ocupacion.fechaHora(), idCita);
+            }
+        }
+    }
+
+    /**
+     * Obtener el médico de una cita registrada.
+     *
+     * @return El ID del médico, o null si la cita no está en el índice
+     */
+    public Integer obtenerMedico(Integer idCita) {
+        Ocupacion ocupacion = porCita.get(idCita);
+        return ocupacion != null ? ocupacion.idMedico() : null;
+    }
+
+    /**
+     * Buscar una cita del médico que se cruce con el intervalo [fechaHora, fechaHora + duración).
+     *
+     * @param idCitaExcluida Cita que se está moviendo y no cuenta como conflicto (null al crear)
+     * @return El ID de la cita en conflicto, o vacío si el horario está libre
+     */
+    public Optional<Integer> buscarConflicto(Integer idMedico, LocalDateTime fechaHora, Integer idCitaExcluida) {
+        ConcurrentSkipListMap<LocalDateTime, Integer> horario = porMedico.get(idMedico);
+        if (horario == null) {
+            return Optional.empty();
+        }
+        // Cualquier cita que empiece en (fechaHora - duración, fechaHora + duración) se cruza
+        ConcurrentNavigableMap<LocalDateTime, Integer> cercanas =
+            horario.subMap(fechaHora.minus(duracion), false, fechaHora.plus(duracion), false);
+        for (Integer idCita : cercanas.values()) {
+            if (!idCita.equals(idCitaExcluida)) {
+                return Optional.of(idCita);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Quitar las citas que empiezan antes de un límite y los médicos que se quedan sin citas.
+     *
+     * @return Cantidad de citas quitadas
+     */
+    public int quitarAnteriores(LocalDateTime limite) {
+        int quitadas = 0;
+        for (ConcurrentSkipListMap<LocalDateTime, Integer> horario : porMedico.values()) {
+            Iterator<Integer> anteriores = horario.headMap(limite).values().iterator();
+            while (anteriores.hasNext()) {
+                porCita.remove(anteriores.next());
+                anteriores.remove();
+                quitadas++;
+            }
+        }
+        porMedico.values().removeIf(Map::isEmpty);
+        return quitadas;
+    }
+
+    /**
+     * Cantidad de citas registradas.
+     */
+    public int tamanio() {
+        return porCita.size();
+    }
+}
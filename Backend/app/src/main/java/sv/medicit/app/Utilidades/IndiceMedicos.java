@@ -0,0 +1,139 @@
+package sv.medicit.app.Utilidades;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+/**
+ * Índice en memoria especialidad → médicos.
+ * Por especialidad guarda un mapa ordenado por nombre normalizado (minúsculas, sin tildes), con una
+ * entrada "nombres apellidos" y otra "apellidos nombres" por médico: buscar por prefijo de cualquiera
+ * de los dos es un recorrido de rango, sin JOIN con Usuario_especialidad. Seguro entre hilos;
+ * las escrituras se serializan y las lecturas no bloquean.
+ */
+public final class IndiceMedicos {
+
+    /**
+     * Datos de un médico en el índice.
+     */
+    public record Medico(Integer idUsuario, String nombres, String apellidos, String estado,
+                         Set<Integer> especialidades) {
+    }
+
+    // Separa el nombre del ID en la clave para que dos médicos con el mismo nombre no se pisen
+    private static final char SEPARADOR = '\u0000';
+
+    private final Map<Integer, Medico> porId = new ConcurrentHashMap<>();
+
+    private final Map<Integer, ConcurrentSkipListMap<String, Medico>> porEspecialidad = new ConcurrentHashMap<>();
+
+    /**
+     * Registrar o reemplazar un médico en todas sus especialidades.
+     */
+    public synchronized void registrar(Medico medico) {
+        quitar(medico.idUsuario());
+        porId.put(medico.idUsuario(), medico);
+        for (Integer idEspecialidad : medico.especialidades()) {
+            ConcurrentSkipListMap<String, Medico> medicos =
+                porEspecialidad.computeIfAbsent(idEspecialidad, id -> new ConcurrentSkipListMap<>());
+            for (String clave : claves(medico)) {
+                medicos.put(clave, medico);
+            }
+        }
+    }
+
+    /**
+     * Quitar un médico de todas sus especialidades; no hace nada si no estaba registrado.
+     */
+    public synchronized void quitar(Integer idUsuario) {
+        Medico anterior = porId.remove(idUsuario);
+        if (anterior == null) {
+            return;
+        }
+        for (Integer idEspecialidad : anterior.especialidades()) {
+            ConcurrentSkipListMap<String, Medico> medicos = porEspecialidad.get(idEspecialidad);
+            if (medicos != null) {
+                for (String clave : claves(anterior)) {
+                    medicos.remove(clave);
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtener un médico registrado por su ID.
+     */
+    public Optional<Medico> obtener(Integer idUsuario) {
+        return Optional.ofNullable(porId.get(idUsuario));
+    }
+
+    /**
+     * Buscar los médicos de una especialidad, en orden alfabético.
+     *
+     * @param prefijo Inicio de "nombres apellidos" o de "apellidos nombres" (sin distinguir mayúsculas ni tildes); null = todos
+     * @param filtro Condición adicional (p. ej. solo activos)
+     * @param limite Cantidad máxima de médicos devueltos
+     */
+    public List<Medico> buscar(Integer idEspecialidad, String prefijo, Predicate<Medico> filtro, int limite) {
+        ConcurrentSkipListMap<String, Medico> medicos = porEspecialidad.get(idEspecialidad);
+        if (medicos == null) {
+            return List.of();
+        }
+        NavigableMap<String, Medico> rango = medicos;
+        if (prefijo != null && !prefijo.isBlank()) {
+            String inicio = normalizar(prefijo);
+            rango = medicos.subMap(inicio, true, inicio + Character.MAX_VALUE, false);
+        }
+        // Cada médico tiene dos claves: quedarse con la primera aparición
+        Map<Integer, Medico> encontrados = new LinkedHashMap<>();
+        for (Medico medico : rango.values()) {
+            if (encontrados.size() >= limite) {
+                break;
+            }
+            if (!encontrados.containsKey(medico.idUsuario()) && filtro.test(medico)) {
+                encontrados.put(medico.idUsuario(), medico);
+            }
+        }
+        return new ArrayList<>(encontrados.values());
+    }
+
+    /**
+     * Vaciar el índice (antes de una recarga completa).
+     */
+    public synchronized void limpiar() {
+        porId.clear();
+        porEspecialidad.clear();
+    }
+
+    /**
+     * Cantidad de médicos registrados.
+     */
+    public int tamanio() {
+        return porId.size();
+    }
+
+    private static List<String> claves(Medico medico) {
+        String nombres = medico.nombres() != null ? medico.nombres() : "";
+        String apellidos = medico.apellidos() != null ? medico.apellidos() : "";
+        return List.of(
+            normalizar(nombres + " " + apellidos) + SEPARADOR + medico.idUsuario(),
+            normalizar(apellidos + " " + nombres) + SEPARADOR + medico.idUsuario());
+    }
+
+    /**
+     * Minúsculas, sin tildes y con espacios simples: "  José  Álvarez" → "jose alvarez".
+     */
+    static String normalizar(String texto) {
+        String sinTildes = Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return sinTildes.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+    }
+}
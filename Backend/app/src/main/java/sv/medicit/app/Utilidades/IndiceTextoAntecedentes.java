@@ -0,0 +1,196 @@
+package sv.medicit.app.Utilidades;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria para la búsqueda de texto en antecedentes.
+ * Por término guarda los antecedentes que lo contienen con su frecuencia; los términos salen de
+ * AnalizadorEspanol. Los resultados se ordenan por BM25 (frecuencia del término, rareza en el total
+ * de antecedentes y largo del texto). Las búsquedas comparten el candado de lectura; altas, cambios
+ * y bajas toman el de escritura.
+ */
+public final class IndiceTextoAntecedentes {
+
+    // Parámetros habituales de BM25: saturación de la frecuencia y peso del largo del documento
+    private static final double K1 = 1.2;
+
+    private static final double B = 0.75;
+
+    /**
+     * Resultado de una búsqueda.
+     */
+    public record Coincidencia(Integer idAntecedente, Integer idUsuario, double puntaje) {
+    }
+
+    /**
+     * Datos de un antecedente indexado; terminos guarda cada término una vez, para quitarlo después.
+     */
+    private record Documento(Integer idUsuario, int largo, Set<String> terminos) {
+    }
+
+    private final Map<String, Map<Integer, Integer>> publicaciones = new HashMap<>();
+
+    private final Map<Integer, Documento> documentos = new HashMap<>();
+
+    private long largoTotal;
+
+    private final ReadWriteLock candado = new ReentrantReadWriteLock();
+
+    /**
+     * Indexar (o reindexar) un antecedente.
+     */
+    public void indexar(Integer idAntecedente, Integer idUsuario, String... textos) {
+        Map<String, Integer> frecuencias = new HashMap<>();
+        int largo = 0;
+        for (String texto : textos) {
+            for (String termino : AnalizadorEspanol.analizar(texto)) {
+                frecuencias.merge(termino, 1, Integer::sum);
+                largo++;
+            }
+        }
+
+        candado.writeLock().lock();
+        try {
+            quitarSinCandado(idAntecedente);
+            frecuencias.forEach((termino, frecuencia) ->
+                publicaciones.computeIfAbsent(termino, t -> new HashMap<>()).put(idAntecedente, frecuencia));
+            documentos.put(idAntecedente, new Documento(idUsuario, largo, Set.copyOf(frecuencias.keySet())));
+            largoTotal += largo;
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quitar un antecedente del índice; no hace nada si no estaba indexado.
+     */
+    public void quitar(Integer idAntecedente) {
+        candado.writeLock().lock();
+        try {
+            quitarSinCandado(idAntecedente);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    private void quitarSinCandado(Integer idAntecedente) {
+        Documento anterior = documentos.remove(idAntecedente);
+        if (anterior == null) {
+            return;
+        }
+        largoTotal -= anterior.largo();
+        for (String termino : anterior.terminos()) {
+            Map<Integer, Integer> lista = publicaciones.get(termino);
+            if (lista != null) {
+                lista.remove(idAntecedente);
+                if (lista.isEmpty()) {
+                    publicaciones.remove(termino);
+                }
+            }
+        }
+    }
+
+    /**
+     * Buscar antecedentes que contengan alguno de los términos de la consulta, de mayor a menor puntaje.
+     * Los que contienen más términos (o términos más raros) quedan primero.
+     *
+     * @param idUsuario Limitar a los antecedentes de un paciente (opcional)
+     * @param cantidad Cantidad máxima de resultados (desde el primero)
+     */
+    public List<Coincidencia> buscar(String consulta, Integer idUsuario, int cantidad) {
+        // Cada término cuenta una vez aunque se repita en la consulta
+        Set<String> terminos = new LinkedHashSet<>(AnalizadorEspanol.analizar(consulta));
+        if (terminos.isEmpty() || cantidad <= 0) {
+            return List.of();
+        }
+
+        candado.readLock().lock();
+        try {
+            int total = documentos.size();
+            if (total == 0) {
+                return List.of();
+            }
+            double largoPromedio = (double) largoTotal / total;
+            Map<Integer, Double> puntajes = new HashMap<>();
+            for (String termino : terminos) {
+                Map<Integer, Integer> lista = publicaciones.get(termino);
+                if (lista == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (total - lista.size() + 0.5) / (lista.size() + 0.5));
+                for (Map.Entry<Integer, Integer> entrada : lista.entrySet()) {
+                    Documento documento = documentos.get(entrada.getKey());
+                    if (idUsuario != null && !idUsuario.equals(documento.idUsuario())) {
+                        continue;
+                    }
+                    int frecuencia = entrada.getValue();
+                    double normalizacion = K1 * (1 - B + B * documento.largo() / largoPromedio);
+                    puntajes.merge(entrada.getKey(), idf * frecuencia * (K1 + 1) / (frecuencia + normalizacion), Double::sum);
+                }
+            }
+
+            // Quedarse con los "cantidad" mejores sin ordenar todos los candidatos
+            Comparator<Coincidencia> orden = Comparator.comparingDouble(Coincidencia::puntaje)
+                .thenComparing(Coincidencia::idAntecedente, Comparator.reverseOrder());
+            PriorityQueue<Coincidencia> mejores = new PriorityQueue<>(orden);
+            puntajes.forEach((idAntecedente, puntaje) -> {
+                mejores.add(new Coincidencia(idAntecedente, documentos.get(idAntecedente).idUsuario(), puntaje));
+                if (mejores.size() > cantidad) {
+                    mejores.poll();
+                }
+            });
+            List<Coincidencia> resultado = new ArrayList<>(mejores);
+            resultado.sort(orden.reversed());
+            return resultado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vaciar el índice (antes de una recarga completa).
+     */
+    public void limpiar() {
+        candado.writeLock().lock();
+        try {
+            publicaciones.clear();
+            documentos.clear();
+            largoTotal = 0;
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cantidad de antecedentes indexados.
+     */
+    public int tamanio() {
+        candado.readLock().lock();
+        try {
+            return documentos.size();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cantidad de términos distintos.
+     */
+    public int terminos() {
+        candado.readLock().lock();
+        try {
+            return publicaciones.size();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+}
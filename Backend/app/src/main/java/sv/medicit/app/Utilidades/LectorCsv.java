@@ -0,0 +1,100 @@
+package sv.medicit.app.Utilidades;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector CSV en streaming (RFC 4180): campos entre comillas, comillas dobles escapadas ("")
+ * y saltos de línea dentro de comillas. Lee un registro a la vez sin cargar el archivo en memoria.
+ */
+public final class LectorCsv implements Closeable {
+
+    private final BufferedReader lector;
+
+    private final char separador;
+
+    private boolean inicio = true;
+
+    public LectorCsv(Reader lector) {
+        this(lector, ',');
+    }
+
+    public LectorCsv(Reader lector, char separador) {
+        this.lector = lector instanceof BufferedReader br ? br : new BufferedReader(lector);
+        this.separador = separador;
+    }
+
+    /**
+     * Leer el siguiente registro.
+     *
+     * @return Los campos del registro, o null al llegar al final
+     */
+    public List<String> siguiente() throws IOException {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        boolean leyoAlgo = false;
+
+        int c;
+        while ((c = lector.read()) != -1) {
+            // Ignorar la marca BOM al inicio del archivo
+            if (inicio) {
+                inicio = false;
+                if (c == '\uFEFF') {
+                    continue;
+                }
+            }
+            leyoAlgo = true;
+            char ch = (char) c;
+
+            if (entreComillas) {
+                if (ch == '"') {
+                    lector.mark(1);
+                    if (lector.read() == '"') {
+                        campo.append('"');
+                    } else {
+                        lector.reset();
+                        entreComillas = false;
+                    }
+                } else {
+                    campo.append(ch);
+                }
+            } else if (ch == '"') {
+                entreComillas = true;
+            } else if (ch == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (ch == '\n') {
+                campos.add(campo.toString());
+                return campos;
+            } else if (ch != '\r') {
+                campo.append(ch);
+            }
+        }
+
+        if (!leyoAlgo) {
+            return null;
+        }
+        if (entreComillas) {
+            throw new IllegalArgumentException("Campo entre comillas sin cerrar al final del archivo");
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    /**
+     * Indica si el registro no tiene contenido (línea vacía).
+     */
+    public static boolean esVacio(List<String> registro) {
+        return registro.size() == 1 && registro.get(0).isBlank();
+    }
+
+    @Override
+    public void close() throws IOException {
+        lector.close();
+    }
+}
@@ -0,0 +1,115 @@
+package sv.medicit.app.Utilidades;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import sv.medicit.app.DTOs.LoginResponseDTO.PermisosDTO;
+import sv.medicit.app.Entidades.Permisos;
+
+/**
+ * Matriz inmutable de permisos de un rol: módulo → acciones permitidas.
+ * Las acciones ver/crear/editar/eliminar/descargar se guardan empaquetadas en un byte por módulo,
+ * y los módulos en un arreglo ordenado para búsqueda binaria.
+ */
+public final class MatrizPermisos {
+
+    /**
+     * Acciones posibles sobre un módulo con su bit dentro del byte de permisos.
+     */
+    public enum Accion {
+        VER(1), CREAR(1 << 1), EDITAR(1 << 2), ELIMINAR(1 << 3), DESCARGAR(1 << 4);
+
+        private final int bit;
+
+        Accion(int bit) {
+            this.bit = bit;
+        }
+    }
+
+    private final String[] modulos;
+
+    private final byte[] acciones;
+
+    private final int huella;
+
+    private MatrizPermisos(String[] modulos, byte[] acciones) {
+        this.modulos = modulos;
+        this.acciones = acciones;
+        this.huella = 31 * Arrays.hashCode(modulos) + Arrays.hashCode(acciones);
+    }
+
+    /**
+     * Construir la matriz a partir de las filas de la tabla Permisos de un rol.
+     * Si un módulo aparece repetido se combinan sus acciones. Las filas sin módulo no otorgan
+     * nada y se ignoran (no deben impedir el login del rol).
+     */
+    public static MatrizPermisos desde(List<Permisos> permisos) {
+        String[] modulos = permisos.stream()
+            .map(Permisos::getModulo)
+            .filter(Objects::nonNull)
+            .distinct()
+            .sorted()
+            .toArray(String[]::new);
+        byte[] acciones = new byte[modulos.length];
+        for (Permisos permiso : permisos) {
+            if (permiso.getModulo() == null) {
+                continue;
+            }
+            int i = Arrays.binarySearch(modulos, permiso.getModulo());
+            acciones[i] |= (byte) empaquetar(permiso);
+        }
+        return new MatrizPermisos(modulos, acciones);
+    }
+
+    private static int empaquetar(Permisos permiso) {
+        int bits = 0;
+        if (Boolean.TRUE.equals(permiso.getVer())) bits |= Accion.VER.bit;
+        if (Boolean.TRUE.equals(permiso.getCrear())) bits |= Accion.CREAR.bit;
+        if (Boolean.TRUE.equals(permiso.getEditar())) bits |= Accion.EDITAR.bit;
+        if (Boolean.TRUE.equals(permiso.getEliminar())) bits |= Accion.ELIMINAR.bit;
+        if (Boolean.TRUE.equals(permiso.getDescargar())) bits |= Accion.DESCARGAR.bit;
+        return bits;
+    }
+
+    /**
+     * Verificar si el rol puede realizar una acción sobre un módulo.
+     */
+    public boolean permite(String modulo, Accion accion) {
+        if (modulo == null) {
+            return false;
+        }
+        int i = Arrays.binarySearch(modulos, modulo);
+        return i >= 0 && (acciones[i] & accion.bit) != 0;
+    }
+
+    /**
+     * Huella del contenido de la matriz: depende solo de los módulos y sus acciones, así que es la
+     * misma en todas las instancias y después de reiniciar. Va en los tokens de sesión para saber
+     * si los permisos del rol cambiaron desde que se emitieron.
+     */
+    public int huella() {
+        return huella;
+    }
+
+    /**
+     * Convertir la matriz al formato de permisos usado en la respuesta de login.
+     */
+    public Map<String, PermisosDTO> aMapaDTO() {
+        Map<String, PermisosDTO> mapa = new LinkedHashMap<>();
+        for (int i = 0; i < modulos.length; i++) {
+            byte bits = acciones[i];
+            mapa.put(modulos[i], new PermisosDTO(
+                (bits & Accion.VER.bit) != 0,
+                (bits & Accion.CREAR.bit) != 0,
+                (bits & Accion.EDITAR.bit) != 0,
+                (bits & Accion.ELIMINAR.bit) != 0,
+                (bits & Accion.DESCARGAR.bit) != 0
+            ));
+        }
+        return Collections.unmodifiableMap(mapa);
+    }
+}
@@ -0,0 +1,131 @@
+package sv.medicit.app.Utilidades;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.BaseStream;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.data.domain.Slice;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Mide todos los métodos públicos de los servicios y el tamaño de lo que devuelven los repositorios:
+ * - medicit.servicio: tiempo por clase, método y excepción (ninguna si terminó bien).
+ * - medicit.repositorio.filas: filas devueltas por repositorio y método (listas, páginas, Optional
+ *   o entidad); los conteos, Stream, void y las escrituras (save*, delete*) no se miden.
+ * El tiempo de los repositorios lo mide Spring Boot (spring.data.repository.invocations).
+ * Las llamadas de un servicio a sus propios métodos no pasan por el proxy y no se miden por separado.
+ */
+@Aspect
+public class MetricasInvocaciones {
+
+    private static final String SIN_EXCEPCION = "ninguna";
+
+    private final MeterRegistry registry;
+
+    // Timers de las llamadas sin excepción, para no armar el identificador del meter en cada llamada
+    private final Map<Method, Timer> timersServicios = new ConcurrentHashMap<>();
+
+    private final Map<Method, DistributionSummary> filasRepositorios = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, String> nombresRepositorios = new ConcurrentHashMap<>();
+
+    public MetricasInvocaciones(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("within(sv.medicit.app.Servicios..*) && execution(public * *(..))")
+    public Object medirServicio(ProceedingJoinPoint punto) throws Throwable {
+        Method metodo = ((MethodSignature) punto.getSignature()).getMethod();
+        long inicio = System.nanoTime();
+        try {
+            Object resultado = punto.proceed();
+            timersServicios.computeIfAbsent(metodo, m -> timerServicio(punto, SIN_EXCEPCION))
+                .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return resultado;
+        } catch (Throwable e) {
+            timerServicio(punto, e.getClass().getSimpleName())
+                .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object medirRepositorio(ProceedingJoinPoint punto) throws Throwable {
+        Object resultado = punto.proceed();
+        Method metodo = ((MethodSignature) punto.getSignature()).getMethod();
+        long filas = esEscritura(metodo) ? -1 : filas(resultado);
+        if (filas >= 0) {
+            filasRepositorios.computeIfAbsent(metodo, m -> DistributionSummary.builder("medicit.repositorio.filas")
+                    .description("Filas devueltas por método de repositorio")
+                    .baseUnit("filas")
+                    .tag("repositorio", nombreRepositorio(punto.getThis()))
+                    .tag("metodo", m.getName())
+                    .register(registry))
+                .record(filas);
+        }
+        return resultado;
+    }
+
+    private Timer timerServicio(ProceedingJoinPoint punto, String excepcion) {
+        return Timer.builder("medicit.servicio")
+            .description("Tiempo de los métodos públicos de los servicios")
+            .tag("clase", punto.getSignature().getDeclaringType().getSimpleName())
+            .tag("metodo", punto.getSignature().getName())
+            .tag("excepcion", excepcion)
+            .register(registry);
+    }
+
+    /**
+     * Nombre de la interfaz del repositorio (p. ej. CitasRepository), no del proxy ni de la interfaz
+     * de Spring Data que declara el método.
+     */
+    private String nombreRepositorio(Object proxy) {
+        return nombresRepositorios.computeIfAbsent(proxy.getClass(), clase -> {
+            for (Class<?> interfaz : AopProxyUtils.proxiedUserInterfaces(proxy)) {
+                if (interfaz.getPackageName().startsWith("sv.medicit.app")) {
+                    return interfaz.getSimpleName();
+                }
+            }
+            return clase.getSimpleName();
+        });
+    }
+
+    private static boolean esEscritura(Method metodo) {
+        return metodo.getName().startsWith("save") || metodo.getName().startsWith("delete");
+    }
+
+    /**
+     * Filas de un resultado; -1 si el tipo no representa filas leídas.
+     */
+    private static long filas(Object resultado) {
+        if (resultado == null) {
+            return 0;
+        }
+        if (resultado instanceof Collection<?> coleccion) {
+            return coleccion.size();
+        }
+        if (resultado instanceof Slice<?> pagina) {
+            return pagina.getNumberOfElements();
+        }
+        if (resultado instanceof Optional<?> opcional) {
+            return opcional.isPresent() ? 1 : 0;
+        }
+        if (resultado instanceof Number || resultado instanceof Boolean
+            || resultado instanceof BaseStream<?, ?>) {
+            return -1;
+        }
+        return 1;
+    }
+}
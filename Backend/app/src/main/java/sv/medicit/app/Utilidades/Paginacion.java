@@ -0,0 +1,78 @@
+package sv.medicit.app.Utilidades;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Utilidad para construir la paginación de los listados.
+ * Acota el tamaño de página en el servidor y valida los campos de ordenamiento
+ * contra la lista blanca de cada controlador.
+ */
+public final class Paginacion {
+
+    public static final int TAMANIO_POR_DEFECTO = 20;
+
+    public static final int TAMANIO_MAXIMO = 100;
+
+    private Paginacion() {
+    }
+
+    /**
+     * Crear un Pageable a partir de los parámetros de la petición.
+     * 
+     * @param pagina Número de página (base 0); si es null se usa la primera
+     * @param tamanio Tamaño solicitado; se acota entre 1 y TAMANIO_MAXIMO
+     * @param orden Lista de "campo" o "campo:asc" / "campo:desc"
+     * @param camposPermitidos Nombre público del campo → ruta de la propiedad en la entidad
+     * @param campoId Propiedad identificadora, se agrega como desempate para un orden estable
+     * @return El Pageable validado
+     */
+    public static Pageable crear(Integer pagina, Integer tamanio, List<String> orden,
+                                 Map<String, String> camposPermitidos, String campoId) {
+        if (pagina != null && pagina < 0) {
+            throw new IllegalArgumentException("La página no puede ser negativa");
+        }
+        int numeroPagina = pagina != null ? pagina : 0;
+        int tamanioPagina = acotarTamanio(tamanio);
+
+        List<Sort.Order> ordenes = new ArrayList<>();
+        boolean incluyeId = false;
+        if (orden != null) {
+            for (String criterio : orden) {
+                String[] partes = criterio.split(":");
+                String propiedad = camposPermitidos.get(partes[0].trim());
+                if (propiedad == null) {
+                    throw new IllegalArgumentException("No se permite ordenar por '" + partes[0].trim()
+                        + "'. Campos permitidos: " + camposPermitidos.keySet());
+                }
+                Sort.Direction direccion = Sort.Direction.ASC;
+                if (partes.length > 1) {
+                    direccion = Sort.Direction.fromOptionalString(partes[1].trim())
+                        .orElseThrow(() -> new IllegalArgumentException("Dirección de orden inválida: " + partes[1]));
+                }
+                ordenes.add(new Sort.Order(direccion, propiedad));
+                incluyeId |= propiedad.equals(campoId);
+            }
+        }
+        if (!incluyeId) {
+            ordenes.add(Sort.Order.asc(campoId));
+        }
+
+        return PageRequest.of(numeroPagina, tamanioPagina, Sort.by(ordenes));
+    }
+
+    /**
+     * Acotar el tamaño de página solicitado a los límites del servidor.
+     * 
+     * @param tamanio Tamaño solicitado; si es null se usa TAMANIO_POR_DEFECTO
+     * @return Un tamaño entre 1 y TAMANIO_MAXIMO
+     */
+    public static int acotarTamanio(Integer tamanio) {
+        return tamanio != null ? Math.max(1, Math.min(tamanio, TAMANIO_MAXIMO)) : TAMANIO_POR_DEFECTO;
+    }
+}
@@ -0,0 +1,63 @@
+package sv.medicit.app.Utilidades;
+
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rango [desde, hasta) de caracteres pedido con la cabecera HTTP Range en unidad "chars"
+ * (p. ej. "Range: chars=0-65535", "chars=1000-" o "chars=-500" para los últimos 500).
+ * Se usan caracteres y no bytes porque el texto se lee de la base de datos con SUBSTRING.
+ */
+public record RangoCaracteres(int desde, int hasta) {
+
+    public static final String UNIDAD = "chars";
+
+    private static final Pattern FORMATO = Pattern.compile("chars=(\\d*)-(\\d*)");
+
+    /**
+     * Interpretar la cabecera Range para un texto de "total" caracteres.
+     * Sin cabecera, con otra unidad o con varios rangos se devuelve vacío (se envía el texto completo,
+     * como indica HTTP para los rangos que no se soportan).
+     *
+     * @throws IllegalArgumentException Si el rango no se puede satisfacer (empieza después del final)
+     */
+    public static Optional<RangoCaracteres> interpretar(String cabecera, int total) {
+        if (cabecera == null) {
+            return Optional.empty();
+        }
+        Matcher partes = FORMATO.matcher(cabecera.trim());
+        if (!partes.matches() || (partes.group(1).isEmpty() && partes.group(2).isEmpty())) {
+            return Optional.empty();
+        }
+        try {
+            if (partes.group(1).isEmpty()) {
+                // Sufijo: los últimos N caracteres
+                long sufijo = Long.parseLong(partes.group(2));
+                if (sufijo == 0 || total == 0) {
+                    throw new IllegalArgumentException("Rango no satisfacible");
+                }
+                return Optional.of(new RangoCaracteres((int) Math.max(0, total - sufijo), total));
+            }
+            long desde = Long.parseLong(partes.group(1));
+            long ultimo = partes.group(2).isEmpty() ? total - 1 : Long.parseLong(partes.group(2));
+            if (ultimo < desde) {
+                return Optional.empty();
+            }
+            if (desde >= total) {
+                throw new IllegalArgumentException("Rango no satisfacible");
+            }
+            return Optional.of(new RangoCaracteres((int) desde, (int) Math.min(ultimo + 1, total)));
+        } catch (NumberFormatException e) {
+            // Números que no caben en un long: se ignora la cabecera
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Valor de la cabecera Content-Range de la respuesta parcial.
+     */
+    public String contentRange(int total) {
+        return UNIDAD + " " + desde + "-" + (hasta - 1) + "/" + total;
+    }
+}
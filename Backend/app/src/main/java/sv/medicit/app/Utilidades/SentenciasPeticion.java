@@ -0,0 +1,127 @@
+package sv.medicit.app.Utilidades;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara durante la petición HTTP en curso, el tiempo que
+ * tardan en ejecutarse y cuántas veces se repite cada una (la misma sentencia muchas veces en una
+ * petición suele ser un N+1: una relación LAZY cargada fila por fila).
+ * La petición abre el conteo con iniciar() y lo cierra con terminar() (ver ConfiguracionMetricas);
+ * fuera de una petición (tareas al arrancar, hilos en segundo plano) no se cuenta nada. Las respuestas
+ * en streaming escriben su cuerpo en un hilo asíncrono, que sigue con el contador de la petición con
+ * continuar().
+ * Las consultas hechas con JdbcTemplate no pasan por Hibernate y no se cuentan.
+ *
+ * Se registra como StatementInspector (una instancia para toda la aplicación) y como
+ * SessionEventListener (Hibernate crea una por sesión); ambas comparten el contador del hilo.
+ */
+public class SentenciasPeticion implements StatementInspector, SessionEventListener {
+
+    private static final ThreadLocal<Contador> ACTUAL = new ThreadLocal<>();
+
+    /**
+     * Sentencias de una petición; lo usa un hilo a la vez: el que atiende la petición y, en las
+     * respuestas en streaming, después el hilo asíncrono que escribe el cuerpo.
+     */
+    public static final class Contador {
+
+        private int sentencias;
+
+        private long tiempoNanos;
+
+        private long inicioEjecucion;
+
+        // Las sentencias llegan con parámetros (?), así que un N+1 repite exactamente el mismo texto
+        private final Map<String, Integer> repeticiones = new HashMap<>();
+
+        public int getSentencias() {
+            return sentencias;
+        }
+
+        public long getTiempoNanos() {
+            return tiempoNanos;
+        }
+
+        /**
+         * Obtener la sentencia que más se repitió (null si no hubo sentencias).
+         */
+        public Map.Entry<String, Integer> getMasRepetida() {
+            Map.Entry<String, Integer> masRepetida = null;
+            for (Map.Entry<String, Integer> sentencia : repeticiones.entrySet()) {
+                if (masRepetida == null || sentencia.getValue() > masRepetida.getValue()) {
+                    masRepetida = sentencia;
+                }
+            }
+            return masRepetida;
+        }
+    }
+
+    /**
+     * Empezar a contar las sentencias del hilo actual.
+     */
+    public static Contador iniciar() {
+        Contador contador = new Contador();
+        ACTUAL.set(contador);
+        return contador;
+    }
+
+    /**
+     * Seguir contando en el hilo actual con el contador de una petición que empezó en otro hilo.
+     */
+    public static void continuar(Contador contador) {
+        ACTUAL.set(contador);
+    }
+
+    public static void terminar() {
+        ACTUAL.remove();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Contador contador = ACTUAL.get();
+        if (contador != null) {
+            contador.sentencias++;
+            contador.repeticiones.merge(sql, 1, Integer::sum);
+        }
+        return sql;
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        iniciarEjecucion();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        terminarEjecucion();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        iniciarEjecucion();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        terminarEjecucion();
+    }
+
+    private static void iniciarEjecucion() {
+        Contador contador = ACTUAL.get();
+        if (contador != null) {
+            contador.inicioEjecucion = System.nanoTime();
+        }
+    }
+
+    private static void terminarEjecucion() {
+        Contador contador = ACTUAL.get();
+        if (contador != null && contador.inicioEjecucion != 0) {
+            contador.tiempoNanos += System.nanoTime() - contador.inicioEjecucion;
+            contador.inicioEjecucion = 0;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package sv.medicit.app.Utilidades;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Convierte un texto al formato de CompresionTexto al guardarlo y lo recupera al leerlo,
+ * de forma transparente para la entidad.
+ */
+@Converter
+public class TextoComprimidoConverter implements AttributeConverter<String, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(String texto) {
+        return texto != null ? CompresionTexto.comprimir(texto) : null;
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] datos) {
+        return datos != null ? CompresionTexto.descomprimir(datos) : null;
+    }
+}
@@ -0,0 +1,143 @@
+package sv.medicit.app.Utilidades;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Utilidad para emitir y validar tokens de sesión firmados con HMAC-SHA256.
+ * El token lleva el ID del usuario, el ID del rol, la versión de sesión del usuario, la huella de
+ * los permisos del rol, el inicio de la sesión (hora del login) y la fecha de expiración.
+ * Todo sale de la base de datos y de la clave configurada, así que un token sigue siendo válido
+ * después de reiniciar y en cualquier instancia con la misma clave.
+ * Al renovarlo se conserva el inicio: ninguna sesión dura más que medicit.sesion.duracion-maxima.
+ *
+ * Formato: base64url("idUsuario:idRol:versionSesion:huellaPermisos:inicio:expira") + "." + base64url(firma),
+ * con inicio y expira en segundos desde epoch.
+ */
+@Component
+public class TokenSesionUtil {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenSesionUtil.class);
+
+    private static final String ALGORITMO = "HmacSHA256";
+
+    private static final Base64.Encoder CODIFICADOR = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODIFICADOR = Base64.getUrlDecoder();
+
+    // Clave en Base64 (mínimo 32 bytes); vacía = clave aleatoria que se pierde al reiniciar
+    @Value("${medicit.sesion.clave:}")
+    private String claveConfigurada;
+
+    @Value("${medicit.sesion.duracion:8h}")
+    private Duration duracion;
+
+    // Edad máxima de una sesión desde el login, aunque se siga renovando
+    @Value("${medicit.sesion.duracion-maxima:7d}")
+    private Duration duracionMaxima;
+
+    // Mac ya inicializado con la clave; se clona en cada uso porque Mac no es seguro entre hilos
+    private Mac macBase;
+
+    /**
+     * Datos contenidos en un token válido.
+     */
+    public record Sesion(int idUsuario, int idRol, long versionSesion, int huellaPermisos, long inicio, long expira) {
+    }
+
+    @PostConstruct
+    void iniciar() throws GeneralSecurityException {
+        byte[] clave;
+        if (claveConfigurada == null || claveConfigurada.isBlank()) {
+            clave = new byte[32];
+            new SecureRandom().nextBytes(clave);
+            log.warn("medicit.sesion.clave no está configurada: se usa una clave aleatoria y los tokens de sesión " +
+                "dejan de valer al reiniciar y no sirven en otras instancias");
+        } else {
+            clave = Base64.getDecoder().decode(claveConfigurada.trim());
+        }
+        if (clave.length < 32) {
+            throw new IllegalStateException("medicit.sesion.clave debe tener al menos 32 bytes (en Base64)");
+        }
+        macBase = Mac.getInstance(ALGORITMO);
+        macBase.init(new SecretKeySpec(clave, ALGORITMO));
+    }
+
+    /**
+     * Emitir un token para el usuario. Expira después de medicit.sesion.duracion, pero nunca después
+     * de inicio + medicit.sesion.duracion-maxima.
+     *
+     * @param inicio Hora del login en segundos desde epoch (la del token anterior al renovar)
+     */
+    public String emitir(int idUsuario, int idRol, long versionSesion, int huellaPermisos, long inicio) {
+        long expira = Math.min(Instant.now().plus(duracion).getEpochSecond(), inicio + duracionMaxima.getSeconds());
+        String datos = CODIFICADOR.encodeToString((idUsuario + ":" + idRol + ":" + versionSesion + ":" +
+            huellaPermisos + ":" + inicio + ":" + expira).getBytes(StandardCharsets.US_ASCII));
+        return datos + "." + CODIFICADOR.encodeToString(firmar(datos));
+    }
+
+    /**
+     * Validar firma, expiración y edad máxima de un token.
+     *
+     * @param token El token, con o sin el prefijo "Bearer "
+     * @return Los datos de la sesión, o vacío si el token no es válido o expiró
+     */
+    public Optional<Sesion> validar(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        if (token.startsWith("Bearer ")) {
+            token = token.substring(7);
+        }
+        int separador = token.indexOf('.');
+        if (separador <= 0) {
+            return Optional.empty();
+        }
+        String datos = token.substring(0, separador);
+        try {
+            byte[] firma = DECODIFICADOR.decode(token.substring(separador + 1));
+            if (!MessageDigest.isEqual(firma, firmar(datos))) {
+                return Optional.empty();
+            }
+            String[] partes = new String(DECODIFICADOR.decode(datos), StandardCharsets.US_ASCII).split(":");
+            if (partes.length != 6) {
+                return Optional.empty();
+            }
+            Sesion sesion = new Sesion(Integer.parseInt(partes[0]), Integer.parseInt(partes[1]),
+                Long.parseLong(partes[2]), Integer.parseInt(partes[3]), Long.parseLong(partes[4]), Long.parseLong(partes[5]));
+            long ahora = Instant.now().getEpochSecond();
+            if (sesion.expira() < ahora || sesion.inicio() + duracionMaxima.getSeconds() < ahora) {
+                return Optional.empty();
+            }
+            return Optional.of(sesion);
+        } catch (IllegalArgumentException e) {
+            // Base64 o números mal formados
+            return Optional.empty();
+        }
+    }
+
+    private byte[] firmar(String datos) {
+        try {
+            Mac mac = (Mac) macBase.clone();
+            return mac.doFinal(datos.getBytes(StandardCharsets.US_ASCII));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("El proveedor de " + ALGORITMO + " no permite clonar Mac", e);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+-- Índices compuestos para recorrer las citas de un médico o paciente por fecha (paginación por cursor).
+-- InnoDB agrega la llave primaria (id_cita) al final de cada índice secundario,
+-- por lo que el orden (fecha_hora, id_cita) se resuelve sin ordenamiento adicional.
+CREATE INDEX idx_citas_medico_fecha ON Citas (medico_id, fecha_hora);
+CREATE INDEX idx_citas_paciente_fecha ON Citas (paciente_id, fecha_hora);
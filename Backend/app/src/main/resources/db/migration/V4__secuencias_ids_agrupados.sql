@@ -0,0 +1,17 @@
+-- Tabla de secuencias para los generadores de IDs agrupados (@TableGenerator, bloques de 50).
+-- Reemplaza AUTO_INCREMENT en las tablas del alta de usuarios para que Hibernate pueda
+-- agrupar los INSERT en lotes JDBC. Cada fila guarda el siguiente ID libre (optimizador pooled-lo).
+CREATE TABLE IF NOT EXISTS Secuencias (
+    nombre_secuencia VARCHAR(255) NOT NULL PRIMARY KEY,
+    siguiente_valor BIGINT
+);
+
+-- Continuar a partir de los IDs ya existentes (p. ej. los cargados por DATA_SEEDS.sql).
+INSERT INTO Secuencias (nombre_secuencia, siguiente_valor)
+SELECT 'Usuarios', COALESCE(MAX(id_usuario), 0) + 1 FROM Usuarios
+UNION ALL SELECT 'Contrasenias', COALESCE(MAX(id_contrasenia), 0) + 1 FROM Contrasenias
+UNION ALL SELECT 'Telefonos', COALESCE(MAX(id_telefono), 0) + 1 FROM Telefonos
+UNION ALL SELECT 'Correos', COALESCE(MAX(id_correo), 0) + 1 FROM Correos
+UNION ALL SELECT 'Preguntas', COALESCE(MAX(id_pregunta), 0) + 1 FROM Preguntas
+UNION ALL SELECT 'Respuestas', COALESCE(MAX(id_respuesta), 0) + 1 FROM Respuestas
+ON DUPLICATE KEY UPDATE siguiente_valor = GREATEST(siguiente_valor, VALUES(siguiente_valor));
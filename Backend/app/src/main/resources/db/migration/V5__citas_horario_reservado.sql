@@ -0,0 +1,17 @@
+-- Horario reservado de cada cita activa: igual a fecha_hora, o NULL si la cita está Cancelada o Rechazada.
+-- El índice único (medico_id, horario_reservado) impide dos citas activas del mismo médico a la misma hora
+-- aunque lleguen al mismo tiempo desde varias instancias; los NULL no cuentan para la unicidad.
+ALTER TABLE Citas ADD COLUMN horario_reservado DATETIME(6) NULL;
+
+-- Solo las citas activas reservan horario; si ya hay duplicados se conserva la de menor ID.
+UPDATE Citas c
+JOIN Estados e ON e.id_estado = c.id_estado
+LEFT JOIN Citas anterior ON anterior.medico_id = c.medico_id
+    AND anterior.fecha_hora = c.fecha_hora
+    AND anterior.id_cita < c.id_cita
+    AND anterior.id_estado NOT IN (SELECT id_estado FROM Estados WHERE estado IN ('Cancelada', 'Rechazada'))
+SET c.horario_reservado = c.fecha_hora
+WHERE e.estado NOT IN ('Cancelada', 'Rechazada')
+  AND anterior.id_cita IS NULL;
+
+CREATE UNIQUE INDEX uk_citas_medico_horario ON Citas (medico_id, horario_reservado);
@@ -0,0 +1,12 @@
+-- Resumen de cada antecedente para los listados: título (inicio del antecedente), vista previa
+-- (inicio de la descripción) y largo de la descripción en caracteres. La aplicación los calcula
+-- al guardar; los listados ya no leen las columnas LONGTEXT.
+ALTER TABLE Antecedentes
+    ADD COLUMN titulo VARCHAR(120) NULL,
+    ADD COLUMN vista_previa VARCHAR(200) NULL,
+    ADD COLUMN largo_descripcion INT NULL;
+
+UPDATE Antecedentes
+SET titulo = LEFT(antecedente, 120),
+    vista_previa = LEFT(descripcion, 200),
+    largo_descripcion = COALESCE(CHAR_LENGTH(descripcion), 0);
@@ -0,0 +1,16 @@
+-- Descripciones de antecedentes guardadas una sola vez por texto distinto, comprimidas.
+-- hash: SHA-256 del texto en hexadecimal; datos: primer byte 0 = texto UTF-8, 1 = deflate,
+-- 2 = bloques deflate con tabla de posiciones para leer tramos (ver CompresionTexto).
+CREATE TABLE IF NOT EXISTS Contenidos_antecedentes (
+    hash VARCHAR(64) NOT NULL PRIMARY KEY,
+    datos LONGBLOB NOT NULL
+);
+
+ALTER TABLE Antecedentes
+    ADD COLUMN descripcion_hash VARCHAR(64) NULL,
+    ADD CONSTRAINT fk_antecedentes_contenido FOREIGN KEY (descripcion_hash) REFERENCES Contenidos_antecedentes (hash);
+
+-- La aplicación pasa por lotes las descripciones de la columna anterior a Contenidos_antecedentes
+-- al arrancar (medicit.antecedentes.lote-migracion) y deja la columna en NULL.
+-- Cuando ya no queden filas con descripción, la columna se puede eliminar:
+-- ALTER TABLE Antecedentes DROP COLUMN descripcion;
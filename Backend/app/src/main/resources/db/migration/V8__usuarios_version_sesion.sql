@@ -0,0 +1,4 @@
+-- Versión de las sesiones de cada usuario: aumenta al cambiar su rol o su estado y los tokens
+-- emitidos con la versión anterior ya no se renuevan sin volver a leer al usuario.
+ALTER TABLE Usuarios
+    ADD COLUMN version_sesion BIGINT NOT NULL DEFAULT 0;
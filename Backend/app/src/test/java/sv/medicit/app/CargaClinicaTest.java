@@ -0,0 +1,390 @@
+package sv.medicit.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import jakarta.persistence.EntityManager;
+import sv.medicit.app.Entidades.Antecedentes;
+import sv.medicit.app.Entidades.Citas;
+import sv.medicit.app.Entidades.Contrasenias;
+import sv.medicit.app.Entidades.Correos;
+import sv.medicit.app.Entidades.Estados;
+import sv.medicit.app.Entidades.Roles;
+import sv.medicit.app.Entidades.Usuarios;
+import sv.medicit.app.Servicios.AgendaService;
+import sv.medicit.app.Servicios.BusquedaAntecedentesService;
+import sv.medicit.app.Servicios.EstadosService;
+import sv.medicit.app.Servicios.RolesService;
+import sv.medicit.app.Utilidades.EncriptacionUtil;
+
+/**
+ * Prueba de carga con la mezcla de tráfico de una clínica: login, reservar cita, citas de un médico,
+ * antecedentes de un paciente y catálogo de roles. Cada operación es una petición de la colección
+ * Documentacion/Medicit_API_Collection_v2.postman_collection.json (método, ruta y cuerpo) con los IDs
+ * cambiados por los de los datos generados.
+ *
+ * Modelo abierto: las peticiones llegan a tasa constante (carga.tasa por segundo) sin esperar a que
+ * terminen las anteriores, como usuarios independientes. La latencia se mide desde el momento en que
+ * la petición debía salir, así un servidor lento no reduce la carga que recibe ni esconde su espera.
+ * La secuencia de operaciones y sus parámetros sale de carga.semilla: dos ejecuciones con la misma
+ * semilla envían exactamente las mismas peticiones.
+ *
+ * Muestra por operación peticiones/s, p50, p90, p99, p99.9, máximo y errores (por código HTTP), y guarda
+ * la distribución HDR de cada una en target/carga-clinica/*.hgrm (HdrHistogram viene con Micrometer).
+ *
+ * No corre con "mvn test"; se ejecuta con: mvn test -Pcarga -Dtest=CargaClinicaTest
+ * Parámetros (-D): carga.tasa (200), carga.duracion (30s), carga.calentamiento (5s), carga.semilla (42),
+ * carga.pacientes (500), carga.medicos (50), carga.costo (costo BCrypt, 10),
+ * carga.mezcla (login=10,reservar=10,citas-medico=25,antecedentes=25,roles=30),
+ * carga.coleccion (ruta de la colección de Postman).
+ * Por defecto usa H2 en memoria; para MySQL pasar la conexión por -D como en CargaHilosVirtualesTest.
+ */
+@Tag("carga")
+class CargaClinicaTest {
+
+    private static final int TASA = Integer.getInteger("carga.tasa", 200);
+
+    private static final Duration DURACION = Duration.parse("PT" + System.getProperty("carga.duracion", "30s"));
+
+    private static final Duration CALENTAMIENTO = Duration.parse("PT" + System.getProperty("carga.calentamiento", "5s"));
+
+    private static final long SEMILLA = Long.getLong("carga.semilla", 42L);
+
+    private static final int PACIENTES = Integer.getInteger("carga.pacientes", 500);
+
+    private static final int MEDICOS = Integer.getInteger("carga.medicos", 50);
+
+    private static final String MEZCLA = System.getProperty("carga.mezcla",
+        "login=10,reservar=10,citas-medico=25,antecedentes=25,roles=30");
+
+    private static final Path COLECCION = Path.of(System.getProperty("carga.coleccion",
+        "../../Documentacion/Medicit_API_Collection_v2.postman_collection.json"));
+
+    private static final String CONTRASENIA = "password123";
+
+    // Nombre de cada operación → petición de la colección que la define
+    private static final Map<String, String> PETICIONES = Map.of(
+        "login", "Login - Obtener usuario con permisos",
+        "reservar", "Crear cita",
+        "citas-medico", "Obtener citas del médico",
+        "antecedentes", "Obtener antecedentes del usuario",
+        "roles", "Obtener todos los roles");
+
+    // Peticiones sin respuesta tras este tiempo cuentan como error
+    private static final Duration TIEMPO_MAXIMO = Duration.ofSeconds(30);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<Integer> idsPacientes = new ArrayList<>();
+
+    private final List<Integer> idsMedicos = new ArrayList<>();
+
+    private Integer idEstadoPendiente;
+
+    // Horarios de reserva: cada reserva toma el siguiente, así no hay choques entre ellas
+    private final AtomicLong siguienteHorario = new AtomicLong();
+
+    private LocalDateTime inicioReservas;
+
+    @Test
+    void mezclaClinicaATasaConstante() throws Exception {
+        Map<String, Plantilla> plantillas = cargarPlantillas();
+        List<String> operaciones = new ArrayList<>();
+        List<Integer> pesos = new ArrayList<>();
+        for (String parte : MEZCLA.split(",")) {
+            String[] nombrePeso = parte.split("=");
+            assertThat(plantillas).as("Operación desconocida en carga.mezcla").containsKey(nombrePeso[0].trim());
+            operaciones.add(nombrePeso[0].trim());
+            pesos.add(Integer.parseInt(nombrePeso[1].trim()));
+        }
+
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(AppApplication.class)
+                .profiles("test")
+                .run("--server.port=0", "--spring.jpa.show-sql=false",
+                    "--spring.jpa.properties.hibernate.generate_statistics=false",
+                    "--medicit.encriptacion.costo=" + System.getProperty("carga.costo", "10"))) {
+
+            prepararDatos(contexto);
+            int puerto = ((ServletWebServerApplicationContext) contexto).getWebServer().getPort();
+            String base = "http://localhost:" + puerto;
+            Random aleatorio = new Random(SEMILLA);
+
+            ejecutar(base, plantillas, operaciones, pesos, aleatorio, CALENTAMIENTO);
+            Medicion medicion = ejecutar(base, plantillas, operaciones, pesos, aleatorio, DURACION);
+
+            imprimir(medicion);
+            assertThat(medicion.resultados().values().stream().mapToLong(r -> r.latencias().getTotalCount()).sum())
+                .isPositive();
+        }
+    }
+
+    /**
+     * Enviar peticiones a tasa constante durante "duracion"; cada petición corre en su propio hilo virtual.
+     */
+    private Medicion ejecutar(String base, Map<String, Plantilla> plantillas, List<String> operaciones,
+                              List<Integer> pesos, Random aleatorio, Duration duracion) {
+        Map<String, Resultado> resultados = new LinkedHashMap<>();
+        operaciones.forEach(op -> resultados.put(op, new Resultado(
+            new ConcurrentHistogram(TIEMPO_MAXIMO.toNanos() / 1000, 3), new ConcurrentHashMap<>())));
+        int pesoTotal = pesos.stream().mapToInt(Integer::intValue).sum();
+        long intervalo = 1_000_000_000L / TASA;
+        long total = duracion.toNanos() / intervalo;
+
+        HttpClient cliente = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+        long inicio = System.nanoTime();
+        try (ExecutorService envios = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long n = 0; n < total; n++) {
+                // Parámetros elegidos en el hilo que programa: la secuencia depende solo de la semilla
+                String operacion = elegir(operaciones, pesos, pesoTotal, aleatorio);
+                HttpRequest peticion = plantillas.get(operacion).crear(base, this, aleatorio);
+                Resultado resultado = resultados.get(operacion);
+
+                long programada = inicio + n * intervalo;
+                long espera;
+                while ((espera = programada - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(espera);
+                }
+                envios.submit(() -> enviar(cliente, peticion, programada, resultado));
+            }
+        }
+        return new Medicion(resultados, (System.nanoTime() - inicio) / 1e9);
+    }
+
+    private static void enviar(HttpClient cliente, HttpRequest peticion, long programada, Resultado resultado) {
+        String error;
+        try {
+            int estado = cliente.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode();
+            error = estado < 400 ? null : String.valueOf(estado);
+        } catch (Exception e) {
+            error = e.getClass().getSimpleName();
+        }
+        long microsegundos = (System.nanoTime() - programada) / 1000;
+        if (error == null) {
+            resultado.latencias().recordValue(Math.min(microsegundos, resultado.latencias().getHighestTrackableValue()));
+        } else {
+            resultado.errores().computeIfAbsent(error, e -> new LongAdder()).increment();
+        }
+    }
+
+    private static String elegir(List<String> operaciones, List<Integer> pesos, int pesoTotal, Random aleatorio) {
+        int valor = aleatorio.nextInt(pesoTotal);
+        for (int i = 0; i < operaciones.size(); i++) {
+            valor -= pesos.get(i);
+            if (valor < 0) {
+                return operaciones.get(i);
+            }
+        }
+        return operaciones.get(operaciones.size() - 1);
+    }
+
+    private void imprimir(Medicion medicion) throws Exception {
+        double segundos = medicion.segundos();
+        File carpeta = new File("target/carga-clinica");
+        carpeta.mkdirs();
+
+        System.out.println();
+        System.out.printf("Tasa objetivo: %d peticiones/s, duración %s, semilla %d%n", TASA, DURACION, SEMILLA);
+        System.out.printf("%-14s %9s %9s %9s %9s %9s %9s %9s  %s%n",
+            "operación", "correctas", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "máx ms", "errores");
+        Histogram total = new Histogram(TIEMPO_MAXIMO.toNanos() / 1000, 3);
+        long erroresTotales = 0;
+        for (Map.Entry<String, Resultado> entrada : medicion.resultados().entrySet()) {
+            Resultado r = entrada.getValue();
+            total.add(r.latencias());
+            long errores = r.errores().values().stream().mapToLong(LongAdder::sum).sum();
+            erroresTotales += errores;
+            System.out.printf("%-14s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %d %s%n",
+                entrada.getKey(), r.latencias().getTotalCount(), r.latencias().getTotalCount() / segundos,
+                ms(r.latencias(), 50), ms(r.latencias(), 90), ms(r.latencias(), 99), ms(r.latencias(), 99.9),
+                r.latencias().getMaxValue() / 1000.0, errores, r.errores().isEmpty() ? "" : r.errores());
+            try (PrintStream salida = new PrintStream(new File(carpeta, entrada.getKey() + ".hgrm"))) {
+                r.latencias().outputPercentileDistribution(salida, 1000.0);
+            }
+        }
+        System.out.printf("%-14s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %d (%.2f%%)%n", "total",
+            total.getTotalCount(), total.getTotalCount() / segundos, ms(total, 50), ms(total, 90), ms(total, 99),
+            ms(total, 99.9), total.getMaxValue() / 1000.0, erroresTotales,
+            100.0 * erroresTotales / Math.max(1, erroresTotales + total.getTotalCount()));
+        System.out.println();
+    }
+
+    private static double ms(Histogram histograma, double percentil) {
+        return histograma.getValueAtPercentile(percentil) / 1000.0;
+    }
+
+    /**
+     * Leer de la colección de Postman las peticiones de cada operación.
+     */
+    private Map<String, Plantilla> cargarPlantillas() throws Exception {
+        JsonNode coleccion = objectMapper.readTree(Files.readString(COLECCION));
+        Map<String, JsonNode> porNombre = new LinkedHashMap<>();
+        buscarPeticiones(coleccion.path("item"), porNombre);
+
+        Map<String, Plantilla> plantillas = new LinkedHashMap<>();
+        PETICIONES.forEach((operacion, nombre) -> {
+            JsonNode peticion = porNombre.get(nombre);
+            assertThat(peticion).as("La colección no tiene la petición \"%s\"", nombre).isNotNull();
+            List<String> ruta = new ArrayList<>();
+            peticion.path("url").path("path").forEach(parte -> ruta.add(parte.asText()));
+            String cuerpo = peticion.path("body").path("raw").asText(null);
+            plantillas.put(operacion, new Plantilla(operacion, peticion.path("method").asText(), ruta, cuerpo));
+        });
+        return plantillas;
+    }
+
+    private static void buscarPeticiones(JsonNode items, Map<String, JsonNode> porNombre) {
+        for (JsonNode item : items) {
+            if (item.has("item")) {
+                buscarPeticiones(item.path("item"), porNombre);
+            } else {
+                porNombre.putIfAbsent(item.path("name").asText(), item.path("request"));
+            }
+        }
+    }
+
+    /**
+     * Petición de la colección; "crear" la completa con IDs de los datos generados.
+     */
+    private record Plantilla(String operacion, String metodo, List<String> ruta, String cuerpo) {
+
+        HttpRequest crear(String base, CargaClinicaTest carga, Random aleatorio) {
+            List<String> partes = new ArrayList<>(ruta);
+            String json = cuerpo;
+            try {
+                switch (operacion) {
+                    case "login" -> {
+                        ObjectNode nodo = (ObjectNode) carga.objectMapper.readTree(cuerpo);
+                        nodo.put("nombreUsuario", "pac" + aleatorio.nextInt(carga.idsPacientes.size()));
+                        json = carga.objectMapper.writeValueAsString(nodo);
+                    }
+                    case "reservar" -> {
+                        // La colección envía "estadoCita", que no es un campo de Citas; se agrega el estado
+                        ObjectNode nodo = (ObjectNode) carga.objectMapper.readTree(cuerpo);
+                        nodo.putObject("paciente").put("idUsuario", carga.idsPacientes.get(aleatorio.nextInt(carga.idsPacientes.size())));
+                        nodo.putObject("medico").put("idUsuario", carga.idsMedicos.get(aleatorio.nextInt(carga.idsMedicos.size())));
+                        nodo.putObject("estado").put("idEstado", carga.idEstadoPendiente);
+                        nodo.put("fechaHora", carga.inicioReservas.plusMinutes(30 * carga.siguienteHorario.getAndIncrement()).toString());
+                        json = carga.objectMapper.writeValueAsString(nodo);
+                    }
+                    case "citas-medico" -> partes.set(partes.size() - 1,
+                        String.valueOf(carga.idsMedicos.get(aleatorio.nextInt(carga.idsMedicos.size()))));
+                    case "antecedentes" -> partes.set(partes.size() - 1,
+                        String.valueOf(carga.idsPacientes.get(aleatorio.nextInt(carga.idsPacientes.size()))));
+                    default -> {
+                    }
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException("Cuerpo inválido en la colección para " + operacion, e);
+            }
+            HttpRequest.Builder peticion = HttpRequest.newBuilder(URI.create(base + "/" + String.join("/", partes)))
+                .timeout(TIEMPO_MAXIMO);
+            if (json != null) {
+                peticion.header("Content-Type", "application/json")
+                    .method(metodo, HttpRequest.BodyPublishers.ofString(json));
+            } else {
+                peticion.method(metodo, HttpRequest.BodyPublishers.noBody());
+            }
+            return peticion.build();
+        }
+    }
+
+    /**
+     * Latencias de las peticiones correctas (microsegundos) y errores por código HTTP o excepción.
+     */
+    private record Resultado(Histogram latencias, Map<String, LongAdder> errores) {
+    }
+
+    private record Medicion(Map<String, Resultado> resultados, double segundos) {
+    }
+
+    /**
+     * Crear pacientes con contraseña, correo y antecedentes, y médicos con algunas citas.
+     * Todos comparten la misma contraseña (un solo hash BCrypt al preparar).
+     */
+    private void prepararDatos(ConfigurableApplicationContext contexto) {
+        String hash = contexto.getBean(EncriptacionUtil.class).encriptarContrasenia(CONTRASENIA);
+        TransactionTemplate transaccion = contexto.getBean(TransactionTemplate.class);
+        inicioReservas = LocalDateTime.now().plusYears(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
+
+        transaccion.executeWithoutResult(estado -> {
+            EntityManager em = contexto.getBean(EntityManager.class);
+            Roles paciente = new Roles(null, "Paciente", "Paciente", null, null);
+            Roles medico = new Roles(null, "Medico", "Médico", null, null);
+            Estados activo = new Estados(null, "Activo", "Activo", null, null);
+            Estados pendiente = new Estados(null, "Pendiente", "Pendiente", null, null);
+            List.of(paciente, medico, activo, pendiente).forEach(em::persist);
+            idEstadoPendiente = pendiente.getIdEstado();
+
+            List<Usuarios> medicos = new ArrayList<>();
+            for (int i = 0; i < MEDICOS; i++) {
+                Usuarios usuario = new Usuarios(null, "med" + i, "Médico" + i, "Apellido" + i, null, new Date(),
+                    medico, activo, new ArrayList<>(), null, null);
+                em.persist(usuario);
+                medicos.add(usuario);
+                idsMedicos.add(usuario.getIdUsuario());
+            }
+            LocalDateTime inicio = LocalDateTime.now().plusDays(1).withNano(0);
+            for (int i = 0; i < PACIENTES; i++) {
+                Usuarios usuario = new Usuarios(null, "pac" + i, "Paciente" + i, "Apellido" + i, null, new Date(),
+                    paciente, activo, new ArrayList<>(), null, null);
+                em.persist(usuario);
+                em.persist(new Correos(null, usuario, "pac" + i + "@medicit.test"));
+                em.persist(new Contrasenias(null, usuario, hash));
+                em.persist(new Antecedentes(null, usuario, "Alergia a la penicilina",
+                    "Reacción cutánea leve en la infancia. Sin episodios recientes."));
+                em.persist(new Antecedentes(null, usuario, "Hipertensión arterial",
+                    "En tratamiento con enalapril 10 mg cada 12 horas."));
+                em.persist(new Citas(null, usuario, medicos.get(i % MEDICOS), inicio.plusMinutes(30L * i),
+                    "Control", pendiente));
+                idsPacientes.add(usuario.getIdUsuario());
+                if (i % 100 == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+        });
+        // Los datos se guardaron sin pasar por los servicios: recargar catálogos e índices en memoria
+        contexto.getBean(RolesService.class).precargarCache();
+        contexto.getBean(EstadosService.class).precargarCache();
+        contexto.getBean(AgendaService.class).recargar();
+        contexto.getBean(BusquedaAntecedentesService.class).recargar();
+    }
+}
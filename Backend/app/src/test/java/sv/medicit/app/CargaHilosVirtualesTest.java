@@ -0,0 +1,246 @@
+package sv.medicit.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import sv.medicit.app.Entidades.Citas;
+import sv.medicit.app.Entidades.Estados;
+import sv.medicit.app.Entidades.Roles;
+import sv.medicit.app.Entidades.Usuarios;
+
+/**
+ * Prueba de carga: hilos del sistema (modelo actual) contra hilos virtuales (perfil "virtual").
+ * Levanta la aplicación dos veces en un puerto aleatorio, lanza la misma carga de lectura con muchos
+ * clientes concurrentes y muestra peticiones por segundo, p50 y p99 de cada modo.
+ * Falla si algún modo responde con error o si alguna petición se quedó sin conexión: con hilos
+ * virtuales la cola de HikariCP debe absorber la carga dentro de su connection-timeout.
+ *
+ * No corre con "mvn test"; se ejecuta con: mvn test -Pcarga
+ * Parámetros (-D): carga.clientes (400), carga.duracion (20s), carga.calentamiento (5s),
+ * carga.rutas (/api/citas?tamanio=20,/api/usuarios?tamanio=20).
+ * Por defecto usa H2 en memoria, donde casi no hay espera de E/S; para medir la espera real de
+ * MySQL pasar spring.datasource.url, username, password, driver-class-name y
+ * spring.jpa.properties.hibernate.dialect por -D.
+ */
+@Tag("carga")
+class CargaHilosVirtualesTest {
+
+    private static final int CLIENTES = Integer.getInteger("carga.clientes", 400);
+
+    private static final Duration DURACION = Duration.parse("PT" + System.getProperty("carga.duracion", "20s"));
+
+    private static final Duration CALENTAMIENTO = Duration.parse("PT" + System.getProperty("carga.calentamiento", "5s"));
+
+    private static final List<String> RUTAS = List.of(
+        System.getProperty("carga.rutas", "/api/citas?tamanio=20,/api/usuarios?tamanio=20").split(","));
+
+    private static final int TOTAL_USUARIOS = 200;
+
+    private static final int TOTAL_CITAS = 2000;
+
+    @Test
+    void compararHilosDelSistemaConHilosVirtuales() throws Exception {
+        Resultado sistema = medir("hilos del sistema", "test");
+        Resultado virtuales = medir("hilos virtuales", "test", "virtual");
+
+        System.out.println();
+        System.out.printf("%-18s %10s %10s %10s %10s %8s%n", "modo", "peticiones", "req/s", "p50 ms", "p99 ms", "errores");
+        for (Resultado r : List.of(sistema, virtuales)) {
+            System.out.printf("%-18s %10d %10.1f %10.2f %10.2f %8d%n",
+                r.modo(), r.peticiones(), r.porSegundo(), r.percentil(0.50), r.percentil(0.99), r.errores());
+        }
+        System.out.println();
+
+        for (Resultado r : List.of(sistema, virtuales)) {
+            assertThat(r.peticiones()).as(r.modo()).isPositive();
+            assertThat(r.errores()).as(r.modo()).isZero();
+            assertThat(r.esperasAgotadas()).as(r.modo()).isZero();
+        }
+    }
+
+    private Resultado medir(String modo, String... perfiles) throws Exception {
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(AppApplication.class)
+                .profiles(perfiles)
+                .properties("server.port=0", "spring.jpa.show-sql=false")
+                .run()) {
+
+            if (List.of(perfiles).contains("virtual")) {
+                assertThat(contexto.getBean(DataSource.class).unwrap(HikariDataSource.class).getConnectionTimeout())
+                    .isEqualTo(2000);
+            }
+            prepararDatos(contexto);
+
+            int puerto = ((ServletWebServerApplicationContext) contexto).getWebServer().getPort();
+            String base = "http://localhost:" + puerto;
+
+            ejecutarCarga(base, CALENTAMIENTO, modo);
+            double agotadasAntes = esperasAgotadas(contexto);
+            Resultado resultado = ejecutarCarga(base, DURACION, modo);
+            return resultado.conEsperasAgotadas((long) (esperasAgotadas(contexto) - agotadasAntes));
+        }
+    }
+
+    /**
+     * Solicitudes de conexión que superaron el connection-timeout de HikariCP.
+     */
+    private double esperasAgotadas(ConfigurableApplicationContext contexto) {
+        return contexto.getBean(MeterRegistry.class).find("hikaricp.connections.timeout").counters().stream()
+            .mapToDouble(c -> c.count())
+            .sum();
+    }
+
+    /**
+     * Carga cerrada: cada cliente repite peticiones (rotando RUTAS) hasta que termina el tiempo.
+     */
+    private Resultado ejecutarCarga(String base, Duration duracion, String modo) throws Exception {
+        HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        AtomicBoolean detener = new AtomicBoolean(false);
+        List<Future<long[]>> tareas = new ArrayList<>();
+
+        long inicio = System.nanoTime();
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTES; i++) {
+                int desplazamiento = i;
+                tareas.add(clientes.submit(() -> {
+                    List<Long> latencias = new ArrayList<>();
+                    long errores = 0;
+                    for (int n = desplazamiento; !detener.get(); n++) {
+                        HttpRequest peticion = HttpRequest.newBuilder(URI.create(base + RUTAS.get(n % RUTAS.size())))
+                            .timeout(Duration.ofSeconds(30))
+                            .GET()
+                            .build();
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.discarding());
+                            if (respuesta.statusCode() != 200) {
+                                errores++;
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errores++;
+                            continue;
+                        }
+                        latencias.add(System.nanoTime() - t0);
+                    }
+                    // La última posición guarda la cantidad de errores del cliente
+                    long[] resultado = new long[latencias.size() + 1];
+                    for (int k = 0; k < latencias.size(); k++) {
+                        resultado[k] = latencias.get(k);
+                    }
+                    resultado[latencias.size()] = errores;
+                    return resultado;
+                }));
+            }
+            Thread.sleep(duracion.toMillis());
+            detener.set(true);
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        List<long[]> porCliente = new ArrayList<>();
+        long errores = 0;
+        int total = 0;
+        for (Future<long[]> tarea : tareas) {
+            long[] r = tarea.get();
+            errores += r[r.length - 1];
+            total += r.length - 1;
+            porCliente.add(r);
+        }
+        long[] latencias = new long[total];
+        int posicion = 0;
+        for (long[] r : porCliente) {
+            System.arraycopy(r, 0, latencias, posicion, r.length - 1);
+            posicion += r.length - 1;
+        }
+        Arrays.sort(latencias);
+        return new Resultado(modo, latencias, errores, segundos, 0);
+    }
+
+    /**
+     * Crear usuarios y citas si la base de datos está vacía.
+     */
+    private void prepararDatos(ConfigurableApplicationContext contexto) {
+        EntityManager entityManager = contexto.getBean(EntityManagerFactory.class).createEntityManager();
+        TransactionTemplate transaccion = contexto.getBean(TransactionTemplate.class);
+        try {
+            Long citas = entityManager.createQuery("SELECT COUNT(c) FROM Citas c", Long.class).getSingleResult();
+            if (citas > 0) {
+                return;
+            }
+        } finally {
+            entityManager.close();
+        }
+
+        transaccion.executeWithoutResult(estado -> {
+            EntityManager em = contexto.getBean(EntityManager.class);
+            Roles paciente = new Roles(null, "Paciente", "Paciente", null, null);
+            Roles medico = new Roles(null, "Medico", "Médico", null, null);
+            Estados activo = new Estados(null, "Activo", "Activo", null, null);
+            Estados pendiente = new Estados(null, "Pendiente", "Pendiente", null, null);
+            List.of(paciente, medico, activo, pendiente).forEach(em::persist);
+
+            List<Usuarios> usuarios = new ArrayList<>();
+            for (int i = 0; i < TOTAL_USUARIOS; i++) {
+                Usuarios usuario = new Usuarios(null, "carga" + i, "Nombre" + i, "Apellido" + i, null, new Date(),
+                    i % 10 == 0 ? medico : paciente, activo, new ArrayList<>(), null, null);
+                em.persist(usuario);
+                usuarios.add(usuario);
+            }
+            LocalDateTime inicio = LocalDateTime.now().plusDays(1).withNano(0);
+            for (int i = 0; i < TOTAL_CITAS; i++) {
+                em.persist(new Citas(null, usuarios.get(i % TOTAL_USUARIOS), usuarios.get((i % 20) * 10),
+                    inicio.plusMinutes(30L * i), "Consulta " + i, pendiente));
+            }
+        });
+    }
+
+    private record Resultado(String modo, long[] latencias, long errores, double segundos, long esperasAgotadas) {
+
+        Resultado conEsperasAgotadas(long total) {
+            return new Resultado(modo, latencias, errores, segundos, total);
+        }
+
+        int peticiones() {
+            return latencias.length;
+        }
+
+        double porSegundo() {
+            return latencias.length / segundos;
+        }
+
+        double percentil(double p) {
+            if (latencias.length == 0) {
+                return 0;
+            }
+            int indice = (int) Math.ceil(p * latencias.length) - 1;
+            return latencias[Math.max(indice, 0)] / 1e6;
+        }
+    }
+}
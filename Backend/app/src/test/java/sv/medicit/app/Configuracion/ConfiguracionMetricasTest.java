@@ -0,0 +1,103 @@
+package sv.medicit.app.Configuracion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import sv.medicit.app.Utilidades.SentenciasPeticion;
+
+/**
+ * Verifica el presupuesto SQL por petición: una petición que lo pasa se cuenta en
+ * medicit.peticion.presupuesto.excedido con el motivo (repeticiones, sentencias o tiempo) y su
+ * ruta; una petición dentro del presupuesto no se cuenta.
+ */
+class ConfiguracionMetricasTest {
+
+    private static final int MAXIMO_SENTENCIAS = 5;
+
+    private static final int MAXIMO_REPETICIONES = 2;
+
+    private static final String RUTA = "/api/citas/{id}";
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private final SentenciasPeticion sentencias = new SentenciasPeticion();
+
+    private final OncePerRequestFilter filtro = new ConfiguracionMetricas().filtroSentenciasPeticion(
+        registry, MAXIMO_SENTENCIAS, MAXIMO_REPETICIONES, Duration.ofMillis(1));
+
+    @Test
+    void laMismaSentenciaRepetidaSeCuentaComoRepeticiones() throws Exception {
+        atender((peticion, respuesta) -> {
+            for (int i = 0; i <= MAXIMO_REPETICIONES; i++) {
+                sentencias.inspect("select * from Usuarios where id_usuario=?");
+            }
+        });
+
+        assertThat(excedidas("repeticiones")).isEqualTo(1);
+        assertThat(excedidas("sentencias")).isZero();
+        assertThat(excedidas("tiempo")).isZero();
+    }
+
+    @Test
+    void demasiadasSentenciasDistintasSeCuentanComoSentencias() throws Exception {
+        atender((peticion, respuesta) -> {
+            for (int i = 0; i <= MAXIMO_SENTENCIAS; i++) {
+                sentencias.inspect("select * from Tabla" + i);
+            }
+        });
+
+        assertThat(excedidas("sentencias")).isEqualTo(1);
+        assertThat(excedidas("repeticiones")).isZero();
+        assertThat(excedidas("tiempo")).isZero();
+    }
+
+    @Test
+    void unaSentenciaLentaSeCuentaComoTiempo() throws Exception {
+        atender((peticion, respuesta) -> {
+            sentencias.inspect("select * from Citas");
+            sentencias.jdbcExecuteStatementStart();
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sentencias.jdbcExecuteStatementEnd();
+        });
+
+        assertThat(excedidas("tiempo")).isEqualTo(1);
+        assertThat(excedidas("repeticiones")).isZero();
+        assertThat(excedidas("sentencias")).isZero();
+    }
+
+    @Test
+    void unaPeticionDentroDelPresupuestoNoSeCuenta() throws Exception {
+        atender((peticion, respuesta) -> {
+            sentencias.inspect("select * from Usuarios where id_usuario=?");
+            sentencias.inspect("select * from Citas where paciente_id=?");
+        });
+
+        assertThat(registry.find("medicit.peticion.presupuesto.excedido").counters()).isEmpty();
+        assertThat(registry.get("medicit.peticion.sentencias").tag("ruta", RUTA).summary().totalAmount())
+            .isEqualTo(2);
+    }
+
+    private void atender(FilterChain cadena) throws Exception {
+        MockHttpServletRequest peticion = new MockHttpServletRequest("GET", "/api/citas/7");
+        peticion.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RUTA);
+        filtro.doFilter(peticion, new MockHttpServletResponse(), cadena);
+    }
+
+    private double excedidas(String motivo) {
+        return registry.counter("medicit.peticion.presupuesto.excedido", "motivo", motivo, "ruta", RUTA).count();
+    }
+}
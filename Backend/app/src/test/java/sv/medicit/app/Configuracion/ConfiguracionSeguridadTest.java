@@ -0,0 +1,69 @@
+package sv.medicit.app.Configuracion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+/**
+ * Verifica el codificador de contraseñas: la calibración del costo de BCrypt y cuándo un hash
+ * guardado debe volver a encriptarse (otro costo, otro algoritmo o sin prefijo).
+ */
+class ConfiguracionSeguridadTest {
+
+    private static final int COSTO = 5;
+
+    private final PasswordEncoder codificador =
+        new ConfiguracionSeguridad().passwordEncoder("bcrypt", COSTO, Duration.ofMillis(50), 10);
+
+    @Test
+    void laCalibracionRespetaLosLimites() {
+        assertThat(ConfiguracionSeguridad.calibrarCostoBCrypt(Duration.ofNanos(1), 4)).isEqualTo(4);
+        assertThat(ConfiguracionSeguridad.calibrarCostoBCrypt(Duration.ofNanos(1), 10)).isEqualTo(10);
+        assertThat(ConfiguracionSeguridad.calibrarCostoBCrypt(Duration.ofDays(365_000), 4)).isEqualTo(31);
+    }
+
+    @Test
+    void unObjetivoMayorDaUnCostoMayor() {
+        int costoCorto = ConfiguracionSeguridad.calibrarCostoBCrypt(Duration.ofMillis(10), 4);
+        int costoLargo = ConfiguracionSeguridad.calibrarCostoBCrypt(Duration.ofSeconds(1), 4);
+
+        // Cien veces más tiempo son unos 6,6 puntos de costo; se deja margen para el ruido de la medición
+        assertThat(costoLargo - costoCorto).isBetween(4, 9);
+    }
+
+    @Test
+    void soloElHashConElCostoYAlgoritmoConfiguradosNoSeActualiza() {
+        String actual = codificador.encode("secreta");
+
+        assertThat(actual).startsWith("{bcrypt}$2a$05$");
+        assertThat(codificador.upgradeEncoding(actual)).isFalse();
+        // Costo menor y también mayor: bajar el costo se aplica igual que subirlo
+        assertThat(codificador.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(4).encode("secreta"))).isTrue();
+        assertThat(codificador.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(6).encode("secreta"))).isTrue();
+        // Otro algoritmo o un hash anterior a los prefijos
+        assertThat(codificador.upgradeEncoding(
+            "{pbkdf2}" + Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8().encode("secreta"))).isTrue();
+        assertThat(codificador.upgradeEncoding(new BCryptPasswordEncoder(COSTO).encode("secreta"))).isTrue();
+    }
+
+    @Test
+    void losHashesSinPrefijoSeSiguenVerificando() {
+        String anterior = new BCryptPasswordEncoder(4).encode("secreta");
+
+        assertThat(codificador.matches("secreta", anterior)).isTrue();
+        assertThat(codificador.matches("otra", anterior)).isFalse();
+    }
+
+    @Test
+    void unAlgoritmoDesconocidoSeRechaza() {
+        assertThatThrownBy(() -> new ConfiguracionSeguridad().passwordEncoder("md5", COSTO, Duration.ofMillis(50), 10))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("md5");
+    }
+}
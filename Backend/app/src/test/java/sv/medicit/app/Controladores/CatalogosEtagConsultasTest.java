@@ -0,0 +1,91 @@
+package sv.medicit.app.Controladores;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import sv.medicit.app.Entidades.Roles;
+import sv.medicit.app.Servicios.RolesService;
+
+/**
+ * Verifica el ETag de los catálogos en memoria: 304 si el cliente ya tiene la versión actual,
+ * 200 con un ETag nuevo después de un cambio y 404 (no 304) para un ID que no existe.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class CatalogosEtagConsultasTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RolesService rolesService;
+
+    private Roles rol;
+
+    @BeforeEach
+    void prepararDatos() {
+        rol = rolesService.crear(new Roles(null, "Paciente", "Paciente", null, null));
+    }
+
+    @AfterTransaction
+    void recargarCache() {
+        rolesService.precargarCache();
+    }
+
+    @Test
+    void elMismoEtagResponde304() throws Exception {
+        String etag = mockMvc.perform(get("/api/roles"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("ETag"))
+            .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/roles").header("If-None-Match", etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", etag));
+        mockMvc.perform(get("/api/roles/" + rol.getIdRol()).header("If-None-Match", etag))
+            .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/roles/" + rol.getIdRol()).header("If-None-Match", "\"otra-version\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", etag));
+    }
+
+    @Test
+    void unCambioEnElCatalogoCambiaElEtag() throws Exception {
+        String etag = rolesService.obtenerEtag();
+
+        rolesService.crear(new Roles(null, "Medico", "Médico", null, null));
+
+        String nuevoEtag = mockMvc.perform(get("/api/roles").header("If-None-Match", etag))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader("ETag");
+        assertThat(nuevoEtag).isNotEqualTo(etag);
+    }
+
+    @Test
+    void unIdInexistenteResponde404AunqueElEtagCoincida() throws Exception {
+        mockMvc.perform(get("/api/roles/999999").header("If-None-Match", rolesService.obtenerEtag()))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/estados/999999").header("If-None-Match", "\"cualquiera\""))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void losParametrosInvalidosSeRechazanAunqueElEtagCoincida() throws Exception {
+        mockMvc.perform(get("/api/roles?orden=descripcion").header("If-None-Match", rolesService.obtenerEtag()))
+            .andExpect(status().isBadRequest());
+    }
+}
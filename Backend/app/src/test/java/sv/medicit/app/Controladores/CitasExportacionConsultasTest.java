@@ -0,0 +1,208 @@
+package sv.medicit.app.Controladores;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import sv.medicit.app.Entidades.Citas;
+import sv.medicit.app.Entidades.Estados;
+import sv.medicit.app.Entidades.Roles;
+import sv.medicit.app.Entidades.Usuarios;
+
+/**
+ * Verifica GET /api/citas/exportar: el arreglo JSON completo (más filas que las de cada envío al
+ * cliente), los filtros y el orden, leído con una sola consulta dentro de una sola transacción de
+ * solo lectura. La sentencia, que se ejecuta en el hilo asíncrono, se cuenta en las métricas de la
+ * petición.
+ * No es @Transactional: el cuerpo se escribe en otro hilo, que no vería datos sin confirmar.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CitasExportacionConsultasTest {
+
+    // Más que FILAS_POR_ENVIO de CitasService, para cruzar varios envíos
+    private static final int CITAS_MEDICO = 250;
+
+    private static final int CITAS_OTRO_MEDICO = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransaccionesIniciadas transacciones;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private final List<Object> creados = new ArrayList<>();
+
+    private Usuarios medico;
+
+    private Usuarios otroMedico;
+
+    /**
+     * Registra cada transacción nueva que inicia el administrador de transacciones.
+     */
+    static class TransaccionesIniciadas implements TransactionExecutionListener {
+
+        private final List<TransactionExecution> iniciadas = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void afterBegin(TransactionExecution transaccion, Throwable error) {
+            if (transaccion.isNewTransaction()) {
+                iniciadas.add(transaccion);
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class Configuracion {
+
+        @Bean
+        TransaccionesIniciadas transaccionesIniciadas() {
+            return new TransaccionesIniciadas();
+        }
+    }
+
+    @BeforeEach
+    void prepararDatos() {
+        transactionTemplate.executeWithoutResult(estado -> {
+            Roles rolPaciente = guardar(new Roles(null, "Paciente", "Paciente", null, null));
+            Roles rolMedico = guardar(new Roles(null, "Medico", "Médico", null, null));
+            Estados activo = guardar(new Estados(null, "Activo", "Activo", null, null));
+            Estados pendiente = guardar(new Estados(null, "Pendiente", "Pendiente", null, null));
+            Usuarios paciente = guardar(usuario("exp_paciente", rolPaciente, activo));
+            medico = guardar(usuario("exp_medico", rolMedico, activo));
+            otroMedico = guardar(usuario("exp_otro", rolMedico, activo));
+
+            // Fechas en orden inverso al de inserción: el orden de la respuesta debe venir de la consulta
+            LocalDateTime inicio = LocalDateTime.of(2030, 1, 7, 8, 0);
+            for (int i = 0; i < CITAS_MEDICO; i++) {
+                guardar(new Citas(null, paciente, medico, inicio.plusMinutes(30L * (CITAS_MEDICO - i)), "Consulta " + i, pendiente));
+            }
+            for (int i = 0; i < CITAS_OTRO_MEDICO; i++) {
+                guardar(new Citas(null, paciente, otroMedico, inicio.plusMinutes(30L * i), "Otra " + i, pendiente));
+            }
+        });
+    }
+
+    @AfterEach
+    void limpiar() {
+        // En orden inverso para respetar las llaves foráneas
+        transactionTemplate.executeWithoutResult(estado -> {
+            for (int i = creados.size() - 1; i >= 0; i--) {
+                entityManager.remove(entityManager.merge(creados.get(i)));
+            }
+        });
+    }
+
+    @Test
+    void exportaTodasLasCitasFiltradasEnOrdenConUnaSolaTransaccionDeLectura() throws Exception {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        transacciones.iniciadas.clear();
+        DistributionSummary sentencias = registry.summary("medicit.peticion.sentencias",
+            "metodo", "GET", "ruta", "/api/citas/exportar");
+        long peticionesAntes = sentencias.count();
+        double sentenciasAntes = sentencias.totalAmount();
+
+        MvcResult resultado = mockMvc.perform(get("/api/citas/exportar?idMedico=" + medico.getIdUsuario()))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String cuerpo = mockMvc.perform(asyncDispatch(resultado))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        JsonNode citas = objectMapper.readTree(cuerpo);
+        assertThat(citas.isArray()).isTrue();
+        assertThat(citas).hasSize(CITAS_MEDICO);
+        List<LocalDateTime> fechas = new ArrayList<>();
+        for (JsonNode cita : citas) {
+            assertThat(cita.get("idMedico").asInt()).isEqualTo(medico.getIdUsuario());
+            assertThat(cita.get("nombrePaciente").asText()).isNotBlank();
+            assertThat(cita.get("estadoCita").asText()).isEqualTo("Pendiente");
+            fechas.add(LocalDateTime.parse(cita.get("fechaHora").asText()));
+        }
+        assertThat(fechas).isSorted();
+
+        // Una consulta con proyección (sin cargar entidades) en una transacción de solo lectura
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(estadisticas.getEntityLoadCount()).isZero();
+        assertThat(transacciones.iniciadas).hasSize(1);
+        assertThat(transacciones.iniciadas.get(0).getTransactionName()).endsWith("CitasService.escribirCitas");
+        assertThat(transacciones.iniciadas.get(0).isReadOnly()).isTrue();
+
+        // Se registra una vez, al terminar el hilo asíncrono, con la consulta que hizo ese hilo
+        assertThat(sentencias.count()).isEqualTo(peticionesAntes + 1);
+        assertThat(sentencias.totalAmount()).isEqualTo(sentenciasAntes + 1);
+    }
+
+    @Test
+    void sinCoincidenciasDevuelveUnArregloVacio() throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/api/citas/exportar?idMedico=" + otroMedico.getIdUsuario()
+                + "&desde=2031-01-01T00:00:00"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        String cuerpo = mockMvc.perform(asyncDispatch(resultado))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        assertThat(cuerpo).isEqualTo("[]");
+    }
+
+    private <T> T guardar(T entidad) {
+        entityManager.persist(entidad);
+        creados.add(entidad);
+        return entidad;
+    }
+
+    private static Usuarios usuario(String nombreUsuario, Roles rol, Estados estado) {
+        return new Usuarios(null, nombreUsuario, "Nombre", "Apellido", null, new Date(), rol, estado,
+            new ArrayList<>(), null, null);
+    }
+}
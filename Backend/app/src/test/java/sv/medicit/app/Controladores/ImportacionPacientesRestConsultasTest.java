@@ -0,0 +1,119 @@
+package sv.medicit.app.Controladores;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import sv.medicit.app.Entidades.Estados;
+import sv.medicit.app.Entidades.Roles;
+import sv.medicit.app.Servicios.EstadosService;
+import sv.medicit.app.Servicios.RolesService;
+
+/**
+ * Verifica las respuestas de POST /api/usuarios/importar: el flujo NDJSON de eventos cuando la
+ * importación termina, un ErrorResponse (sin eventos) cuando falta el rol Paciente y 415 cuando
+ * la petición no indica el formato del cuerpo.
+ * No es @Transactional: cada lote confirma su propia transacción, como en producción.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ImportacionPacientesRestConsultasTest {
+
+    private static final String CSV =
+        "nombreUsuario,nombres,apellidos,dui,fechaNacimiento,contrasenia,telefono,correo,pregunta1,respuesta1\n" +
+        "impc_ana,Ana,Pérez,,1990-01-01,secreta,7000-0000,impc_ana@medicit.sv,¿Mascota?,Fido\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RolesService rolesService;
+
+    @Autowired
+    private EstadosService estadosService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Integer idRol;
+
+    private Integer idEstado;
+
+    @AfterEach
+    void limpiar() {
+        String usuarios = "SELECT id_usuario FROM Usuarios WHERE nombre_usuario = 'impc_ana'";
+        for (String tabla : List.of("Respuestas", "Correos", "Telefonos", "Contrasenias")) {
+            jdbcTemplate.update("DELETE FROM " + tabla + " WHERE usuario_id IN (" + usuarios + ")");
+        }
+        jdbcTemplate.update("DELETE FROM Preguntas WHERE creado_por = 'impc_ana'");
+        jdbcTemplate.update("DELETE FROM Usuarios WHERE nombre_usuario = 'impc_ana'");
+        if (idRol != null) {
+            jdbcTemplate.update("DELETE FROM Roles WHERE id_rol = ?", idRol);
+            jdbcTemplate.update("DELETE FROM Estados WHERE id_estado = ?", idEstado);
+            rolesService.precargarCache();
+            estadosService.precargarCache();
+        }
+    }
+
+    @Test
+    void laImportacionRespondeUnEventoPorLoteYElResumen() throws Exception {
+        idRol = rolesService.crear(new Roles(null, "Paciente", "Paciente", null, null)).getIdRol();
+        idEstado = estadosService.crear(new Estados(null, "Activo", "Activo", null, null)).getIdEstado();
+
+        String cuerpo = mockMvc.perform(post("/api/usuarios/importar")
+                .contentType("text/csv; charset=UTF-8")
+                .content(CSV.getBytes(StandardCharsets.UTF_8)))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+            .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lineas = cuerpo.strip().split("\n");
+        JsonNode resumen = objectMapper.readTree(lineas[lineas.length - 1]);
+        assertThat(resumen.get("tipo").asText()).isEqualTo("resumen");
+        assertThat(resumen.get("importadas").asInt()).isEqualTo(1);
+        assertThat(resumen.get("fallidas").asInt()).isZero();
+    }
+
+    @Test
+    void sinElRolPacienteRespondeUnErrorAntesDeEmpezarElFlujo() throws Exception {
+        mockMvc.perform(post("/api/usuarios/importar")
+                .contentType("text/csv")
+                .content(CSV.getBytes(StandardCharsets.UTF_8)))
+            .andExpect(status().isInternalServerError())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$.tipo").value("Error"))
+            .andExpect(jsonPath("$.mensaje").value("Rol 'Paciente' no encontrado en la base de datos"));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM Usuarios WHERE nombre_usuario = 'impc_ana'",
+            Long.class)).isZero();
+    }
+
+    @Test
+    void sinContentTypeSeRechazaComoFormatoNoAdmitido() throws Exception {
+        mockMvc.perform(post("/api/usuarios/importar")
+                .content(CSV.getBytes(StandardCharsets.UTF_8)))
+            .andExpect(status().isUnsupportedMediaType());
+    }
+}
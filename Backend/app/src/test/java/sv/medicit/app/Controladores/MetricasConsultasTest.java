@@ -0,0 +1,130 @@
+package sv.medicit.app.Controladores;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import sv.medicit.app.Entidades.Citas;
+import sv.medicit.app.Entidades.Estados;
+import sv.medicit.app.Entidades.Roles;
+import sv.medicit.app.Entidades.Usuarios;
+import sv.medicit.app.Utilidades.SentenciasPeticion;
+
+/**
+ * Verifica la instrumentación: tiempos de servicios, filas de repositorios, sentencias SQL por
+ * petición (cantidad, tiempo y sentencia más repetida) y la exposición de todo en /actuator/prometheus.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class MetricasConsultasTest {
+
+    private static final int TOTAL_CITAS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private Usuarios paciente;
+
+    @BeforeEach
+    void prepararDatos() {
+        Roles rolPaciente = new Roles(null, "Paciente", "Paciente", null, null);
+        Roles rolMedico = new Roles(null, "Medico", "Médico", null, null);
+        Estados activo = new Estados(null, "Activo", "Activo", null, null);
+        Estados pendiente = new Estados(null, "Pendiente", "Pendiente", null, null);
+        entityManager.persist(rolPaciente);
+        entityManager.persist(rolMedico);
+        entityManager.persist(activo);
+        entityManager.persist(pendiente);
+        paciente = new Usuarios(null, "paciente", "Ana", "López", null, new Date(), rolPaciente, activo,
+            new ArrayList<>(), null, null);
+        Usuarios medico = new Usuarios(null, "medico", "José", "Pérez", null, new Date(), rolMedico, activo,
+            new ArrayList<>(), null, null);
+        entityManager.persist(paciente);
+        entityManager.persist(medico);
+        LocalDateTime inicio = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < TOTAL_CITAS; i++) {
+            entityManager.persist(new Citas(null, paciente, medico, inicio.plusHours(i), "Consulta " + i, pendiente));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void cadaPeticionRegistraSusSentenciasYTiempos() throws Exception {
+        mockMvc.perform(get("/api/citas/paciente/" + paciente.getIdUsuario())).andExpect(status().isOk());
+
+        DistributionSummary sentencias = registry.find("medicit.peticion.sentencias")
+            .tag("ruta", "/api/citas/paciente/{idPaciente}").tag("metodo", "GET").summary();
+        assertThat(sentencias).isNotNull();
+        assertThat(sentencias.count()).isPositive();
+        assertThat(sentencias.max()).isGreaterThanOrEqualTo(1);
+
+        Timer sql = registry.find("medicit.peticion.sql").tag("ruta", "/api/citas/paciente/{idPaciente}").timer();
+        assertThat(sql).isNotNull();
+        assertThat(sql.count()).isPositive();
+
+        Timer servicio = registry.find("medicit.servicio").tag("clase", "CitasService").tag("excepcion", "ninguna").timer();
+        assertThat(servicio).isNotNull();
+        assertThat(servicio.count()).isPositive();
+    }
+
+    @Test
+    void laSentenciaRepetidaSeIdentifica() {
+        SentenciasPeticion inspector = new SentenciasPeticion();
+        SentenciasPeticion.Contador contador = SentenciasPeticion.iniciar();
+        try {
+            inspector.inspect("select u.id_usuario from usuarios u where u.id_usuario=?");
+            for (int i = 0; i < 5; i++) {
+                inspector.inspect("select c.correo from correos c where c.usuario_id=?");
+            }
+        } finally {
+            SentenciasPeticion.terminar();
+        }
+        // Fuera de una petición no se cuenta
+        inspector.inspect("select 1");
+
+        assertThat(contador.getSentencias()).isEqualTo(6);
+        assertThat(contador.getMasRepetida().getKey()).isEqualTo("select c.correo from correos c where c.usuario_id=?");
+        assertThat(contador.getMasRepetida().getValue()).isEqualTo(5);
+    }
+
+    @Test
+    void prometheusExponeLasMetricasDeLaAplicacion() throws Exception {
+        mockMvc.perform(get("/api/citas/paciente/" + paciente.getIdUsuario())).andExpect(status().isOk());
+
+        String metricas = mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        assertThat(metricas)
+            .contains("medicit_servicio_seconds_bucket")
+            .contains("medicit_peticion_sentencias")
+            .contains("medicit_peticion_sql_seconds_bucket")
+            .contains("spring_data_repository_invocations_seconds_bucket")
+            .contains("hikaricp_connections");
+    }
+}
@@ -0,0 +1,184 @@
+package sv.medicit.app.Controladores;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import sv.medicit.app.Entidades.Citas;
+import sv.medicit.app.Entidades.Estados;
+import sv.medicit.app.Entidades.Roles;
+import sv.medicit.app.Entidades.Usuarios;
+import sv.medicit.app.Utilidades.Paginacion;
+
+/**
+ * Verifica los parámetros de paginación de los listados (página, tamaño, orden) y la paginación
+ * por cursor de las líneas de tiempo de citas: recorrer todas las páginas devuelve cada cita
+ * una sola vez y en orden, también cuando varias citas comparten la misma fecha y hora.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class PaginacionConsultasTest {
+
+    private static final int TOTAL_CITAS = 7;
+
+    private static final int TOTAL_PACIENTES = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Usuarios medico;
+
+    private final List<Citas> citas = new ArrayList<>();
+
+    @BeforeEach
+    void prepararDatos() {
+        Roles rolPaciente = new Roles(null, "Paciente", "Paciente", null, null);
+        Roles rolMedico = new Roles(null, "Medico", "Médico", null, null);
+        Estados activo = new Estados(null, "Activo", "Activo", null, null);
+        Estados pendiente = new Estados(null, "Pendiente", "Pendiente", null, null);
+        List.of(rolPaciente, rolMedico, activo, pendiente).forEach(entityManager::persist);
+
+        medico = crearUsuario("medico", rolMedico, activo);
+        List<Usuarios> pacientes = new ArrayList<>();
+        for (int i = 0; i < TOTAL_PACIENTES; i++) {
+            pacientes.add(crearUsuario("paciente" + i, rolPaciente, activo));
+        }
+
+        // Tres citas comparten la misma fecha y hora: el cursor debe desempatar por ID
+        LocalDateTime inicio = LocalDateTime.now().plusDays(1).withHour(8).withMinute(0).withSecond(0).withNano(0);
+        LocalDateTime[] fechas = {inicio.plusHours(3), inicio, inicio.plusHours(1), inicio.plusHours(1),
+            inicio.plusHours(1), inicio.plusHours(5), inicio.plusHours(2)};
+        for (int i = 0; i < TOTAL_CITAS; i++) {
+            Citas cita = new Citas(null, pacientes.get(i % TOTAL_PACIENTES), medico, fechas[i], "Consulta " + i, pendiente);
+            entityManager.persist(cita);
+            citas.add(cita);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void elCursorRecorreTodaLaLineaDeTiempoSinSaltosNiRepetidos() throws Exception {
+        List<Integer> recorridas = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            String url = "/api/citas/medico/" + medico.getIdUsuario() + "?tamanio=2"
+                + (cursor != null ? "&cursor=" + cursor : "");
+            JsonNode pagina = leer(url);
+            assertThat(pagina.get("contenido").size()).isLessThanOrEqualTo(2);
+            pagina.get("contenido").forEach(cita -> recorridas.add(cita.get("idCita").asInt()));
+            cursor = pagina.get("haySiguiente").asBoolean() ? pagina.get("siguienteCursor").asText() : null;
+            paginas++;
+        } while (cursor != null && paginas <= TOTAL_CITAS);
+
+        List<Integer> esperadas = citas.stream()
+            .sorted(Comparator.comparing(Citas::getFechaHora).thenComparing(Citas::getIdCita))
+            .map(Citas::getIdCita)
+            .toList();
+        assertThat(recorridas).containsExactlyElementsOf(esperadas);
+        assertThat(paginas).isEqualTo((TOTAL_CITAS + 1) / 2);
+    }
+
+    @Test
+    void elCursorRespetaLaFechaInicial() throws Exception {
+        LocalDateTime desde = citas.stream().map(Citas::getFechaHora).sorted().toList().get(1);
+        JsonNode pagina = leer("/api/citas/medico/" + medico.getIdUsuario() + "?tamanio=100&desde=" + desde);
+
+        long posteriores = citas.stream().filter(c -> !c.getFechaHora().isBefore(desde)).count();
+        assertThat(pagina.get("contenido").size()).isEqualTo((int) posteriores);
+        assertThat(pagina.get("haySiguiente").asBoolean()).isFalse();
+        assertThat(pagina.get("siguienteCursor").isNull()).isTrue();
+    }
+
+    @Test
+    void unCursorInvalidoSeRechaza() throws Exception {
+        mockMvc.perform(get("/api/citas/medico/" + medico.getIdUsuario() + "?cursor=no-es-un-cursor"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void lasPaginasPorNumeroNoSeSolapan() throws Exception {
+        List<Integer> recorridas = new ArrayList<>();
+        for (int numero = 0; numero < 3; numero++) {
+            JsonNode pagina = leer("/api/citas?tamanio=3&orden=fechaHora:desc&pagina=" + numero);
+            pagina.get("contenido").forEach(cita -> recorridas.add(cita.get("idCita").asInt()));
+            assertThat(pagina.get("haySiguiente").asBoolean()).isEqualTo(numero < 2);
+        }
+
+        // Orden pedido y el ID como desempate estable
+        List<Integer> esperadas = citas.stream()
+            .sorted(Comparator.comparing(Citas::getFechaHora).reversed().thenComparing(Citas::getIdCita))
+            .map(Citas::getIdCita)
+            .toList();
+        assertThat(recorridas).containsExactlyElementsOf(esperadas);
+    }
+
+    @Test
+    void elTamanioDePaginaSeAcota() throws Exception {
+        mockMvc.perform(get("/api/usuarios?tamanio=5000"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.tamanio").value(Paginacion.TAMANIO_MAXIMO));
+        mockMvc.perform(get("/api/usuarios?tamanio=0"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.tamanio").value(1));
+        mockMvc.perform(get("/api/usuarios"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.tamanio").value(Paginacion.TAMANIO_POR_DEFECTO));
+
+        JsonNode linea = leer("/api/citas/medico/" + medico.getIdUsuario() + "?tamanio=5000");
+        assertThat(linea.get("contenido").size()).isEqualTo(TOTAL_CITAS);
+    }
+
+    @Test
+    void losParametrosDeOrdenInvalidosSeRechazan() throws Exception {
+        // Campo fuera de la lista blanca (p. ej. una relación o un dato sensible)
+        mockMvc.perform(get("/api/usuarios?orden=contrasenia")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/citas?orden=paciente.nombres")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/citas?orden=fechaHora:arriba")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/citas?pagina=-1")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/usuarios?orden=apellidos:desc&orden=nombres")).andExpect(status().isOk());
+    }
+
+    private JsonNode leer(String url) throws Exception {
+        String cuerpo = mockMvc.perform(get(url))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(cuerpo);
+    }
+
+    private Usuarios crearUsuario(String nombreUsuario, Roles rol, Estados estado) {
+        Usuarios usuario = new Usuarios(null, nombreUsuario, "Nombre", "Apellido", null, new Date(),
+            rol, estado, new ArrayList<>(), null, null);
+        entityManager.persist(usuario);
+        return usuario;
+    }
+}
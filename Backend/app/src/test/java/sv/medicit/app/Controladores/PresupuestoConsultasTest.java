@@ -0,0 +1,190 @@
+package sv.medicit.app.Controladores;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import sv.medicit.app.Entidades.Antecedentes;
+import sv.medicit.app.Entidades.Citas;
+import sv.medicit.app.Entidades.Contrasenias;
+import sv.medicit.app.Entidades.Correos;
+import sv.medicit.app.Entidades.Especialidades;
+import sv.medicit.app.Entidades.Estados;
+import sv.medicit.app.Entidades.Permisos;
+import sv.medicit.app.Entidades.Preguntas;
+import sv.medicit.app.Entidades.Respuestas;
+import sv.medicit.app.Entidades.Roles;
+import sv.medicit.app.Entidades.Telefonos;
+import sv.medicit.app.Entidades.Usuarios;
+
+/**
+ * Presupuesto de consultas SQL por endpoint.
+ * Cada GET se ejecuta sobre datos con varios usuarios, citas y relaciones; si un endpoint
+ * supera su presupuesto (p. ej. por una relación LAZY que se carga fila por fila al serializar)
+ * la prueba falla. Al cambiar una consulta, ajustar el presupuesto solo si el aumento es intencional.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class PresupuestoConsultasTest {
+
+    private static final int TOTAL_PACIENTES = 6;
+
+    private static final int TOTAL_MEDICOS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    // IDs generados, para reemplazar {paciente}, {medico}, {cita}, ... en las URLs
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    /**
+     * Endpoint y cantidad máxima de sentencias SQL que puede ejecutar.
+     */
+    static Stream<Arguments> presupuestos() {
+        return Stream.of(
+            // Páginas de IDs + usuarios con rol, estado, especialidades y correo
+            Arguments.of("/api/usuarios", 2),
+            Arguments.of("/api/usuarios/{paciente}", 1),
+            // Listado de citas proyectado a CitaSimpleDTO en una consulta
+            Arguments.of("/api/citas", 1),
+            Arguments.of("/api/citas?idMedico={medico}", 1),
+            // Cita con paciente/médico/estado en una consulta + especialidades de ambos usuarios en lote
+            Arguments.of("/api/citas/{cita}", 2),
+            Arguments.of("/api/citas/paciente/{paciente}", 1),
+            Arguments.of("/api/citas/medico/{medico}", 1),
+            // Entidades hijas de Usuarios: fila + usuario (rol, estado) + especialidades en lote
+            Arguments.of("/api/correos", 2),
+            Arguments.of("/api/correos/{correo}", 2),
+            Arguments.of("/api/telefonos", 2),
+            Arguments.of("/api/contrasenias", 2),
+            Arguments.of("/api/contrasenias/usuario/{paciente}", 2),
+            Arguments.of("/api/respuestas", 2),
+            Arguments.of("/api/respuestas/usuario/{paciente}", 2),
+            Arguments.of("/api/antecedentes", 2),
+            Arguments.of("/api/antecedentes/usuario/{paciente}", 1),
+            Arguments.of("/api/permisos", 1),
+            Arguments.of("/api/permisos/rol/{rolPaciente}", 1),
+            Arguments.of("/api/preguntas", 1),
+            // Catálogos servidos desde memoria
+            Arguments.of("/api/roles", 0),
+            Arguments.of("/api/estados", 0),
+            Arguments.of("/api/especialidades", 0),
+            Arguments.of("/api/modulos", 0),
+            // Usuario, contraseña, correo y rol en una consulta + permisos del rol (si no están en caché)
+            Arguments.of("/api/auth/usuario/{paciente}", 2)
+        );
+    }
+
+    @BeforeEach
+    void prepararDatos() {
+        Roles rolPaciente = new Roles(null, "Paciente", "Paciente", null, null);
+        Roles rolMedico = new Roles(null, "Medico", "Médico", null, null);
+        Estados activo = new Estados(null, "Activo", "Activo", null, null);
+        Estados pendiente = new Estados(null, "Pendiente", "Pendiente", null, null);
+        Especialidades cardiologia = new Especialidades(null, "Cardiología", "Corazón", null);
+        Especialidades pediatria = new Especialidades(null, "Pediatría", "Niños", null);
+        Preguntas pregunta = new Preguntas(null, "¿Cuál es tu animal favorito?", LocalDateTime.now(), "sistema");
+        List.of(rolPaciente, rolMedico, activo, pendiente, cardiologia, pediatria, pregunta).forEach(entityManager::persist);
+
+        for (Roles rol : List.of(rolPaciente, rolMedico)) {
+            entityManager.persist(new Permisos(null, rol, "modulo_citas", true, true, false, false, false));
+            entityManager.persist(new Permisos(null, rol, "modulo_inicio", true, false, false, false, false));
+        }
+
+        List<Usuarios> medicos = new ArrayList<>();
+        for (int i = 0; i < TOTAL_MEDICOS; i++) {
+            medicos.add(crearUsuario("medico" + i, rolMedico, activo, List.of(cardiologia, pediatria), pregunta));
+        }
+        List<Usuarios> pacientes = new ArrayList<>();
+        for (int i = 0; i < TOTAL_PACIENTES; i++) {
+            Usuarios paciente = crearUsuario("paciente" + i, rolPaciente, activo, List.of(), pregunta);
+            entityManager.persist(new Antecedentes(null, paciente, "Alergia " + i, "Detalle " + i));
+            pacientes.add(paciente);
+        }
+
+        LocalDateTime inicio = LocalDateTime.now().plusDays(1).withNano(0);
+        Citas primeraCita = null;
+        for (int i = 0; i < TOTAL_PACIENTES * 2; i++) {
+            Citas cita = new Citas(null, pacientes.get(i % TOTAL_PACIENTES), medicos.get(i % TOTAL_MEDICOS),
+                inicio.plusHours(i), "Consulta " + i, pendiente);
+            entityManager.persist(cita);
+            if (primeraCita == null) {
+                primeraCita = cita;
+            }
+        }
+
+        entityManager.flush();
+
+        ids.put("paciente", pacientes.get(0).getIdUsuario());
+        ids.put("medico", medicos.get(0).getIdUsuario());
+        ids.put("cita", primeraCita.getIdCita());
+        ids.put("rolPaciente", rolPaciente.getIdRol());
+        ids.put("correo", entityManager.createQuery("SELECT MIN(c.idCorreo) FROM Correos c", Integer.class).getSingleResult());
+
+        // Las consultas del endpoint no deben beneficiarse de las entidades recién persistidas
+        entityManager.clear();
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    @ParameterizedTest(name = "GET {0} <= {1} consultas")
+    @MethodSource("presupuestos")
+    void endpointRespetaSuPresupuestoDeConsultas(String url, int presupuesto) throws Exception {
+        String urlResuelta = url;
+        for (Map.Entry<String, Integer> id : ids.entrySet()) {
+            urlResuelta = urlResuelta.replace("{" + id.getKey() + "}", String.valueOf(id.getValue()));
+        }
+
+        mockMvc.perform(get(urlResuelta)).andExpect(status().isOk());
+
+        assertThat(estadisticas.getPrepareStatementCount())
+            .as("Sentencias SQL ejecutadas por GET %s", urlResuelta)
+            .isLessThanOrEqualTo(presupuesto);
+    }
+
+    private Usuarios crearUsuario(String nombreUsuario, Roles rol, Estados estado,
+                                  List<Especialidades> especialidades, Preguntas pregunta) {
+        Usuarios usuario = new Usuarios(null, nombreUsuario, "Nombre", "Apellido", null, new Date(),
+            rol, estado, new ArrayList<>(especialidades), null, null);
+        entityManager.persist(usuario);
+        entityManager.persist(new Correos(null, usuario, nombreUsuario + "@medicit.sv"));
+        entityManager.persist(new Telefonos(null, usuario, "70000000"));
+        entityManager.persist(new Contrasenias(null, usuario, "$2a$10$hash"));
+        entityManager.persist(new Respuestas(null, usuario, pregunta, "Gato"));
+        return usuario;
+    }
+}
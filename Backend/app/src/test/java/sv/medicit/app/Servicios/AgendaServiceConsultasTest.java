@@ -0,0 +1,190 @@
+package sv.medicit.app.Servicios;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import sv.medicit.app.DTOs.DisponibilidadMedicoDTO;
+import sv.medicit.app.Entidades.Citas;
+import sv.medicit.app.Entidades.Especialidades;
+import sv.medicit.app.Entidades.Estados;
+import sv.medicit.app.Entidades.Roles;
+import sv.medicit.app.Entidades.Usuarios;
+import sv.medicit.app.Utilidades.ConflictoHorarioException;
+
+/**
+ * Verifica que la agenda rechace citas que se cruzan con otra del mismo médico, que las citas
+ * canceladas liberen el horario y que la disponibilidad se calcule desde los índices en memoria
+ * (citas y médicos por especialidad), sin consultar la base de datos.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class AgendaServiceConsultasTest {
+
+    // Bloques de 30 minutos entre 08:00 y 17:00
+    private static final int BLOQUES_POR_DIA = 18;
+
+    @Autowired
+    private AgendaService agendaService;
+
+    @Autowired
+    private CitasService citasService;
+
+    @Autowired
+    private DirectorioMedicosService directorioMedicosService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    private Usuarios paciente;
+
+    private Usuarios medico;
+
+    private Usuarios otroMedico;
+
+    private Estados activo;
+
+    private Estados cancelada;
+
+    private Integer idEspecialidad;
+
+    private LocalDate lunes;
+
+    @BeforeEach
+    void prepararDatos() {
+        Roles rolPaciente = new Roles(null, "Paciente", "Paciente", null, null);
+        Roles rolMedico = new Roles(null, "Medico", "Médico", null, null);
+        activo = new Estados(null, "Activo", "Activo", null, null);
+        cancelada = new Estados(null, "Cancelada", "Cancelada", null, null);
+        Especialidades cardiologia = new Especialidades(null, "Cardiología", "Corazón", null);
+        entityManager.persist(rolPaciente);
+        entityManager.persist(rolMedico);
+        entityManager.persist(activo);
+        entityManager.persist(cancelada);
+        entityManager.persist(cardiologia);
+
+        paciente = new Usuarios(null, "paciente", "Ana", "López", null, new Date(),
+            rolPaciente, activo, new ArrayList<>(), null, null);
+        medico = new Usuarios(null, "medico", "Juan", "Martínez", null, new Date(),
+            rolMedico, activo, new ArrayList<>(List.of(cardiologia)), null, null);
+        otroMedico = new Usuarios(null, "medico2", "Rosa", "Díaz", null, new Date(),
+            rolMedico, activo, new ArrayList<>(List.of(cardiologia)), null, null);
+        entityManager.persist(paciente);
+        entityManager.persist(medico);
+        entityManager.persist(otroMedico);
+        entityManager.flush();
+        directorioMedicosService.recargar();
+
+        idEspecialidad = cardiologia.getIdEspecialidad();
+        lunes = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    /**
+     * Los datos de la prueba se deshacen con la transacción; volver a cargar los índices.
+     */
+    @AfterTransaction
+    void recargarIndices() {
+        agendaService.recargar();
+        directorioMedicosService.recargar();
+    }
+
+    @Test
+    void crearCitaQueSeCruzaConOtraLanzaConflicto() {
+        Citas primera = citasService.crear(nuevaCita(medico, lunes.atTime(9, 0)));
+
+        assertThatThrownBy(() -> citasService.crear(nuevaCita(medico, lunes.atTime(9, 15))))
+            .isInstanceOf(ConflictoHorarioException.class)
+            .extracting(e -> ((ConflictoHorarioException) e).getIdCitaExistente())
+            .isEqualTo(primera.getIdCita());
+
+        // Bloque contiguo y otro médico en el mismo horario: sin conflicto
+        citasService.crear(nuevaCita(medico, lunes.atTime(9, 30)));
+        citasService.crear(nuevaCita(otroMedico, lunes.atTime(9, 0)));
+    }
+
+    @Test
+    void moverCitaVerificaElNuevoHorarioSinContarseASiMisma() {
+        Citas primera = citasService.crear(nuevaCita(medico, lunes.atTime(9, 0)));
+        citasService.crear(nuevaCita(medico, lunes.atTime(10, 0)));
+
+        Citas cambio = new Citas();
+        cambio.setFechaHora(lunes.atTime(9, 10));
+        citasService.actualizar(primera.getIdCita(), cambio);
+
+        cambio.setFechaHora(lunes.atTime(9, 45));
+        assertThatThrownBy(() -> citasService.actualizar(primera.getIdCita(), cambio))
+            .isInstanceOf(ConflictoHorarioException.class);
+    }
+
+    @Test
+    void cancelarCitaLiberaElHorario() {
+        Citas primera = citasService.crear(nuevaCita(medico, lunes.atTime(9, 0)));
+
+        Citas cambio = new Citas();
+        cambio.setEstado(cancelada);
+        citasService.actualizar(primera.getIdCita(), cambio);
+
+        citasService.crear(nuevaCita(medico, lunes.atTime(9, 0)));
+    }
+
+    @Test
+    void horariosLibresSeCalculanDesdeElIndice() {
+        citasService.crear(nuevaCita(medico, lunes.atTime(9, 0)));
+        citasService.crear(nuevaCita(medico, lunes.atTime(14, 30)));
+        estadisticas.clear();
+
+        // Lunes a domingo: solo cinco días laborales
+        List<DisponibilidadMedicoDTO> disponibilidad =
+            agendaService.obtenerHorariosLibres(idEspecialidad, lunes, lunes.plusDays(6), null);
+
+        assertThat(disponibilidad).hasSize(2);
+        DisponibilidadMedicoDTO delMedico = disponibilidad.stream()
+            .filter(d -> d.getIdMedico().equals(medico.getIdUsuario()))
+            .findFirst().orElseThrow();
+        assertThat(delMedico.getHorarios())
+            .hasSize(5 * BLOQUES_POR_DIA - 2)
+            .doesNotContain(lunes.atTime(9, 0), lunes.atTime(14, 30))
+            .contains(lunes.atTime(8, 30), lunes.atTime(9, 30));
+        assertThat(estadisticas.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void rangoInvalidoSeRechaza() {
+        assertThatThrownBy(() -> agendaService.obtenerHorariosLibres(idEspecialidad, lunes, lunes.minusDays(1), null))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> agendaService.obtenerHorariosLibres(idEspecialidad, lunes, lunes.plusDays(60), null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Citas nuevaCita(Usuarios medicoCita, LocalDateTime fechaHora) {
+        return new Citas(null, paciente, medicoCita, fechaHora, "Control", activo);
+    }
+}
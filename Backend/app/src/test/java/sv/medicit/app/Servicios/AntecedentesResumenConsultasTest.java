@@ -0,0 +1,168 @@
+package sv.medicit.app.Servicios;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import sv.medicit.app.DTOs.AntecedenteResumenDTO;
+import sv.medicit.app.Entidades.Antecedentes;
+import sv.medicit.app.Entidades.Estados;
+import sv.medicit.app.Entidades.Roles;
+import sv.medicit.app.Entidades.Usuarios;
+import sv.medicit.app.Utilidades.RangoCaracteres;
+
+/**
+ * Verifica que los listados de antecedentes devuelvan resúmenes en una sola consulta, sin los textos
+ * completos, y que la descripción se pueda transmitir por tramos.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class AntecedentesResumenConsultasTest {
+
+    private static final int TOTAL_ANTECEDENTES = 20;
+
+    private static final int LARGO_DESCRIPCION = 100_000;
+
+    private static final int LARGO_EXTENSO = 1_000_000;
+
+    @Autowired
+    private AntecedentesService antecedentesService;
+
+    @Autowired
+    private BusquedaAntecedentesService busquedaAntecedentesService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    private Usuarios paciente;
+
+    private Antecedentes extenso;
+
+    private String textoExtenso;
+
+    @BeforeEach
+    void prepararDatos() {
+        Roles rol = new Roles(null, "Paciente", "Paciente", null, null);
+        Estados activo = new Estados(null, "Activo", "Activo", null, null);
+        entityManager.persist(rol);
+        entityManager.persist(activo);
+        paciente = new Usuarios(null, "carlos", "Carlos", "Pérez", null, new Date(), rol, activo, new ArrayList<>(), null, null);
+        entityManager.persist(paciente);
+
+        for (int i = 0; i < TOTAL_ANTECEDENTES; i++) {
+            entityManager.persist(new Antecedentes(null, paciente, "Control " + i, "x".repeat(LARGO_DESCRIPCION)));
+        }
+        StringBuilder texto = new StringBuilder(LARGO_EXTENSO);
+        for (int i = 0; texto.length() < LARGO_EXTENSO; i++) {
+            texto.append(String.format("%09d|", i));
+        }
+        textoExtenso = texto.toString();
+        extenso = new Antecedentes(null, paciente, "Historia clínica ".repeat(20), textoExtenso);
+        entityManager.persist(extenso);
+        entityManager.flush();
+        entityManager.clear();
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    /**
+     * actualizar() indexa el antecedente para la búsqueda; volver a cargar el índice sin él.
+     */
+    @AfterTransaction
+    void recargarIndice() {
+        busquedaAntecedentesService.recargar();
+    }
+
+    @Test
+    void listadosDevuelvenResumenesEnUnaConsulta() {
+        Slice<AntecedenteResumenDTO> pagina = antecedentesService.obtenerPagina(
+            PageRequest.of(0, 10, Sort.by("idAntecedente")), paciente.getIdUsuario());
+
+        assertThat(pagina.getContent()).hasSize(10).allSatisfy(resumen -> {
+            assertThat(resumen.getLargo()).isEqualTo(LARGO_DESCRIPCION);
+            assertThat(resumen.getVistaPrevia()).hasSize(Antecedentes.LARGO_VISTA_PREVIA);
+            assertThat(resumen.getNombrePaciente()).isEqualTo("Carlos Pérez");
+        });
+        assertThat(pagina.hasNext()).isTrue();
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+
+        List<AntecedenteResumenDTO> delPaciente = antecedentesService.obtenerResumenesPorUsuarioId(paciente.getIdUsuario());
+        AntecedenteResumenDTO resumenExtenso = delPaciente.get(delPaciente.size() - 1);
+        assertThat(delPaciente).hasSize(TOTAL_ANTECEDENTES + 1);
+        assertThat(resumenExtenso.getTitulo()).hasSize(Antecedentes.LARGO_TITULO).startsWith("Historia clínica");
+        assertThat(resumenExtenso.getLargo()).isEqualTo(textoExtenso.length());
+        // Ninguna entidad cargada: los LONGTEXT no se leyeron
+        assertThat(estadisticas.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void actualizarRecalculaElResumen() {
+        Antecedentes cambio = new Antecedentes();
+        cambio.setDescripcion("Nueva");
+        antecedentesService.actualizar(extenso.getIdAntecedente(), cambio);
+
+        AntecedenteResumenDTO resumen = antecedentesService.obtenerResumenesPorUsuarioId(paciente.getIdUsuario()).stream()
+            .filter(r -> r.getIdAntecedente().equals(extenso.getIdAntecedente()))
+            .findFirst().orElseThrow();
+        assertThat(resumen.getLargo()).isEqualTo(5);
+        assertThat(resumen.getVistaPrevia()).isEqualTo("Nueva");
+    }
+
+    @Test
+    void descripcionSeTransmitePorTramos() throws Exception {
+        assertThat(antecedentesService.obtenerLargoDescripcion(extenso.getIdAntecedente())).contains(textoExtenso.length());
+        estadisticas.clear();
+
+        StringWriter tramo = new StringWriter();
+        antecedentesService.escribirDescripcion(extenso.getIdAntecedente(), 70_000, 200_000, tramo);
+        assertThat(tramo.toString()).isEqualTo(textoExtenso.substring(70_000, 200_000));
+        // Una consulta trae la tabla de bloques y otra solo los bloques comprimidos del tramo
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(estadisticas.getEntityLoadCount()).isZero();
+
+        StringWriter completo = new StringWriter();
+        antecedentesService.escribirDescripcion(extenso.getIdAntecedente(), 0, textoExtenso.length(), completo);
+        assertThat(completo.toString()).isEqualTo(textoExtenso);
+
+        assertThat(antecedentesService.obtenerLargoDescripcion(-1)).isEmpty();
+    }
+
+    @Test
+    void cabeceraRangeSeInterpretaEnCaracteres() {
+        assertThat(RangoCaracteres.interpretar("chars=0-99", 1000)).contains(new RangoCaracteres(0, 100));
+        assertThat(RangoCaracteres.interpretar("chars=900-", 1000)).contains(new RangoCaracteres(900, 1000));
+        assertThat(RangoCaracteres.interpretar("chars=-50", 1000)).contains(new RangoCaracteres(950, 1000));
+        assertThat(RangoCaracteres.interpretar("chars=990-5000", 1000)).contains(new RangoCaracteres(990, 1000));
+        assertThat(RangoCaracteres.interpretar("bytes=0-99", 1000)).isEmpty();
+        assertThat(RangoCaracteres.interpretar(null, 1000)).isEmpty();
+        assertThat(new RangoCaracteres(0, 100).contentRange(1000)).isEqualTo("chars 0-99/1000");
+        assertThatThrownBy(() -> RangoCaracteres.interpretar("chars=1000-", 1000))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,187 @@
+package sv.medicit.app.Servicios;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Date;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import sv.medicit.app.DTOs.AntecedenteCoincidenciaDTO;
+import sv.medicit.app.DTOs.PaginaDTO;
+import sv.medicit.app.Entidades.Antecedentes;
+import sv.medicit.app.Entidades.Estados;
+import sv.medicit.app.Entidades.Roles;
+import sv.medicit.app.Entidades.Usuarios;
+
+/**
+ * Verifica que la búsqueda de texto en antecedentes ordene por relevancia desde el índice en memoria,
+ * ignore tildes y plurales, no confunda un término negado con el afirmado, siga las altas, cambios
+ * y bajas, y consulte la base de datos una sola vez por página (para los fragmentos).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class BusquedaAntecedentesConsultasTest {
+
+    private static final int TOTAL_RELLENO = 300;
+
+    @Autowired
+    private BusquedaAntecedentesService busquedaAntecedentesService;
+
+    @Autowired
+    private AntecedentesService antecedentesService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    private Usuarios carlos;
+
+    private Usuarios ana;
+
+    private Antecedentes alergiaPenicilina;
+
+    private Antecedentes alergiaPolen;
+
+    @BeforeEach
+    void prepararDatos() {
+        Roles rol = new Roles(null, "Paciente", "Paciente", null, null);
+        Estados activo = new Estados(null, "Activo", "Activo", null, null);
+        entityManager.persist(rol);
+        entityManager.persist(activo);
+        carlos = new Usuarios(null, "carlos", "Carlos", "Pérez", null, new Date(), rol, activo, new ArrayList<>(), null, null);
+        ana = new Usuarios(null, "ana", "Ana", "López", null, new Date(), rol, activo, new ArrayList<>(), null, null);
+        entityManager.persist(carlos);
+        entityManager.persist(ana);
+
+        alergiaPenicilina = new Antecedentes(null, carlos, "Alergia a la penicilina", "Reacción cutánea en 2019");
+        alergiaPolen = new Antecedentes(null, ana, "Alergias estacionales al polen", null);
+        entityManager.persist(alergiaPenicilina);
+        entityManager.persist(alergiaPolen);
+        for (int i = 0; i < TOTAL_RELLENO; i++) {
+            entityManager.persist(new Antecedentes(null, i % 2 == 0 ? carlos : ana,
+                "Hipertensión arterial controlada, control número " + i, null));
+        }
+        entityManager.flush();
+        busquedaAntecedentesService.recargar();
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    /**
+     * Los datos de la prueba se deshacen con la transacción; volver a cargar el índice.
+     */
+    @AfterTransaction
+    void recargarIndice() {
+        busquedaAntecedentesService.recargar();
+    }
+
+    @Test
+    void ordenaPorRelevanciaSinDistinguirTildesNiPlurales() {
+        PaginaDTO<AntecedenteCoincidenciaDTO> pagina = busquedaAntecedentesService.buscar("ALERGÍAS de penicilina", null, 0, 20);
+
+        assertThat(pagina.getContenido()).extracting(AntecedenteCoincidenciaDTO::getIdAntecedente)
+            .containsExactly(alergiaPenicilina.getIdAntecedente(), alergiaPolen.getIdAntecedente());
+        AntecedenteCoincidenciaDTO primero = pagina.getContenido().get(0);
+        assertThat(primero.getNombrePaciente()).isEqualTo("Carlos Pérez");
+        assertThat(primero.getFragmento()).isEqualTo("Alergia a la penicilina");
+        assertThat(primero.getPuntaje()).isGreaterThan(pagina.getContenido().get(1).getPuntaje());
+        assertThat(pagina.getHaySiguiente()).isFalse();
+        // Solo la consulta de los fragmentos de la página
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+
+        // La descripción también se indexa; el filtro por paciente se aplica en el índice
+        assertThat(busquedaAntecedentesService.buscar("reacciones cutáneas", carlos.getIdUsuario(), 0, 20).getContenido())
+            .hasSize(1);
+        assertThat(busquedaAntecedentesService.buscar("alergia", ana.getIdUsuario(), 0, 20).getContenido())
+            .extracting(AntecedenteCoincidenciaDTO::getIdAntecedente)
+            .containsExactly(alergiaPolen.getIdAntecedente());
+    }
+
+    @Test
+    void paginaLosResultados() {
+        PaginaDTO<AntecedenteCoincidenciaDTO> primera = busquedaAntecedentesService.buscar("hipertension", null, 0, 100);
+        PaginaDTO<AntecedenteCoincidenciaDTO> ultima = busquedaAntecedentesService.buscar("hipertension", null, 2, 100);
+        PaginaDTO<AntecedenteCoincidenciaDTO> fuera = busquedaAntecedentesService.buscar("hipertension", null, 3, 100);
+
+        assertThat(primera.getContenido()).hasSize(100);
+        assertThat(primera.getHaySiguiente()).isTrue();
+        assertThat(ultima.getContenido()).hasSize(TOTAL_RELLENO - 200);
+        assertThat(ultima.getHaySiguiente()).isFalse();
+        assertThat(fuera.getContenido()).isEmpty();
+        // La página vacía no consulta la base de datos
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void crearActualizarYEliminarMantienenElIndice() {
+        Antecedentes asma = antecedentesService.crear(new Antecedentes(null, ana, "Asma bronquial desde la infancia", null));
+        assertThat(busquedaAntecedentesService.buscar("asmático bronquios", null, 0, 20).getContenido()).isEmpty();
+        assertThat(busquedaAntecedentesService.buscar("bronquial", null, 0, 20).getContenido())
+            .extracting(AntecedenteCoincidenciaDTO::getIdAntecedente)
+            .containsExactly(asma.getIdAntecedente());
+
+        Antecedentes cambio = new Antecedentes();
+        cambio.setAntecedente("Diabetes tipo 2");
+        antecedentesService.actualizar(asma.getIdAntecedente(), cambio);
+        assertThat(busquedaAntecedentesService.buscar("bronquial", null, 0, 20).getContenido()).isEmpty();
+        assertThat(busquedaAntecedentesService.buscar("diabetes", null, 0, 20).getContenido()).hasSize(1);
+
+        antecedentesService.eliminar(asma.getIdAntecedente());
+        assertThat(busquedaAntecedentesService.buscar("diabetes", null, 0, 20).getContenido()).isEmpty();
+    }
+
+    @Test
+    void lasNegacionesNoCoincidenConElTerminoAfirmado() {
+        Antecedentes sinAlergias = antecedentesService.crear(
+            new Antecedentes(null, ana, "Sin alergias conocidas, niega diabetes", null));
+
+        assertThat(busquedaAntecedentesService.buscar("alergias", null, 0, 20).getContenido())
+            .extracting(AntecedenteCoincidenciaDTO::getIdAntecedente)
+            .containsExactlyInAnyOrder(alergiaPenicilina.getIdAntecedente(), alergiaPolen.getIdAntecedente());
+        assertThat(busquedaAntecedentesService.buscar("diabetes", null, 0, 20).getContenido()).isEmpty();
+        // "no tiene": la negación salta las palabras vacías y se une a "alergias"
+        assertThat(busquedaAntecedentesService.buscar("no tiene alergia", null, 0, 20).getContenido())
+            .extracting(AntecedenteCoincidenciaDTO::getIdAntecedente)
+            .containsExactly(sinAlergias.getIdAntecedente());
+        assertThat(busquedaAntecedentesService.buscar("sin diabetes", null, 0, 20).getContenido())
+            .extracting(AntecedenteCoincidenciaDTO::getIdAntecedente)
+            .containsExactly(sinAlergias.getIdAntecedente());
+    }
+
+    @Test
+    void fragmentoSeCentraEnLaCoincidencia() {
+        String texto = "Paciente estable. ".repeat(40) + "Presenta migraña crónica con aura. " + "Sin cambios. ".repeat(40);
+        antecedentesService.crear(new Antecedentes(null, carlos, texto, null));
+
+        AntecedenteCoincidenciaDTO resultado = busquedaAntecedentesService.buscar("migrañas", null, 0, 20).getContenido().get(0);
+
+        assertThat(resultado.getFragmento()).startsWith("…").endsWith("…").contains("migraña crónica");
+        assertThat(resultado.getFragmento().length()).isLessThanOrEqualTo(202);
+    }
+
+    @Test
+    void consultaVaciaSeRechaza() {
+        assertThatThrownBy(() -> busquedaAntecedentesService.buscar("  ", null, 0, 20))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> busquedaAntecedentesService.buscar("de la con", null, 0, 20))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,200 @@
+package sv.medicit.app.Servicios;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import sv.medicit.app.Entidades.Citas;
+import sv.medicit.app.Entidades.Estados;
+import sv.medicit.app.Entidades.Roles;
+import sv.medicit.app.Entidades.Usuarios;
+import sv.medicit.app.Repositorios.CitasRepository;
+import sv.medicit.app.Repositorios.EstadosRepository;
+import sv.medicit.app.Repositorios.RolesRepository;
+import sv.medicit.app.Repositorios.UsuariosRepository;
+import sv.medicit.app.Utilidades.ConflictoHorarioException;
+
+/**
+ * Prueba de estrés de reservas simultáneas: muchos hilos intentan tomar los mismos horarios
+ * de los mismos médicos y al final no puede haber dos citas activas del médico que se crucen.
+ * Sin @Transactional: cada reserva se confirma en la base de datos como en producción,
+ * por eso los datos se borran al terminar.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CitasReservaConcurrenteTest {
+
+    private static final int HILOS = 32;
+
+    private static final int MEDICOS = 4;
+
+    private static final int HORARIOS_POR_MEDICO = 10;
+
+    private static final Duration DURACION_CITA = Duration.ofMinutes(30);
+
+    @Autowired
+    private CitasService citasService;
+
+    @Autowired
+    private AgendaService agendaService;
+
+    @Autowired
+    private CitasRepository citasRepository;
+
+    @Autowired
+    private UsuariosRepository usuariosRepository;
+
+    @Autowired
+    private RolesRepository rolesRepository;
+
+    @Autowired
+    private EstadosRepository estadosRepository;
+
+    private final List<Usuarios> medicos = new ArrayList<>();
+
+    private Usuarios paciente;
+
+    private Roles rol;
+
+    private Estados activo;
+
+    private Estados cancelada;
+
+    private LocalDate lunes;
+
+    @BeforeEach
+    void prepararDatos() {
+        rol = rolesRepository.save(new Roles(null, "Medico", "Médico", null, null));
+        activo = estadosRepository.save(new Estados(null, "Activo", "Activo", null, null));
+        cancelada = estadosRepository.save(new Estados(null, "Cancelada", "Cancelada", null, null));
+        paciente = usuariosRepository.save(new Usuarios(null, "paciente-estres", "Ana", "López", null, new Date(),
+            rol, activo, new ArrayList<>(), null, null));
+        for (int i = 0; i < MEDICOS; i++) {
+            medicos.add(usuariosRepository.save(new Usuarios(null, "medico-estres" + i, "Médico", "Número " + i,
+                null, new Date(), rol, activo, new ArrayList<>(), null, null)));
+        }
+        lunes = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+    }
+
+    @AfterEach
+    void borrarDatos() {
+        for (Usuarios medico : medicos) {
+            citasRepository.deleteAll(citasRepository.findByMedicoIdUsuario(medico.getIdUsuario()));
+        }
+        usuariosRepository.deleteAll(medicos);
+        usuariosRepository.delete(paciente);
+        estadosRepository.delete(activo);
+        estadosRepository.delete(cancelada);
+        rolesRepository.delete(rol);
+        agendaService.recargar();
+    }
+
+    @Test
+    void reservasSimultaneasNoDuplicanHorarios() throws Exception {
+        // Cada hilo intenta todos los horarios (en punto y cruzados a los 15 minutos) en distinto orden
+        List<Citas> intentos = new ArrayList<>();
+        for (Usuarios medico : medicos) {
+            for (int h = 0; h < HORARIOS_POR_MEDICO; h++) {
+                LocalDateTime inicio = lunes.atTime(8, 0).plus(DURACION_CITA.multipliedBy(h));
+                intentos.add(nuevaCita(medico, inicio));
+                intentos.add(nuevaCita(medico, inicio.plusMinutes(15)));
+            }
+        }
+
+        AtomicInteger reservadas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int t = 0; t < HILOS; t++) {
+            List<Citas> orden = new ArrayList<>(intentos);
+            Collections.shuffle(orden, new Random(t));
+            tareas.add(ejecutor.submit(() -> {
+                salida.await();
+                for (Citas intento : orden) {
+                    try {
+                        citasService.crear(copia(intento));
+                        reservadas.incrementAndGet();
+                    } catch (ConflictoHorarioException e) {
+                        rechazadas.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        salida.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+        ejecutor.shutdown();
+
+        int total = HILOS * intentos.size();
+
+        assertThat(reservadas.get() + rechazadas.get()).isEqualTo(total);
+        // Como mínimo uno de cada dos horarios en punto queda tomado, y nunca más que los bloques posibles
+        assertThat(reservadas.get()).isBetween(MEDICOS * HORARIOS_POR_MEDICO / 2, MEDICOS * HORARIOS_POR_MEDICO);
+
+        int guardadas = 0;
+        for (Usuarios medico : medicos) {
+            List<LocalDateTime> horarios = citasRepository.findByMedicoIdUsuario(medico.getIdUsuario()).stream()
+                .map(Citas::getFechaHora)
+                .sorted(Comparator.naturalOrder())
+                .toList();
+            guardadas += horarios.size();
+            for (int i = 1; i < horarios.size(); i++) {
+                assertThat(Duration.between(horarios.get(i - 1), horarios.get(i))).isGreaterThanOrEqualTo(DURACION_CITA);
+            }
+        }
+        assertThat(guardadas).isEqualTo(reservadas.get());
+    }
+
+    @Test
+    void indiceUnicoRechazaDuplicadosQueNoPasanPorLaAgenda() {
+        LocalDateTime horario = lunes.atTime(10, 0);
+        Citas primera = nuevaCita(medicos.get(0), horario);
+        primera.setHorarioReservado(horario);
+        citasRepository.save(primera);
+
+        Citas duplicada = nuevaCita(medicos.get(0), horario);
+        duplicada.setHorarioReservado(horario);
+        assertThatThrownBy(() -> citasRepository.save(duplicada))
+            .isInstanceOf(DataIntegrityViolationException.class);
+
+        // Las citas canceladas no reservan horario y pueden repetirse
+        citasRepository.save(new Citas(null, paciente, medicos.get(0), horario, "Control", cancelada));
+        citasRepository.save(new Citas(null, paciente, medicos.get(0), horario, "Control", cancelada));
+    }
+
+    private Citas nuevaCita(Usuarios medico, LocalDateTime fechaHora) {
+        return new Citas(null, paciente, medico, fechaHora, "Control", activo);
+    }
+
+    private static Citas copia(Citas cita) {
+        return new Citas(null, cita.getPaciente(), cita.getMedico(), cita.getFechaHora(), cita.getMotivo(), cita.getEstado());
+    }
+}
@@ -0,0 +1,138 @@
+package sv.medicit.app.Servicios;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import sv.medicit.app.Entidades.Antecedentes;
+import sv.medicit.app.Entidades.Estados;
+import sv.medicit.app.Entidades.Roles;
+import sv.medicit.app.Entidades.Usuarios;
+import sv.medicit.app.Utilidades.CompresionTexto;
+
+/**
+ * Verifica que un contenido que se está reutilizando no se elimine mientras se guarda el antecedente
+ * que lo va a referenciar: eliminar el último antecedente con ese texto espera a que termine el
+ * guardado y conserva el contenido.
+ * No es @Transactional: cada hilo confirma su propia transacción, como en producción.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ContenidosAntecedentesConcurrenciaConsultasTest {
+
+    private static final String TEXTO = "Control de presión arterial. Continuar enalapril 10 mg cada 12 horas.";
+
+    // Menos que el tiempo de espera de bloqueos de H2 (1 s)
+    private static final long ESPERA_MS = 300;
+
+    @Autowired
+    private AntecedentesService antecedentesService;
+
+    @Autowired
+    private ContenidosAntecedentesService contenidosAntecedentesService;
+
+    @Autowired
+    private BusquedaAntecedentesService busquedaAntecedentesService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Usuarios paciente;
+
+    private Roles rol;
+
+    private Estados estado;
+
+    private Integer idExistente;
+
+    @BeforeEach
+    void prepararDatos() {
+        transactionTemplate.executeWithoutResult(transaccion -> {
+            rol = new Roles(null, "Paciente", "Paciente", null, null);
+            estado = new Estados(null, "Activo", "Activo", null, null);
+            entityManager.persist(rol);
+            entityManager.persist(estado);
+            paciente = new Usuarios(null, "concurrente", "Ana", "López", null, new Date(), rol, estado,
+                new ArrayList<>(), null, null);
+            entityManager.persist(paciente);
+        });
+        idExistente = antecedentesService.crear(new Antecedentes(null, paciente, "Control", TEXTO)).getIdAntecedente();
+    }
+
+    @AfterEach
+    void limpiar() {
+        jdbcTemplate.update("DELETE FROM Antecedentes WHERE usuario_id = ?", paciente.getIdUsuario());
+        jdbcTemplate.update("DELETE FROM Contenidos_antecedentes WHERE hash = ?", CompresionTexto.huella(TEXTO));
+        jdbcTemplate.update("DELETE FROM Usuarios WHERE id_usuario = ?", paciente.getIdUsuario());
+        jdbcTemplate.update("DELETE FROM Roles WHERE id_rol = ?", rol.getIdRol());
+        jdbcTemplate.update("DELETE FROM Estados WHERE id_estado = ?", estado.getIdEstado());
+        busquedaAntecedentesService.recargar();
+    }
+
+    @Test
+    void elContenidoReutilizadoNoSeEliminaAntesDeGuardarElAntecedente() throws Exception {
+        String hash = CompresionTexto.huella(TEXTO);
+        CountDownLatch reutilizado = new CountDownLatch(1);
+        CountDownLatch eliminado = new CountDownLatch(1);
+
+        try (ExecutorService ejecutor = Executors.newSingleThreadExecutor()) {
+            // Elimina el único antecedente que usa el texto mientras el otro hilo lo reutiliza
+            Future<?> eliminacion = ejecutor.submit(() -> {
+                reutilizado.await();
+                antecedentesService.eliminar(idExistente);
+                eliminado.countDown();
+                return null;
+            });
+
+            boolean eliminadoAntesDelInsert = transactionTemplate.execute(transaccion -> {
+                contenidosAntecedentesService.guardar(hash, TEXTO);
+                reutilizado.countDown();
+                try {
+                    // La eliminación del contenido debe esperar al final de esta transacción
+                    boolean termino = eliminado.await(ESPERA_MS, TimeUnit.MILLISECONDS);
+                    jdbcTemplate.update("INSERT INTO Antecedentes (usuario_id, antecedente, descripcion_hash, titulo, " +
+                        "vista_previa, largo_descripcion) VALUES (?, ?, ?, ?, ?, ?)",
+                        paciente.getIdUsuario(), "Nuevo control", hash, "Nuevo control", TEXTO, TEXTO.length());
+                    return termino;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+            });
+            eliminacion.get(5, TimeUnit.SECONDS);
+
+            assertThat(eliminadoAntesDelInsert).isFalse();
+        }
+
+        assertThat(contar("SELECT COUNT(*) FROM Antecedentes WHERE id_antecedente = " + idExistente)).isZero();
+        assertThat(contar("SELECT COUNT(*) FROM Antecedentes WHERE usuario_id = " + paciente.getIdUsuario())).isEqualTo(1);
+        assertThat(contar("SELECT COUNT(*) FROM Contenidos_antecedentes WHERE hash = '" + hash + "'")).isEqualTo(1);
+    }
+
+    private long contar(String consulta) {
+        Long total = jdbcTemplate.queryForObject(consulta, Long.class);
+        return total != null ? total : 0;
+    }
+}
@@ -0,0 +1,166 @@
+package sv.medicit.app.Servicios;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import sv.medicit.app.Entidades.Antecedentes;
+import sv.medicit.app.Entidades.Estados;
+import sv.medicit.app.Entidades.Roles;
+import sv.medicit.app.Entidades.Usuarios;
+import sv.medicit.app.Utilidades.CompresionTexto;
+
+/**
+ * Verifica que las descripciones de antecedentes se guarden una sola vez por texto distinto,
+ * comprimidas, que se lean de forma transparente y que los contenidos sin uso se eliminen.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ContenidosAntecedentesConsultasTest {
+
+    private static final int TEXTOS_DISTINTOS = 50;
+
+    private static final int COPIAS_POR_TEXTO = 4;
+
+    @Autowired
+    private AntecedentesService antecedentesService;
+
+    @Autowired
+    private BusquedaAntecedentesService busquedaAntecedentesService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Usuarios paciente;
+
+    private final List<Antecedentes> antecedentes = new ArrayList<>();
+
+    private long bytesOriginales;
+
+    @BeforeEach
+    void prepararDatos() {
+        Roles rol = new Roles(null, "Paciente", "Paciente", null, null);
+        Estados activo = new Estados(null, "Activo", "Activo", null, null);
+        entityManager.persist(rol);
+        entityManager.persist(activo);
+        paciente = new Usuarios(null, "carlos", "Carlos", "Pérez", null, new Date(), rol, activo, new ArrayList<>(), null, null);
+        entityManager.persist(paciente);
+
+        for (int copia = 0; copia < COPIAS_POR_TEXTO; copia++) {
+            for (int i = 0; i < TEXTOS_DISTINTOS; i++) {
+                String nota = notaDePlantilla(i);
+                bytesOriginales += nota.getBytes(StandardCharsets.UTF_8).length;
+                Antecedentes antecedente = new Antecedentes(null, paciente, "Control " + i, nota);
+                entityManager.persist(antecedente);
+                antecedentes.add(antecedente);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * actualizar() y eliminar() modifican el índice de búsqueda; volver a cargarlo.
+     */
+    @AfterTransaction
+    void recargarIndice() {
+        busquedaAntecedentesService.recargar();
+    }
+
+    @Test
+    void textosIgualesSeGuardanUnaVezYComprimidos() {
+        Long bytesGuardados = jdbcTemplate.queryForObject(
+            "SELECT SUM(OCTET_LENGTH(datos)) FROM Contenidos_antecedentes", Long.class);
+
+        assertThat(contarContenidos()).isEqualTo(TEXTOS_DISTINTOS);
+        // Cada texto distinto guardado una vez y comprimido
+        assertThat((double) bytesOriginales / bytesGuardados).isGreaterThan(COPIAS_POR_TEXTO * 1.5);
+    }
+
+    @Test
+    void lecturaDescomprimeDeFormaTransparente() {
+        Antecedentes leido = entityManager.find(Antecedentes.class, antecedentes.get(7).getIdAntecedente());
+        assertThat(leido.getDescripcion()).isEqualTo(notaDePlantilla(7));
+
+        // Textos cortos se guardan sin comprimir
+        Antecedentes corto = antecedentesService.crear(new Antecedentes(null, paciente, "Alergia", "Penicilina"));
+        byte[] datos = jdbcTemplate.queryForObject(
+            "SELECT datos FROM Contenidos_antecedentes WHERE hash = ?", byte[].class, corto.getDescripcionHash());
+        assertThat(datos[0]).isEqualTo(CompresionTexto.SIN_COMPRIMIR);
+    }
+
+    @Test
+    void contenidosSinUsoSeEliminan() {
+        Integer primero = antecedentes.get(0).getIdAntecedente();
+        Integer copiaDelPrimero = antecedentes.get(TEXTOS_DISTINTOS).getIdAntecedente();
+
+        // El texto sigue en uso por la copia: se conserva
+        antecedentesService.eliminar(primero);
+        assertThat(contarContenidos()).isEqualTo(TEXTOS_DISTINTOS);
+
+        Antecedentes cambio = new Antecedentes();
+        cambio.setDescripcion("Texto nuevo");
+        antecedentesService.actualizar(copiaDelPrimero, cambio);
+        antecedentesService.eliminar(antecedentes.get(2 * TEXTOS_DISTINTOS).getIdAntecedente());
+        antecedentesService.eliminar(antecedentes.get(3 * TEXTOS_DISTINTOS).getIdAntecedente());
+
+        // Sin ninguna copia del primer texto: se elimina; se agrega "Texto nuevo"
+        assertThat(contarContenidos()).isEqualTo(TEXTOS_DISTINTOS);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM Contenidos_antecedentes WHERE hash = ?",
+            Integer.class, CompresionTexto.huella(notaDePlantilla(0)))).isZero();
+    }
+
+    @Test
+    void lecturaPorFlujoRecuperaElTexto() throws Exception {
+        String texto = "Señal ñandú 🩺 ".repeat(500);
+        try (Reader lector = CompresionTexto.abrir(new ByteArrayInputStream(CompresionTexto.comprimir(texto)))) {
+            StringBuilder leido = new StringBuilder();
+            char[] bloque = new char[100];
+            for (int n; (n = lector.read(bloque)) > 0; ) {
+                leido.append(bloque, 0, n);
+            }
+            assertThat(leido.toString()).isEqualTo(texto);
+        }
+    }
+
+    private int contarContenidos() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM Contenidos_antecedentes", Integer.class);
+    }
+
+    /**
+     * Nota clínica de plantilla: mismo texto fijo con algunos datos variables.
+     */
+    private static String notaDePlantilla(int i) {
+        return "MOTIVO DE CONSULTA: Control de seguimiento número " + i + ".\n"
+            + "ANTECEDENTES PERSONALES: Hipertensión arterial en tratamiento con enalapril 10 mg cada 12 horas. "
+            + "Niega alergias a medicamentos. Niega cirugías previas. Niega hospitalizaciones recientes.\n"
+            + "EXAMEN FÍSICO: Paciente consciente, orientado en tiempo, espacio y persona. Mucosas húmedas. "
+            + "Ruidos cardíacos rítmicos, sin soplos. Campos pulmonares limpios, sin estertores. Abdomen blando, "
+            + "depresible, no doloroso a la palpación. Extremidades sin edema.\n"
+            + "SIGNOS VITALES: Presión arterial " + (110 + i % 30) + "/" + (70 + i % 15) + " mmHg, "
+            + "frecuencia cardíaca " + (60 + i % 25) + " lpm, temperatura 36.5 °C.\n"
+            + "PLAN: Continuar tratamiento actual. Dieta baja en sodio. Actividad física moderada 30 minutos al día. "
+            + "Control en tres meses con exámenes de laboratorio: hemograma, glucosa, creatinina y perfil lipídico.\n"
+            + "INDICACIONES: Acudir a emergencias si presenta dolor torácico, dificultad para respirar, "
+            + "cefalea intensa o visión borrosa.\n";
+    }
+}
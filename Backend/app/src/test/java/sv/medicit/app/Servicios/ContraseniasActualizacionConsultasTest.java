@@ -0,0 +1,138 @@
+package sv.medicit.app.Servicios;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import sv.medicit.app.Entidades.Contrasenias;
+import sv.medicit.app.Entidades.Estados;
+import sv.medicit.app.Entidades.Roles;
+import sv.medicit.app.Entidades.Usuarios;
+
+/**
+ * Verifica que un login exitoso vuelva a encriptar en segundo plano la contraseña guardada con
+ * otro costo o sin prefijo de algoritmo, y que no la toque si ya usa la configuración actual.
+ * No es @Transactional: el hash nuevo se guarda en otro hilo, que no vería datos sin confirmar.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ContraseniasActualizacionConsultasTest {
+
+    // Tiempo máximo para que termine la actualización en segundo plano
+    private static final long ESPERA_MAXIMA_MS = 5000;
+
+    @Autowired
+    private LoginService loginService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<Object> creados = new ArrayList<>();
+
+    private Integer idContrasenia;
+
+    @BeforeEach
+    void prepararDatos() {
+        // Hash anterior a los prefijos y con otro costo que el de las pruebas (4)
+        String hashAnterior = new BCryptPasswordEncoder(5).encode("secreta");
+        transactionTemplate.executeWithoutResult(estado -> {
+            Roles rol = guardar(new Roles(null, "Paciente", "Paciente", null, null));
+            Estados activo = guardar(new Estados(null, "Activo", "Activo", null, null));
+            Usuarios usuario = guardar(new Usuarios(null, "rehash", "Ana", "López", null, new Date(),
+                rol, activo, new ArrayList<>(), null, null));
+            idContrasenia = guardar(new Contrasenias(null, usuario, hashAnterior)).getIdContrasenia();
+        });
+    }
+
+    @AfterEach
+    void limpiar() {
+        // En orden inverso para respetar las llaves foráneas
+        transactionTemplate.executeWithoutResult(estado -> {
+            for (int i = creados.size() - 1; i >= 0; i--) {
+                entityManager.remove(entityManager.merge(creados.get(i)));
+            }
+        });
+    }
+
+    @Test
+    void elLoginActualizaElHashAnteriorEnSegundoPlano() throws InterruptedException {
+        String hashAnterior = hashGuardado();
+        double actualizadasAntes = actualizaciones();
+
+        assertThat(loginService.autenticar("rehash", "secreta")).isPresent();
+        // El contador se incrementa después del UPDATE
+        esperar(() -> actualizaciones() > actualizadasAntes);
+        String hashNuevo = hashGuardado();
+
+        assertThat(hashNuevo).isNotEqualTo(hashAnterior);
+        assertThat(hashNuevo).startsWith("{bcrypt}$2a$04$");
+        assertThat(passwordEncoder.matches("secreta", hashNuevo)).isTrue();
+        assertThat(actualizaciones()).isEqualTo(actualizadasAntes + 1);
+
+        // Con el hash ya actualizado el siguiente login no vuelve a encriptar
+        assertThat(loginService.autenticar("rehash", "secreta")).isPresent();
+        Thread.sleep(200);
+        assertThat(hashGuardado()).isEqualTo(hashNuevo);
+        assertThat(actualizaciones()).isEqualTo(actualizadasAntes + 1);
+    }
+
+    @Test
+    void unLoginFallidoNoActualizaElHash() throws InterruptedException {
+        String hashAnterior = hashGuardado();
+
+        assertThat(loginService.autenticar("rehash", "otra")).isEmpty();
+        Thread.sleep(200);
+
+        assertThat(hashGuardado()).isEqualTo(hashAnterior);
+    }
+
+    private void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + ESPERA_MAXIMA_MS;
+        while (!condicion.getAsBoolean() && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+        }
+    }
+
+    private String hashGuardado() {
+        return jdbcTemplate.queryForObject("SELECT contrasenia FROM Contrasenias WHERE id_contrasenia = ?",
+            String.class, idContrasenia);
+    }
+
+    private double actualizaciones() {
+        return meterRegistry.counter("medicit.encriptacion.actualizaciones", "resultado", "actualizada").count();
+    }
+
+    private <T> T guardar(T entidad) {
+        entityManager.persist(entidad);
+        creados.add(entidad);
+        return entidad;
+    }
+}
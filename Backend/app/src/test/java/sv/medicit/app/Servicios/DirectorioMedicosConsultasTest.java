@@ -0,0 +1,121 @@
+package sv.medicit.app.Servicios;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import sv.medicit.app.DTOs.MedicoDTO;
+import sv.medicit.app.Entidades.Especialidades;
+import sv.medicit.app.Entidades.Estados;
+import sv.medicit.app.Entidades.Roles;
+import sv.medicit.app.Entidades.Usuarios;
+
+/**
+ * Verifica que la búsqueda de médicos por especialidad se responda desde el índice en memoria,
+ * sin consultas SQL, y que el índice siga las asignaciones y retiros de especialidades.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class DirectorioMedicosConsultasTest {
+
+    private static final int TOTAL_MEDICOS = 500;
+
+    @Autowired
+    private DirectorioMedicosService directorioMedicosService;
+
+    @Autowired
+    private UsuariosService usuariosService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    private Especialidades cardiologia;
+
+    private Especialidades pediatria;
+
+    private Usuarios jose;
+
+    @BeforeEach
+    void prepararDatos() {
+        Roles rol = new Roles(null, "Medico", "Médico", null, null);
+        Estados activo = new Estados(null, "Activo", "Activo", null, null);
+        Estados inactivo = new Estados(null, "Inactivo", "Inactivo", null, null);
+        cardiologia = new Especialidades(null, "Cardiología", "Corazón", null);
+        pediatria = new Especialidades(null, "Pediatría", "Niños", null);
+        entityManager.persist(rol);
+        entityManager.persist(activo);
+        entityManager.persist(inactivo);
+        entityManager.persist(cardiologia);
+        entityManager.persist(pediatria);
+
+        for (int i = 0; i < TOTAL_MEDICOS; i++) {
+            entityManager.persist(new Usuarios(null, "medico" + i, "Nombre" + i, "Apellido" + i, null, new Date(),
+                rol, i % 10 == 0 ? inactivo : activo, new ArrayList<>(List.of(cardiologia)), null, null));
+        }
+        jose = new Usuarios(null, "jose", "José", "Álvarez Martínez", null, new Date(),
+            rol, activo, new ArrayList<>(), null, null);
+        entityManager.persist(jose);
+        entityManager.flush();
+        directorioMedicosService.recargar();
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    @AfterTransaction
+    void recargarIndice() {
+        directorioMedicosService.recargar();
+    }
+
+    @Test
+    void buscarPorEspecialidadNoConsultaLaBaseDeDatos() {
+        List<MedicoDTO> activos = directorioMedicosService.buscar(cardiologia.getIdEspecialidad(), true, null, 1000);
+        List<MedicoDTO> todos = directorioMedicosService.buscar(cardiologia.getIdEspecialidad(), false, null, 1000);
+        List<MedicoDTO> porPrefijo = directorioMedicosService.buscar(cardiologia.getIdEspecialidad(), false, "nombre12", 1000);
+
+        assertThat(activos).hasSize(TOTAL_MEDICOS - TOTAL_MEDICOS / 10).allMatch(m -> m.getEstado().equals("Activo"));
+        assertThat(todos).hasSize(TOTAL_MEDICOS);
+        // nombre12, nombre120..nombre129
+        assertThat(porPrefijo).hasSize(11);
+        assertThat(estadisticas.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void asignarYRemoverEspecialidadesActualizaElIndice() {
+        Integer idCardiologia = cardiologia.getIdEspecialidad();
+        Integer idPediatria = pediatria.getIdEspecialidad();
+
+        usuariosService.asignarEspecialidadesAUsuario(jose.getIdUsuario(), List.of(idCardiologia, idPediatria));
+
+        // Prefijo del nombre o del apellido, sin distinguir mayúsculas ni tildes
+        assertThat(directorioMedicosService.buscar(idPediatria, true, "JOSE", 20))
+            .extracting(MedicoDTO::getIdUsuario).containsExactly(jose.getIdUsuario());
+        assertThat(directorioMedicosService.buscar(idCardiologia, true, "alvarez m", 20))
+            .extracting(MedicoDTO::getIdUsuario).containsExactly(jose.getIdUsuario());
+
+        usuariosService.removerEspecialidadDeUsuario(jose.getIdUsuario(), idPediatria);
+
+        assertThat(directorioMedicosService.buscar(idPediatria, true, null, 20)).isEmpty();
+        assertThat(directorioMedicosService.buscar(idCardiologia, true, "jose", 20)).hasSize(1);
+    }
+}
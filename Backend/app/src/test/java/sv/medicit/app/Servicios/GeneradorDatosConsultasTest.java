@@ -0,0 +1,132 @@
+package sv.medicit.app.Servicios;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import sv.medicit.app.Utilidades.DatosSinteticos;
+
+/**
+ * Verifica el generador de datos sintéticos a escala reducida: cantidades, horarios sin choques,
+ * carga desigual entre médicos, que la misma semilla produzca los mismos datos y que volver a generar
+ * solo complete lo que falta.
+ * Usa su propia base H2 porque los datos se confirman (no hay transacción de prueba que deshacer).
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:generador;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "medicit.generador.usuarios=" + GeneradorDatosConsultasTest.USUARIOS,
+    "medicit.generador.citas=" + GeneradorDatosConsultasTest.CITAS,
+    "medicit.generador.fecha-referencia=" + GeneradorDatosConsultasTest.REFERENCIA,
+    "medicit.generador.bloque=500"
+})
+@ActiveProfiles({"test", "generador"})
+class GeneradorDatosConsultasTest {
+
+    static final int USUARIOS = 2000;
+
+    static final int CITAS = 20000;
+
+    static final String REFERENCIA = "2026-06-15";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GeneradorDatosService generadorDatosService;
+
+    @Test
+    void generaLasCantidadesPedidas() {
+        assertThat(contar("SELECT COUNT(*) FROM Usuarios")).isEqualTo(USUARIOS);
+        assertThat(contar("SELECT COUNT(*) FROM Correos")).isEqualTo(USUARIOS);
+        assertThat(contar("SELECT COUNT(*) FROM Contrasenias")).isEqualTo(USUARIOS);
+        assertThat(contar("SELECT COUNT(*) FROM Respuestas")).isEqualTo(2L * USUARIOS);
+        assertThat(contar("SELECT COUNT(*) FROM Citas")).isEqualTo(CITAS);
+        assertThat(contar("SELECT COUNT(*) FROM Antecedentes")).isPositive();
+        // Las notas de plantilla se repiten: hay menos contenidos que antecedentes
+        assertThat(contar("SELECT COUNT(*) FROM Contenidos_antecedentes"))
+            .isLessThan(contar("SELECT COUNT(*) FROM Antecedentes"));
+    }
+
+    @Test
+    void ningunMedicoTieneDosCitasEnElMismoHorario() {
+        assertThat(contar("SELECT COUNT(*) FROM (SELECT medico_id, horario_reservado FROM Citas " +
+            "WHERE horario_reservado IS NOT NULL GROUP BY medico_id, horario_reservado HAVING COUNT(*) > 1) d"))
+            .isZero();
+        assertThat(contar("SELECT COUNT(*) FROM Citas c JOIN Usuarios u ON u.id_usuario = c.paciente_id " +
+            "JOIN Roles r ON r.id_rol = u.id_rol WHERE r.nombre_rol <> 'Paciente'")).isZero();
+    }
+
+    @Test
+    void laCargaEntreMedicosEsDesigual() {
+        List<Long> porMedico = jdbcTemplate.queryForList(
+            "SELECT COUNT(*) FROM Citas GROUP BY medico_id ORDER BY COUNT(*) DESC", Long.class);
+        assertThat(porMedico).hasSize(USUARIOS / DatosSinteticos.MEDICO_CADA);
+        // El 20 % de médicos con más citas atiende bastante más que su parte proporcional
+        long primeros = porMedico.subList(0, porMedico.size() / 5).stream().mapToLong(Long::longValue).sum();
+        assertThat(primeros).isGreaterThan(CITAS * 35L / 100);
+    }
+
+    @Test
+    void laMismaSemillaProduceLosMismosDatos() {
+        DatosSinteticos primera = generador(42);
+        DatosSinteticos segunda = generador(42);
+        assertThat(segunda.usuario(123, 124)).isEqualTo(primera.usuario(123, 124));
+        assertThat(segunda.antecedentes(777)).isEqualTo(primera.antecedentes(777));
+        assertThat(segunda.citas(3)).isEqualTo(primera.citas(3));
+        assertThat(generador(7).citas(3)).isNotEqualTo(primera.citas(3));
+
+        // Lo guardado coincide con lo que genera la semilla configurada (los IDs empiezan en 1)
+        int indice = 123;
+        DatosSinteticos.Usuario esperado = primera.usuario(indice, indice + 1);
+        Map<String, Object> fila = jdbcTemplate.queryForMap(
+            "SELECT nombre_usuario, nombres, apellidos, dui FROM Usuarios WHERE id_usuario = ?", indice + 1);
+        assertThat(fila).containsEntry("nombre_usuario", esperado.nombreUsuario())
+            .containsEntry("nombres", esperado.nombres())
+            .containsEntry("apellidos", esperado.apellidos())
+            .containsEntry("dui", esperado.dui());
+        assertThat(contar("SELECT COUNT(*) FROM Citas WHERE medico_id = "
+            + (DatosSinteticos.indiceMedico(3) + 1))).isEqualTo(primera.citasDeMedico(3));
+    }
+
+    @Test
+    void volverAGenerarSoloCompletaLoQueFalta() {
+        long contenidos = contar("SELECT COUNT(*) FROM Contenidos_antecedentes");
+        long antecedentes = contar("SELECT COUNT(*) FROM Antecedentes");
+        // Como si la generación se hubiera detenido antes de las citas de este médico
+        long idMedico = DatosSinteticos.indiceMedico(3) + 1;
+        jdbcTemplate.update("DELETE FROM Citas WHERE medico_id = ?", idMedico);
+
+        generadorDatosService.generar();
+
+        assertThat(contar("SELECT COUNT(*) FROM Usuarios")).isEqualTo(USUARIOS);
+        assertThat(contar("SELECT COUNT(*) FROM Citas")).isEqualTo(CITAS);
+        assertThat(contar("SELECT COUNT(*) FROM Citas WHERE medico_id = " + idMedico))
+            .isEqualTo(generador(42).citasDeMedico(3));
+        assertThat(contar("SELECT COUNT(*) FROM Antecedentes")).isEqualTo(antecedentes);
+        assertThat(contar("SELECT COUNT(*) FROM Contenidos_antecedentes")).isEqualTo(contenidos);
+    }
+
+    private DatosSinteticos generador(long semilla) {
+        LocalDate referencia = LocalDate.parse(REFERENCIA);
+        return new DatosSinteticos(semilla, USUARIOS, CITAS, referencia, referencia.minusMonths(24),
+            referencia.plusMonths(6), LocalTime.of(8, 0), LocalTime.of(17, 0), Duration.ofMinutes(30),
+            EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+    }
+
+    private long contar(String consulta) {
+        Long total = jdbcTemplate.queryForObject(consulta, Long.class);
+        return total != null ? total : 0;
+    }
+}
@@ -0,0 +1,172 @@
+package sv.medicit.app.Servicios;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import jakarta.persistence.EntityManagerFactory;
+import sv.medicit.app.DTOs.EventoImportacionDTO;
+import sv.medicit.app.Entidades.Estados;
+import sv.medicit.app.Entidades.Roles;
+
+/**
+ * Verifica la importación masiva de pacientes: campos CSV entre comillas, filas duplicadas (en el
+ * mismo archivo y contra la base de datos), reporte de las filas rechazadas sin perder las demás
+ * y guardado por lotes.
+ * No es @Transactional: cada lote confirma o revierte su propia transacción, como en producción.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ImportacionPacientesConsultasTest {
+
+    private static final String ENCABEZADOS =
+        "nombreUsuario,nombres,apellidos,dui,fechaNacimiento,contrasenia,telefono,correo,pregunta1,respuesta1\n";
+
+    // Todos los usuarios de estas pruebas empiezan así (se eliminan al terminar cada una)
+    private static final String PREFIJO = "imp_";
+
+    @Autowired
+    private ImportacionPacientesService importacionPacientesService;
+
+    @Autowired
+    private RolesService rolesService;
+
+    @Autowired
+    private EstadosService estadosService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<EventoImportacionDTO> eventos = new ArrayList<>();
+
+    private Integer idRol;
+
+    private Integer idEstado;
+
+    @BeforeEach
+    void prepararDatos() {
+        idRol = rolesService.crear(new Roles(null, "Paciente", "Paciente", null, null)).getIdRol();
+        idEstado = estadosService.crear(new Estados(null, "Activo", "Activo", null, null)).getIdEstado();
+    }
+
+    @AfterEach
+    void limpiar() {
+        String usuarios = "SELECT id_usuario FROM Usuarios WHERE nombre_usuario LIKE '" + PREFIJO + "%'";
+        for (String tabla : List.of("Respuestas", "Correos", "Telefonos", "Contrasenias")) {
+            jdbcTemplate.update("DELETE FROM " + tabla + " WHERE usuario_id IN (" + usuarios + ")");
+        }
+        jdbcTemplate.update("DELETE FROM Preguntas WHERE creado_por LIKE '" + PREFIJO + "%'");
+        jdbcTemplate.update("DELETE FROM Usuarios WHERE nombre_usuario LIKE '" + PREFIJO + "%'");
+        jdbcTemplate.update("DELETE FROM Roles WHERE id_rol = ?", idRol);
+        jdbcTemplate.update("DELETE FROM Estados WHERE id_estado = ?", idEstado);
+        rolesService.precargarCache();
+        estadosService.precargarCache();
+    }
+
+    @Test
+    void losCamposEntreComillasSeImportanCompletos() throws IOException {
+        EventoImportacionDTO resumen = importar(ENCABEZADOS +
+            "imp_ana,\"Ana \"\"La Doctora\"\"\",Pérez,,1990-01-01,secreta1,7000-0001,imp_ana@medicit.sv," +
+            "\"¿Mascota, favorita?\",Fido\n" +
+            "imp_luis,Luis,\"Martínez\nGómez\",,1985-06-15,secreta2,7000-0002,imp_luis@medicit.sv,,\n");
+
+        assertThat(resumen.getImportadas()).isEqualTo(2);
+        assertThat(resumen.getFallidas()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT nombres FROM Usuarios WHERE nombre_usuario = 'imp_ana'",
+            String.class)).isEqualTo("Ana \"La Doctora\"");
+        assertThat(jdbcTemplate.queryForObject("SELECT apellidos FROM Usuarios WHERE nombre_usuario = 'imp_luis'",
+            String.class)).isEqualTo("Martínez\nGómez");
+        assertThat(jdbcTemplate.queryForObject("SELECT pregunta FROM Preguntas WHERE creado_por = 'imp_ana'",
+            String.class)).isEqualTo("¿Mascota, favorita?");
+        assertThat(contar("SELECT COUNT(*) FROM Preguntas WHERE creado_por = 'imp_luis'")).isZero();
+    }
+
+    @Test
+    void lasFilasRechazadasSeReportanYLasDemasSeGuardan() throws IOException {
+        // Paciente que ya existía antes de la importación
+        jdbcTemplate.update("INSERT INTO Usuarios (id_usuario, nombre_usuario, nombres, apellidos, fecha_nacimiento, " +
+            "id_rol, id_estado) VALUES (900001, 'imp_existente', 'Existente', 'Existente', CURRENT_DATE, ?, ?)", idRol, idEstado);
+        jdbcTemplate.update("INSERT INTO Correos (id_correo, usuario_id, correo) VALUES (900001, 900001, 'imp_existe@medicit.sv')");
+
+        EventoImportacionDTO resumen = importar(ENCABEZADOS +
+            fila("imp_ana", "imp_ana@medicit.sv") +
+            fila("imp_luis", "imp_luis@medicit.sv") +
+            // 3: repetido dentro del archivo (sin importar mayúsculas)
+            fila("IMP_ANA", "imp_ana2@medicit.sv") +
+            // 4: sin correo
+            fila("imp_sin_correo", "") +
+            // 5: columnas de menos
+            "imp_corta,Corta,Corta\n" +
+            // 6: más largo que la columna; solo lo detecta la base de datos al guardar el lote
+            fila("imp_nombre_demasiado_largo", "imp_largo@medicit.sv") +
+            // 7: correo que ya existe en la base de datos
+            fila("imp_otro", "imp_existe@medicit.sv"));
+
+        assertThat(errores()).extracting(EventoImportacionDTO::getFila).containsExactlyInAnyOrder(3, 4, 5, 6, 7);
+        assertThat(errores()).filteredOn(e -> e.getFila() == 4)
+            .extracting(EventoImportacionDTO::getMensaje).containsExactly("El correo es requerido");
+        assertThat(resumen.getProcesadas()).isEqualTo(7);
+        assertThat(resumen.getImportadas()).isEqualTo(2);
+        assertThat(resumen.getFallidas()).isEqualTo(5);
+        assertThat(contar("SELECT COUNT(*) FROM Usuarios WHERE nombre_usuario IN ('imp_ana', 'imp_luis')")).isEqualTo(2);
+        assertThat(contar("SELECT COUNT(*) FROM Usuarios WHERE nombre_usuario LIKE '" + PREFIJO + "%'")).isEqualTo(3);
+    }
+
+    @Test
+    void seGuardaPorLotesYDetectaDuplicadosEntreLotes() throws IOException {
+        int filas = 1001;
+        StringBuilder csv = new StringBuilder(ENCABEZADOS);
+        for (int i = 1; i < filas; i++) {
+            csv.append(fila(PREFIJO + i, PREFIJO + i + "@medicit.sv"));
+        }
+        // La última fila repite el nombre de la primera, que para entonces ya está en la base de datos
+        csv.append(fila(PREFIJO + 1, "imp_repetido@medicit.sv"));
+
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        EventoImportacionDTO resumen = importar(csv.toString());
+
+        assertThat(resumen.getImportadas()).isEqualTo(filas - 1);
+        assertThat(errores()).extracting(EventoImportacionDTO::getFila).containsExactly(filas);
+        // Un evento de progreso por lote de 500 filas
+        assertThat(eventos).filteredOn(e -> "progreso".equals(e.getTipo())).hasSize(3);
+        // Usuario, contraseña, teléfono, correo, pregunta y respuesta por fila, pero en lotes JDBC
+        assertThat(estadisticas.getEntityInsertCount()).isEqualTo(6L * (filas - 1));
+        assertThat(estadisticas.getPrepareStatementCount()).isLessThan(filas / 2);
+    }
+
+    private EventoImportacionDTO importar(String csv) throws IOException {
+        return importacionPacientesService.importar(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+            ImportacionPacientesService.Formato.CSV, eventos::add);
+    }
+
+    private List<EventoImportacionDTO> errores() {
+        return eventos.stream().filter(e -> "error".equals(e.getTipo())).toList();
+    }
+
+    private static String fila(String nombreUsuario, String correo) {
+        return nombreUsuario + ",Nombre,Apellido,,1990-01-01,secreta,7000-0000," + correo + ",¿Mascota?,Fido\n";
+    }
+
+    private long contar(String consulta) {
+        Long total = jdbcTemplate.queryForObject(consulta, Long.class);
+        return total != null ? total : 0;
+    }
+}
@@ -0,0 +1,294 @@
+package sv.medicit.app.Servicios;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import sv.medicit.app.DTOs.LoginResponseDTO;
+import sv.medicit.app.Entidades.Contrasenias;
+import sv.medicit.app.Entidades.Correos;
+import sv.medicit.app.Entidades.Estados;
+import sv.medicit.app.Entidades.Permisos;
+import sv.medicit.app.Entidades.Roles;
+import sv.medicit.app.Entidades.Usuarios;
+import sv.medicit.app.Repositorios.PermisosRepository;
+import sv.medicit.app.Repositorios.UsuariosRepository;
+import sv.medicit.app.Utilidades.TokenSesionUtil;
+import sv.medicit.app.Utilidades.TokenSesionUtil.Sesion;
+
+/**
+ * Verifica que el login y GET /api/auth/usuario/{id} lean usuario, contraseña, correo y rol
+ * en una sola consulta, con los permisos del rol desde la caché, y que el refresco de sesión
+ * con token vigente solo lea la versión de sesión del usuario. Un cambio de rol o estado invalida
+ * solo los tokens de ese usuario, un usuario dado de baja no inicia ni renueva sesiones y ninguna
+ * sesión se renueva más allá de la duración máxima.
+ * Incluye la comparación de consultas con la carga anterior (entidad Usuarios + colecciones LAZY
+ * + permisos); el tiempo de ambas se mide en LoginBenchmark (perfil jmh).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class LoginServiceConsultasTest {
+
+    @Autowired
+    private LoginService loginService;
+
+    @Autowired
+    private PermisosService permisosService;
+
+    @Autowired
+    private UsuariosService usuariosService;
+
+    @Autowired
+    private EstadosService estadosService;
+
+    @Autowired
+    private TokenSesionUtil tokenSesionUtil;
+
+    @Autowired
+    private UsuariosRepository usuariosRepository;
+
+    @Autowired
+    private PermisosRepository permisosRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    private Integer idUsuario;
+
+    private Integer idRol;
+
+    private Integer idOtroRol;
+
+    @BeforeEach
+    void prepararDatos() {
+        Roles rol = new Roles(null, "Paciente", "Paciente", null, null);
+        Estados estado = new Estados(null, "Activo", "Activo", null, null);
+        entityManager.persist(rol);
+        entityManager.persist(estado);
+        entityManager.persist(new Permisos(null, rol, "modulo_citas", true, true, false, false, false));
+        entityManager.persist(new Permisos(null, rol, "modulo_inicio", true, false, false, false, false));
+
+        Roles otroRol = new Roles(null, "Recepcionista", "Recepcionista", null, null);
+        entityManager.persist(otroRol);
+
+        Usuarios usuario = new Usuarios(null, "paciente", "Ana", "López", null, new Date(),
+            rol, estado, new ArrayList<>(), null, null);
+        entityManager.persist(usuario);
+        entityManager.persist(new Contrasenias(null, usuario, passwordEncoder.encode("secreta")));
+        entityManager.persist(new Correos(null, usuario, "principal@medicit.sv"));
+        entityManager.persist(new Correos(null, usuario, "secundario@medicit.sv"));
+        Usuarios otro = new Usuarios(null, "otro", "Luis", "Pérez", null, new Date(),
+            rol, estado, new ArrayList<>(), null, null);
+        entityManager.persist(otro);
+        entityManager.persist(new Contrasenias(null, otro, passwordEncoder.encode("secreta")));
+        entityManager.flush();
+        entityManager.clear();
+
+        idUsuario = usuario.getIdUsuario();
+        idRol = rol.getIdRol();
+        idOtroRol = otroRol.getIdRol();
+        // Calentar la caché de permisos del rol
+        permisosService.obtenerPermisosDeRol(idRol);
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    /**
+     * La prueba que da de baja al usuario agrega "Inactivo" al catálogo en memoria; quitarlo.
+     */
+    @AfterTransaction
+    void recargarEstados() {
+        estadosService.precargarCache();
+    }
+
+    @Test
+    void autenticarEjecutaUnaSolaConsulta() {
+        LoginResponseDTO respuesta = loginService.autenticar("paciente", "secreta").orElseThrow();
+
+        assertThat(respuesta.getUserData().getIdUsuario()).isEqualTo(idUsuario);
+        assertThat(respuesta.getUserData().getCorreo()).isEqualTo("principal@medicit.sv");
+        assertThat(respuesta.getUserData().getNombreRol()).isEqualTo("Paciente");
+        assertThat(respuesta.getUserData().getPermisos()).containsKeys("modulo_citas", "modulo_inicio");
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void autenticarConContraseniaIncorrectaNoDevuelveUsuario() {
+        assertThat(loginService.autenticar("paciente", "otra")).isEmpty();
+        assertThat(loginService.autenticar("desconocido", "secreta")).isEmpty();
+    }
+
+    @Test
+    void obtenerUsuarioConsolidadoEjecutaUnaSolaConsulta() {
+        LoginResponseDTO respuesta = loginService.obtenerUsuarioConsolidado(idUsuario).orElseThrow();
+
+        assertThat(respuesta.getUserData().getNombreUsuario()).isEqualTo("paciente");
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void refrescarSesionVigenteSoloLeeLaVersionDeSesion() {
+        String token = loginService.autenticar("paciente", "secreta").orElseThrow().getToken();
+        estadisticas.clear();
+
+        LoginResponseDTO respuesta = loginService.refrescarSesion("Bearer " + token).orElseThrow();
+
+        assertThat(respuesta.getUserData()).isNull();
+        assertThat(respuesta.getToken()).isNotBlank();
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+        // El token renovado conserva el inicio de la sesión
+        assertThat(tokenSesionUtil.validar(respuesta.getToken()).orElseThrow().inicio())
+            .isEqualTo(tokenSesionUtil.validar(token).orElseThrow().inicio());
+    }
+
+    @Test
+    void cambiarElRolDeUnUsuarioSoloInvalidaSusTokens() {
+        String token = loginService.autenticar("paciente", "secreta").orElseThrow().getToken();
+        String tokenOtro = loginService.autenticar("otro", "secreta").orElseThrow().getToken();
+
+        Usuarios cambios = new Usuarios();
+        cambios.setRol(entityManager.getReference(Roles.class, idOtroRol));
+        usuariosService.actualizar(idUsuario, cambios);
+
+        LoginResponseDTO respuesta = loginService.refrescarSesion(token).orElseThrow();
+        assertThat(respuesta.getUserData().getIdUsuario()).isEqualTo(idUsuario);
+        assertThat(respuesta.getUserData().getNombreRol()).isEqualTo("Recepcionista");
+        assertThat(loginService.refrescarSesion(respuesta.getToken()).orElseThrow().getUserData()).isNull();
+        // Los tokens de los demás usuarios se siguen renovando sin volver a leerlos
+        assertThat(loginService.refrescarSesion(tokenOtro).orElseThrow().getUserData()).isNull();
+    }
+
+    @Test
+    void unUsuarioDadoDeBajaNoRenuevaNiIniciaSesion() {
+        String token = loginService.autenticar("paciente", "secreta").orElseThrow().getToken();
+        String tokenOtro = loginService.autenticar("otro", "secreta").orElseThrow().getToken();
+        estadosService.crear(new Estados(null, "Inactivo", "Inactivo", null, null));
+
+        usuariosService.eliminar(idUsuario);
+
+        assertThat(loginService.refrescarSesion(token)).isEmpty();
+        assertThat(loginService.autenticar("paciente", "secreta")).isEmpty();
+        assertThat(loginService.refrescarSesion(tokenOtro)).isPresent();
+    }
+
+    @Test
+    void asignarRolYEstadoAUnUsuarioSinEllosCambiaSuVersionDeSesion() {
+        // Fila con rol y estado en NULL (esquemas anteriores a la restricción): se simula en memoria,
+        // sin enviarla a la base de datos, sobre la misma entidad que actualizar() obtiene con findById
+        Usuarios guardado = entityManager.find(Usuarios.class, idUsuario);
+        Estados estado = guardado.getEstado();
+        guardado.setRol(null);
+        guardado.setEstado(null);
+
+        Usuarios cambios = new Usuarios();
+        cambios.setRol(entityManager.getReference(Roles.class, idOtroRol));
+        cambios.setEstado(estado);
+        Usuarios actualizado = usuariosService.actualizar(idUsuario, cambios);
+
+        assertThat(actualizado.getRol().getIdRol()).isEqualTo(idOtroRol);
+        assertThat(actualizado.getEstado().getIdEstado()).isEqualTo(estado.getIdEstado());
+        assertThat(actualizado.getVersionSesion()).isEqualTo(2);
+    }
+
+    @Test
+    void actualizarSinCambiarRolNiEstadoNoInvalidaLosTokens() {
+        String token = loginService.autenticar("paciente", "secreta").orElseThrow().getToken();
+
+        Usuarios cambios = new Usuarios();
+        cambios.setNombres("Ana María");
+        cambios.setRol(entityManager.getReference(Roles.class, idRol));
+        usuariosService.actualizar(idUsuario, cambios);
+
+        assertThat(loginService.refrescarSesion(token).orElseThrow().getUserData()).isNull();
+    }
+
+    @Test
+    void cambiarLosPermisosDelRolVuelveALeerElUsuario() {
+        String token = loginService.autenticar("paciente", "secreta").orElseThrow().getToken();
+        permisosService.guardar(new Permisos(null, entityManager.getReference(Roles.class, idRol),
+            "modulo_usuarios", true, false, false, false, false));
+
+        LoginResponseDTO respuesta = loginService.refrescarSesion(token).orElseThrow();
+
+        assertThat(respuesta.getUserData().getPermisos()).containsKey("modulo_usuarios");
+        assertThat(loginService.refrescarSesion(respuesta.getToken()).orElseThrow().getUserData()).isNull();
+    }
+
+    @Test
+    void refrescarSesionRechazaSesionesMasAntiguasQueLaDuracionMaxima() {
+        String token = loginService.autenticar("paciente", "secreta").orElseThrow().getToken();
+        Sesion sesion = tokenSesionUtil.validar(token).orElseThrow();
+        long haceOchoDias = Instant.now().minus(Duration.ofDays(8)).getEpochSecond();
+        String antiguo = tokenSesionUtil.emitir(sesion.idUsuario(), sesion.idRol(), sesion.versionSesion(),
+            sesion.huellaPermisos(), haceOchoDias);
+
+        assertThat(tokenSesionUtil.validar(antiguo)).isEmpty();
+        assertThat(loginService.refrescarSesion(antiguo)).isEmpty();
+    }
+
+    @Test
+    void refrescarSesionRechazaTokensAlterados() {
+        String token = loginService.autenticar("paciente", "secreta").orElseThrow().getToken();
+        String alterado = (token.charAt(0) == 'A' ? "B" : "A") + token.substring(1);
+
+        assertThat(loginService.refrescarSesion(alterado)).isEmpty();
+        assertThat(loginService.refrescarSesion("no-es-un-token")).isEmpty();
+        assertThat(loginService.refrescarSesion(null)).isEmpty();
+    }
+
+    /**
+     * Viajes a la base de datos para leer usuario, contraseña, correo, rol y permisos: la carga
+     * anterior contra la proyección con los permisos en caché. No mide BCrypt (igual en ambos casos).
+     */
+    @Test
+    void proyeccionReduceLosViajesALaBaseDeDatos() {
+        cargaAnterior();
+        long consultasAnterior = estadisticas.getPrepareStatementCount();
+        entityManager.clear();
+
+        estadisticas.clear();
+        usuariosRepository.obtenerCredencialesPorNombreUsuario("paciente").orElseThrow();
+        permisosService.obtenerPermisosDeRol(idRol);
+        long consultasProyeccion = estadisticas.getPrepareStatementCount();
+
+        assertThat(consultasProyeccion).isEqualTo(1);
+        assertThat(consultasAnterior).isGreaterThanOrEqualTo(4);
+    }
+
+    /**
+     * Carga previa del login: entidad Usuarios, colecciones de contraseñas y correos, rol y permisos del rol.
+     */
+    private void cargaAnterior() {
+        Usuarios usuario = usuariosRepository.findByNombreUsuario("paciente").orElseThrow();
+        usuario.getContrasenias().get(0).getContrasenia();
+        usuario.getCorreos().get(0).getCorreo();
+        usuario.getRol().getNombreRol();
+        permisosRepository.findByRolIdRol(usuario.getRol().getIdRol()).size();
+    }
+}
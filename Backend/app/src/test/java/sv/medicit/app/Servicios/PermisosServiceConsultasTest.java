@@ -0,0 +1,106 @@
+package sv.medicit.app.Servicios;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import sv.medicit.app.DTOs.LoginResponseDTO.PermisosDTO;
+import sv.medicit.app.Entidades.Permisos;
+import sv.medicit.app.Entidades.Roles;
+import sv.medicit.app.Utilidades.MatrizPermisos;
+import sv.medicit.app.Utilidades.MatrizPermisos.Accion;
+
+/**
+ * Verifica la matriz de permisos por rol y su caché: una sola consulta por rol mientras no haya
+ * escrituras, y que guardar o eliminar un permiso se refleje en la siguiente consulta.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class PermisosServiceConsultasTest {
+
+    @Autowired
+    private PermisosService permisosService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    private Roles rol;
+
+    @BeforeEach
+    void prepararDatos() {
+        rol = new Roles(null, "Medico", "Médico", null, null);
+        entityManager.persist(rol);
+        entityManager.persist(new Permisos(null, rol, "modulo_citas", true, true, false, false, false));
+        entityManager.persist(new Permisos(null, rol, "modulo_inicio", true, false, false, false, false));
+        entityManager.flush();
+        entityManager.clear();
+        permisosService.invalidarCache();
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    @Test
+    void laMatrizCombinaFilasRepetidasEIgnoraLasSinModulo() {
+        MatrizPermisos matriz = MatrizPermisos.desde(List.of(
+            new Permisos(null, rol, "modulo_citas", true, false, false, false, false),
+            new Permisos(null, rol, "modulo_citas", false, false, true, false, false),
+            new Permisos(null, rol, null, true, true, true, true, true),
+            new Permisos(null, rol, "modulo_antecedentes", false, false, false, false, true)));
+
+        assertThat(matriz.permite("modulo_citas", Accion.VER)).isTrue();
+        assertThat(matriz.permite("modulo_citas", Accion.EDITAR)).isTrue();
+        assertThat(matriz.permite("modulo_citas", Accion.ELIMINAR)).isFalse();
+        assertThat(matriz.permite("modulo_antecedentes", Accion.DESCARGAR)).isTrue();
+        assertThat(matriz.permite("modulo_inexistente", Accion.VER)).isFalse();
+        assertThat(matriz.permite(null, Accion.VER)).isFalse();
+
+        Map<String, PermisosDTO> mapa = matriz.aMapaDTO();
+        assertThat(mapa).containsOnlyKeys("modulo_antecedentes", "modulo_citas");
+        assertThat(mapa.get("modulo_citas"))
+            .isEqualTo(new PermisosDTO(true, false, true, false, false));
+    }
+
+    @Test
+    void laMatrizSeCargaUnaVezPorRol() {
+        permisosService.obtenerPermisosDeRol(rol.getIdRol());
+        long consultasPrimera = estadisticas.getPrepareStatementCount();
+        for (int i = 0; i < 10; i++) {
+            assertThat(permisosService.obtenerMatriz(rol.getIdRol()).permite("modulo_citas", Accion.CREAR)).isTrue();
+        }
+
+        assertThat(consultasPrimera).isEqualTo(1);
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(consultasPrimera);
+    }
+
+    @Test
+    void guardarYEliminarInvalidanLaCache() {
+        assertThat(permisosService.obtenerMatriz(rol.getIdRol()).permite("modulo_usuarios", Accion.VER)).isFalse();
+
+        Permisos nuevo = permisosService.guardar(
+            new Permisos(null, entityManager.find(Roles.class, rol.getIdRol()), "modulo_usuarios", true, false, false, false, false));
+        assertThat(permisosService.obtenerMatriz(rol.getIdRol()).permite("modulo_usuarios", Accion.VER)).isTrue();
+
+        permisosService.eliminar(nuevo.getIdPermiso());
+        entityManager.flush();
+        assertThat(permisosService.obtenerMatriz(rol.getIdRol()).permite("modulo_usuarios", Accion.VER)).isFalse();
+    }
+}
@@ -0,0 +1,156 @@
+package sv.medicit.app.Servicios;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Date;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import jakarta.persistence.EntityManagerFactory;
+import sv.medicit.app.DTOs.UsuarioCreacionDTO;
+import sv.medicit.app.Entidades.Estados;
+import sv.medicit.app.Entidades.Roles;
+import sv.medicit.app.Entidades.Usuarios;
+
+/**
+ * Verifica el alta completa de usuarios: todas las filas en una transacción (si una falla no queda
+ * ninguna), un lote de INSERT por tabla gracias a los IDs por bloques, y que las secuencias
+ * continúen después de los IDs existentes aunque la tabla Secuencias no los conozca.
+ * No es @Transactional: cada alta confirma o revierte su propia transacción, como en producción.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UsuariosCreacionConsultasTest {
+
+    private static final int PREGUNTAS = 3;
+
+    // Usuarios que crean estas pruebas (se eliminan al terminar cada una)
+    private static final String NOMBRES = "'primero', 'segundo', 'fallido', 'semilla'";
+
+    @Autowired
+    private UsuariosService usuariosService;
+
+    @Autowired
+    private RolesService rolesService;
+
+    @Autowired
+    private EstadosService estadosService;
+
+    @Autowired
+    private SecuenciasService secuenciasService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    private Integer idRol;
+
+    private Integer idEstado;
+
+    @BeforeEach
+    void prepararDatos() {
+        idRol = rolesService.crear(new Roles(null, "Paciente", "Paciente", null, null)).getIdRol();
+        idEstado = estadosService.crear(new Estados(null, "Activo", "Activo", null, null)).getIdEstado();
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void limpiar() {
+        String usuarios = "SELECT id_usuario FROM Usuarios WHERE nombre_usuario IN (" + NOMBRES + ")";
+        for (String tabla : List.of("Respuestas", "Correos", "Telefonos", "Contrasenias")) {
+            jdbcTemplate.update("DELETE FROM " + tabla + " WHERE usuario_id IN (" + usuarios + ")");
+        }
+        jdbcTemplate.update("DELETE FROM Preguntas WHERE creado_por IN (" + NOMBRES + ")");
+        jdbcTemplate.update("DELETE FROM Usuarios WHERE nombre_usuario IN (" + NOMBRES + ")");
+        jdbcTemplate.update("DELETE FROM Roles WHERE id_rol = ?", idRol);
+        jdbcTemplate.update("DELETE FROM Estados WHERE id_estado = ?", idEstado);
+        rolesService.precargarCache();
+        estadosService.precargarCache();
+    }
+
+    @Test
+    void elAltaCompletaUsaUnLotePorTabla() {
+        // La primera alta reserva los bloques de IDs; la segunda ya no consulta Secuencias
+        usuariosService.crearUsuarioCompleto(alta("primero", "respuesta"));
+        estadisticas.clear();
+
+        Usuarios creado = usuariosService.crearUsuarioCompleto(alta("segundo", "respuesta"));
+
+        assertThat(creado.getIdUsuario()).isNotNull();
+        // Usuario, contraseña, teléfono, correo y tres preguntas con sus respuestas
+        assertThat(estadisticas.getEntityInsertCount()).isEqualTo(4 + 2L * PREGUNTAS);
+        // Validación de unicidad + un INSERT por cada una de las seis tablas
+        assertThat(estadisticas.getPrepareStatementCount()).isLessThanOrEqualTo(1 + 6);
+        assertThat(contar("SELECT COUNT(*) FROM Respuestas r JOIN Usuarios u ON u.id_usuario = r.usuario_id " +
+            "WHERE u.nombre_usuario = 'segundo'")).isEqualTo(PREGUNTAS);
+    }
+
+    @Test
+    void unErrorRevierteTodasLasFilasDelAlta() {
+        // La respuesta supera los 255 caracteres de la columna: falla el último INSERT del alta
+        UsuarioCreacionDTO invalida = alta("fallido", "x".repeat(300));
+        long contraseniasAntes = contar("SELECT COUNT(*) FROM Contrasenias");
+        long telefonosAntes = contar("SELECT COUNT(*) FROM Telefonos");
+
+        assertThatThrownBy(() -> usuariosService.crearUsuarioCompleto(invalida)).isInstanceOf(RuntimeException.class);
+
+        assertThat(contar("SELECT COUNT(*) FROM Usuarios WHERE nombre_usuario = 'fallido'")).isZero();
+        assertThat(contar("SELECT COUNT(*) FROM Correos WHERE correo = 'fallido@medicit.sv'")).isZero();
+        assertThat(contar("SELECT COUNT(*) FROM Contrasenias")).isEqualTo(contraseniasAntes);
+        assertThat(contar("SELECT COUNT(*) FROM Telefonos")).isEqualTo(telefonosAntes);
+        assertThat(contar("SELECT COUNT(*) FROM Preguntas WHERE creado_por = 'fallido'")).isZero();
+    }
+
+    @Test
+    void lasSecuenciasContinuanDespuesDeLosIdsExistentes() {
+        // Usuario insertado por fuera de Hibernate (p. ej. DATA_SEEDS.sql) con un ID alto
+        long idExistente = 10_000;
+        jdbcTemplate.update("INSERT INTO Usuarios (id_usuario, nombre_usuario, nombres, apellidos, fecha_nacimiento, " +
+            "id_rol, id_estado) VALUES (?, 'semilla', 'Semilla', 'Semilla', CURRENT_DATE, ?, ?)", idExistente, idRol, idEstado);
+        jdbcTemplate.update("UPDATE Secuencias SET siguiente_valor = 1 WHERE nombre_secuencia = 'Usuarios'");
+
+        secuenciasService.ajustar();
+        secuenciasService.ajustar();
+
+        assertThat(contar("SELECT siguiente_valor FROM Secuencias WHERE nombre_secuencia = 'Usuarios'"))
+            .isEqualTo(idExistente + 1);
+        assertThat(contar("SELECT COUNT(*) FROM Secuencias WHERE nombre_secuencia = 'Usuarios'")).isEqualTo(1);
+    }
+
+    private UsuarioCreacionDTO alta(String nombreUsuario, String respuesta) {
+        UsuarioCreacionDTO dto = new UsuarioCreacionDTO();
+        dto.setNombreUsuario(nombreUsuario);
+        dto.setNombres("Nombre");
+        dto.setApellidos("Apellido");
+        dto.setFechaNacimiento(new Date());
+        dto.setIdRol(idRol);
+        dto.setIdEstado(idEstado);
+        dto.setContrasenia("password123");
+        dto.setTelefono("7000-0000");
+        dto.setCorreo(nombreUsuario + "@medicit.sv");
+        dto.setPreguntasRespuestas(List.of(
+            new UsuarioCreacionDTO.PreguntaRespuestaDTO("¿Mascota?", "Firulais"),
+            new UsuarioCreacionDTO.PreguntaRespuestaDTO("¿Ciudad?", "Santa Ana"),
+            new UsuarioCreacionDTO.PreguntaRespuestaDTO("¿Colegio?", respuesta)));
+        return dto;
+    }
+
+    private long contar(String consulta) {
+        Long total = jdbcTemplate.queryForObject(consulta, Long.class);
+        return total != null ? total : 0;
+    }
+}
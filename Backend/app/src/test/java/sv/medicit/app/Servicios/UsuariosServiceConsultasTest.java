@@ -0,0 +1,99 @@
+package sv.medicit.app.Servicios;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import sv.medicit.app.DTOs.UsuarioDTO;
+import sv.medicit.app.Entidades.Correos;
+import sv.medicit.app.Entidades.Especialidades;
+import sv.medicit.app.Entidades.Estados;
+import sv.medicit.app.Entidades.Roles;
+import sv.medicit.app.Entidades.Usuarios;
+
+/**
+ * Verifica que el listado de usuarios con correo se resuelva con una sola consulta SQL,
+ * sin importar la cantidad de usuarios, correos o especialidades.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class UsuariosServiceConsultasTest {
+
+    private static final int TOTAL_USUARIOS = 25;
+
+    @Autowired
+    private UsuariosService usuariosService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void prepararDatos() {
+        Roles rol = new Roles(null, "Medico", "Médico", null, null);
+        Estados estado = new Estados(null, "Activo", "Activo", null, null);
+        Especialidades cardiologia = new Especialidades(null, "Cardiología", "Corazón", null);
+        Especialidades pediatria = new Especialidades(null, "Pediatría", "Niños", null);
+        entityManager.persist(rol);
+        entityManager.persist(estado);
+        entityManager.persist(cardiologia);
+        entityManager.persist(pediatria);
+
+        for (int i = 0; i < TOTAL_USUARIOS; i++) {
+            Usuarios usuario = new Usuarios(null, "usuario" + i, "Nombre" + i, "Apellido" + i,
+                null, new Date(), rol, estado, new ArrayList<>(List.of(cardiologia, pediatria)), null, null);
+            entityManager.persist(usuario);
+            entityManager.persist(new Correos(null, usuario, "principal" + i + "@medicit.sv"));
+            entityManager.persist(new Correos(null, usuario, "secundario" + i + "@medicit.sv"));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    @Test
+    void obtenerTodosConCorreoEjecutaUnaSolaConsulta() {
+        List<UsuarioDTO> usuarios = usuariosService.obtenerTodosConCorreo();
+
+        assertThat(usuarios).hasSize(TOTAL_USUARIOS);
+        assertThat(usuarios).allSatisfy(u -> {
+            assertThat(u.getCorreo()).startsWith("principal");
+            assertThat(u.getRol()).isNotNull();
+            assertThat(u.getEstado()).isNotNull();
+            assertThat(u.getEspecialidades()).hasSize(2);
+        });
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void obtenerPorIdConCorreoEjecutaUnaSolaConsulta() {
+        Integer idUsuario = usuariosService.obtenerTodosConCorreo().get(0).getIdUsuario();
+        entityManager.clear();
+        estadisticas.clear();
+
+        UsuarioDTO usuario = usuariosService.obtenerPorIdConCorreo(idUsuario).orElseThrow();
+
+        assertThat(usuario.getCorreo()).isEqualTo("principal0@medicit.sv");
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,29 @@
+package sv.medicit.app.Utilidades;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifica el alcance de las negaciones del analizador: se unen a la siguiente palabra no vacía,
+ * pero no cruzan signos de puntuación ni saltos de línea (notas con formato "Campo: no.").
+ */
+class AnalizadorEspanolTest {
+
+    @Test
+    void laNegacionSeUneALaSiguientePalabra() {
+        assertThat(AnalizadorEspanol.analizar("Paciente sin alergias conocidas"))
+            .containsExactly("pacient", "no_alergi", "conocid");
+        assertThat(AnalizadorEspanol.analizar("No tiene diabetes")).containsExactly("no_diabet");
+    }
+
+    @Test
+    void laNegacionNoCruzaElFinDeUnaOracionOCampo() {
+        assertThat(AnalizadorEspanol.analizar("Alergias: no. Diabetes tipo 2"))
+            .containsExactly("alergi", "diabet", "tipo", "2");
+        assertThat(AnalizadorEspanol.analizar("Fuma: no\nHipertensión arterial"))
+            .containsExactly("fuma", "hipertension", "arterial");
+        assertThat(AnalizadorEspanol.analizar("Alcohol: niega; asma bronquial"))
+            .containsExactly("alcohol", "asma", "bronquial");
+    }
+}
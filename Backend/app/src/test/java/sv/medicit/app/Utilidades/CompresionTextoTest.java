@@ -0,0 +1,83 @@
+package sv.medicit.app.Utilidades;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifica el formato por bloques: lectura completa, lectura de tramos que solo pide los bytes de
+ * los bloques que los cubren y caracteres de dos char que no se parten entre bloques.
+ */
+class CompresionTextoTest {
+
+    private static final int BLOQUE = CompresionTexto.CARACTERES_POR_BLOQUE;
+
+    @Test
+    void losTextosLargosSeGuardanPorBloques() {
+        String texto = texto(10 * BLOQUE + 123);
+
+        byte[] datos = CompresionTexto.comprimir(texto);
+
+        assertThat(datos[0]).isEqualTo(CompresionTexto.BLOQUES);
+        assertThat(datos.length).isLessThan(texto.length() / 2);
+        assertThat(CompresionTexto.descomprimir(datos)).isEqualTo(texto);
+        assertThat(CompresionTexto.descomprimir(CompresionTexto.comprimir("corto"))).isEqualTo("corto");
+    }
+
+    @Test
+    void unTramoSoloLeeLosBloquesQueLoCubren() throws IOException {
+        String texto = texto(10 * BLOQUE + 123);
+        byte[] datos = CompresionTexto.comprimir(texto);
+        List<long[]> lecturas = new ArrayList<>();
+        CompresionTexto.LectorBytes lector = (posicion, largo) -> {
+            lecturas.add(new long[] {posicion, largo});
+            return Arrays.copyOfRange(datos, (int) posicion, (int) posicion + largo);
+        };
+        // Prefijo que solo alcanza para el formato y parte de la tabla
+        byte[] prefijo = Arrays.copyOf(datos, 20);
+
+        StringWriter tramo = new StringWriter();
+        CompresionTexto.escribirTramo(prefijo, lector, 3 * BLOQUE + 10, 5 * BLOQUE - 10, tramo);
+
+        assertThat(tramo.toString()).isEqualTo(texto.substring(3 * BLOQUE + 10, 5 * BLOQUE - 10));
+        // El resto de la tabla y una lectura con los bloques 3 y 4
+        assertThat(lecturas).hasSize(2);
+        assertThat(lecturas.get(1)[1]).isLessThan(datos.length / 4);
+
+        StringWriter completo = new StringWriter();
+        CompresionTexto.escribirTramo(datos, lector, 0, texto.length(), completo);
+        assertThat(completo.toString()).isEqualTo(texto);
+
+        StringWriter fuera = new StringWriter();
+        CompresionTexto.escribirTramo(datos, lector, texto.length(), texto.length() + 10, fuera);
+        assertThat(fuera.toString()).isEmpty();
+    }
+
+    @Test
+    void losCaracteresDeDosCharNoSePartenEntreBloques() throws IOException {
+        // El emoji ocupa las posiciones BLOQUE - 1 y BLOQUE
+        String texto = "a".repeat(BLOQUE - 1) + "🩺" + "b".repeat(BLOQUE);
+        byte[] datos = CompresionTexto.comprimir(texto);
+
+        StringWriter tramo = new StringWriter();
+        CompresionTexto.escribirTramo(datos, (posicion, largo) ->
+            Arrays.copyOfRange(datos, (int) posicion, (int) posicion + largo), BLOQUE - 2, BLOQUE + 2, tramo);
+
+        assertThat(tramo.toString()).isEqualTo("a🩺b");
+        assertThat(CompresionTexto.descomprimir(datos)).isEqualTo(texto);
+    }
+
+    private static String texto(int largo) {
+        StringBuilder texto = new StringBuilder(largo);
+        for (int i = 0; texto.length() < largo; i++) {
+            texto.append("Control ").append(i).append(": presión ").append(110 + i % 30).append(" mmHg. ");
+        }
+        return texto.substring(0, largo);
+    }
+}
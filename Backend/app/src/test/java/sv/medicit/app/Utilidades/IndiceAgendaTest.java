@@ -0,0 +1,62 @@
+package sv.medicit.app.Utilidades;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifica el índice de agenda: conflictos con la cita anterior y la siguiente, movimiento de citas
+ * y poda de las citas anteriores a un límite.
+ */
+class IndiceAgendaTest {
+
+    private static final LocalDateTime LUNES = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+    private final IndiceAgenda indice = new IndiceAgenda(Duration.ofMinutes(30));
+
+    @Test
+    void detectaCrucesParcialesYPermiteBloquesContiguos() {
+        indice.registrar(1, 10, LUNES);
+
+        assertThat(indice.buscarConflicto(10, LUNES.plusMinutes(15), null)).contains(1);
+        assertThat(indice.buscarConflicto(10, LUNES.minusMinutes(15), null)).contains(1);
+        assertThat(indice.buscarConflicto(10, LUNES.plusMinutes(30), null)).isEmpty();
+        assertThat(indice.buscarConflicto(20, LUNES, null)).isEmpty();
+        // La cita que se mueve no choca consigo misma
+        assertThat(indice.buscarConflicto(10, LUNES.plusMinutes(15), 1)).isEmpty();
+    }
+
+    @Test
+    void registrarDeNuevoMueveLaCita() {
+        indice.registrar(1, 10, LUNES);
+        indice.registrar(1, 20, LUNES.plusHours(2));
+
+        assertThat(indice.buscarConflicto(10, LUNES, null)).isEmpty();
+        assertThat(indice.buscarConflicto(20, LUNES.plusHours(2), null)).contains(1);
+        assertThat(indice.obtenerMedico(1)).isEqualTo(20);
+        assertThat(indice.tamanio()).isEqualTo(1);
+    }
+
+    @Test
+    void quitarAnterioresSoloQuitaLasCitasPasadas() {
+        LocalDateTime hoy = LUNES.toLocalDate().atStartOfDay();
+        indice.registrar(1, 10, LUNES.minusDays(1));
+        indice.registrar(2, 10, LUNES.minusDays(3));
+        indice.registrar(3, 10, LUNES);
+        indice.registrar(4, 20, LUNES.minusDays(2));
+
+        assertThat(indice.quitarAnteriores(hoy)).isEqualTo(3);
+
+        assertThat(indice.tamanio()).isEqualTo(1);
+        assertThat(indice.obtenerMedico(1)).isNull();
+        assertThat(indice.obtenerMedico(4)).isNull();
+        assertThat(indice.buscarConflicto(10, LUNES.minusDays(1), null)).isEmpty();
+        assertThat(indice.buscarConflicto(10, LUNES, null)).contains(3);
+        // Quitar de nuevo una cita ya podada no hace nada
+        indice.quitar(1);
+        assertThat(indice.tamanio()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,59 @@
+package sv.medicit.app.Utilidades;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifica el lector CSV: comillas, comillas escapadas, saltos de línea dentro de un campo,
+ * finales de línea Windows, marca BOM y registros vacíos.
+ */
+class LectorCsvTest {
+
+    @Test
+    void losCamposEntreComillasAdmitenSeparadoresComillasYSaltosDeLinea() throws IOException {
+        LectorCsv lector = new LectorCsv(new StringReader(
+            "nombre,nota\r\n" +
+            "\"Pérez, Ana\",\"Dijo \"\"hola\"\"\"\r\n" +
+            "Luis,\"primera línea\nsegunda línea\"\n"));
+
+        assertThat(lector.siguiente()).containsExactly("nombre", "nota");
+        assertThat(lector.siguiente()).containsExactly("Pérez, Ana", "Dijo \"hola\"");
+        assertThat(lector.siguiente()).containsExactly("Luis", "primera línea\nsegunda línea");
+        assertThat(lector.siguiente()).isNull();
+    }
+
+    @Test
+    void losCamposVaciosYElBomSeRespetan() throws IOException {
+        LectorCsv lector = new LectorCsv(new StringReader("\uFEFFa,,\"\"\n\nb"));
+
+        assertThat(lector.siguiente()).containsExactly("a", "", "");
+        List<String> vacio = lector.siguiente();
+        assertThat(LectorCsv.esVacio(vacio)).isTrue();
+        // El último registro no necesita salto de línea final
+        assertThat(lector.siguiente()).containsExactly("b");
+        assertThat(lector.siguiente()).isNull();
+    }
+
+    @Test
+    void otroSeparadorDejaLasComasDentroDelCampo() throws IOException {
+        LectorCsv lector = new LectorCsv(new StringReader("a;b,c;\"d;e\"\n"), ';');
+
+        assertThat(lector.siguiente()).containsExactly("a", "b,c", "d;e");
+    }
+
+    @Test
+    void unaComillaSinCerrarSeRechaza() throws IOException {
+        LectorCsv lector = new LectorCsv(new StringReader("a,b\nc,\"sin cerrar\nd"));
+
+        assertThat(lector.siguiente()).containsExactly("a", "b");
+        assertThatThrownBy(lector::siguiente)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("sin cerrar");
+    }
+}
@@ -11,25 +11,22 @@ import { useAuth } from "@/contexts/auth-context"
 import { useToast } from "@/hooks/use-toast"
 import { Plus, Eye, Pencil, Trash2, Stethoscope } from "lucide-react"
 import Link from "next/link"
-import type { Antecedente, Usuario } from "@/lib/types"
+import type { AntecedenteResumen } from "@/lib/types"
 
 export default function GestionMedicaPage() {
   const { canCreate, canEdit, canDelete } = useAuth()
   const { toast } = useToast()
 
-  const [antecedentes, setAntecedentes] = useState<Antecedente[]>([])
-  const [usuarios, setUsuarios] = useState<Usuario[]>([])
+  const [antecedentes, setAntecedentes] = useState<AntecedenteResumen[]>([])
   const [isLoading, setIsLoading] = useState(true)
   const [deleteDialog, setDeleteDialog] = useState<{
     open: boolean
-    antecedente: Antecedente | null
+    antecedente: AntecedenteResumen | null
   }>({ open: false, antecedente: null })
 
   const loadData = async () => {
     try {
-      const [antecedentesData, usuariosData] = await Promise.all([api.getAntecedentes(), api.getUsuarios()])
-      setAntecedentes(antecedentesData)
-      setUsuarios(usuariosData)
+      setAntecedentes(await api.getAntecedentes())
     } catch (error) {
       toast({
         variant: "destructive",
@@ -45,16 +42,6 @@ export default function GestionMedicaPage() {
     loadData()
   }, [])
 
-  const getPacienteNombre = (antecedente: Antecedente) => {
-    if (antecedente.usuario) {
-      return `${antecedente.usuario.nombres} ${antecedente.usuario.apellidos}`
-    }
-    const idPaciente = antecedente.idPaciente
-    if (!idPaciente) return "Desconocido"
-    const paciente = usuarios.find((u) => u.idUsuario === idPaciente)
-    return paciente ? `${paciente.nombres} ${paciente.apellidos}` : "Desconocido"
-  }
-
   const handleDelete = async () => {
     if (!deleteDialog.antecedente) return
 
@@ -81,15 +68,15 @@ export default function GestionMedicaPage() {
     {
       key: "paciente",
       header: "Paciente",
-      render: (ant: Antecedente) => getPacienteNombre(ant),
+      render: (ant: AntecedenteResumen) => ant.nombrePaciente || "Desconocido",
     },
-    { key: "antecedente", header: "Tipo", render: (ant: Antecedente) => ant.antecedente || "General" },
+    { key: "titulo", header: "Tipo", render: (ant: AntecedenteResumen) => ant.titulo || "General" },
     {
-      key: "descripcion",
+      key: "vistaPrevia",
       header: "Descripción",
-      render: (ant: Antecedente) => {
-        const desc = ant.descripcion || ""
-        return desc.length > 50 ? `${desc.substring(0, 50)}...` : desc
+      render: (ant: AntecedenteResumen) => {
+        const desc = ant.vistaPrevia || ""
+        return ant.largo > 50 ? `${desc.substring(0, 50)}...` : desc
       },
     },
   ]
@@ -133,7 +120,7 @@ export default function GestionMedicaPage() {
             isLoading={isLoading}
             searchPlaceholder="Buscar por tipo o descripción..."
             actions={(item: any) => {
-              const antecedente = item as Antecedente
+              const antecedente = item as AntecedenteResumen
               return (
                 <div className="flex items-center justify-end gap-2">
                   <Button variant="ghost" size="icon" asChild>
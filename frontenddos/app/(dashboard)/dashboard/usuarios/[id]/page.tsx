@@ -16,7 +16,7 @@ import { ConfirmDialog } from "@/components/ui/confirm-dialog"
 import { ArrowLeft, Pencil, User, Phone, Mail, Calendar, FileText, Plus, Trash2 } from "lucide-react"
 import Link from "next/link"
 import { formatDate, formatDateTime } from "@/lib/format"
-import type { Usuario, Telefono, Correo, Antecedente, Cita, Especialidad } from "@/lib/types"
+import type { Usuario, Telefono, Correo, AntecedenteResumen, Cita, Especialidad } from "@/lib/types"
 
 export default function UsuarioDetailPage() {
   const params = useParams()
@@ -28,7 +28,7 @@ export default function UsuarioDetailPage() {
   const [usuario, setUsuario] = useState<Usuario | null>(null)
   const [telefonos, setTelefonos] = useState<Telefono[]>([])
   const [correos, setCorreos] = useState<Correo[]>([])
-  const [antecedentes, setAntecedentes] = useState<Antecedente[]>([])
+  const [antecedentes, setAntecedentes] = useState<AntecedenteResumen[]>([])
   const [citas, setCitas] = useState<Cita[]>([])
   const [especialidades, setEspecialidades] = useState<Especialidad[]>([])
   const [isLoading, setIsLoading] = useState(true)
@@ -62,8 +62,7 @@ export default function UsuarioDetailPage() {
         const rolNombre = getNombreRol(usuarioData).toLowerCase()
         if (rolNombre === "paciente") {
           try {
-            const allAntecedentes = await api.getAntecedentes()
-            setAntecedentes(allAntecedentes.filter((a) => a.idPaciente === userId))
+            setAntecedentes(await api.getAntecedentes(userId))
           } catch (error) {
             console.error("Error loading antecedentes:", error)
             setAntecedentes([])
@@ -367,8 +366,8 @@ export default function UsuarioDetailPage() {
                           className="flex items-center justify-between p-3 rounded-lg border"
                         >
                           <div>
-                            <p className="font-medium">{ant.tipo || "General"}</p>
-                            <p className="text-sm text-muted-foreground">{ant.descripcion}</p>
+                            <p className="font-medium">{ant.titulo || "General"}</p>
+                            <p className="text-sm text-muted-foreground">{ant.vistaPrevia}</p>
                           </div>
                           {canDelete("modulo_medico") && (
                             <Button
@@ -50,6 +50,7 @@ export function AuthProvider({ children }: { children: ReactNode }) {
   }, [])
 
   const logout = useCallback(() => {
+    api.logout()
     setUser(null)
     localStorage.removeItem(STORAGE_KEY)
   }, [])
@@ -5,11 +5,14 @@ import type {
   Rol,
   Estado,
   Especialidad,
+  MedicoEspecialidad,
   Pregunta,
   Respuesta,
   Telefono,
   Correo,
   Antecedente,
+  AntecedenteCoincidencia,
+  AntecedenteResumen,
   Cita,
   Permiso,
   CrearUsuarioCompletoPayload,
@@ -17,10 +20,15 @@ import type {
   CrearCitaPayload,
   ActualizarCitaPayload,
   ApiError,
+  Pagina,
+  PaginaCursor,
+  ParametrosPagina,
 } from "./types"
 
 const BASE_URL = "http://localhost:80/api"
 const TOKEN_KEY = "medicit_token"
+// Tamaño máximo de página aceptado por el backend
+const TAMANIO_PAGINA = 100
 
 // Helper para obtener nombreRol desde estructura plana o anidada
 export function getNombreRol(usuario: Usuario): string {
@@ -95,20 +103,74 @@ class ApiService {
     return JSON.parse(text)
   }
 
+  // ==================== PAGINACIÓN ====================
+  async getPagina<T>(endpoint: string, params: ParametrosPagina = {}): Promise<Pagina<T>> {
+    const query = new URLSearchParams()
+    Object.entries(params).forEach(([clave, valor]) => {
+      if (valor === undefined) return
+      if (Array.isArray(valor)) {
+        valor.forEach((v) => query.append(clave, v))
+      } else {
+        query.append(clave, String(valor))
+      }
+    })
+    const qs = query.toString()
+    return this.request<Pagina<T>>(qs ? `${endpoint}?${qs}` : endpoint)
+  }
+
+  // Recorre un listado página por página, entregando cada una en cuanto llega
+  async *paginas<T>(endpoint: string, params: ParametrosPagina = {}): AsyncGenerator<T[]> {
+    let pagina = params.pagina ?? 0
+    while (true) {
+      const resultado = await this.getPagina<T>(endpoint, { tamanio: TAMANIO_PAGINA, ...params, pagina })
+      yield resultado.contenido
+      if (!resultado.haySiguiente) return
+      pagina++
+    }
+  }
+
+  private async getTodos<T>(endpoint: string, params: ParametrosPagina = {}): Promise<T[]> {
+    const todos: T[] = []
+    for await (const contenido of this.paginas<T>(endpoint, params)) {
+      todos.push(...contenido)
+    }
+    return todos
+  }
+
+  // Recorre un listado paginado por cursor (líneas de tiempo de citas)
+  private async getTodosPorCursor<T>(endpoint: string): Promise<T[]> {
+    const todos: T[] = []
+    let cursor: string | null = null
+    do {
+      const query = new URLSearchParams({ tamanio: String(TAMANIO_PAGINA) })
+      if (cursor) query.append("cursor", cursor)
+      const resultado: PaginaCursor<T> = await this.request<PaginaCursor<T>>(`${endpoint}?${query.toString()}`)
+      todos.push(...resultado.contenido)
+      cursor = resultado.haySiguiente ? resultado.siguienteCursor : null
+    } while (cursor)
+    return todos
+  }
+
   // ==================== AUTH ====================
   async login(payload: LoginPayload): Promise<UserData> {
     const response = await this.request<any>("/auth/login", {
       method: "POST",
       body: JSON.stringify(payload),
     })
+    // Token de sesión firmado: se envía en el header Authorization de las siguientes peticiones
+    if (response.token) localStorage.setItem(TOKEN_KEY, response.token)
     // Si viene envuelto en userData, extrae eso y convierte
     const userData = response.userData || response
     return convertKeysToCamel(userData) as UserData
   }
 
+  logout(): void {
+    localStorage.removeItem(TOKEN_KEY)
+  }
+
   // ==================== USUARIOS ====================
   async getUsuarios(): Promise<Usuario[]> {
-    return this.request<Usuario[]>("/usuarios")
+    return this.getTodos<Usuario>("/usuarios")
   }
 
   async getUsuario(id: number): Promise<Usuario> {
@@ -144,7 +206,7 @@ class ApiService {
 
   // ==================== ROLES ====================
   async getRoles(): Promise<Rol[]> {
-    return this.request<Rol[]>("/roles")
+    return this.getTodos<Rol>("/roles")
   }
 
   async getRol(id: number): Promise<Rol> {
@@ -173,7 +235,7 @@ class ApiService {
 
   // ==================== ESTADOS ====================
   async getEstados(): Promise<Estado[]> {
-    return this.request<Estado[]>("/estados")
+    return this.getTodos<Estado>("/estados")
   }
 
   async getEstado(id: number): Promise<Estado> {
@@ -202,13 +264,20 @@ class ApiService {
 
   // ==================== ESPECIALIDADES ====================
   async getEspecialidades(): Promise<Especialidad[]> {
-    return this.request<Especialidad[]>("/especialidades")
+    return this.getTodos<Especialidad>("/especialidades")
   }
 
   async getEspecialidad(id: number): Promise<Especialidad> {
     return this.request<Especialidad>(`/especialidades/${id}`)
   }
 
+  // Médicos activos de una especialidad; prefijo opcional sobre nombre o apellido
+  async getMedicosPorEspecialidad(idEspecialidad: number, prefijo?: string): Promise<MedicoEspecialidad[]> {
+    const query = new URLSearchParams()
+    if (prefijo) query.append("prefijo", prefijo)
+    return this.request<MedicoEspecialidad[]>(`/especialidades/${idEspecialidad}/medicos?${query.toString()}`)
+  }
+
   async crearEspecialidad(nombreEspecialidad: string): Promise<Especialidad> {
     return this.request<Especialidad>("/especialidades", {
       method: "POST",
@@ -231,7 +300,7 @@ class ApiService {
 
   // ==================== PREGUNTAS ====================
   async getPreguntas(): Promise<Pregunta[]> {
-    return this.request<Pregunta[]>("/preguntas")
+    return this.getTodos<Pregunta>("/preguntas")
   }
 
   async getPregunta(id: number): Promise<Pregunta> {
@@ -260,7 +329,7 @@ class ApiService {
 
   // ==================== RESPUESTAS ====================
   async getRespuestas(): Promise<Respuesta[]> {
-    return this.request<Respuesta[]>("/respuestas")
+    return this.getTodos<Respuesta>("/respuestas")
   }
 
   async getRespuesta(id: number): Promise<Respuesta> {
@@ -289,7 +358,7 @@ class ApiService {
 
   // ==================== TELÉFONOS ====================
   async getTelefonos(): Promise<Telefono[]> {
-    return this.request<Telefono[]>("/telefonos")
+    return this.getTodos<Telefono>("/telefonos")
   }
 
   async getTelefono(id: number): Promise<Telefono> {
@@ -318,7 +387,7 @@ class ApiService {
 
   // ==================== CORREOS ====================
   async getCorreos(): Promise<Correo[]> {
-    return this.request<Correo[]>("/correos")
+    return this.getTodos<Correo>("/correos")
   }
 
   async getCorreo(id: number): Promise<Correo> {
@@ -354,14 +423,20 @@ class ApiService {
   }
 
   // ==================== ANTECEDENTES ====================
-  async getAntecedentes(): Promise<Antecedente[]> {
-    return this.request<Antecedente[]>("/antecedentes")
+  // Resúmenes (título, largo y vista previa); idUsuario opcional filtra por paciente
+  async getAntecedentes(idUsuario?: number): Promise<AntecedenteResumen[]> {
+    return this.getTodos<AntecedenteResumen>("/antecedentes", { idUsuario })
   }
 
   async getAntecedente(id: number): Promise<Antecedente> {
     return this.request<Antecedente>(`/antecedentes/${id}`)
   }
 
+  // Búsqueda por texto, ordenada por relevancia; idUsuario opcional limita a un paciente
+  async buscarAntecedentes(q: string, params: { idUsuario?: number; pagina?: number; tamanio?: number } = {}): Promise<Pagina<AntecedenteCoincidencia>> {
+    return this.getPagina<AntecedenteCoincidencia>("/antecedentes/buscar", { q, ...params })
+  }
+
   async crearAntecedente(payload: { idPaciente: number; tipo?: string; descripcion: string }): Promise<Antecedente> {
     return this.request<Antecedente>("/antecedentes", {
       method: "POST",
@@ -391,7 +466,8 @@ class ApiService {
 
   // ==================== CITAS ====================
   async getCitas(): Promise<Cita[]> {
-    return this.request<Cita[]>("/citas")
+    // Listado completo en una sola respuesta (el backend lo escribe mientras lee las filas)
+    return this.request<Cita[]>("/citas/exportar")
   }
 
   async getCita(id: number): Promise<Cita> {
@@ -399,11 +475,11 @@ class ApiService {
   }
 
   async getCitasPorMedico(idMedico: number): Promise<Cita[]> {
-    return this.request<Cita[]>(`/citas/medico/${idMedico}`)
+    return this.getTodosPorCursor<Cita>(`/citas/medico/${idMedico}`)
   }
 
   async getCitasPorPaciente(idPaciente: number): Promise<Cita[]> {
-    return this.request<Cita[]>(`/citas/paciente/${idPaciente}`)
+    return this.getTodosPorCursor<Cita>(`/citas/paciente/${idPaciente}`)
   }
 
   async crearCita(payload: CrearCitaPayload): Promise<Cita> {
@@ -428,7 +504,7 @@ class ApiService {
 
   // ==================== PERMISOS ====================
   async getPermisos(): Promise<Permiso[]> {
-    const response = await this.request<any[]>("/permisos")
+    const response = await this.getTodos<any>("/permisos")
     // Procesar permisos para extraer idRol del objeto rol anidado
     return response.map((permiso: any) => ({
       idPermiso: permiso.idPermiso || permiso.id_permiso,
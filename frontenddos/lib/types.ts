@@ -72,6 +72,14 @@ export interface Especialidad {
   nombreEspecialidad: string
 }
 
+// Resultado de GET /especialidades/{id}/medicos
+export interface MedicoEspecialidad {
+  idUsuario: number
+  nombres: string
+  apellidos: string
+  estado: string
+}
+
 export interface Pregunta {
   idPregunta: number
   pregunta: string
@@ -113,6 +121,25 @@ export interface Antecedente {
   paciente?: Usuario
 }
 
+// Elemento de GET /antecedentes y /antecedentes/usuario/{id} (sin el texto completo)
+export interface AntecedenteResumen {
+  idAntecedente: number
+  idUsuario: number
+  nombrePaciente: string
+  titulo: string
+  largo: number
+  vistaPrevia: string | null
+}
+
+// Resultado de GET /antecedentes/buscar
+export interface AntecedenteCoincidencia {
+  idAntecedente: number
+  idUsuario: number
+  nombrePaciente: string
+  fragmento: string
+  puntaje: number
+}
+
 export interface Cita {
   idCita: number
   fechaHora: string
@@ -191,6 +218,28 @@ export interface ActualizarCitaPayload {
 }
 
 // ==================== RESPUESTAS API ====================
+export interface Pagina<T> {
+  contenido: T[]
+  pagina: number
+  tamanio: number
+  haySiguiente: boolean
+}
+
+export interface PaginaCursor<T> {
+  contenido: T[]
+  siguienteCursor: string | null
+  haySiguiente: boolean
+}
+
+export interface ParametrosPagina {
+  pagina?: number
+  tamanio?: number
+  // "campo" o "campo:asc" / "campo:desc"
+  orden?: string[]
+  // Filtros permitidos por cada endpoint (idUsuario, idRol, idEstado, ...)
+  [filtro: string]: string | number | string[] | undefined
+}
+
 export interface ApiError {
   message: string
   errors?: Record<string, string[]>